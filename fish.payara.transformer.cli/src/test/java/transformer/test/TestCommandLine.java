@@ -14,16 +14,36 @@ package transformer.test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import org.eclipse.transformer.Transformer;
 import org.eclipse.transformer.Transformer.TransformOptions;
+import org.eclipse.transformer.action.ContainerChanges;
 import org.eclipse.transformer.action.impl.JavaActionImpl;
 import org.eclipse.transformer.action.impl.ManifestActionImpl;
 import org.eclipse.transformer.jakarta.JakartaTransformer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class TestCommandLine {
 
@@ -62,6 +82,463 @@ class TestCommandLine {
 		options.setLogging(Logger.getLogger(TestCommandLine.class.getName()));
 	}
 
+	@Test
+	void testParallelDirectory(@TempDir Path tempDir) throws Exception {
+		Path inputDir = tempDir.resolve("input");
+		for (int dirNo = 0; dirNo < 4; dirNo++) {
+			Path childDir = Files.createDirectories(inputDir.resolve("dir" + dirNo + "/META-INF"));
+			Files.copy(Paths.get(DATA_DIR + "A.java"), childDir.getParent()
+				.resolve("A.java"));
+			Files.copy(Paths.get(DATA_DIR + "MANIFEST.MF"), childDir.resolve("MANIFEST.MF"));
+		}
+
+		Path sequentialDir = tempDir.resolve("sequential");
+		ContainerChanges sequentialChanges = transform(inputDir, sequentialDir);
+
+		Path parallelDir = tempDir.resolve("parallel");
+		ContainerChanges parallelChanges = transform(inputDir, parallelDir, "-j", "4");
+
+		assertEquals(8, sequentialChanges.getAllResources());
+		assertEquals(sequentialChanges.getAllResources(), parallelChanges.getAllResources());
+		assertEquals(sequentialChanges.getAllSelected(), parallelChanges.getAllSelected());
+		assertEquals(sequentialChanges.getAllChanged(), parallelChanges.getAllChanged());
+		assertEquals(sequentialChanges.getAllUnchanged(), parallelChanges.getAllUnchanged());
+		for (String actionName : sequentialChanges.getActionNames()) {
+			assertEquals(sequentialChanges.getChanged(actionName), parallelChanges.getChanged(actionName));
+			assertEquals(sequentialChanges.getUnchanged(actionName), parallelChanges.getUnchanged(actionName));
+		}
+
+		for (int dirNo = 0; dirNo < 4; dirNo++) {
+			String javaPath = "dir" + dirNo + "/A.java";
+			String manifestPath = "dir" + dirNo + "/META-INF/MANIFEST.MF";
+			assertEquals(new String(Files.readAllBytes(sequentialDir.resolve(javaPath))),
+				new String(Files.readAllBytes(parallelDir.resolve(javaPath))));
+			assertEquals(new String(Files.readAllBytes(sequentialDir.resolve(manifestPath))),
+				new String(Files.readAllBytes(parallelDir.resolve(manifestPath))));
+		}
+	}
+
+	@Test
+	void testParallelArchive(@TempDir Path tempDir) throws Exception {
+		List<Path> dataFiles;
+		Path dataDir = Paths.get("target/test-classes/transformer/test/data");
+		try (Stream<Path> dataPaths = Files.walk(dataDir)) {
+			dataFiles = dataPaths.filter(Files::isRegularFile)
+				.sorted()
+				.collect(Collectors.toList());
+		}
+
+		ByteArrayOutputStream nestedBytes = new ByteArrayOutputStream();
+		try (ZipOutputStream nestedStream = new ZipOutputStream(nestedBytes)) {
+			addEntries(nestedStream, dataDir, dataFiles);
+		}
+
+		Path inputWar = tempDir.resolve("input.war");
+		try (ZipOutputStream warStream = new ZipOutputStream(Files.newOutputStream(inputWar))) {
+			addEntry(warStream, "META-INF/MANIFEST.MF", Files.readAllBytes(Paths.get(DATA_DIR + "MANIFEST.MF")));
+			addEntry(warStream, "WEB-INF/classes/a/b/c/A.java", Files.readAllBytes(Paths.get(DATA_DIR + "A.java")));
+			addEntries(warStream, dataDir.getParent()
+				.getParent()
+				.getParent(), dataFiles);
+			addEntry(warStream, "WEB-INF/lib/nested.jar", nestedBytes.toByteArray());
+		}
+
+		Path sequentialWar = tempDir.resolve("sequential.war");
+		ContainerChanges sequentialChanges = transform(inputWar, sequentialWar);
+
+		Path parallelWar = tempDir.resolve("parallel.war");
+		ContainerChanges parallelChanges = transform(inputWar, parallelWar, "-j", "4");
+
+		assertEquals(dataFiles.size() + 3, sequentialChanges.getAllResources());
+		assertEquals(sequentialChanges.getAllResources(), parallelChanges.getAllResources());
+		assertEquals(sequentialChanges.getAllChanged(), parallelChanges.getAllChanged());
+		assertEquals(sequentialChanges.getNestedChanges()
+			.getAllChanged(),
+			parallelChanges.getNestedChanges()
+				.getAllChanged());
+
+		try (InputStream sequentialStream = Files.newInputStream(sequentialWar);
+			InputStream parallelStream = Files.newInputStream(parallelWar)) {
+			assertEquals(readEntries(sequentialStream), readEntries(parallelStream));
+		}
+	}
+
+	@Test
+	void testParallelTransformTwice(@TempDir Path tempDir) throws Exception {
+		List<Path> dataFiles;
+		Path dataDir = Paths.get("target/test-classes/transformer/test/data");
+		try (Stream<Path> dataPaths = Files.walk(dataDir)) {
+			dataFiles = dataPaths.filter(Files::isRegularFile)
+				.sorted()
+				.collect(Collectors.toList());
+		}
+
+		Path inputWar = tempDir.resolve("input.war");
+		try (ZipOutputStream warStream = new ZipOutputStream(Files.newOutputStream(inputWar))) {
+			addEntry(warStream, "META-INF/MANIFEST.MF", Files.readAllBytes(Paths.get(DATA_DIR + "MANIFEST.MF")));
+			addEntries(warStream, dataDir.getParent()
+				.getParent()
+				.getParent(), dataFiles);
+		}
+
+		Path outputWar = tempDir.resolve("output.war");
+
+		Transformer t = new Transformer(System.out, System.err);
+		t.setOptionDefaults(JakartaTransformer.class, JakartaTransformer.getOptionDefaults());
+		t.setArgs(new String[] {
+			inputWar.toString(), outputWar.toString(), "-o", "-j", "4"
+		});
+		t.setParsedArgs();
+
+		TransformOptions options = t.createTransformOptions();
+		options.setLogging(Logger.getLogger(TestCommandLine.class.getName()));
+		assertTrue(options.setInput(), "options.setInput() failed");
+		assertTrue(options.setOutput(), "options.setOutput() failed");
+		assertTrue(options.setParallelism(), "options.setParallelism() failed");
+		assertTrue(options.setRules(), "options.setRules() failed");
+		assertTrue(options.acceptAction(), "options.acceptAction() failed");
+
+		// Each transform has its own scheduler: The options may be reused.
+		Map<String, String> firstEntries;
+		options.transform();
+		try (InputStream outputStream = Files.newInputStream(outputWar)) {
+			firstEntries = readEntries(outputStream);
+		}
+		int firstResources = ((ContainerChanges) options.appliedChanges).getAllResources();
+
+		options.transform();
+		try (InputStream outputStream = Files.newInputStream(outputWar)) {
+			assertEquals(firstEntries, readEntries(outputStream));
+		}
+		assertEquals(dataFiles.size() + 1, firstResources);
+		assertEquals(firstResources, ((ContainerChanges) options.appliedChanges).getAllResources());
+	}
+
+	@Test
+	void testParallelEar(@TempDir Path tempDir) throws Exception {
+		List<Path> dataFiles;
+		Path dataDir = Paths.get("target/test-classes/transformer/test/data");
+		try (Stream<Path> dataPaths = Files.walk(dataDir)) {
+			dataFiles = dataPaths.filter(Files::isRegularFile)
+				.sorted()
+				.collect(Collectors.toList());
+		}
+
+		ByteArrayOutputStream jarBytes = new ByteArrayOutputStream();
+		try (ZipOutputStream jarStream = new ZipOutputStream(jarBytes)) {
+			addEntries(jarStream, dataDir, dataFiles);
+		}
+
+		// Nested archives of differing sizes, so that these are not
+		// transformed in their original order.
+		ByteArrayOutputStream smallWarBytes = new ByteArrayOutputStream();
+		try (ZipOutputStream warStream = new ZipOutputStream(smallWarBytes)) {
+			addEntry(warStream, "WEB-INF/classes/a/b/c/A.java", Files.readAllBytes(Paths.get(DATA_DIR + "A.java")));
+		}
+		ByteArrayOutputStream largeWarBytes = new ByteArrayOutputStream();
+		try (ZipOutputStream warStream = new ZipOutputStream(largeWarBytes)) {
+			addEntry(warStream, "META-INF/MANIFEST.MF", Files.readAllBytes(Paths.get(DATA_DIR + "MANIFEST.MF")));
+			addEntry(warStream, "WEB-INF/lib/first.jar", jarBytes.toByteArray());
+			addEntry(warStream, "WEB-INF/lib/second.jar", jarBytes.toByteArray());
+		}
+
+		Path inputEar = tempDir.resolve("input.ear");
+		try (ZipOutputStream earStream = new ZipOutputStream(Files.newOutputStream(inputEar))) {
+			addEntry(earStream, "META-INF/MANIFEST.MF", Files.readAllBytes(Paths.get(DATA_DIR + "MANIFEST.MF")));
+			addEntry(earStream, "small.war", smallWarBytes.toByteArray());
+			addEntry(earStream, "lib/shared.jar", jarBytes.toByteArray());
+			addEntry(earStream, "large.war", largeWarBytes.toByteArray());
+		}
+
+		Path sequentialEar = tempDir.resolve("sequential.ear");
+		ContainerChanges sequentialChanges = transform(inputEar, sequentialEar);
+
+		Path parallelEar = tempDir.resolve("parallel.ear");
+		ContainerChanges parallelChanges = transform(inputEar, parallelEar, "-j", "4");
+
+		assertEquals(4, sequentialChanges.getAllResources());
+		assertEquals(sequentialChanges.getAllResources(), parallelChanges.getAllResources());
+		assertEquals(sequentialChanges.getAllChanged(), parallelChanges.getAllChanged());
+		assertEquals(sequentialChanges.getNestedChanges()
+			.getAllResources(),
+			parallelChanges.getNestedChanges()
+				.getAllResources());
+		assertEquals(sequentialChanges.getNestedChanges()
+			.getAllChanged(),
+			parallelChanges.getNestedChanges()
+				.getAllChanged());
+
+		try (InputStream sequentialStream = Files.newInputStream(sequentialEar);
+			InputStream parallelStream = Files.newInputStream(parallelEar)) {
+			assertEquals(readEntries(sequentialStream), readEntries(parallelStream));
+		}
+	}
+
+	@Test
+	void testRawCopy(@TempDir Path tempDir) throws Exception {
+		List<Path> dataFiles;
+		Path dataDir = Paths.get("target/test-classes/transformer/test/data");
+		try (Stream<Path> dataPaths = Files.walk(dataDir)) {
+			dataFiles = dataPaths.filter(Files::isRegularFile)
+				.sorted()
+				.collect(Collectors.toList());
+		}
+
+		ByteArrayOutputStream nestedBytes = new ByteArrayOutputStream();
+		try (ZipOutputStream nestedStream = new ZipOutputStream(nestedBytes)) {
+			addEntries(nestedStream, dataDir, dataFiles);
+		}
+
+		byte[] imageBytes = new byte[64 * 1024];
+		new Random(17).nextBytes(imageBytes);
+
+		Path inputWar = tempDir.resolve("input.war");
+		try (ZipOutputStream warStream = new ZipOutputStream(Files.newOutputStream(inputWar))) {
+			addEntry(warStream, "META-INF/MANIFEST.MF", Files.readAllBytes(Paths.get(DATA_DIR + "MANIFEST.MF")));
+			addEntry(warStream, "WEB-INF/classes/a/b/c/A.java", Files.readAllBytes(Paths.get(DATA_DIR + "A.java")));
+			addEntries(warStream, dataDir.getParent()
+				.getParent()
+				.getParent(), dataFiles);
+			addEntry(warStream, "images/image.bin", imageBytes);
+			addEntry(warStream, "WEB-INF/lib/nested.jar", nestedBytes.toByteArray());
+		}
+
+		Path streamWar = tempDir.resolve("stream.war");
+		ContainerChanges streamChanges = transform(inputWar, streamWar);
+
+		Path rawWar = tempDir.resolve("raw.war");
+		ContainerChanges rawChanges = transform(inputWar, rawWar, "-rc");
+
+		Path parallelWar = tempDir.resolve("parallel.war");
+		ContainerChanges parallelChanges = transform(inputWar, parallelWar, "-rc", "-j", "4");
+
+		for (ContainerChanges changes : new ContainerChanges[] {
+			rawChanges, parallelChanges
+		}) {
+			assertEquals(streamChanges.getAllResources(), changes.getAllResources());
+			assertEquals(streamChanges.getAllChanged(), changes.getAllChanged());
+			assertEquals(streamChanges.getNestedChanges()
+				.getAllChanged(),
+				changes.getNestedChanges()
+					.getAllChanged());
+		}
+
+		try (InputStream streamStream = Files.newInputStream(streamWar);
+			InputStream rawStream = Files.newInputStream(rawWar);
+			InputStream parallelStream = Files.newInputStream(parallelWar)) {
+			Map<String, String> streamEntries = readEntries(streamStream);
+			assertEquals(streamEntries, readEntries(rawStream));
+			assertEquals(streamEntries, readEntries(parallelStream));
+		}
+
+		// Unchanged entries are copied exactly; changed entries are not.
+
+		for (Path outputWar : new Path[] {
+			rawWar, parallelWar
+		}) {
+			try (ZipFile inputZip = new ZipFile(inputWar.toFile()); ZipFile rawZip = new ZipFile(outputWar.toFile())) {
+				assertEquals(inputZip.size(), rawZip.size());
+
+				ZipEntry inputImage = inputZip.getEntry("images/image.bin");
+				ZipEntry rawImage = rawZip.getEntry("images/image.bin");
+				assertEquals(inputImage.getCompressedSize(), rawImage.getCompressedSize());
+				assertEquals(inputImage.getCrc(), rawImage.getCrc());
+				assertEquals(inputImage.getTime(), rawImage.getTime());
+
+				ZipEntry inputJava = inputZip.getEntry("WEB-INF/classes/a/b/c/A.java");
+				ZipEntry rawJava = rawZip.getEntry("WEB-INF/classes/a/b/c/A.java");
+				assertTrue(inputJava.getCrc() != rawJava.getCrc(), "changed entry was copied");
+			}
+		}
+	}
+
+	@Test
+	void testRulesSnapshot(@TempDir Path tempDir) throws Exception {
+		Path inputWar = tempDir.resolve("input.war");
+		try (ZipOutputStream warStream = new ZipOutputStream(Files.newOutputStream(inputWar))) {
+			addEntry(warStream, "META-INF/MANIFEST.MF", Files.readAllBytes(Paths.get(DATA_DIR + "MANIFEST.MF")));
+			addEntry(warStream, "WEB-INF/classes/a/b/c/A.java", Files.readAllBytes(Paths.get(DATA_DIR + "A.java")));
+		}
+
+		Path propertiesWar = tempDir.resolve("properties.war");
+		transform(inputWar, propertiesWar);
+
+		// The first use of a snapshot writes it; the second use loads it.
+		Path snapshot = tempDir.resolve("rules.snapshot");
+		Path writtenWar = tempDir.resolve("written.war");
+		transform(inputWar, writtenWar, "-rs", snapshot.toString());
+		assertTrue(Files.isRegularFile(snapshot), "snapshot not written");
+		long snapshotSize = Files.size(snapshot);
+
+		Path loadedWar = tempDir.resolve("loaded.war");
+		transform(inputWar, loadedWar, "-rs", snapshot.toString());
+
+		// A snapshot which cannot be read is written again.
+		Files.write(snapshot, new byte[] {
+			1, 2, 3
+		});
+		Path rewrittenWar = tempDir.resolve("rewritten.war");
+		transform(inputWar, rewrittenWar, "-rs", snapshot.toString());
+		assertEquals(snapshotSize, Files.size(snapshot));
+
+		try (InputStream propertiesStream = Files.newInputStream(propertiesWar)) {
+			Map<String, String> propertiesEntries = readEntries(propertiesStream);
+			for (Path outputWar : new Path[] {
+				writtenWar, loadedWar, rewrittenWar
+			}) {
+				try (InputStream outputStream = Files.newInputStream(outputWar)) {
+					assertEquals(propertiesEntries, readEntries(outputStream));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testRulesSnapshotOfEditedRules(@TempDir Path tempDir) throws Exception {
+		Path inputWar = tempDir.resolve("input.war");
+		try (ZipOutputStream warStream = new ZipOutputStream(Files.newOutputStream(inputWar))) {
+			addEntry(warStream, "WEB-INF/classes/a/b/c/A.java", Files.readAllBytes(Paths.get(DATA_DIR + "A.java")));
+			addEntry(warStream, "notes.txt", "javax.text.Notes".getBytes("UTF-8"));
+		}
+
+		Path rulesDir = Files.createDirectories(tempDir.resolve("rules"));
+		Path renames = writeRules(rulesDir.resolve("renames.properties"), "javax.servlet=jakarta.servlet");
+		Path versions = writeRules(rulesDir.resolve("versions.properties"), "");
+		Path textMaster = writeRules(rulesDir.resolve("text-master.properties"), "*.txt=text.properties");
+		Path text = writeRules(rulesDir.resolve("text.properties"), "javax.text=jakarta.text");
+
+		Path snapshot = tempDir.resolve("rules.snapshot");
+		String[] ruleArgs = {
+			"-rs", snapshot.toString(), "-tr", renames.toString(), "-tv", versions.toString(), "-tf",
+			textMaster.toString()
+		};
+
+		Path writtenWar = tempDir.resolve("written.war");
+		transform(inputWar, writtenWar, ruleArgs);
+		assertTrue(Files.isRegularFile(snapshot), "snapshot not written");
+		assertEntry(writtenWar, "WEB-INF/classes/a/b/c/A.java", "jakarta.servlet.A");
+		assertEntry(writtenWar, "notes.txt", "jakarta.text.Notes");
+
+		// A snapshot of rules which were edited is not used, including when
+		// only substitution properties were edited.
+		writeRules(renames, "javax.servlet=other.servlet");
+		Path renamedWar = tempDir.resolve("renamed.war");
+		transform(inputWar, renamedWar, ruleArgs);
+		assertEntry(renamedWar, "WEB-INF/classes/a/b/c/A.java", "other.servlet.A");
+
+		writeRules(text, "javax.text=other.text");
+		Path textWar = tempDir.resolve("text.war");
+		transform(inputWar, textWar, ruleArgs);
+		assertEntry(textWar, "notes.txt", "other.text.Notes");
+
+		// A snapshot of unchanged rules is used, and is not written again.
+		long snapshotTime = snapshot.toFile()
+			.lastModified() - 10_000L;
+		assertTrue(snapshot.toFile()
+			.setLastModified(snapshotTime), "snapshot time not set");
+		Path loadedWar = tempDir.resolve("loaded.war");
+		transform(inputWar, loadedWar, ruleArgs);
+		assertEquals(snapshotTime, snapshot.toFile()
+			.lastModified());
+		assertEntry(loadedWar, "WEB-INF/classes/a/b/c/A.java", "other.servlet.A");
+		assertEntry(loadedWar, "notes.txt", "other.text.Notes");
+
+		// A snapshot of rules which were touched, but not edited, is written
+		// again with the new stamps of the rules, which are then current.
+		assertTrue(text.toFile()
+			.setLastModified(text.toFile()
+				.lastModified() - 10_000L),
+			"rules time not set");
+		Path touchedWar = tempDir.resolve("touched.war");
+		transform(inputWar, touchedWar, ruleArgs);
+		assertTrue(snapshot.toFile()
+			.lastModified() != snapshotTime, "snapshot not written again");
+		assertEntry(touchedWar, "notes.txt", "other.text.Notes");
+
+		assertTrue(snapshot.toFile()
+			.setLastModified(snapshotTime), "snapshot time not set");
+		Path stampedWar = tempDir.resolve("stamped.war");
+		transform(inputWar, stampedWar, ruleArgs);
+		assertEquals(snapshotTime, snapshot.toFile()
+			.lastModified());
+		assertEntry(stampedWar, "notes.txt", "other.text.Notes");
+	}
+
+	private Path writeRules(Path rulesFile, String rules) throws IOException {
+		return Files.write(rulesFile, rules.getBytes("UTF-8"));
+	}
+
+	private void assertEntry(Path war, String entryName, String expected) throws IOException {
+		try (ZipFile zipFile = new ZipFile(war.toFile()); InputStream entryStream = zipFile
+			.getInputStream(zipFile.getEntry(entryName))) {
+			ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+			transfer(entryStream, entryBytes);
+			String entryText = new String(entryBytes.toByteArray(), "UTF-8");
+			assertTrue(entryText.contains(expected), entryName + " does not contain " + expected);
+		}
+	}
+
+	private void addEntries(ZipOutputStream zipStream, Path baseDir, List<Path> files) throws IOException {
+		for (Path file : files) {
+			String entryName = baseDir.relativize(file)
+				.toString()
+				.replace(File.separatorChar, '/');
+			addEntry(zipStream, entryName, Files.readAllBytes(file));
+		}
+	}
+
+	private void addEntry(ZipOutputStream zipStream, String entryName, byte[] entryBytes) throws IOException {
+		zipStream.putNextEntry(new ZipEntry(entryName));
+		zipStream.write(entryBytes);
+		zipStream.closeEntry();
+	}
+
+	/**
+	 * Read the entries of an archive, in order. Nested archives are read
+	 * recursively, since their bytes include entry times.
+	 */
+	private Map<String, String> readEntries(InputStream inputStream) throws IOException {
+		Map<String, String> entries = new TreeMap<>();
+		ZipInputStream zipStream = new ZipInputStream(inputStream);
+		ZipEntry entry;
+		int entryNo = 0;
+		while ((entry = zipStream.getNextEntry()) != null) {
+			ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+			transfer(zipStream, entryBytes);
+			String entryValue;
+			String entryName = entry.getName();
+			if (entryName.endsWith(".jar") || entryName.endsWith(".war")) {
+				entryValue = readEntries(new ByteArrayInputStream(entryBytes.toByteArray())).toString();
+			} else {
+				entryValue = new String(entryBytes.toByteArray(), "ISO-8859-1");
+			}
+			entries.put(String.format("%04d %s", entryNo++, entry.getName()), entryValue);
+		}
+		return entries;
+	}
+
+	private void transfer(InputStream inputStream, OutputStream outputStream) throws IOException {
+		byte[] buffer = new byte[4096];
+		int bytesRead;
+		while ((bytesRead = inputStream.read(buffer)) != -1) {
+			outputStream.write(buffer, 0, bytesRead);
+		}
+	}
+
+	private ContainerChanges transform(Path input, Path output, String... extraArgs) {
+		Transformer t = new Transformer(System.out, System.err);
+		t.setOptionDefaults(JakartaTransformer.class, JakartaTransformer.getOptionDefaults());
+
+		String[] args = new String[2 + extraArgs.length];
+		args[0] = input.toString();
+		args[1] = output.toString();
+		System.arraycopy(extraArgs, 0, args, 2, extraArgs.length);
+		t.setArgs(args);
+
+		assertEquals(Transformer.SUCCESS_RC, t.run(), "transform failed");
+		return (ContainerChanges) t.getLastActiveChanges();
+	}
+
 	private void verifyAction(String actionClassName, String inputFileName, String outputFileName) throws Exception {
 
 		Transformer t = new Transformer(System.out, System.err);
@@ -0,0 +1,302 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package transformer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.eclipse.transformer.TransformProperties;
+import org.eclipse.transformer.action.impl.PackageMatcher;
+import org.eclipse.transformer.action.impl.SignatureRuleImpl;
+import org.eclipse.transformer.jakarta.JakartaTransformer;
+import org.eclipse.transformer.util.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the package rename and the text update file name matching with the
+ * loops which they replace, using the shipped rules.
+ */
+public class TestRulesMatching {
+
+	private static final Logger LOGGER = Logger.getLogger(TestRulesMatching.class.getName());
+
+	private static Map<String, String> loadRules(String path) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream input = TestUtils.getResourceStream(TestLoad.putIntoTransformer(path))) {
+			properties.load(input);
+		}
+		Map<String, String> rules = new HashMap<>();
+		for (String name : properties.stringPropertyNames()) {
+			rules.put(name, properties.getProperty(name));
+		}
+		return rules;
+	}
+
+	// Package renames ...
+
+	/**
+	 * The package rename loop of SignatureRuleImpl, JavaActionImpl, and, with
+	 * a tail update, of ManifestActionImpl.
+	 */
+	private static String loopReplacePackages(String text, Map<String, String> packageRenames,
+		BiFunction<String, String, String> tailUpdate) {
+		String initialText = text;
+
+		for (Map.Entry<String, String> renameEntry : packageRenames.entrySet()) {
+			String key = renameEntry.getKey();
+			int keyLen = key.length();
+
+			boolean matchSubpackages = SignatureRuleImpl.containsWildcard(key);
+			if (matchSubpackages) {
+				key = SignatureRuleImpl.stripWildcard(key);
+			}
+
+			int textLimit = text.length() - keyLen;
+
+			int lastMatchEnd = 0;
+			while (lastMatchEnd <= textLimit) {
+				int matchStart = text.indexOf(key, lastMatchEnd);
+				if (matchStart == -1) {
+					break;
+				}
+
+				// A wildcard key, less its suffix, at the end of the text is
+				// not a match: The loop failed to remove the suffix.
+				if (((matchStart + keyLen) > text.length())
+					|| !SignatureRuleImpl.isTruePackageMatch(text, matchStart, keyLen, matchSubpackages)) {
+					lastMatchEnd = matchStart + keyLen;
+					continue;
+				}
+
+				String value = renameEntry.getValue();
+				int valueLen = value.length();
+
+				String head = text.substring(0, matchStart);
+				String tail = text.substring(matchStart + keyLen);
+
+				int tailLenBeforeUpdate = tail.length();
+				if (tailUpdate != null) {
+					tail = tailUpdate.apply(value, tail);
+				}
+				int tailLenAfterUpdate = tail.length();
+
+				text = head + value + tail;
+
+				lastMatchEnd = matchStart + valueLen;
+				textLimit += (valueLen - keyLen);
+				textLimit += (tailLenAfterUpdate - tailLenBeforeUpdate);
+			}
+		}
+
+		return ((initialText == text) ? null : text);
+	}
+
+	private static String result(Supplier<String> replacement) {
+		try {
+			return replacement.get();
+		} catch (RuntimeException e) {
+			return "Failed: " + e.getClass()
+				.getName();
+		}
+	}
+
+	private static List<String> createTexts(Map<String, String> packageRenames) {
+		List<String> texts = new ArrayList<>();
+		StringBuilder allKeys = new StringBuilder();
+		String priorKey = "java.lang";
+		for (String key : packageRenames.keySet()) {
+			String packageName = SignatureRuleImpl.containsWildcard(key) ? SignatureRuleImpl.stripWildcard(key) : key;
+			String value = packageRenames.get(key);
+			texts.add(packageName);
+			texts.add(packageName + ".Type");
+			texts.add(packageName + ".sub.Type");
+			texts.add(packageName + ".1");
+			texts.add(packageName + "/Type");
+			texts.add(packageName + "x");
+			texts.add("x" + packageName);
+			texts.add("a." + packageName + ".Type");
+			texts.add("import " + packageName + ".Type;");
+			texts.add(packageName + ";version=\"[1,2)\"," + priorKey + ";version=\"[1,2)\"");
+			texts.add(packageName + "." + priorKey + ".Type");
+			texts.add(value + ".Type " + packageName + ".Type");
+			texts.add(packageName + ".*");
+			allKeys.append(packageName)
+				.append(".Type,");
+			priorKey = packageName;
+		}
+		texts.add(allKeys.toString());
+		texts.add("");
+		texts.add("No packages here.");
+		return texts;
+	}
+
+	private static void assertSameReplacements(Map<String, String> packageRenames, String description) {
+		PackageMatcher matcher = new PackageMatcher(packageRenames);
+		BiFunction<String, String, String> tailUpdate = (value, tail) -> (tail.startsWith(";version=\"[1,2)\"")
+			? ";version=\"[5,6)\"" + tail.substring(16)
+			: tail);
+
+		for (String text : createTexts(packageRenames)) {
+			assertThat(result(() -> matcher.replace(text))).as("%s [ %s ]", description, text)
+				.isEqualTo(result(() -> loopReplacePackages(text, packageRenames, null)));
+			assertThat(result(() -> matcher.replace(text, tailUpdate))).as("%s with versions [ %s ]", description,
+				text)
+				.isEqualTo(result(() -> loopReplacePackages(text, packageRenames, tailUpdate)));
+		}
+	}
+
+	private static Map<String, String> slashed(Map<String, String> packageRenames) {
+		Map<String, String> slashedRenames = new LinkedHashMap<>();
+		packageRenames.forEach((key, value) -> slashedRenames.put(key.replace('.', '/'), value.replace('.', '/')));
+		return slashedRenames;
+	}
+
+	private static Map<String, String> renames(String... renames) {
+		Map<String, String> packageRenames = new LinkedHashMap<>();
+		for (int renameNo = 0; renameNo < renames.length; renameNo += 2) {
+			packageRenames.put(renames[renameNo], renames[renameNo + 1]);
+		}
+		return packageRenames;
+	}
+
+	@Test
+	public void package_renames_match_the_loop() throws IOException {
+		Map<String, String> shippedRenames = loadRules(JakartaTransformer.DEFAULT_RENAMES_REFERENCE);
+		assertThat(shippedRenames).isNotEmpty();
+
+		// The renames are used in the order of the map of the signature rule.
+		SignatureRuleImpl signatureRule = new SignatureRuleImpl(LOGGER, shippedRenames, null, null, null, null,
+			Collections.emptyMap());
+		Map<String, String> packageRenames = signatureRule.getPackageRenames();
+
+		assertSameReplacements(packageRenames, "shipped");
+		assertSameReplacements(slashed(packageRenames), "shipped slashed");
+		assertSameReplacements(TransformProperties.invert(packageRenames), "shipped inverted");
+
+		// Overlapping keys, replacements which are matched by later keys,
+		// and wildcard keys.
+
+		assertSameReplacements(renames("a.b", "x.y", "a.b.c", "p.q"), "overlapping");
+		assertSameReplacements(renames("a.b.c", "p.q", "a.b", "x.y"), "overlapping reversed");
+		assertSameReplacements(renames("a.b", "c.d", "c.d", "e.f"), "chained");
+		assertSameReplacements(renames("c.d", "e.f", "a.b", "c.d"), "chained reversed");
+		assertSameReplacements(renames("a.b.*", "x.y", "a.b", "p.q"), "wildcard");
+		assertSameReplacements(renames("a.b", "", "b.c", "b"), "short values");
+		assertSameReplacements(renames("a.b", "x.", "b.c", "b.c"), "separator values");
+	}
+
+	// Text update file names ...
+
+	/** The file name selection loop of SignatureRuleImpl. */
+	private static Map<String, String> loopGetTextSubstitutions(String inputFileName,
+		Map<String, Map<String, String>> specificTextUpdates, Map<Pattern, Map<String, String>> wildCardTextUpdates) {
+		String simpleFileName = FileUtils.getFileNameFromFullyQualifiedFileName(inputFileName);
+
+		Map<String, String> specificUpdates = specificTextUpdates.get(simpleFileName);
+		if (specificUpdates != null) {
+			return specificUpdates;
+		}
+
+		for (Map.Entry<Pattern, Map<String, String>> wildcardEntry : wildCardTextUpdates.entrySet()) {
+			if (wildcardEntry.getKey()
+				.matcher(simpleFileName)
+				.matches()) {
+				return wildcardEntry.getValue();
+			}
+		}
+
+		for (Map.Entry<Pattern, Map<String, String>> wildcardEntry : wildCardTextUpdates.entrySet()) {
+			if (wildcardEntry.getKey()
+				.matcher(inputFileName)
+				.matches()) {
+				return wildcardEntry.getValue();
+			}
+		}
+
+		return null;
+	}
+
+	@Test
+	public void text_file_names_match_the_loop() throws IOException {
+		Map<String, String> masterText = loadRules(JakartaTransformer.DEFAULT_MASTER_TEXT_REFERENCE);
+		assertThat(masterText).isNotEmpty();
+
+		// Each file name selects distinct substitutions, which tell which
+		// file name was matched.
+
+		Map<String, Map<String, String>> masterTextUpdates = new HashMap<>();
+		for (String fileName : masterText.keySet()) {
+			masterTextUpdates.put(fileName, Collections.singletonMap(fileName, fileName));
+		}
+
+		Map<String, Map<String, String>> specificTextUpdates = new HashMap<>();
+		Map<Pattern, Map<String, String>> wildCardTextUpdates = new LinkedHashMap<>();
+		for (Map.Entry<String, Map<String, String>> entry : masterTextUpdates.entrySet()) {
+			String matchesFileName = entry.getKey();
+			if ((matchesFileName.indexOf('?') != -1) || (matchesFileName.indexOf('*') != -1)) {
+				matchesFileName = matchesFileName.replace("?", ".?")
+					.replace("*", ".*?");
+				wildCardTextUpdates.put(Pattern.compile(matchesFileName), entry.getValue());
+			} else {
+				specificTextUpdates.put(matchesFileName, entry.getValue());
+			}
+		}
+
+		SignatureRuleImpl signatureRule = new SignatureRuleImpl(LOGGER, null, null, null, masterTextUpdates, null,
+			Collections.emptyMap());
+
+		List<String> names = new ArrayList<>();
+		for (String fileName : masterText.keySet()) {
+			String name = fileName.replace("*", "x")
+				.replace("?", "y");
+			names.add(name);
+			names.add("WEB-INF/" + name);
+			names.add("a/b/" + name);
+			names.add("x" + name);
+			names.add(name + "x");
+			names.add(name.replace('.', '_'));
+			names.add(name.replace('.', '/'));
+		}
+		names.add("META-INF/batch-jobs/job.xml");
+		names.add("batch-jobs/job.xml");
+		names.add("a/batch-jobs/b/job.xml");
+		names.add("a/batch-jobs/job.taglib.xml");
+		names.add("META-INF/faces-config.xml");
+		names.add("META-INF/my.faces-config.xml");
+		names.add("org/example/Main.class");
+		names.add("index.html");
+		names.add("a.tld/b");
+		names.add("tld");
+		names.add("");
+
+		for (int pass = 0; pass < 2; pass++) {
+			// The second pass uses remembered results.
+			for (String name : names) {
+				assertThat(signatureRule.getTextSubstitutions(name)).as("file name [ %s ]", name)
+					.isEqualTo(loopGetTextSubstitutions(name, specificTextUpdates, wildCardTextUpdates));
+			}
+		}
+	}
+}
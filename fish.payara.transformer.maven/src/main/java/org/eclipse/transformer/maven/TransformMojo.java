@@ -66,6 +66,15 @@ public class TransformMojo extends AbstractMojo {
 	@Parameter(defaultValue = "true", property = "transformer-plugin.overwrite", required = true)
 	private Boolean				overwrite;
 
+	/**
+	 * Transform only the files of a directory which changed since the previous
+	 * transform to the same target directory. Used only when the target
+	 * directory is kept: A target directory which replaces its source
+	 * directory is transformed in full.
+	 */
+	@Parameter(defaultValue = "false", property = "transformer-plugin.incremental", required = true)
+	private Boolean				incremental;
+
 	@Parameter(defaultValue = "true", property = "transformer-plugin.mainSource", required = true)
 	private Boolean				mainSource;
 
@@ -212,6 +221,9 @@ public class TransformMojo extends AbstractMojo {
 			if (this.invert) {
 				args.add("-i");
 			}
+			if (isIncremental()) {
+				args.add("-in");
+			}
 		} else {
 			args.add(sourcePath);
 			args.add(targetPath);
@@ -221,6 +233,9 @@ public class TransformMojo extends AbstractMojo {
 			if (this.invert) {
 				args.add("-i");
 			}
+			if (isIncremental()) {
+				args.add("-in");
+			}
 
 		}
 		return args;
@@ -253,6 +268,18 @@ public class TransformMojo extends AbstractMojo {
 			throw new MojoFailureException("Transformer failed with an error: " + Transformer.RC_DESCRIPTIONS[rc]);
 		}
 	}
+	/**
+	 * Tell if directories are transformed incrementally. A journal of the
+	 * previous transform is useful only if the target is kept, which is not
+	 * the case when the target replaces the source.
+	 *
+	 * @return True if the incremental option is to be used.
+	 */
+	private boolean isIncremental() {
+		return (this.incremental != null) && this.incremental
+			&& (!TARGET_AS_ORIGIN.equals(classifier) || isSourceAndTargetAvailable());
+	}
+
 	private boolean isSourceAndTargetAvailable() {
 		Properties properties = System.getProperties();
 		String selectedSource = properties.getProperty(SELECTED_SOURCE);
@@ -343,6 +370,10 @@ public class TransformMojo extends AbstractMojo {
 		this.invert = invert;
 	}
 
+	public void setIncremental(Boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	void setOutputDirectory(File outputDirectory) {
 		this.outputDirectory = outputDirectory;
 	}
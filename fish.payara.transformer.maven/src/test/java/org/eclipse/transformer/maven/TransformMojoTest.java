@@ -71,6 +71,7 @@ public class TransformMojoTest extends AbstractMojoTestCase {
 		File fileResourceTransformed = getTestFile("src/test/resources/HelloResourceTransformed.java");
 		File fileOutOutName = getTestFile("src/test/resources/output_HelloResource.java");
 		Path deleteDirectory = Paths.get(getTestFile("src/test/resources/transformedFiles").getAbsolutePath());
+		Files.deleteIfExists(Paths.get(deleteDirectory + ".journal"));
 
 		if (fileResourceTransformed.exists() && fileResourceTransformed.isFile()) {
 			fileResourceTransformed.delete();
@@ -260,6 +261,40 @@ public class TransformMojoTest extends AbstractMojoTestCase {
 		mojo.execute();
 	}
 
+	@Test
+	public void testIncrementalSelectedSourceDirectory() throws Exception {
+		TransformMojo mojo = new TransformMojo();
+		File pom = getTestFile("src/test/projects/transform-build-artifact/pom.xml");
+
+		assertNotNull(pom);
+		assertTrue(pom.exists());
+
+		MavenProject mavenProject = createMavenProject(pom, "pom", "simple-service");
+		Build build = createBuild();
+		mavenProject.setBuild(build);
+		MavenProjectHelper mavenProjectHelper = new ProjectHelper();
+		mojo.setProjectHelper(mavenProjectHelper);
+		mojo.setProject(mavenProject);
+		mojo.setClassifier("transformed");
+		System.setProperty("selectedSource", getTestFile("src/test/resources/sourceFiles").getAbsolutePath());
+		System.setProperty("selectedTarget", getTestFile("src/test/resources/transformedFiles").getAbsolutePath());
+		mojo.setMainSource(false);
+		mojo.setTestSource(true);
+		mojo.setInvert(false);
+		mojo.setOverwrite(true);
+		mojo.setIncremental(true);
+		mojo.execute();
+
+		// The second transform keeps the output of the first transform.
+		File transformedFile = getTestFile("src/test/resources/transformedFiles/HelloResource.java");
+		long transformedTime = transformedFile.lastModified();
+		mojo.execute();
+
+		assertTrue(getTestFile("src/test/resources/transformedFiles.journal").isFile());
+		assertTrue(new String(Files.readAllBytes(transformedFile.toPath())).contains("jakarta.inject"));
+		assertEquals(transformedTime, transformedFile.lastModified());
+	}
+
 	@Test
 	public void testSelectecSourceDirectoryToSameDirectory() throws Exception {
 		TransformMojo mojo = new TransformMojo();
@@ -0,0 +1,390 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+package org.eclipse.transformer.payara;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.transformer.util.Fingerprint;
+
+/**
+ * Cache of whole transformed applications, keyed by the digest of the input
+ * application and by the rules fingerprint.
+ * <p>
+ * A deployment of an application which is byte identical to an earlier
+ * deployment is answered with a copy of the earlier output. The input may be
+ * an archive file or an exploded directory. Results are copied in and out of
+ * the cache, since deployments move and delete their outputs.
+ * <p>
+ * The cache is bounded by the total disk size of its results, and evicts the
+ * least recently used results. The rules fingerprint is a part of the key of
+ * each result: Results of earlier rules are no longer used, and are evicted
+ * as other results are stored. Several rules, for example those of a javax to
+ * jakarta and of a jakarta to javax transformation, share the cache.
+ * <p>
+ * A result which cannot be restored, for example because its files were
+ * removed, is discarded.
+ * <p>
+ * The cache of the server is configured by system properties: Setting
+ * {@link #CACHE_DIR_PROPERTY} enables the cache, and
+ * {@link #CACHE_SIZE_PROPERTY} sets its bound. A cache directory must not be
+ * shared by several servers.
+ */
+public class ArchiveResultCache {
+
+    /** System property which sets the cache directory. */
+    public static final String CACHE_DIR_PROPERTY = "fish.payara.transformer.cache.dir";
+
+    /** System property which sets the bound in bytes on the cache size. */
+    public static final String CACHE_SIZE_PROPERTY = "fish.payara.transformer.cache.size";
+
+    /** Default bound on the total size of cached results. */
+    public static final long DEFAULT_MAX_SIZE = 2L * 1024 * 1024 * 1024;
+
+    private static final String RESULT_PREFIX = "result-";
+    private static final String TEMP_PREFIX = "tmp-";
+
+    private static ArchiveResultCache configuredCache;
+    private static boolean isConfigured;
+
+    /**
+     * Answer the cache which is configured by system properties. The cache
+     * is created by the first call.
+     *
+     * @param logger The logger of the cache.
+     * @return The configured cache. Null if no cache is configured, or if the
+     *         configured cache could not be created.
+     */
+    public static synchronized ArchiveResultCache getConfiguredCache(Logger logger) {
+        if (!isConfigured) {
+            isConfigured = true;
+
+            String cacheDirName = System.getProperty(CACHE_DIR_PROPERTY);
+            if (cacheDirName != null) {
+                long maxSize = Long.getLong(CACHE_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+                try {
+                    configuredCache = new ArchiveResultCache(logger, new File(cacheDirName), maxSize);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Transform cache directory cannot be used [ " + cacheDirName + " ]", e);
+                }
+            }
+        }
+        return configuredCache;
+    }
+
+    public ArchiveResultCache(Logger logger, File cacheDir, long maxSize) throws IOException {
+        this.logger = logger;
+        this.cacheDir = cacheDir;
+        this.maxSize = maxSize;
+
+        Files.createDirectories(cacheDir.toPath());
+
+        this.lock = new ReentrantReadWriteLock();
+        this.results = new LinkedHashMap<>(16, 0.75f, true);
+        this.totalSize = 0L;
+
+        load();
+    }
+
+    private final Logger logger;
+
+    private final File cacheDir;
+
+    private final long maxSize;
+
+    /** Restores hold the read lock. Changes to results hold the write lock. */
+    private final ReadWriteLock lock;
+
+    /** Sizes of the cached results, by key, least recently used first. */
+    private final Map<String, Long> results;
+
+    private long totalSize;
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    //
+
+    private void load() throws IOException {
+        List<File> resultDirs = new ArrayList<>();
+        File[] cacheFiles = cacheDir.listFiles();
+        if (cacheFiles != null) {
+            for (File cacheFile : cacheFiles) {
+                String fileName = cacheFile.getName();
+                if (fileName.startsWith(TEMP_PREFIX)) {
+                    delete(cacheFile); // Left over by a failed store.
+                } else if (fileName.startsWith(RESULT_PREFIX)) {
+                    resultDirs.add(cacheFile);
+                }
+            }
+        }
+
+        resultDirs.sort(Comparator.comparingLong(File::lastModified));
+        for (File resultDir : resultDirs) {
+            long resultSize = size(resultDir.toPath());
+            results.put(resultDir.getName().substring(RESULT_PREFIX.length()), resultSize);
+            totalSize += resultSize;
+        }
+
+        logger.log(Level.FINE, "Transform cache [ {0} ] holds [ {1} ] results of [ {2} ] bytes",
+                new Object[]{cacheDir, results.size(), totalSize});
+    }
+
+    //
+
+    /**
+     * Answer the key of the result of transforming an input.
+     *
+     * @param input The input archive file or directory.
+     * @param useRulesFingerprint The fingerprint of the transformation rules.
+     * @return The key of the result.
+     * @throws IOException Thrown if the input could not be read.
+     */
+    public String getKey(File input, String useRulesFingerprint) throws IOException {
+        Fingerprint fingerprint = new Fingerprint().add(useRulesFingerprint);
+
+        Path inputPath = input.toPath();
+        if (input.isDirectory()) {
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(inputPath)) {
+                paths = walk.filter(Files::isRegularFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            fingerprint.add(true).add(paths.size());
+            for (Path path : paths) {
+                fingerprint.add(inputPath.relativize(path).toString().replace(File.separatorChar, '/'));
+                fingerprint.add(path.toFile());
+            }
+        } else {
+            fingerprint.add(false).add(input);
+        }
+
+        return fingerprint.finish();
+    }
+
+    /**
+     * Copy a cached result to an output.
+     *
+     * @param key The key of the result.
+     * @param output The output file, or the output directory. An output
+     *        directory must be empty.
+     * @return True if the result was cached, and was copied to the output.
+     */
+    public boolean restore(String key, File output) {
+        lock.readLock().lock();
+        try {
+            synchronized (results) {
+                if (results.get(key) == null) {
+                    return false;
+                }
+            }
+
+            File resultFile = getResultFile(key);
+            try {
+                copy(resultFile.toPath(), output.toPath());
+                resultFile.setLastModified(System.currentTimeMillis());
+                logger.log(Level.FINE, "Restored cached transform [ {0} ] to [ {1} ]", new Object[]{key, output});
+                return true;
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to restore cached transform [ " + key + " ]", e);
+                clear(output);
+            }
+
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        discard(key);
+        return false;
+    }
+
+    /**
+     * Store a copy of an output as a cached result. Results which are larger
+     * than the bound of the cache are not stored. Least recently used results
+     * are evicted until the results fit the bound of the cache.
+     *
+     * @param key The key of the result.
+     * @param output The output file or directory.
+     */
+    public void store(String key, File output) {
+        long resultSize;
+        try {
+            resultSize = size(output.toPath());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to measure transform output [ " + output + " ]", e);
+            return;
+        }
+        if (resultSize > maxSize) {
+            logger.log(Level.FINE, "Transform output [ {0} ] of [ {1} ] bytes is too large to be cached",
+                    new Object[]{output, resultSize});
+            return;
+        }
+
+        File tempFile = new File(cacheDir, TEMP_PREFIX + key);
+        try {
+            delete(tempFile);
+            copy(output.toPath(), tempFile.toPath());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to cache transform output [ " + output + " ]", e);
+            delete(tempFile);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            File resultFile = getResultFile(key);
+            if (results.containsKey(key)) {
+                delete(tempFile); // Stored by a concurrent deployment.
+                return;
+            }
+
+            try {
+                try {
+                    Files.move(tempFile.toPath(), resultFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile.toPath(), resultFile.toPath());
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to cache transform output [ " + output + " ]", e);
+                delete(tempFile);
+                return;
+            }
+
+            results.put(key, resultSize);
+            totalSize += resultSize;
+
+            evict();
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.log(Level.FINE, "Cached transform [ {0} ] of [ {1} ] bytes", new Object[]{key, resultSize});
+    }
+
+    /** Evict least recently used results. The write lock must be held. */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> resultEntries = results.entrySet().iterator();
+        while ((totalSize > maxSize) && resultEntries.hasNext()) {
+            Map.Entry<String, Long> resultEntry = resultEntries.next();
+            delete(getResultFile(resultEntry.getKey()));
+            totalSize -= resultEntry.getValue();
+            resultEntries.remove();
+
+            logger.log(Level.FINE, "Evicted cached transform [ {0} ]", resultEntry.getKey());
+        }
+    }
+
+    /** Discard a result which could not be restored. */
+    private void discard(String key) {
+        lock.writeLock().lock();
+        try {
+            Long resultSize = results.remove(key);
+            if (resultSize != null) {
+                delete(getResultFile(key));
+                totalSize -= resultSize;
+                logger.log(Level.FINE, "Discarded cached transform [ {0} ]", key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //
+
+    private File getResultFile(String key) {
+        return new File(cacheDir, RESULT_PREFIX + key);
+    }
+
+    private static long size(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Files.size(path);
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            long size = 0L;
+            for (Path filePath : (Iterable<Path>) walk::iterator) {
+                if (Files.isRegularFile(filePath)) {
+                    size += Files.size(filePath);
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Copy a file, or copy the files of a directory into a directory, which
+     * is created if it does not exist.
+     */
+    private static void copy(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+
+        List<Path> sourcePaths;
+        try (Stream<Path> walk = Files.walk(source)) {
+            sourcePaths = walk.collect(Collectors.toList());
+        }
+        for (Path sourcePath : sourcePaths) {
+            Path targetPath = target.resolve(source.relativize(sourcePath).toString());
+            if (Files.isDirectory(sourcePath)) {
+                Files.createDirectories(targetPath);
+            } else {
+                Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /** Remove the contents of an output, leaving an empty output. */
+    private void clear(File output) {
+        File[] outputFiles = output.listFiles();
+        if (outputFiles != null) {
+            for (File outputFile : outputFiles) {
+                delete(outputFile);
+            }
+        }
+    }
+
+    private void delete(File file) {
+        if (!file.exists()) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(file.toPath())) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Failed to delete [ {0} ]: {1}", new Object[]{file, e});
+        }
+    }
+}
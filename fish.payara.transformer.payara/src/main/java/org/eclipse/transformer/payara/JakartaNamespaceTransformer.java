@@ -14,12 +14,13 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.cli.ParseException;
 import org.eclipse.transformer.TransformException;
 import org.eclipse.transformer.Transformer;
+import org.eclipse.transformer.action.impl.SelectionRuleImpl;
+import org.eclipse.transformer.action.impl.SignatureRuleImpl;
 import static org.eclipse.transformer.Transformer.FILE_TYPE_ERROR_RC;
 import static org.eclipse.transformer.Transformer.LOGGER_SETTINGS_ERROR_RC;
 import static org.eclipse.transformer.Transformer.PARSE_ERROR_RC;
@@ -35,6 +36,15 @@ import org.eclipse.transformer.jakarta.JakartaTransformer;
  */
 public class JakartaNamespaceTransformer extends Transformer {
 
+    /**
+     * System property which names a compiled snapshot of the rules. The
+     * snapshot is loaded instead of the rules properties, and is written from
+     * the rules properties when it does not exist.
+     */
+    public static final String RULES_SNAPSHOT_PROPERTY = "fish.payara.transformer.rules.snapshot";
+
+    private final TransformerEngine engine;
+
     private final PayaraTransformOptions options;
 
     private final File output;
@@ -43,8 +53,27 @@ public class JakartaNamespaceTransformer extends Transformer {
 
     private final Logger logger;
 
+    private ArchiveResultCache resultCache;
+
     public JakartaNamespaceTransformer(Logger logger, File input, boolean invert) throws IOException {
+        this(TransformerEngine.getInstance(), logger, input, invert);
+    }
+
+    /**
+     * Create a transformer of a single deployment. The parsed arguments and
+     * the compiled rules are taken from the engine, which shares these, and
+     * the caches of the rules, between deployments.
+     *
+     * @param engine The engine of the transformation.
+     * @param logger The logger of the deployment.
+     * @param input The application which is to be transformed.
+     * @param invert Whether to transform from jakarta to javax.
+     * @throws IOException Thrown if the output could not be created.
+     */
+    public JakartaNamespaceTransformer(TransformerEngine engine, Logger logger, File input, boolean invert)
+            throws IOException {
         super(System.out, System.err);
+        this.engine = engine;
         String prefix = invert ? "JAVAX-" : "JAKARTA-";
         if (input.isDirectory()) {
             output = Files.createTempDirectory(input.getParentFile().toPath(), prefix + input.getName()).toFile();
@@ -54,18 +83,28 @@ public class JakartaNamespaceTransformer extends Transformer {
         options = new PayaraTransformOptions(input, output, invert);
         this.logger = logger;
         this.invert = invert;
+        this.resultCache = ArchiveResultCache.getConfiguredCache(logger);
+    }
+
+    public ArchiveResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Set the cache of transformed applications. By default, the cache which
+     * is configured by system properties is used.
+     *
+     * @param resultCache The cache of transformed applications. Null to not
+     *        use a cache.
+     */
+    public void setResultCache(ArchiveResultCache resultCache) {
+        this.resultCache = resultCache;
     }
 
     @Override
     public int run() {
         try {
-            List<String> args = new ArrayList<>();
-            if (invert) {
-                args.add("--" + Transformer.AppOption.INVERT.getLongTag());
-            }
-            args.add("--" + Transformer.AppOption.OVERWRITE.getLongTag());
-            setArgs(args.toArray(new String[0]));
-            setParsedArgs();
+            setParsedArgs(engine.getParsedArgs(getAppOptions(), invert));
         } catch (ParseException e) {
             errorPrint("Exception parsing command line arguments: %s", e);
             return PARSE_ERROR_RC;
@@ -104,6 +143,21 @@ public class JakartaNamespaceTransformer extends Transformer {
             return FILE_TYPE_ERROR_RC;
         }
 
+        // A repeated deployment of the same application, using the same
+        // rules, is answered from the cache.
+        String resultKey = null;
+        if (resultCache != null) {
+            try {
+                resultKey = resultCache.getKey(options.inputFile, options.getRulesFingerprint());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to digest input [ " + options.inputPath + " ]", e);
+            }
+            if ((resultKey != null) && resultCache.restore(resultKey, options.outputFile)) {
+                dual_info("Output restored from cached transform [ %s ]", resultKey);
+                return SUCCESS_RC;
+            }
+        }
+
         try {
             options.transform();
         } catch (TransformException e) {
@@ -114,6 +168,10 @@ public class JakartaNamespaceTransformer extends Transformer {
             return TRANSFORM_ERROR_RC;
         }
 
+        if (resultKey != null) {
+            resultCache.store(resultKey, options.outputFile);
+        }
+
         return SUCCESS_RC;
     }
 
@@ -123,11 +181,45 @@ public class JakartaNamespaceTransformer extends Transformer {
 
     class PayaraTransformOptions extends TransformOptions {
 
+        private TransformerEngine.CompiledRules compiledRules;
+
         public PayaraTransformOptions(File input, File output, boolean invert) {
             this.inputFile = input;
             this.outputFile = output;
         }
 
+        /**
+         * Set the rules from the rules which were compiled by the engine. The
+         * first deployment which uses the rules loads and compiles them.
+         */
+        @Override
+        public boolean setRules() throws IOException, URISyntaxException, IllegalArgumentException {
+            invert = hasOption(AppOption.INVERT);
+
+            String sourceKey = getRulesSourceKey();
+            TransformerEngine.CompiledRules useRules = engine.getRules(sourceKey);
+            if (useRules == null) {
+                if (!super.setRules()) {
+                    return false;
+                }
+                useRules = engine.putRules(getRules(sourceKey));
+            }
+
+            setRules(useRules.getRuleSet());
+            compiledRules = useRules;
+            return true;
+        }
+
+        @Override
+        protected SelectionRuleImpl getSelectionRule() {
+            return ((compiledRules == null) ? super.getSelectionRule() : compiledRules.getSelectionRule());
+        }
+
+        @Override
+        protected SignatureRuleImpl getSignatureRule() {
+            return ((compiledRules == null) ? super.getSignatureRule() : compiledRules.getSignatureRule());
+        }
+
         @Override
         public boolean setInput() {
             if (inputFile == null) {
@@ -0,0 +1,238 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+package org.eclipse.transformer.payara;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.eclipse.transformer.Transformer;
+import org.eclipse.transformer.action.impl.RuleSet;
+import org.eclipse.transformer.action.impl.SelectionRuleImpl;
+import org.eclipse.transformer.action.impl.SignatureRuleImpl;
+
+/**
+ * Process wide engine of the transformations of deployed applications.
+ * <p>
+ * The engine holds what is the same for every deployment: The parsed
+ * arguments of the transformer, and the compiled rules. The signature rule of
+ * compiled rules caches the transformed binary types, signatures and
+ * descriptors, which stay warm from one deployment to the next. Each
+ * deployment uses a {@link JakartaNamespaceTransformer}, which holds only the
+ * input, the output, and the actions of that deployment.
+ * <p>
+ * Rules are compiled by the first deployment which uses them, and are keyed
+ * by the key of the sources of the rules: Bundled rules are keyed by their
+ * resource and by the version of the transformer, and external rules by their
+ * content, which is read once for each change of a rules file. External rules
+ * which are edited are compiled again by the next deployment. Deployments
+ * which start together may each compile the rules, in which case one
+ * compilation is kept. Only the most recently used compiled rules are kept,
+ * and the caches of each signature rule are bounded:
+ * {@link #MAX_CACHED_PROPERTY} sets the bound.
+ * <p>
+ * The engine may be used by several threads.
+ */
+public class TransformerEngine {
+
+    /** System property which sets the most values kept by each cache of a signature rule. */
+    public static final String MAX_CACHED_PROPERTY = "fish.payara.transformer.signatures.maxCached";
+
+    /**
+     * Default of the most compiled rules which are kept: The rules of each
+     * direction of the transformation.
+     */
+    public static final int DEFAULT_MAX_RULES = 2;
+
+    private static final TransformerEngine INSTANCE = new TransformerEngine(
+            Logger.getLogger(TransformerEngine.class.getName()), DEFAULT_MAX_RULES,
+            Integer.getInteger(MAX_CACHED_PROPERTY, SignatureRuleImpl.DEFAULT_MAX_CACHED));
+
+    /**
+     * Answer the engine which is shared by all deployments of the process.
+     *
+     * @return The shared engine.
+     */
+    public static TransformerEngine getInstance() {
+        return INSTANCE;
+    }
+
+    public TransformerEngine(Logger logger) {
+        this(logger, DEFAULT_MAX_RULES, SignatureRuleImpl.DEFAULT_MAX_CACHED);
+    }
+
+    /**
+     * Create an engine.
+     *
+     * @param logger The logger of the engine.
+     * @param maxRules The most compiled rules which are kept.
+     * @param maxCached The most values which are kept by each cache of the
+     *        signature rules of compiled rules.
+     */
+    public TransformerEngine(Logger logger, int maxRules, int maxCached) {
+        this.logger = logger;
+        this.parsedArgs = new ConcurrentHashMap<>();
+        this.maxCached = maxCached;
+        this.compiledRules = new LinkedHashMap<String, CompiledRules>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledRules> eldest) {
+                if (size() <= maxRules) {
+                    return false;
+                }
+                logger.log(Level.FINE, "Discarded transformation rules [ {0} ]", eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    private final Logger logger;
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    // Arguments ...
+
+    /** Parsed arguments, by whether the transformation is inverted. */
+    private final Map<Boolean, CommandLine> parsedArgs;
+
+    /**
+     * Answer the parsed arguments of a transformation. The arguments are the
+     * same for every deployment, and are parsed once.
+     *
+     * @param appOptions The options of the transformer.
+     * @param invert Whether the transformation is from jakarta to javax.
+     * @return The parsed arguments.
+     * @throws ParseException Thrown if the arguments could not be parsed.
+     */
+    public CommandLine getParsedArgs(Options appOptions, boolean invert) throws ParseException {
+        CommandLine useParsedArgs = parsedArgs.get(invert);
+        if (useParsedArgs == null) {
+            List<String> args = new ArrayList<>();
+            if (invert) {
+                args.add("--" + Transformer.AppOption.INVERT.getLongTag());
+            }
+            args.add("--" + Transformer.AppOption.OVERWRITE.getLongTag());
+            String rulesSnapshot = System.getProperty(JakartaNamespaceTransformer.RULES_SNAPSHOT_PROPERTY);
+            if (rulesSnapshot != null) {
+                args.add("--" + Transformer.AppOption.RULES_SNAPSHOT.getLongTag());
+                args.add(rulesSnapshot);
+            }
+            useParsedArgs = new DefaultParser().parse(appOptions, args.toArray(new String[0]));
+            parsedArgs.putIfAbsent(invert, useParsedArgs);
+        }
+        return useParsedArgs;
+    }
+
+    // Rules ...
+
+    /** Rules which are compiled once, and are shared by deployments. */
+    public static class CompiledRules {
+
+        CompiledRules(Logger logger, RuleSet ruleSet, int maxCached) {
+            this.ruleSet = ruleSet;
+            this.selectionRule = ruleSet.newSelectionRule(logger);
+            this.signatureRule = ruleSet.newSignatureRule(logger);
+            this.signatureRule.setMaxCached(maxCached);
+        }
+
+        private final RuleSet ruleSet;
+        private final SelectionRuleImpl selectionRule;
+        private final SignatureRuleImpl signatureRule;
+
+        public RuleSet getRuleSet() {
+            return ruleSet;
+        }
+
+        public SelectionRuleImpl getSelectionRule() {
+            return selectionRule;
+        }
+
+        public SignatureRuleImpl getSignatureRule() {
+            return signatureRule;
+        }
+    }
+
+    /** The most values which are kept by each cache of a signature rule. */
+    private final int maxCached;
+
+    /**
+     * Compiled rules, by the key of the sources of the rules, least recently
+     * used first. Access is synchronized on the map.
+     */
+    private final Map<String, CompiledRules> compiledRules;
+
+    /**
+     * Answer compiled rules.
+     *
+     * @param sourceKey The key of the sources of the rules.
+     * @return The compiled rules. Null if the rules have not been compiled,
+     *         or if the compiled rules were discarded.
+     */
+    public CompiledRules getRules(String sourceKey) {
+        synchronized (compiledRules) {
+            return compiledRules.get(sourceKey);
+        }
+    }
+
+    /**
+     * Answer the count of compiled rules which are kept.
+     *
+     * @return The count of compiled rules.
+     */
+    public int getRulesCount() {
+        synchronized (compiledRules) {
+            return compiledRules.size();
+        }
+    }
+
+    /**
+     * Compile rules, and keep the compiled rules. If rules of the same
+     * sources were compiled concurrently, the rules which were kept first are
+     * answered.
+     *
+     * @param ruleSet The rules which are to be compiled.
+     * @return The compiled rules.
+     */
+    public CompiledRules putRules(RuleSet ruleSet) {
+        CompiledRules newRules = new CompiledRules(logger, ruleSet, maxCached);
+        CompiledRules oldRules;
+        synchronized (compiledRules) {
+            oldRules = compiledRules.putIfAbsent(ruleSet.getSourceKey(), newRules);
+        }
+        if (oldRules != null) {
+            return oldRules;
+        }
+        logger.log(Level.FINE, "Compiled transformation rules [ {0} ]", ruleSet.getSourceKey());
+        return newRules;
+    }
+
+    /**
+     * Discard the parsed arguments and the compiled rules, and the caches of
+     * the compiled rules. The next deployment parses the arguments and
+     * compiles the rules again.
+     */
+    public void reset() {
+        parsedArgs.clear();
+        synchronized (compiledRules) {
+            compiledRules.clear();
+        }
+    }
+}
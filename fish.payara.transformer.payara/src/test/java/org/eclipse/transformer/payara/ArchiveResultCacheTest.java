@@ -0,0 +1,153 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+package org.eclipse.transformer.payara;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArchiveResultCacheTest {
+
+    private static final Logger LOGGER = Logger.getLogger(ArchiveResultCacheTest.class.getName());
+
+    private static final String RULES = "rules";
+
+    private static File write(File file, String text) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), text.getBytes(UTF_8));
+        return file;
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), UTF_8);
+    }
+
+    /** Store a transform output of ten bytes, and answer its key. */
+    private static String store(ArchiveResultCache cache, File tempDir, String name, String rules)
+            throws IOException {
+        File input = write(new File(tempDir, "input/" + name + ".war"), name);
+        File output = write(new File(tempDir, "output/" + name + ".war"), String.format("%-10s", name));
+        String key = cache.getKey(input, rules);
+        cache.store(key, output);
+        return key;
+    }
+
+    @Test
+    public void results_are_restored(@TempDir File tempDir) throws IOException {
+        ArchiveResultCache cache = new ArchiveResultCache(LOGGER, new File(tempDir, "cache"), 1000L);
+
+        String key = store(cache, tempDir, "app", RULES);
+        File restored = new File(tempDir, "restored.war");
+        assertThat(cache.restore(key, restored)).isTrue();
+        assertThat(read(restored)).isEqualTo("app       ");
+
+        String otherKey = cache.getKey(write(new File(tempDir, "input/other.war"), "other"), RULES);
+        assertThat(cache.restore(otherKey, new File(tempDir, "other.war"))).isFalse();
+
+        // Exploded directories are keyed and restored by their files.
+        File inputDir = new File(tempDir, "input/app");
+        write(new File(inputDir, "WEB-INF/web.xml"), "javax");
+        File outputDir = new File(tempDir, "output/app");
+        write(new File(outputDir, "WEB-INF/web.xml"), "jakarta");
+        String dirKey = cache.getKey(inputDir, RULES);
+        cache.store(dirKey, outputDir);
+
+        write(new File(inputDir, "index.html"), "index");
+        assertThat(cache.getKey(inputDir, RULES)).isNotEqualTo(dirKey);
+
+        File restoredDir = new File(tempDir, "restored");
+        Files.createDirectories(restoredDir.toPath());
+        assertThat(cache.restore(dirKey, restoredDir)).isTrue();
+        assertThat(read(new File(restoredDir, "WEB-INF/web.xml"))).isEqualTo("jakarta");
+
+        // Results are reloaded by a new cache of the same directory.
+        ArchiveResultCache reloaded = new ArchiveResultCache(LOGGER, cache.getCacheDir(), 1000L);
+        File reloadedOutput = new File(tempDir, "reloaded.war");
+        assertThat(reloaded.restore(key, reloadedOutput)).isTrue();
+        assertThat(read(reloadedOutput)).isEqualTo("app       ");
+    }
+
+    @Test
+    public void rules_share_the_cache(@TempDir File tempDir) throws IOException {
+        ArchiveResultCache cache = new ArchiveResultCache(LOGGER, new File(tempDir, "cache"), 1000L);
+
+        String key = store(cache, tempDir, "app", RULES);
+        String invertedKey = store(cache, tempDir, "app", "inverted rules");
+        assertThat(invertedKey).isNotEqualTo(key);
+
+        // Using other rules does not discard the results of the first rules.
+        assertThat(cache.restore(key, new File(tempDir, "restored.war"))).isTrue();
+        assertThat(cache.restore(invertedKey, new File(tempDir, "inverted.war"))).isTrue();
+
+        File input = new File(tempDir, "input/app.war");
+        assertThat(cache.restore(cache.getKey(input, "changed rules"), new File(tempDir, "changed.war")))
+                .isFalse();
+    }
+
+    @Test
+    public void least_recently_used_results_are_evicted(@TempDir File tempDir) throws IOException {
+        ArchiveResultCache cache = new ArchiveResultCache(LOGGER, new File(tempDir, "cache"), 30L);
+
+        String first = store(cache, tempDir, "first", RULES);
+        String second = store(cache, tempDir, "second", RULES);
+        String third = store(cache, tempDir, "third", RULES);
+
+        assertThat(cache.restore(first, new File(tempDir, "first.war"))).isTrue();
+
+        // Results of earlier rules are evicted like any other result.
+        String fourth = store(cache, tempDir, "fourth", "other rules");
+
+        assertThat(cache.restore(second, new File(tempDir, "second.war"))).isFalse();
+        assertThat(cache.restore(first, new File(tempDir, "first-again.war"))).isTrue();
+        assertThat(cache.restore(third, new File(tempDir, "third.war"))).isTrue();
+        assertThat(cache.restore(fourth, new File(tempDir, "fourth.war"))).isTrue();
+
+        // Results larger than the cache are not stored.
+        File input = write(new File(tempDir, "input/large.war"), "large");
+        File output = write(new File(tempDir, "output/large.war"), String.format("%-40s", "large"));
+        String large = cache.getKey(input, RULES);
+        cache.store(large, output);
+        assertThat(cache.restore(large, new File(tempDir, "large.war"))).isFalse();
+        assertThat(cache.restore(third, new File(tempDir, "third-again.war"))).isTrue();
+    }
+
+    @Test
+    public void corrupt_results_are_discarded(@TempDir File tempDir) throws IOException {
+        File cacheDir = new File(tempDir, "cache");
+        ArchiveResultCache cache = new ArchiveResultCache(LOGGER, cacheDir, 1000L);
+
+        String key = store(cache, tempDir, "app", RULES);
+
+        // A removed result is not restored, and is discarded.
+        File resultFile = new File(cacheDir, "result-" + key);
+        Files.delete(resultFile.toPath());
+        assertThat(cache.restore(key, new File(tempDir, "restored.war"))).isFalse();
+
+        // Discarded results are stored again.
+        assertThat(store(cache, tempDir, "app", RULES)).isEqualTo(key);
+        File restoredAgain = new File(tempDir, "restored-again.war");
+        assertThat(cache.restore(key, restoredAgain)).isTrue();
+        assertThat(read(restoredAgain)).isEqualTo("app       ");
+
+        // Partial results of failed stores are removed when the cache is
+        // loaded.
+        File tempFile = write(new File(cacheDir, "tmp-" + key), "partial");
+        new ArchiveResultCache(LOGGER, cacheDir, 1000L);
+        assertThat(tempFile).doesNotExist();
+    }
+}
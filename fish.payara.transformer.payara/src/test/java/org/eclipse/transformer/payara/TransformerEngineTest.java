@@ -0,0 +1,122 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+package org.eclipse.transformer.payara;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.transformer.Transformer;
+import org.eclipse.transformer.action.impl.RuleSet;
+import org.eclipse.transformer.action.impl.SignatureRuleImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TransformerEngineTest {
+
+    private static final Logger LOGGER = Logger.getLogger(TransformerEngineTest.class.getName());
+
+    private static final String SERVICE_PREFIX = "META-INF/services/";
+
+    private static RuleSet createRules(String sourceKey) {
+        return new RuleSet(sourceKey, null, null, Collections.singletonMap("javax.servlet", "jakarta.servlet"),
+                null, null, null, null, null);
+    }
+
+    private static File createJar(File tempDir, String name) throws IOException {
+        File jar = new File(tempDir, name);
+        try (ZipOutputStream zipStream = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            zipStream.putNextEntry(new ZipEntry(SERVICE_PREFIX + "javax.servlet.ServletContainerInitializer"));
+            zipStream.write("a.b.Initializer".getBytes(UTF_8));
+            zipStream.closeEntry();
+        }
+        return jar;
+    }
+
+    @Test
+    public void rules_are_compiled_once(@TempDir File tempDir) throws IOException {
+        TransformerEngine engine = new TransformerEngine(LOGGER);
+
+        TransformerEngine.CompiledRules rules = engine.putRules(createRules("rules"));
+        assertThat(engine.getRules("rules")).isSameAs(rules);
+
+        // Rules of the same sources which were compiled concurrently are
+        // not kept.
+        assertThat(engine.putRules(createRules("rules"))).isSameAs(rules);
+        assertThat(engine.getRulesCount()).isEqualTo(1);
+
+        // Deployments share the rules which were compiled by the first
+        // deployment.
+        TransformerEngine deploymentEngine = new TransformerEngine(LOGGER);
+        for (String name : new String[] { "first.jar", "second.jar" }) {
+            JakartaNamespaceTransformer transformer = new JakartaNamespaceTransformer(deploymentEngine, LOGGER,
+                    createJar(tempDir, name), false);
+            transformer.setResultCache(null);
+            assertThat(transformer.run()).as(name).isEqualTo(Transformer.SUCCESS_RC);
+            try (ZipFile output = new ZipFile(transformer.getOutput())) {
+                assertThat(output.getEntry(SERVICE_PREFIX + "jakarta.servlet.ServletContainerInitializer"))
+                        .as(name).isNotNull();
+            }
+            assertThat(deploymentEngine.getRulesCount()).as(name).isEqualTo(1);
+        }
+
+        engine.reset();
+        assertThat(engine.getRules("rules")).isNull();
+    }
+
+    @Test
+    public void least_recently_used_rules_are_discarded() {
+        TransformerEngine engine = new TransformerEngine(LOGGER, 2, SignatureRuleImpl.DEFAULT_MAX_CACHED);
+
+        TransformerEngine.CompiledRules first = engine.putRules(createRules("first"));
+        engine.putRules(createRules("second"));
+        assertThat(engine.getRules("first")).isSameAs(first);
+
+        // Edited rules have a different key, and replace the rules which
+        // were used least recently.
+        TransformerEngine.CompiledRules edited = engine.putRules(createRules("edited"));
+
+        assertThat(engine.getRulesCount()).isEqualTo(2);
+        assertThat(engine.getRules("second")).isNull();
+        assertThat(engine.getRules("first")).isSameAs(first);
+        assertThat(engine.getRules("edited")).isSameAs(edited);
+    }
+
+    @Test
+    public void signature_caches_are_bounded() {
+        TransformerEngine engine = new TransformerEngine(LOGGER, TransformerEngine.DEFAULT_MAX_RULES, 4);
+        SignatureRuleImpl signatureRule = engine.putRules(createRules("rules")).getSignatureRule();
+        assertThat(signatureRule.getMaxCached()).isEqualTo(4);
+
+        for (int typeNo = 0; typeNo < 20; typeNo++) {
+            assertThat(signatureRule.transformBinaryType("javax/servlet/Type" + typeNo))
+                    .isEqualTo("jakarta/servlet/Type" + typeNo);
+            assertThat(signatureRule.transformBinaryType("a/b/Type" + typeNo)).isNull();
+            assertThat(signatureRule.transformDescriptor("Ljavax/servlet/Type" + typeNo + ";"))
+                    .isEqualTo("Ljakarta/servlet/Type" + typeNo + ";");
+            assertThat(signatureRule.getCachedCount()).isLessThanOrEqualTo(6 * 4);
+        }
+        assertThat(signatureRule.getCachedCount()).isPositive();
+
+        // Cleared caches answer the same results.
+        signatureRule.clearCaches();
+        assertThat(signatureRule.getCachedCount()).isZero();
+        assertThat(signatureRule.transformBinaryType("javax/servlet/Type0")).isEqualTo("jakarta/servlet/Type0");
+    }
+}
@@ -11,6 +11,7 @@
 
 package org.eclipse.transformer;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -19,11 +20,16 @@ import java.io.PrintWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -39,7 +45,9 @@ import org.eclipse.transformer.action.BundleData;
 import org.eclipse.transformer.action.Changes;
 import org.eclipse.transformer.action.impl.ActionImpl;
 import org.eclipse.transformer.action.impl.ClassActionImpl;
+import org.eclipse.transformer.action.impl.ClassActionImpl.ClassEngine;
 import org.eclipse.transformer.action.impl.CompositeActionImpl;
+import org.eclipse.transformer.action.impl.ContainerActionImpl;
 import org.eclipse.transformer.action.impl.DirectoryActionImpl;
 import org.eclipse.transformer.action.impl.EarActionImpl;
 import org.eclipse.transformer.action.impl.InputBufferImpl;
@@ -49,14 +57,20 @@ import org.eclipse.transformer.action.impl.ManifestActionImpl;
 import org.eclipse.transformer.action.impl.NullActionImpl;
 import org.eclipse.transformer.action.impl.PropertiesActionImpl;
 import org.eclipse.transformer.action.impl.RarActionImpl;
+import org.eclipse.transformer.action.impl.RuleSet;
+import org.eclipse.transformer.action.impl.RulesDependency;
 import org.eclipse.transformer.action.impl.SelectionRuleImpl;
 import org.eclipse.transformer.action.impl.ServiceLoaderConfigActionImpl;
 import org.eclipse.transformer.action.impl.SignatureRuleImpl;
 import org.eclipse.transformer.action.impl.TextActionImpl;
+import org.eclipse.transformer.action.impl.TransformCache;
+import org.eclipse.transformer.action.impl.TransformScheduler;
 import org.eclipse.transformer.action.impl.WarActionImpl;
 // import org.eclipse.transformer.action.impl.XmlActionImpl;
 import org.eclipse.transformer.action.impl.ZipActionImpl;
+import org.eclipse.transformer.util.ByteData;
 import org.eclipse.transformer.util.FileUtils;
+import org.eclipse.transformer.util.Fingerprint;
 import java.util.logging.Logger;
 
 import aQute.lib.io.IO;
@@ -290,7 +304,34 @@ public class Transformer {
 		
 		RULES_PER_CLASS_CONSTANT("tp", "per-class-constant", "Transformation per class constant string replacements",
 			OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS,
-			!OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP);
+			!OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		PARALLELISM("j", "parallelism", "Number of threads used to transform directories and archives (0 for all processors)",
+			OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		RAW_COPY("rc", "raw-copy", "Copy unchanged archive entries without recompressing them",
+			!OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		CLASS_ENGINE("ce", "class-engine", "Class transformation engine: full, constants, or validate",
+			OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		LARGE_ENTRY_THRESHOLD("lt", "large-entry-threshold",
+			"Size in bytes above which entries are streamed instead of being read into memory (0 to always read entries into memory)",
+			OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		CACHE_DIR("cd", "cache-dir", "Directory of the cache of transform results, which may be shared by several processes",
+			OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		CACHE_SIZE("cs", "cache-size", "Bound in bytes on the total size of the cache of transform results",
+			OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		RULES_SNAPSHOT("rs", "rules-snapshot",
+			"Compiled snapshot of the rules, which is loaded instead of the rules properties, and which is written from the rules properties if it does not exist",
+			OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP),
+
+		INCREMENTAL("in", "incremental",
+			"Transform only the files of a directory which changed since the previous transform to the same output",
+			!OptionSettings.HAS_ARG, !OptionSettings.HAS_ARGS, !OptionSettings.IS_REQUIRED, OptionSettings.NO_GROUP);
 
 		private AppOption(String shortTag, String longTag, String description, boolean hasArg, boolean hasArgs,
 			boolean isRequired, String groupTag) {
@@ -393,7 +434,7 @@ public class Transformer {
 
 	private static final String		SHORT_VERSION_PROPERTY_NAME		= "version";
 
-	private static final String		TRANSFORMER_BUILD_PROPERTIES	= "META-INF/maven/org.eclipse.transformer/org.eclipse.transformer/pom.properties";
+	private static final String		TRANSFORMER_BUILD_PROPERTIES	= "META-INF/maven/fish.payara.transformer/fish.payara.transformer/pom.properties";
 
 	private final Properties		buildProperties;
 
@@ -401,6 +442,16 @@ public class Transformer {
 		return buildProperties;
 	}
 
+	/**
+	 * Answer the version of the transformer.
+	 *
+	 * @return The version of the transformer. Null if the build properties
+	 *         are not available.
+	 */
+	public String getVersion() {
+		return getBuildProperties().getProperty(SHORT_VERSION_PROPERTY_NAME);
+	}
+
 	// TODO: Usual command line usage puts SysOut and SysErr together, which
 	// results
 	// in the properties writing out twice.
@@ -517,6 +568,16 @@ public class Transformer {
 		parsedArgs = parser.parse(getAppOptions(), getArgs());
 	}
 
+	/**
+	 * Set arguments which were already parsed. This is used to share parsed
+	 * arguments between transformers which use the same arguments.
+	 *
+	 * @param parsedArgs The parsed arguments.
+	 */
+	public void setParsedArgs(CommandLine parsedArgs) {
+		this.parsedArgs = parsedArgs;
+	}
+
 	protected CommandLine getParsedArgs() {
 		return parsedArgs;
 	}
@@ -666,7 +727,7 @@ public class Transformer {
 	protected UTF8Properties loadInternalProperties(String ruleOption, String resourceRef) throws IOException {
 
 		// dual_info("Using internal [ %s ]: [ %s ]", ruleOption, resourceRef);
-		URL rulesUrl = getRuleLoader().getResource(resourceRef);
+		URL rulesUrl = getInternalUrl(resourceRef);
 		if (rulesUrl == null) {
 			dual_info("Internal [ %s ] were not found [ %s ]", ruleOption, resourceRef);
 			throw new IOException("Resource [ " + resourceRef + " ] not found on [ " + getRuleLoader() + " ]");
@@ -687,14 +748,145 @@ public class Transformer {
 
 		// dual_info("Using external [ %s ]: [ %s ]", referenceName,
 		// externalReference);
-		URI currentDirectoryUri = IO.work.toURI();
-		URL rulesUrl = URIUtil.resolve(currentDirectoryUri, externalReference)
-			.toURL();
+		URL rulesUrl = getExternalUrl(externalReference);
 		dual_info("External [ %s ] URL [ %s ]", referenceName, rulesUrl);
 
 		return FileUtils.loadProperties(rulesUrl);
 	}
 
+	protected URL getInternalUrl(String resourceRef) {
+		return getRuleLoader().getResource(resourceRef);
+	}
+
+	protected URL getExternalUrl(String externalReference) throws URISyntaxException, IOException {
+		URI currentDirectoryUri = IO.work.toURI();
+		return URIUtil.resolve(currentDirectoryUri, externalReference)
+			.toURL();
+	}
+
+	// External rules ...
+
+	/**
+	 * The content of an external rules file, as keyed when the file was read.
+	 */
+	private static class ExternalRules {
+		public final String				url;
+		/** The stamp of the file, which was taken before the file was read. */
+		public final RulesDependency	dependency;
+		/** The key of the content of the file. Null if it could not be read. */
+		public final String				contentKey;
+		/**
+		 * The normalized references to the substitution properties of master
+		 * text properties, in a stable order. Null if not parsed.
+		 */
+		public final Set<String>		substitutionRefs;
+
+		public ExternalRules(String url, RulesDependency dependency, String contentKey,
+			Set<String> substitutionRefs) {
+			this.url = url;
+			this.dependency = dependency;
+			this.contentKey = contentKey;
+			this.substitutionRefs = substitutionRefs;
+		}
+	}
+
+	/** The maximum number of external rules files which are kept. */
+	private static final int						MAX_EXTERNAL_RULES	= 64;
+
+	/**
+	 * The content of external rules files, by the URL of the files. Bundled
+	 * rules are not kept: These cannot change while the transformer is
+	 * running. The content of a file is read once for each change of the
+	 * file.
+	 */
+	private static final Map<String, ExternalRules>	externalRules		= new LinkedHashMap<String, ExternalRules>(
+		16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ExternalRules> eldest) {
+			return (size() > MAX_EXTERNAL_RULES);
+		}
+	};
+
+	/**
+	 * Answer the content of an external rules file. The content is read only
+	 * when the stamp of the file is not current.
+	 *
+	 * @param rulesUrl The URL of the rules file.
+	 * @param isMaster Whether the rules file is master text properties, of
+	 *            which the substitution references are needed.
+	 * @return The content of the rules file.
+	 */
+	private static ExternalRules getExternalRules(URL rulesUrl, boolean isMaster) {
+		String url = rulesUrl.toExternalForm();
+
+		ExternalRules rules;
+		synchronized (externalRules) {
+			rules = externalRules.get(url);
+		}
+		if ((rules != null) && (!isMaster || (rules.substitutionRefs != null)) && rules.dependency.isCurrent()) {
+			return rules;
+		}
+
+		File rulesFile;
+		try {
+			rulesFile = ("file".equals(rulesUrl.getProtocol()) ? new File(rulesUrl.toURI()) : null);
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			rulesFile = null;
+		}
+		RulesDependency dependency = ((rulesFile == null) ? RulesDependency.unknown(url)
+			: RulesDependency.of(rulesFile));
+
+		String contentKey;
+		Set<String> substitutionRefs;
+		try (InputStream inputStream = rulesUrl.openStream()) { // throws IOException
+			ByteData content = FileUtils.read(url, inputStream); // throws IOException
+			contentKey = new Fingerprint().add(content.data, content.offset, content.length)
+				.finish();
+			substitutionRefs = (isMaster ? getSubstitutionRefs(content, false) : null);
+		} catch (IOException e) {
+			// Keyed as missing: Loading the rules will fail.
+			contentKey = null;
+			substitutionRefs = (isMaster ? Collections.emptySet() : null);
+		}
+
+		rules = new ExternalRules(url, dependency, contentKey, substitutionRefs);
+		if (rulesFile != null) {
+			synchronized (externalRules) {
+				externalRules.put(url, rules);
+			}
+		}
+		return rules;
+	}
+
+	/**
+	 * Answer the references to the substitution properties of master
+	 * properties, in a stable order.
+	 *
+	 * @param content The content of the master properties.
+	 * @param useKeys Whether the references are the keys of the master
+	 *            properties, which is the case for inverted per class constant
+	 *            properties.
+	 * @return The normalized references of the master properties.
+	 */
+	private static Set<String> getSubstitutionRefs(ByteData content, boolean useKeys) {
+		UTF8Properties masterProperties = FileUtils.createProperties();
+		try {
+			masterProperties.load(new ByteArrayInputStream(content.data, content.offset, content.length)); // throws IOException
+		} catch (IOException | IllegalArgumentException e) {
+			return Collections.emptySet(); // The content is keyed.
+		}
+		Set<String> substitutionRefs = new TreeSet<>();
+		for (String name : masterProperties.stringPropertyNames()) {
+			String refs = (useKeys ? name : masterProperties.getProperty(name));
+			for (String substitutionsRef : refs.split(",")) {
+				substitutionRefs.add(FileUtils.normalize(substitutionsRef));
+			}
+		}
+		return substitutionRefs;
+	}
+
 	//
 
 	private Logger logger;
@@ -806,6 +998,14 @@ public class Transformer {
 		public String							outputPath;
 		public File								outputFile;
 		public Map<String, Map<String, String>> perClassConstantStrings;
+
+		public int								parallelism	= 1;
+		public TransformScheduler				scheduler;
+		public boolean							rawCopy;
+		public boolean							incremental;
+		public ClassEngine						classEngine	= ClassEngine.FULL;
+		public long								largeEntryThreshold	= ActionImpl.DEFAULT_LARGE_ENTRY_THRESHOLD;
+		public TransformCache					transformCache;
 		//
 
 		public void setLogging(Logger log) throws TransformException {
@@ -852,7 +1052,249 @@ public class Transformer {
 			return buffer;
 		}
 
+		/**
+		 * Set the rules. When a rules snapshot is specified, and the snapshot
+		 * was compiled from the same rules properties, the rules are loaded
+		 * from the snapshot. Otherwise, the rules are loaded from the rules
+		 * properties, and are written to the snapshot.
+		 * <p>
+		 * A snapshot is checked by the stamps of the external rules files from
+		 * which it was compiled. The content of the files is read only when a
+		 * stamp is not current. A snapshot of files which were touched but
+		 * not changed is written again with the new stamps.
+		 *
+		 * @return True if the rules were set. False if the rules are not
+		 *         valid.
+		 * @throws IOException Thrown if the rules properties could not be
+		 *             loaded.
+		 * @throws URISyntaxException Thrown if a rules reference is not valid.
+		 * @throws IllegalArgumentException Thrown if the rules properties are
+		 *             not valid.
+		 */
 		public boolean setRules() throws IOException, URISyntaxException, IllegalArgumentException {
+			invert = hasOption(AppOption.INVERT);
+
+			String snapshotName = getOptionValue(AppOption.RULES_SNAPSHOT, DO_NORMALIZE);
+			if (snapshotName == null) {
+				return loadRules();
+			}
+
+			File snapshotFile = new File(snapshotName);
+			String referenceKey = getRulesReferenceKey();
+
+			RuleSet snapshot = readRules(snapshotFile, referenceKey);
+			if ((snapshot != null) && snapshot.isCurrent()) {
+				setRules(snapshot);
+				dual_info("Rules loaded from snapshot [ %s ]", snapshotFile.getAbsolutePath());
+				return true;
+			}
+
+			// The stamps of the rules files are taken before the rules are
+			// loaded: A file which changes while the rules are loaded is
+			// detected by the next use of the snapshot.
+			List<ExternalRules> useExternalRules = getExternalRules();
+			String sourceKey = getRulesSourceKey(useExternalRules);
+
+			if (snapshot != null) {
+				if (sourceKey.equals(snapshot.getSourceKey())) {
+					// Rules files were touched, but their content is unchanged.
+					setRules(snapshot);
+					dual_info("Rules loaded from snapshot of unchanged rules [ %s ]", snapshotFile.getAbsolutePath());
+				} else {
+					dual_info("Rules snapshot was compiled from different rules [ %s ]",
+						snapshotFile.getAbsolutePath());
+					snapshot = null;
+				}
+			}
+			if ((snapshot == null) && !loadRules()) {
+				return false;
+			}
+
+			List<RulesDependency> dependencies = new ArrayList<>(useExternalRules.size());
+			for (ExternalRules rules : useExternalRules) {
+				dependencies.add(rules.dependency);
+			}
+			RuleSet useSnapshot = new RuleSet(referenceKey, sourceKey, dependencies, includes, excludes,
+				packageRenames, packageVersions, bundleUpdates, masterTextUpdates, directStrings,
+				perClassConstantStrings);
+			try {
+				useSnapshot.write(snapshotFile); // throws IOException
+				dual_info("Rules written to snapshot [ %s ]", snapshotFile.getAbsolutePath());
+			} catch (IOException e) {
+				dual_error(String.format("Rules snapshot cannot be written [ %s ]", snapshotFile.getAbsolutePath()),
+					e);
+			}
+			return true;
+		}
+
+		/** The options which reference rules properties. */
+		private final AppOption[] rulesOptions = {
+			AppOption.RULES_SELECTIONS, AppOption.RULES_RENAMES, AppOption.RULES_VERSIONS, AppOption.RULES_BUNDLES,
+			AppOption.RULES_DIRECT, AppOption.RULES_MASTER_TEXT, AppOption.RULES_PER_CLASS_CONSTANT
+		};
+
+		/**
+		 * Answer a key of the references to the rules: The version of the
+		 * transformer, whether the rules are inverted, and the references to
+		 * the rules properties. Bundled rules properties are referenced by
+		 * their resource, and external rules properties by their URL. No rules
+		 * properties are read.
+		 *
+		 * @return The key of the references to the rules.
+		 */
+		public String getRulesReferenceKey() {
+			Fingerprint referenceKey = new Fingerprint().add(getVersion())
+				.add(invert);
+			for (AppOption ruleOption : rulesOptions) {
+				String rulesReference = getOptionValue(ruleOption, DO_NORMALIZE);
+				boolean isInternal = (rulesReference == null);
+				if (isInternal) {
+					rulesReference = getDefaultReference(ruleOption);
+				} else {
+					try {
+						rulesReference = getExternalUrl(rulesReference).toExternalForm();
+					} catch (URISyntaxException | IOException e) {
+						// Keyed by the reference: Loading the rules will fail.
+					}
+				}
+				referenceKey.add(isInternal)
+					.add(rulesReference);
+			}
+			return referenceKey.finish();
+		}
+
+		/**
+		 * Answer a key of the sources of the rules: The key of the references
+		 * to the rules, and the content of the external rules properties,
+		 * including the substitution properties of external master text
+		 * properties.
+		 * <p>
+		 * Bundled rules properties cannot change while the transformer is
+		 * running, and are keyed only by their reference and by the version of
+		 * the transformer. The content of an external rules file is read once
+		 * for each change of the file.
+		 *
+		 * @return The key of the sources of the rules.
+		 */
+		public String getRulesSourceKey() {
+			return getRulesSourceKey(getExternalRules());
+		}
+
+		private String getRulesSourceKey(List<ExternalRules> useExternalRules) {
+			Fingerprint sourceKey = new Fingerprint().add(getRulesReferenceKey());
+			for (ExternalRules rules : useExternalRules) {
+				sourceKey.add(rules.url)
+					.add(rules.contentKey);
+			}
+			return sourceKey.finish();
+		}
+
+		/**
+		 * Answer the content of the external rules files, in a stable order:
+		 * Each external rules file, followed, for master text properties, by
+		 * their substitution properties. External per class constant
+		 * properties do not load their substitutions.
+		 *
+		 * @return The content of the external rules files.
+		 */
+		private List<ExternalRules> getExternalRules() {
+			List<ExternalRules> useExternalRules = new ArrayList<>();
+			for (AppOption ruleOption : rulesOptions) {
+				String rulesReference = getOptionValue(ruleOption, DO_NORMALIZE);
+				if (rulesReference == null) {
+					continue; // Bundled rules
+				}
+				boolean isMaster = (ruleOption == AppOption.RULES_MASTER_TEXT);
+				ExternalRules rules = getExternalRules(rulesReference, isMaster);
+				if (rules == null) {
+					continue;
+				}
+				useExternalRules.add(rules);
+				if (isMaster) {
+					for (String substitutionsRef : rules.substitutionRefs) {
+						ExternalRules substitutions = getExternalRules(relativize(substitutionsRef, rulesReference),
+							false);
+						if (substitutions != null) {
+							useExternalRules.add(substitutions);
+						}
+					}
+				}
+			}
+			return useExternalRules;
+		}
+
+		private ExternalRules getExternalRules(String rulesReference, boolean isMaster) {
+			URL rulesUrl;
+			try {
+				rulesUrl = getExternalUrl(rulesReference);
+			} catch (URISyntaxException | IOException e) {
+				return null; // Keyed by the reference: Loading the rules will fail.
+			}
+			return Transformer.getExternalRules(rulesUrl, isMaster);
+		}
+
+		protected RuleSet readRules(File snapshotFile, String referenceKey) {
+			if (!snapshotFile.exists()) {
+				dual_info("Rules snapshot does not exist [ %s ]", snapshotFile.getAbsolutePath());
+				return null;
+			}
+
+			RuleSet snapshot;
+			try {
+				snapshot = RuleSet.read(snapshotFile); // throws IOException
+			} catch (IOException e) {
+				dual_info("Rules snapshot cannot be used [ %s ]: %s", snapshotFile.getAbsolutePath(), e);
+				return null;
+			}
+			if (!referenceKey.equals(snapshot.getReferenceKey())) {
+				dual_info("Rules snapshot was compiled from different rules [ %s ]", snapshotFile.getAbsolutePath());
+				return null;
+			}
+			return snapshot;
+		}
+
+		/**
+		 * Answer the current rules as a rule set.
+		 *
+		 * @param sourceKey The key of the sources of the rules.
+		 * @return The current rules.
+		 */
+		public RuleSet getRules(String sourceKey) {
+			return new RuleSet(sourceKey, includes, excludes, packageRenames, packageVersions, bundleUpdates,
+				masterTextUpdates, directStrings, perClassConstantStrings);
+		}
+
+		/**
+		 * Set the rules from a rule set.
+		 *
+		 * @param ruleSet The rules which are to be used.
+		 */
+		public void setRules(RuleSet ruleSet) {
+			includes = ruleSet.getIncludes();
+			excludes = ruleSet.getExcludes();
+			packageRenames = ruleSet.getPackageRenames();
+			packageVersions = ruleSet.getPackageVersions();
+			bundleUpdates = ruleSet.getBundleUpdates();
+			masterTextUpdates = ruleSet.getMasterTextUpdates();
+			directStrings = ruleSet.getDirectStrings();
+			perClassConstantStrings = ruleSet.getPerClassConstantStrings();
+
+			selectionRules = null;
+			signatureRules = null;
+		}
+
+		/**
+		 * Load the rules from the rules properties.
+		 *
+		 * @return True if the rules were loaded. False if the rules are not
+		 *         valid.
+		 * @throws IOException Thrown if the rules properties could not be
+		 *             loaded.
+		 * @throws URISyntaxException Thrown if a rules reference is not valid.
+		 * @throws IllegalArgumentException Thrown if the rules properties are
+		 *             not valid.
+		 */
+		protected boolean loadRules() throws IOException, URISyntaxException, IllegalArgumentException {
 			UTF8Properties selectionProperties = loadProperties(AppOption.RULES_SELECTIONS);
 			UTF8Properties renameProperties = loadProperties(AppOption.RULES_RENAMES);
 			UTF8Properties versionProperties = loadProperties(AppOption.RULES_VERSIONS);
@@ -861,8 +1303,6 @@ public class Transformer {
 			UTF8Properties textMasterProperties = loadProperties(AppOption.RULES_MASTER_TEXT);
 			UTF8Properties perClassConstantProperties = loadProperties(AppOption.RULES_PER_CLASS_CONSTANT);
 
-			invert = hasOption(AppOption.INVERT);
-
 			if (!selectionProperties.isEmpty()) {
 				includes = new HashSet<>();
 				excludes = new HashSet<>();
@@ -1140,6 +1580,139 @@ public class Transformer {
 			return signatureRules;
 		}
 
+		public boolean setParallelism() {
+			String parallelismText = getOptionValue(AppOption.PARALLELISM);
+			if (parallelismText == null) {
+				return true;
+			}
+
+			int useParallelism;
+			try {
+				useParallelism = Integer.parseInt(parallelismText.trim());
+			} catch (NumberFormatException e) {
+				dual_error("Parallelism is not a number [ %s ]", parallelismText);
+				return false;
+			}
+			if (useParallelism < 0) {
+				dual_error("Parallelism cannot be negative [ %s ]", parallelismText);
+				return false;
+			} else if (useParallelism == 0) {
+				useParallelism = Runtime.getRuntime()
+					.availableProcessors();
+			}
+
+			parallelism = useParallelism;
+			if (parallelism > 1) {
+				dual_info("Parallelism [ %s ]", parallelism);
+			}
+			return true;
+		}
+
+		public boolean setClassEngine() {
+			String engineText = getOptionValue(AppOption.CLASS_ENGINE);
+			if (engineText == null) {
+				return true;
+			}
+
+			ClassEngine useEngine;
+			try {
+				useEngine = ClassEngine.valueOf(engineText.trim()
+					.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				dual_error("Class engine is not valid [ %s ]", engineText);
+				return false;
+			}
+
+			classEngine = useEngine;
+			if (classEngine != ClassEngine.FULL) {
+				dual_info("Class engine [ %s ]", classEngine.name()
+					.toLowerCase());
+			}
+			return true;
+		}
+
+		public boolean setLargeEntryThreshold() {
+			String thresholdText = getOptionValue(AppOption.LARGE_ENTRY_THRESHOLD);
+			if (thresholdText == null) {
+				return true;
+			}
+
+			long useThreshold;
+			try {
+				useThreshold = Long.parseLong(thresholdText.trim());
+			} catch (NumberFormatException e) {
+				dual_error("Large entry threshold is not a number [ %s ]", thresholdText);
+				return false;
+			}
+			if (useThreshold < 0) {
+				dual_error("Large entry threshold cannot be negative [ %s ]", thresholdText);
+				return false;
+			}
+
+			largeEntryThreshold = useThreshold;
+			dual_info("Large entry threshold [ %s ]", largeEntryThreshold);
+			return true;
+		}
+
+		/**
+		 * Answer the fingerprint of the rules, and of the options which change
+		 * transform results.
+		 *
+		 * @return The fingerprint of the rules.
+		 */
+		public String getRulesFingerprint() {
+			return new Fingerprint().add(getSignatureRule().getFingerprint())
+				.add(getSelectionRule().getFingerprint())
+				.add(classEngine.name())
+				.add(largeEntryThreshold)
+				.add(rawCopy)
+				.finish();
+		}
+
+		/**
+		 * Create the cache of transform results. This must be done after the
+		 * rules are loaded, since cached results are keyed by the rules
+		 * fingerprint.
+		 *
+		 * @return True if the cache is not used, or if the cache was created.
+		 */
+		public boolean setTransformCache() {
+			String cacheDirName = getOptionValue(AppOption.CACHE_DIR);
+			String cacheSizeText = getOptionValue(AppOption.CACHE_SIZE);
+			if (cacheDirName == null) {
+				if (cacheSizeText != null) {
+					dual_error("Cache size [ %s ] requires a cache directory", cacheSizeText);
+					return false;
+				}
+				return true;
+			}
+
+			long cacheSize = TransformCache.DEFAULT_MAX_SIZE;
+			if (cacheSizeText != null) {
+				try {
+					cacheSize = Long.parseLong(cacheSizeText.trim());
+				} catch (NumberFormatException e) {
+					dual_error("Cache size is not a number [ %s ]", cacheSizeText);
+					return false;
+				}
+				if (cacheSize <= 0) {
+					dual_error("Cache size must be positive [ %s ]", cacheSizeText);
+					return false;
+				}
+			}
+
+			File cacheDir = new File(FileUtils.normalize(cacheDirName));
+			try {
+				transformCache = new TransformCache(getLogger(), cacheDir, cacheSize, getRulesFingerprint());
+			} catch (IOException e) {
+				dual_error(String.format("Cache directory cannot be used [ %s ]", cacheDir.getAbsolutePath()), e);
+				return false;
+			}
+
+			dual_info("Cache directory [ %s ] size [ %s ]", cacheDir.getAbsolutePath(), cacheSize);
+			return true;
+		}
+
 		public boolean setInput() {
 			String useInputName = getInputFileNameFromCommandLine();
 			if (useInputName == null) {
@@ -1232,6 +1805,16 @@ public class Transformer {
 				dual_info("Overwrite of output is enabled");
 			}
 
+			rawCopy = hasOption(AppOption.RAW_COPY);
+			if (rawCopy) {
+				dual_info("Raw copy of unchanged archive entries is enabled");
+			}
+
+			incremental = hasOption(AppOption.INCREMENTAL);
+			if (incremental) {
+				dual_info("Incremental transform of directories is enabled");
+			}
+
 			if (useOutputFile.exists()) {
 				if (allowOverwrite) {
 					dual_info("Output exists and will be overwritten [ %s ]", useOutputPath);
@@ -1256,105 +1839,21 @@ public class Transformer {
 
 		public CompositeActionImpl getRootAction() {
 			if (rootAction == null) {
-				CompositeActionImpl useRootAction = new CompositeActionImpl(getLogger(), isTerse, isVerbose,
-					getBuffer(), getSelectionRule(), getSignatureRule());
-
-				DirectoryActionImpl directoryAction = useRootAction.addUsing(DirectoryActionImpl::new);
-
-				ClassActionImpl classAction = useRootAction.addUsing(ClassActionImpl::new);
-				JavaActionImpl javaAction = useRootAction.addUsing(JavaActionImpl::new);
-				TLDActionImpl tldAction = useRootAction.addUsing(TLDActionImpl::new);
-				TagActionImpl tagAction = useRootAction.addUsing(TagActionImpl::new);
-				JSPActionImpl jspAction = useRootAction.addUsing(JSPActionImpl::new);
-				ServiceLoaderConfigActionImpl serviceConfigAction = useRootAction
-					.addUsing(ServiceLoaderConfigActionImpl::new);
-				ManifestActionImpl manifestAction = useRootAction.addUsing(ManifestActionImpl::newManifestAction);
-				ManifestActionImpl featureAction = useRootAction.addUsing(ManifestActionImpl::newFeatureAction);
-				PropertiesActionImpl propertiesAction = useRootAction.addUsing(PropertiesActionImpl::new);
-
-				JarActionImpl jarAction = useRootAction.addUsing(JarActionImpl::new);
-				WarActionImpl warAction = useRootAction.addUsing(WarActionImpl::new);
-				RarActionImpl rarAction = useRootAction.addUsing(RarActionImpl::new);
-				EarActionImpl earAction = useRootAction.addUsing(EarActionImpl::new);
-
-				TextActionImpl textAction = useRootAction.addUsing(TextActionImpl::new);
-				// XmlActionImpl xmlAction =
-				// useRootAction.addUsing( XmlActionImpl::new );
-
-				ZipActionImpl zipAction = useRootAction.addUsing(ZipActionImpl::new);
-
-				NullActionImpl nullAction = useRootAction.addUsing(NullActionImpl::new);
-
-				// Directory actions know about all actions except for directory
-				// actions.
-
-				directoryAction.addAction(classAction);
-				directoryAction.addAction(javaAction);
-				directoryAction.addAction(tldAction);
-				directoryAction.addAction(tagAction);
-				directoryAction.addAction(jspAction);
-				directoryAction.addAction(serviceConfigAction);
-				directoryAction.addAction(manifestAction);
-				directoryAction.addAction(featureAction);
-				directoryAction.addAction(zipAction);
-				directoryAction.addAction(jarAction);
-				directoryAction.addAction(warAction);
-				directoryAction.addAction(rarAction);
-				directoryAction.addAction(earAction);
-				directoryAction.addAction(textAction);
-				directoryAction.addAction(nullAction);
-
-				jarAction.addAction(classAction);
-				jarAction.addAction(javaAction);
-				jarAction.addAction(serviceConfigAction);
-				jarAction.addAction(manifestAction);
-				jarAction.addAction(featureAction);
-				jarAction.addAction(textAction);
-				jarAction.addAction(propertiesAction);
-				jarAction.addAction(nullAction);
-
-				warAction.addAction(classAction);
-				warAction.addAction(javaAction);
-				warAction.addAction(tldAction);
-				warAction.addAction(tagAction);
-				warAction.addAction(jspAction);
-				warAction.addAction(serviceConfigAction);
-				warAction.addAction(manifestAction);
-				warAction.addAction(featureAction);
-				warAction.addAction(jarAction);
-				warAction.addAction(textAction);
-				warAction.addAction(nullAction);
-
-				rarAction.addAction(classAction);
-				rarAction.addAction(javaAction);
-				rarAction.addAction(serviceConfigAction);
-				rarAction.addAction(manifestAction);
-				rarAction.addAction(featureAction);
-				rarAction.addAction(jarAction);
-				rarAction.addAction(textAction);
-				rarAction.addAction(nullAction);
-
-				earAction.addAction(manifestAction);
-				earAction.addAction(jarAction);
-				earAction.addAction(warAction);
-				earAction.addAction(rarAction);
-				earAction.addAction(textAction);
-				earAction.addAction(nullAction);
-
-				zipAction.addAction(classAction);
-				zipAction.addAction(javaAction);
-				zipAction.addAction(tldAction);
-				zipAction.addAction(tagAction);
-				zipAction.addAction(jspAction);
-				zipAction.addAction(serviceConfigAction);
-				zipAction.addAction(manifestAction);
-				zipAction.addAction(featureAction);
-				zipAction.addAction(jarAction);
-				zipAction.addAction(warAction);
-				zipAction.addAction(rarAction);
-				zipAction.addAction(earAction);
-				zipAction.addAction(textAction);
-				zipAction.addAction(nullAction);
+				CompositeActionImpl useRootAction = createRootAction();
+
+				for (ActionImpl action : useRootAction.getActions()) {
+					action.setLargeEntryThreshold(largeEntryThreshold);
+					action.setTransformCache(transformCache);
+					if (action instanceof ContainerActionImpl) {
+						ContainerActionImpl containerAction = (ContainerActionImpl) action;
+						containerAction.setRawCopy(rawCopy);
+						if (incremental && (action instanceof DirectoryActionImpl)) {
+							((DirectoryActionImpl) action).setJournalFingerprint(getRulesFingerprint());
+						}
+					} else if (action instanceof ClassActionImpl) {
+						((ClassActionImpl) action).setClassEngine(classEngine);
+					}
+				}
 
 				rootAction = useRootAction;
 			}
@@ -1362,6 +1861,110 @@ public class Transformer {
 			return rootAction;
 		}
 
+		protected CompositeActionImpl createRootAction() {
+			CompositeActionImpl useRootAction = new CompositeActionImpl(getLogger(), isTerse, isVerbose,
+				getBuffer(), getSelectionRule(), getSignatureRule());
+
+			DirectoryActionImpl directoryAction = useRootAction.addUsing(DirectoryActionImpl::new);
+
+			ClassActionImpl classAction = useRootAction.addUsing(ClassActionImpl::new);
+			JavaActionImpl javaAction = useRootAction.addUsing(JavaActionImpl::new);
+			TLDActionImpl tldAction = useRootAction.addUsing(TLDActionImpl::new);
+			TagActionImpl tagAction = useRootAction.addUsing(TagActionImpl::new);
+			JSPActionImpl jspAction = useRootAction.addUsing(JSPActionImpl::new);
+			ServiceLoaderConfigActionImpl serviceConfigAction = useRootAction
+				.addUsing(ServiceLoaderConfigActionImpl::new);
+			ManifestActionImpl manifestAction = useRootAction.addUsing(ManifestActionImpl::newManifestAction);
+			ManifestActionImpl featureAction = useRootAction.addUsing(ManifestActionImpl::newFeatureAction);
+			PropertiesActionImpl propertiesAction = useRootAction.addUsing(PropertiesActionImpl::new);
+
+			JarActionImpl jarAction = useRootAction.addUsing(JarActionImpl::new);
+			WarActionImpl warAction = useRootAction.addUsing(WarActionImpl::new);
+			RarActionImpl rarAction = useRootAction.addUsing(RarActionImpl::new);
+			EarActionImpl earAction = useRootAction.addUsing(EarActionImpl::new);
+
+			TextActionImpl textAction = useRootAction.addUsing(TextActionImpl::new);
+			// XmlActionImpl xmlAction =
+			// useRootAction.addUsing( XmlActionImpl::new );
+
+			ZipActionImpl zipAction = useRootAction.addUsing(ZipActionImpl::new);
+
+			NullActionImpl nullAction = useRootAction.addUsing(NullActionImpl::new);
+
+			// Directory actions know about all actions except for directory
+			// actions.
+
+			directoryAction.addAction(classAction);
+			directoryAction.addAction(javaAction);
+			directoryAction.addAction(tldAction);
+			directoryAction.addAction(tagAction);
+			directoryAction.addAction(jspAction);
+			directoryAction.addAction(serviceConfigAction);
+			directoryAction.addAction(manifestAction);
+			directoryAction.addAction(featureAction);
+			directoryAction.addAction(zipAction);
+			directoryAction.addAction(jarAction);
+			directoryAction.addAction(warAction);
+			directoryAction.addAction(rarAction);
+			directoryAction.addAction(earAction);
+			directoryAction.addAction(textAction);
+			directoryAction.addAction(nullAction);
+
+			jarAction.addAction(classAction);
+			jarAction.addAction(javaAction);
+			jarAction.addAction(serviceConfigAction);
+			jarAction.addAction(manifestAction);
+			jarAction.addAction(featureAction);
+			jarAction.addAction(textAction);
+			jarAction.addAction(propertiesAction);
+			jarAction.addAction(nullAction);
+
+			warAction.addAction(classAction);
+			warAction.addAction(javaAction);
+			warAction.addAction(tldAction);
+			warAction.addAction(tagAction);
+			warAction.addAction(jspAction);
+			warAction.addAction(serviceConfigAction);
+			warAction.addAction(manifestAction);
+			warAction.addAction(featureAction);
+			warAction.addAction(jarAction);
+			warAction.addAction(textAction);
+			warAction.addAction(nullAction);
+
+			rarAction.addAction(classAction);
+			rarAction.addAction(javaAction);
+			rarAction.addAction(serviceConfigAction);
+			rarAction.addAction(manifestAction);
+			rarAction.addAction(featureAction);
+			rarAction.addAction(jarAction);
+			rarAction.addAction(textAction);
+			rarAction.addAction(nullAction);
+
+			earAction.addAction(manifestAction);
+			earAction.addAction(jarAction);
+			earAction.addAction(warAction);
+			earAction.addAction(rarAction);
+			earAction.addAction(textAction);
+			earAction.addAction(nullAction);
+
+			zipAction.addAction(classAction);
+			zipAction.addAction(javaAction);
+			zipAction.addAction(tldAction);
+			zipAction.addAction(tagAction);
+			zipAction.addAction(jspAction);
+			zipAction.addAction(serviceConfigAction);
+			zipAction.addAction(manifestAction);
+			zipAction.addAction(featureAction);
+			zipAction.addAction(jarAction);
+			zipAction.addAction(warAction);
+			zipAction.addAction(rarAction);
+			zipAction.addAction(earAction);
+			zipAction.addAction(textAction);
+			zipAction.addAction(nullAction);
+
+			return useRootAction;
+		}
+
 		public boolean acceptAction() {
 			String actionName = getOptionValue(AppOption.FILE_TYPE);
 			if (actionName != null) {
@@ -1388,39 +1991,77 @@ public class Transformer {
 			}
 		}
 
-		public void transform() throws TransformException {
+		/**
+		 * The changes of the last transform. These are kept by the options,
+		 * since the actions do not keep their changes once the transform is
+		 * complete.
+		 */
+		public Changes appliedChanges;
+
+		/**
+		 * Set the scheduler of a transform on the containers of the root
+		 * action. One scheduler is shared by all containers: Nested
+		 * containers do not add threads or memory.
+		 *
+		 * @param useScheduler The scheduler of the transform. Null for
+		 *            sequential processing.
+		 */
+		protected void setScheduler(TransformScheduler useScheduler) {
+			scheduler = useScheduler;
+			for (ActionImpl action : getRootAction().getActions()) {
+				if (action instanceof ContainerActionImpl) {
+					((ContainerActionImpl) action).setScheduler(useScheduler);
+				}
+			}
+		}
 
-			acceptedAction.apply(inputName, inputFile, outputFile);
+		/**
+		 * Transform the input. When parallel, each transform uses a scheduler
+		 * which is shut down when the transform completes, so that the
+		 * options may be used for several transforms.
+		 *
+		 * @throws TransformException Thrown if the transform failed.
+		 */
+		public void transform() throws TransformException {
+			if (parallelism > 1) {
+				setScheduler(new TransformScheduler(parallelism));
+			}
+			Changes useChanges;
+			try {
+				acceptedAction.apply(inputName, inputFile, outputFile);
+				useChanges = acceptedAction.getLastActiveChanges();
+			} finally {
+				// The actions keep state for the calling thread, which may
+				// be a thread which outlives the actions.
+				getRootAction().clearThreadState();
+				if (scheduler != null) {
+					TransformScheduler useScheduler = scheduler;
+					setScheduler(null);
+					useScheduler.shutdown();
+				}
+			}
+			appliedChanges = useChanges;
 
 			if (isTerse) {
 				if (toSysOut) {
-					acceptedAction.getLastActiveChanges()
-						.displayTerse(getSystemOut(), inputPath, outputPath);
+					useChanges.displayTerse(getSystemOut(), inputPath, outputPath);
 				}
-				acceptedAction.getLastActiveChanges()
-					.displayTerse(getLogger(), inputPath, outputPath);
+				useChanges.displayTerse(getLogger(), inputPath, outputPath);
 			} else if (isVerbose) {
 				if (toSysOut) {
-					acceptedAction.getLastActiveChanges()
-						.displayVerbose(getSystemOut(), inputPath, outputPath);
+					useChanges.displayVerbose(getSystemOut(), inputPath, outputPath);
 				}
-				acceptedAction.getLastActiveChanges()
-					.displayVerbose(getLogger(), inputPath, outputPath);
+				useChanges.displayVerbose(getLogger(), inputPath, outputPath);
 			} else {
 				if (toSysOut) {
-					acceptedAction.getLastActiveChanges()
-						.display(getSystemOut(), inputPath, outputPath);
+					useChanges.display(getSystemOut(), inputPath, outputPath);
 				}
-				acceptedAction.getLastActiveChanges()
-					.display(getLogger(), inputPath, outputPath);
+				useChanges.display(getLogger(), inputPath, outputPath);
 			}
 		}
 
 		public Changes getLastActiveChanges() {
-			if (acceptedAction != null) {
-				return acceptedAction.getLastActiveChanges();
-			}
-			return null;
+			return appliedChanges;
 		}
 	}
 
@@ -1461,6 +2102,18 @@ public class Transformer {
 			return TRANSFORM_ERROR_RC;
 		}
 
+		if (!options.setParallelism()) {
+			return TRANSFORM_ERROR_RC;
+		}
+
+		if (!options.setClassEngine()) {
+			return TRANSFORM_ERROR_RC;
+		}
+
+		if (!options.setLargeEntryThreshold()) {
+			return TRANSFORM_ERROR_RC;
+		}
+
 		boolean loadedRules;
 		try {
 			loadedRules = options.setRules();
@@ -1476,6 +2129,10 @@ public class Transformer {
 			options.logRules();
 		}
 
+		if (!options.setTransformCache()) {
+			return TRANSFORM_ERROR_RC;
+		}
+
 		if (!options.acceptAction()) {
 			dual_error("No action selected");
 			return FILE_TYPE_ERROR_RC;
@@ -62,10 +62,7 @@ public abstract class ActionImpl implements Action {
 		this.selectionRule = selectionRule;
 		this.signatureRule = signatureRule;
 
-		this.changes = new ArrayList<>();
-		this.numActiveChanges = 0;
-		this.activeChanges = null;
-		this.lastActiveChanges = null;
+		this.recording = ThreadLocal.withInitial(Recording::new);
 	}
 
 	//
@@ -309,6 +306,21 @@ public abstract class ActionImpl implements Action {
 
 	public abstract String getAcceptExtension();
 
+	/**
+	 * Answer the lower case suffix of the names of the resources which are
+	 * accepted by this action, when the action accepts resources using only
+	 * that suffix. Composite actions index their actions by these suffixes,
+	 * and do not call {@link #accept(String, File)} on actions which have a
+	 * suffix. An action which overrides {@link #accept(String, File)} with
+	 * other rules must also override this method.
+	 *
+	 * @return The suffix of the names of accepted resources. Null if the
+	 *         action decides acceptance using {@link #accept(String, File)}.
+	 */
+	public String getAcceptSuffix() {
+		return getAcceptExtension();
+	}
+
 	@Override
 	public boolean accept(String resourceName) {
 		return accept(resourceName, null);
@@ -326,26 +338,53 @@ public abstract class ActionImpl implements Action {
 		return new ChangesImpl();
 	}
 
-	protected final List<ChangesImpl>	changes;
-	protected int						numActiveChanges;
-	protected ChangesImpl				activeChanges;
-	protected ChangesImpl				lastActiveChanges;
+	/**
+	 * Change recording state of an action. Recording state is kept per thread,
+	 * which allows a single action tree to be used by any number of threads.
+	 * <p>
+	 * Changes are recorded as a stack, since an action may be applied to a
+	 * resource which is nested within another resource which is being
+	 * processed by the same action. Changes instances are reused across
+	 * invocations.
+	 */
+	protected static class Recording {
+		protected final List<ChangesImpl>	changes	= new ArrayList<>();
+		protected int						numActiveChanges;
+		protected ChangesImpl				activeChanges;
+		protected ChangesImpl				lastActiveChanges;
+	}
+
+	private final ThreadLocal<Recording> recording;
+
+	protected Recording getRecording() {
+		return recording.get();
+	}
 
 	protected void startRecording(String inputName) {
 		if (getIsVerbose()) {
 			info("Start processing [ {} ] using [ {} ]", inputName, getActionType());
 		}
 
+		Recording useRecording = getRecording();
+		List<ChangesImpl> changes = useRecording.changes;
+		int numActiveChanges = useRecording.numActiveChanges;
+
+		ChangesImpl activeChanges;
 		if (numActiveChanges == changes.size()) {
 			changes.add(activeChanges = newChanges());
 		} else {
 			activeChanges = changes.get(numActiveChanges);
 			activeChanges.clearChanges();
 		}
-		numActiveChanges++;
+
+		useRecording.activeChanges = activeChanges;
+		useRecording.numActiveChanges = numActiveChanges + 1;
 	}
 
 	protected void stopRecording(String inputName) {
+		Recording useRecording = getRecording();
+		ChangesImpl activeChanges = useRecording.activeChanges;
+
 		if (getIsVerbose()) {
 			String changeText;
 
@@ -365,21 +404,32 @@ public abstract class ActionImpl implements Action {
 			info("Stop processing [ {} ] using [ {} ]: {}", inputName, getActionType(), changeText);
 		}
 
-		lastActiveChanges = activeChanges;
+		useRecording.lastActiveChanges = activeChanges;
 
-		numActiveChanges--;
+		int numActiveChanges = --useRecording.numActiveChanges;
 		if (numActiveChanges == 0) {
-			activeChanges = null;
+			useRecording.activeChanges = null;
 		} else {
-			activeChanges = changes.get(numActiveChanges);
+			useRecording.activeChanges = useRecording.changes.get(numActiveChanges - 1);
 		}
 	}
 
+	/**
+	 * Discard the state which is kept for the calling thread: The recorded
+	 * changes, and the read buffer. Invoked on the root action, once a
+	 * transform is complete, by the thread which ran the transform. The last
+	 * changes of the action are not available after the state is cleared.
+	 */
+	public void clearThreadState() {
+		recording.remove();
+		getBuffer().clearInputBuffer();
+	}
+
 	//
 
 	@Override
 	public ChangesImpl getActiveChanges() {
-		return activeChanges;
+		return getRecording().activeChanges;
 	}
 
 	protected void setResourceNames(String inputResourceName, String outputResourceName) {
@@ -419,7 +469,7 @@ public abstract class ActionImpl implements Action {
 
 	@Override
 	public ChangesImpl getLastActiveChanges() {
-		return lastActiveChanges;
+		return getRecording().lastActiveChanges;
 	}
 
 	@Override
@@ -444,6 +494,210 @@ public abstract class ActionImpl implements Action {
 		return false;
 	}
 
+	// Large entries ...
+
+	/** Default size above which entries are streamed. */
+	public static final long	DEFAULT_LARGE_ENTRY_THRESHOLD	= 64L * 1024 * 1024;
+
+	private long				largeEntryThreshold				= DEFAULT_LARGE_ENTRY_THRESHOLD;
+
+	public long getLargeEntryThreshold() {
+		return largeEntryThreshold;
+	}
+
+	/**
+	 * Set the size above which inputs are not read into memory. A large input
+	 * is transformed as a stream by actions which transform text line by
+	 * line, and is copied unchanged by other actions. Containers which
+	 * process entries as a pipeline stage large entries in temporary files.
+	 *
+	 * @param largeEntryThreshold The size above which inputs are streamed. 0
+	 *            to always read inputs into memory.
+	 */
+	public void setLargeEntryThreshold(long largeEntryThreshold) {
+		this.largeEntryThreshold = largeEntryThreshold;
+	}
+
+	/**
+	 * Tell if an input is too large to be read into memory.
+	 *
+	 * @param inputLength The length of the input. -1 if the length is not
+	 *            known.
+	 * @return True if the input is known to be larger than the large entry
+	 *         threshold.
+	 */
+	public boolean isLargeEntry(long inputLength) {
+		return (largeEntryThreshold > 0) && (inputLength > largeEntryThreshold);
+	}
+
+	/**
+	 * Answer the count of bytes to read of an input of unknown length, to
+	 * decide if the input is large.
+	 *
+	 * @return One more than the large entry threshold. -1 if inputs are
+	 *         always read into memory.
+	 */
+	public int getLargeEntryProbe() {
+		if (largeEntryThreshold <= 0) {
+			return -1;
+		}
+		return (int) Math.min(largeEntryThreshold + 1, FileUtils.MAX_ARRAY_LENGTH);
+	}
+
+	/**
+	 * Answer a transformer of the lines of an input. Actions which transform
+	 * text line by line answer a transformer, which is used to transform large
+	 * inputs as streams. Other actions answer null, and large inputs are
+	 * copied unchanged.
+	 * <p>
+	 * The resource names of the input are set by this call.
+	 *
+	 * @param inputName The name of the input.
+	 * @return A transformer of the lines of the input. Null if the action does
+	 *         not transform text line by line.
+	 */
+	protected LineTransformer newLineTransformer(String inputName) {
+		return null;
+	}
+
+	/**
+	 * Apply this action to a large input, as a stream. Changes are recorded as
+	 * for {@link #apply(String, InputStream, long, OutputStream)}. The input
+	 * is written with its input name: Changes to the resource name are
+	 * recorded but are not used.
+	 *
+	 * @param inputName The name of the input.
+	 * @param inputStream The stream from which to read the input.
+	 * @param outputStream The stream to which to write the output.
+	 * @throws TransformException Thrown if the input could not be transformed.
+	 */
+	public void applyLarge(String inputName, InputStream inputStream, OutputStream outputStream)
+		throws TransformException {
+
+		startRecording(inputName);
+		try {
+			basicApplyLarge(inputName, inputStream, outputStream); // throws
+																	// TransformException
+		} finally {
+			stopRecording(inputName);
+		}
+	}
+
+	protected void basicApplyLarge(String inputName, InputStream inputStream, OutputStream outputStream)
+		throws TransformException {
+
+		LineTransformer lineTransformer = newLineTransformer(inputName);
+		try {
+			if (lineTransformer == null) {
+				setResourceNames(inputName, inputName);
+				verbose("Large input [ {} ] is copied without being transformed", inputName);
+				FileUtils.transfer(inputStream, outputStream); // throws
+																// IOException
+			} else {
+				debug("Large input [ {} ] is transformed as a stream", inputName);
+				lineTransformer.transform(inputStream, outputStream); // throws
+																		// IOException
+			}
+		} catch (IOException | RuntimeException e) {
+			throw new TransformException("Failed to transform large input [ " + inputName + " ]", e);
+		}
+	}
+
+	// Transform cache ...
+
+	private TransformCache transformCache;
+
+	public TransformCache getTransformCache() {
+		return transformCache;
+	}
+
+	/**
+	 * Set the cache of transform results. Actions which use the cache consult
+	 * the cache before transforming an input, and store their results in the
+	 * cache.
+	 *
+	 * @param transformCache The cache of transform results. Null to not use
+	 *            a cache.
+	 */
+	public void setTransformCache(TransformCache transformCache) {
+		this.transformCache = transformCache;
+	}
+
+	/**
+	 * Tell if this action uses the transform cache. Only actions the results
+	 * of which are determined by the rules, the input name and the input bytes
+	 * use the cache. By default, the cache is not used.
+	 *
+	 * @return True if this action uses the transform cache.
+	 */
+	protected boolean useTransformCache() {
+		return false;
+	}
+
+	/**
+	 * Apply this action to input bytes, using the transform cache if one is
+	 * set. Results taken from the cache record the input and output names,
+	 * and the counts of the changes which were made by the cached transform.
+	 * Failures to use the cache are logged, and do not fail the transform.
+	 *
+	 * @param inputName The name of the input.
+	 * @param inputBytes The input bytes.
+	 * @param inputLength The count of input bytes.
+	 * @return The transformed data. Null if the transform made no changes.
+	 * @throws TransformException Thrown if the transform failed.
+	 */
+	protected ByteData applyCached(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
+		TransformCache useCache = getTransformCache();
+		if ((useCache == null) || !useTransformCache()) {
+			return apply(inputName, inputBytes, inputLength);
+		}
+
+		String key = useCache.getKey(getName(), inputName, inputBytes, 0, inputLength);
+
+		TransformCache.Entry entry;
+		try {
+			entry = useCache.read(key);
+		} catch (IOException e) {
+			warn("Failed to read cached result [ {} ] of [ {} ]: {}", key, inputName, e);
+			entry = null;
+		}
+
+		if (entry != null) {
+			debug("Input [ {} ] uses cached result [ {} ]", inputName, key);
+			restoreChanges(inputName, entry);
+			return (entry.hasData() ? new ByteData(entry.outputName, entry.data, 0, entry.data.length) : null);
+		}
+
+		ByteData outputData = apply(inputName, inputBytes, inputLength);
+
+		ChangesImpl changes = getActiveChanges();
+		try {
+			useCache.write(key, changes, outputData);
+		} catch (IOException e) {
+			warn("Failed to write cached result [ {} ] of [ {} ]: {}", key, inputName, e);
+		}
+
+		return outputData;
+	}
+
+	/**
+	 * Record the changes of a result which was taken from the transform
+	 * cache.
+	 *
+	 * @param inputName The name of the input.
+	 * @param entry The cached result.
+	 * @throws TransformException Thrown if the changes of the result could
+	 *             not be read.
+	 */
+	protected void restoreChanges(String inputName, TransformCache.Entry entry) throws TransformException {
+		setResourceNames(inputName, entry.outputName);
+		try {
+			entry.restoreCounts(getActiveChanges()); // throws IOException
+		} catch (IOException e) {
+			throw new TransformException("Failed to read cached changes of [ " + inputName + " ]", e);
+		}
+	}
+
 	/**
 	 * Read bytes from an input stream. Answer byte data and a count of bytes
 	 * read.
@@ -527,7 +781,7 @@ public abstract class ActionImpl implements Action {
 
 		ByteData outputData;
 		try {
-			outputData = apply(inputName, inputData.data, inputData.length);
+			outputData = applyCached(inputName, inputData.data, inputData.length);
 			// throws JakartaTransformException
 		} catch (Throwable th) {
 			error("Transform failure [ {} ]", th, inputName);
@@ -561,6 +815,12 @@ public abstract class ActionImpl implements Action {
 	public void basicApply(String inputName, InputStream inputStream, long inputCount, OutputStream outputStream)
 		throws TransformException {
 
+		if (isLargeEntry(inputCount)) {
+			basicApplyLarge(inputName, inputStream, outputStream); // throws
+																	// TransformException
+			return;
+		}
+
 		int intInputCount = FileUtils.verifyArray(0, inputCount);
 
 		String className = getClass().getSimpleName();
@@ -573,7 +833,7 @@ public abstract class ActionImpl implements Action {
 
 		ByteData outputData;
 		try {
-			outputData = apply(inputName, inputData.data, inputData.length);
+			outputData = applyCached(inputName, inputData.data, inputData.length);
 			// throws JakartaTransformException
 		} catch (Throwable th) {
 			error("Transform failure [ {} ]", th, inputName);
@@ -593,6 +853,34 @@ public abstract class ActionImpl implements Action {
 
 	protected abstract ByteData apply(String inputName, byte[] inputBytes, int inputLength) throws TransformException;
 
+	/**
+	 * Apply this action to data which has already been read. Changes are
+	 * recorded as for {@link #apply(String, InputStream, int)}, but the input
+	 * buffer of the action is not used, which allows the data to be read by a
+	 * different thread than the thread which applies the action.
+	 *
+	 * @param inputData The data which is to be transformed.
+	 * @return The transformed data. The input data if the transform failed or
+	 *         made no changes.
+	 */
+	public ByteData apply(ByteData inputData) {
+		String inputName = inputData.name;
+
+		startRecording(inputName);
+		try {
+			ByteData outputData;
+			try {
+				outputData = applyCached(inputName, inputData.data, inputData.length);
+			} catch (Throwable th) {
+				error("Transform failure [ {} ]", th, inputName);
+				outputData = null;
+			}
+			return ((outputData == null) ? inputData : outputData);
+		} finally {
+			stopRecording(inputName);
+		}
+	}
+
 	@Override
 	public void apply(String inputName, File inputFile, File outputFile) throws TransformException {
 
@@ -614,7 +902,7 @@ public abstract class ActionImpl implements Action {
 				outputStream = openOutputStream(outputFile);
 			}
 			try {
-				apply(inputName, inputStream, inputLength, outputStream);
+				apply(inputName, inputFile, inputStream, inputLength, outputStream);
 			} finally {
 				closeOutputStream(outputFile, outputStream);
 			}
@@ -639,6 +927,25 @@ public abstract class ActionImpl implements Action {
 			}
 		}
 	}
+
+	/**
+	 * Apply this action to a file. By default, the file is processed as a
+	 * stream. Actions may use the file directly instead of the stream, for
+	 * example, to read the file out of order.
+	 *
+	 * @param inputName The name of the input.
+	 * @param inputFile The input file.
+	 * @param inputStream A stream opened on the input file.
+	 * @param inputCount The length of the input file.
+	 * @param outputStream The stream which receives the output.
+	 * @throws TransformException Thrown if the action failed.
+	 */
+	protected void apply(String inputName, File inputFile, InputStream inputStream, long inputCount,
+		OutputStream outputStream) throws TransformException {
+
+		apply(inputName, inputStream, inputCount, outputStream);
+	}
+
 	protected InputStream openInputStream(File inputFile) throws TransformException {
 
 		try {
@@ -0,0 +1,131 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Matcher which tells if a range of bytes contains any of several encoded
+ * keys.
+ * <p>
+ * Keys are indexed by their first byte, so that the bytes are scanned once,
+ * and so that most bytes are passed over with a single table lookup. The
+ * bytes are never decoded.
+ * <p>
+ * A matcher is immutable, and may be used by several threads.
+ */
+public class ByteKeyMatcher {
+	/**
+	 * Create a matcher for encoded keys.
+	 *
+	 * @param keys The encoded keys. An empty key matches every range.
+	 */
+	public ByteKeyMatcher(Collection<byte[]> keys) {
+		boolean useMatchAll = false;
+
+		List<List<byte[]>> keysByByte = newKeyLists();
+		for (byte[] key : keys) {
+			if (key.length == 0) {
+				useMatchAll = true;
+			} else {
+				keysByByte.get(key[0] & 0xFF)
+					.add(key);
+			}
+		}
+
+		this.matchAll = useMatchAll;
+		this.keys = new byte[256][][];
+		for (int byteNo = 0; byteNo < 256; byteNo++) {
+			List<byte[]> byteKeys = keysByByte.get(byteNo);
+			this.keys[byteNo] = (byteKeys.isEmpty() ? null : byteKeys.toArray(new byte[byteKeys.size()][]));
+		}
+		this.hasKeys = !keys.isEmpty();
+
+		this.prefilter = new KeyPrefilter(keys);
+	}
+
+	/** Create an empty list for each byte value. */
+	static List<List<byte[]>> newKeyLists() {
+		List<List<byte[]>> keyLists = new ArrayList<>(256);
+		for (int byteNo = 0; byteNo < 256; byteNo++) {
+			keyLists.add(new ArrayList<>());
+		}
+		return keyLists;
+	}
+
+	/** Encoded keys, indexed by their first byte. */
+	private final byte[][][]	keys;
+	private final boolean		hasKeys;
+	/** Set when a key is empty, which matches every range. */
+	private final boolean		matchAll;
+
+	/** Quick reject filter of the keys. */
+	private final KeyPrefilter	prefilter;
+
+	/**
+	 * Answer the quick reject filter of the keys, which is used to reject
+	 * whole resources before they are scanned by this matcher.
+	 *
+	 * @return The quick reject filter of the keys.
+	 */
+	public KeyPrefilter getPrefilter() {
+		return prefilter;
+	}
+
+	/**
+	 * Tell if the matcher has any keys.
+	 *
+	 * @return True if the matcher has at least one key.
+	 */
+	public boolean hasKeys() {
+		return hasKeys;
+	}
+
+	/**
+	 * Tell if a range of bytes contains any key.
+	 *
+	 * @param bytes The bytes which are to be scanned.
+	 * @param start The offset of the first byte of the range.
+	 * @param end The offset following the last byte of the range.
+	 * @return True if the range contains at least one key.
+	 */
+	public boolean matches(byte[] bytes, int start, int end) {
+		if (!hasKeys) {
+			return false;
+		} else if (matchAll) {
+			return true;
+		}
+
+		for (int pos = start; pos < end; pos++) {
+			byte[][] candidates = keys[bytes[pos] & 0xFF];
+			if (candidates == null) {
+				continue;
+			}
+			for (byte[] key : candidates) {
+				int keyEnd = pos + key.length;
+				if (keyEnd > end) {
+					continue;
+				}
+				int keyNo = 1;
+				while ((keyNo < key.length) && (bytes[pos + keyNo] == key[keyNo])) {
+					keyNo++;
+				}
+				if (keyNo == key.length) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -11,6 +11,9 @@
 
 package org.eclipse.transformer.action.impl;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.logging.Level;
 
@@ -91,6 +94,39 @@ public class ChangesImpl implements Changes {
 		return (replacements > 0);
 	}
 
+	// Counts are stored with the results of the transform cache ...
+
+	/**
+	 * Write the counts of these changes. The resource names are not written.
+	 *
+	 * @param output The output which receives the counts.
+	 * @throws IOException Thrown if the counts could not be written.
+	 */
+	public void writeCounts(DataOutput output) throws IOException {
+		output.writeInt(replacements);
+	}
+
+	/**
+	 * Add counts which were written by {@link #writeCounts(DataOutput)}.
+	 *
+	 * @param input The input which holds the counts.
+	 * @throws IOException Thrown if the counts could not be read.
+	 */
+	public void readCounts(DataInput input) throws IOException {
+		replacements += input.readInt();
+	}
+
+	protected static void writeName(DataOutput output, String name) throws IOException {
+		output.writeBoolean(name != null);
+		if (name != null) {
+			output.writeUTF(name);
+		}
+	}
+
+	protected static String readName(DataInput input) throws IOException {
+		return (input.readBoolean() ? input.readUTF() : null);
+	}
+
 	//
 
 	@Override
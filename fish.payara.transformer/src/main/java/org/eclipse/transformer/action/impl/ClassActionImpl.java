@@ -222,6 +222,11 @@ public class ClassActionImpl extends ActionImpl {
 		return ActionType.CLASS;
 	}
 
+	@Override
+	protected boolean useTransformCache() {
+		return true;
+	}
+
 	//
 
 	@Override
@@ -273,6 +278,48 @@ public class ClassActionImpl extends ActionImpl {
 
 	//
 
+	/**
+	 * Engines which are used to transform class bytes.
+	 */
+	public enum ClassEngine {
+		/**
+		 * Parse the entire class, transform its members, attributes, and
+		 * constants, and write the entire class.
+		 */
+		FULL,
+		/**
+		 * Rewrite only the constant pool of the class, and copy the bytes
+		 * which follow the constant pool. Classes which cannot be transformed
+		 * this way are transformed by the full engine.
+		 */
+		CONSTANTS,
+		/**
+		 * Transform classes using both engines, compare the results, and use
+		 * the result of the full engine. Differences are logged as errors.
+		 */
+		VALIDATE;
+	}
+
+	private ClassEngine classEngine = ClassEngine.FULL;
+
+	public ClassEngine getClassEngine() {
+		return classEngine;
+	}
+
+	/**
+	 * Set the engine which is used to transform class bytes.
+	 * <p>
+	 * The constants engine does not count changes to members and attributes
+	 * separately: All changes are reported as changes to constants.
+	 *
+	 * @param classEngine The engine which is used to transform class bytes.
+	 */
+	public void setClassEngine(ClassEngine classEngine) {
+		this.classEngine = classEngine;
+	}
+
+	//
+
 	@Override
 	public String getAcceptExtension() {
 		return ".class";
@@ -286,6 +333,45 @@ public class ClassActionImpl extends ActionImpl {
 		debug("Read [ {} ] Bytes [ {} ]", inputName, inputLength);
 		debugDump(inputBytes, 0, inputLength);
 
+		// Most classes reference none of the renamed packages. These are
+		// detected by a scan of the raw constant pool, and are not parsed.
+
+		SignatureRuleImpl useSignatureRule = getSignatureRule();
+		if (!useSignatureRule.hasConstantStrings(inputName)
+			&& !useSignatureRule.getClassPrescan()
+				.matches(inputBytes, inputLength)) {
+			String[] classNames = ClassPrescan.readClassNames(inputBytes, inputLength);
+			if (classNames != null) {
+				setClassNames(classNames[0], classNames[0]);
+				setResourceNames(inputName, inputName);
+				if (classNames[1] != null) {
+					setSuperClassNames(classNames[1], classNames[1]);
+				}
+
+				verbose("  Class bytes: {} {} (no matches)", inputName, inputLength);
+				return null;
+			}
+		}
+
+		ClassEngine useEngine = getClassEngine();
+		if (useEngine != ClassEngine.FULL) {
+			ClassConstantsTransformer constantsTransformer = new ClassConstantsTransformer(this, inputName,
+				inputBytes, inputLength);
+			if (!constantsTransformer.transform()) {
+				debug("Class [ {} ] requires the full engine", inputName);
+			} else if (useEngine == ClassEngine.CONSTANTS) {
+				return apply(inputName, inputLength, constantsTransformer);
+			} else {
+				ByteData outputData = applyFull(inputName, inputBytes, inputLength);
+				validate(inputName, inputBytes, inputLength, outputData, constantsTransformer);
+				return outputData;
+			}
+		}
+
+		return applyFull(inputName, inputBytes, inputLength);
+	}
+
+	private ByteData applyFull(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
 		ClassFile inputClass;
 		try {
 			DataInput inputClassData = ByteBufferDataInput.wrap(inputBytes, 0, inputLength);
@@ -453,6 +539,83 @@ public class ClassActionImpl extends ActionImpl {
 		return new ByteData(outputName, outputBytes, 0, outputBytes.length);
 	}
 
+	private ByteData apply(String inputName, int inputLength, ClassConstantsTransformer constantsTransformer) {
+		String inputClassName = constantsTransformer.getInputClassName();
+		String outputClassName = constantsTransformer.getOutputClassName();
+
+		String outputName;
+		if (!inputClassName.equals(outputClassName)) {
+			outputName = relocateClass(getLogger(), inputName, inputClassName, outputClassName);
+			verbose("Class name [ {} ] -> [ {} ]", inputName, outputName);
+		} else {
+			outputName = inputName;
+		}
+
+		setClassNames(inputClassName, outputClassName);
+		setResourceNames(inputName, outputName);
+
+		String inputSuperName = constantsTransformer.getInputSuperName();
+		if (inputSuperName != null) {
+			setSuperClassNames(inputSuperName, constantsTransformer.getOutputSuperName());
+		}
+
+		int modifiedConstants = constantsTransformer.getModifiedConstants();
+		if (modifiedConstants > 0) {
+			setModifiedConstants(modifiedConstants);
+		}
+
+		if (!hasNonResourceNameChanges()) {
+			verbose("  Class bytes: {} {}", inputName, inputLength);
+			return null;
+		}
+
+		byte[] outputBytes = constantsTransformer.getOutputBytes();
+		verbose("  Class size: {}: {} -> {}", inputName, inputLength, outputBytes.length);
+
+		return new ByteData(outputName, outputBytes, 0, outputBytes.length);
+	}
+
+	/**
+	 * Compare the result of the full engine with the result of the constants
+	 * engine. The classes are compared by their content, since the engines
+	 * leave different unused constants.
+	 */
+	private void validate(String inputName, byte[] inputBytes, int inputLength, ByteData fullData,
+		ClassConstantsTransformer constantsTransformer) {
+
+		byte[] constantsBytes = constantsTransformer.getOutputBytes();
+		int numConstants = ((inputBytes[8] & 0xFF) << 8) | (inputBytes[9] & 0xFF);
+
+		String fullDescription;
+		String constantsDescription;
+		try {
+			if (fullData == null) {
+				fullDescription = ClassConstantsTransformer.describe(inputBytes, 0, inputLength, numConstants);
+			} else {
+				fullDescription = ClassConstantsTransformer.describe(fullData.data, fullData.offset,
+					fullData.length, numConstants);
+			}
+			if (constantsBytes == null) {
+				constantsDescription = ClassConstantsTransformer.describe(inputBytes, 0, inputLength,
+					numConstants);
+			} else {
+				constantsDescription = ClassConstantsTransformer.describe(constantsBytes, 0,
+					constantsBytes.length, numConstants);
+			}
+		} catch (IOException e) {
+			error("Failed to validate class [ {} ]", e, inputName);
+			return;
+		}
+
+		if (fullDescription.equals(constantsDescription)) {
+			debug("Class engines agree [ {} ]", inputName);
+		} else {
+			error("Class engines disagree [ {} ]", inputName);
+			debug("Full engine:\n{}", fullDescription);
+			debug("Constants engine:\n{}", constantsDescription);
+		}
+	}
+
 	//
 
 	private <MEMBERINFO extends MemberInfo> MEMBERINFO transform(MEMBERINFO member,
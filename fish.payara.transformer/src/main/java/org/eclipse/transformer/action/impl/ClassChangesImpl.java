@@ -11,6 +11,9 @@
 
 package org.eclipse.transformer.action.impl;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.logging.Level;
 
@@ -19,6 +22,8 @@ import java.util.logging.Logger;
 public class ClassChangesImpl extends ChangesImpl {
 	@Override
 	public void clearChanges() {
+		super.clearChanges();
+
 		inputClassName = null;
 		outputClassName = null;
 
@@ -36,7 +41,10 @@ public class ClassChangesImpl extends ChangesImpl {
 
 	@Override
 	public boolean hasNonResourceNameChanges() {
-		return (((inputClassName != null) && (outputClassName != null) && !inputClassName.equals(outputClassName))
+		// Replacements are recorded by results which are taken from the
+		// transform cache.
+		return super.hasNonResourceNameChanges() ||
+			(((inputClassName != null) && (outputClassName != null) && !inputClassName.equals(outputClassName))
 			|| ((inputSuperName != null) && (outputSuperName != null) && !inputSuperName.equals(outputSuperName)) ||
 
 			(modifiedInterfaces > 0) ||
@@ -163,6 +171,40 @@ public class ClassChangesImpl extends ChangesImpl {
 
 	//
 
+	@Override
+	public void writeCounts(DataOutput output) throws IOException {
+		super.writeCounts(output);
+
+		writeName(output, inputClassName);
+		writeName(output, outputClassName);
+		writeName(output, inputSuperName);
+		writeName(output, outputSuperName);
+
+		output.writeInt(modifiedInterfaces);
+		output.writeInt(modifiedFields);
+		output.writeInt(modifiedMethods);
+		output.writeInt(modifiedAttributes);
+		output.writeInt(modifiedConstants);
+	}
+
+	@Override
+	public void readCounts(DataInput input) throws IOException {
+		super.readCounts(input);
+
+		inputClassName = readName(input);
+		outputClassName = readName(input);
+		inputSuperName = readName(input);
+		outputSuperName = readName(input);
+
+		modifiedInterfaces += input.readInt();
+		modifiedFields += input.readInt();
+		modifiedMethods += input.readInt();
+		modifiedAttributes += input.readInt();
+		modifiedConstants += input.readInt();
+	}
+
+	//
+
 	@Override
 	public void displayVerbose(PrintStream printStream, String inputPath, String outputPath) {
 		printStream.printf("Input name [ %s ] as [ %s ]\n", getInputResourceName(), inputPath);
@@ -0,0 +1,742 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.transformer.action.SignatureRule;
+import org.eclipse.transformer.action.SignatureRule.SignatureType;
+
+import aQute.bnd.classfile.Attribute;
+import aQute.bnd.classfile.ClassFile;
+import aQute.bnd.classfile.ConstantPool;
+import aQute.bnd.classfile.ConstantPool.MethodTypeInfo;
+import aQute.bnd.classfile.ConstantPool.NameAndTypeInfo;
+import aQute.bnd.classfile.MemberInfo;
+import aQute.lib.io.ByteBufferDataInput;
+
+/**
+ * Transform class bytes by rewriting only the constant pool.
+ * <p>
+ * Every name, descriptor, and signature which is used by a class is stored
+ * in a UTF8 constant. A UTF8 constant which is referenced by a class, string,
+ * name-and-type, or method-type constant is transformed according to that
+ * use. Other UTF8 constants are referenced from members and attributes, and
+ * are transformed in place according to their form: Descriptors and
+ * signatures are transformed structurally; names and other text are left
+ * unchanged. When a constant reference needs a value which differs from the
+ * in-place value, a new UTF8 constant is appended to the pool and the
+ * reference is updated. The bytes which follow the constant pool are copied
+ * unchanged.
+ * <p>
+ * Classes for which the uses of UTF8 constants cannot be determined from the
+ * constant pool alone are not transformed: Module declarations, and classes
+ * which have text which is changed by a direct string replacement. These must
+ * be transformed by parsing the entire class.
+ */
+final class ClassConstantsTransformer {
+	private static final int	CLASS_MAGIC					= 0xCAFEBABE;
+
+	// Constant pool tags; see JVMS 4.4.
+
+	private static final int	CONSTANT_Utf8				= 1;
+	private static final int	CONSTANT_Integer			= 3;
+	private static final int	CONSTANT_Float				= 4;
+	private static final int	CONSTANT_Long				= 5;
+	private static final int	CONSTANT_Double				= 6;
+	private static final int	CONSTANT_Class				= 7;
+	private static final int	CONSTANT_String				= 8;
+	private static final int	CONSTANT_Fieldref			= 9;
+	private static final int	CONSTANT_Methodref			= 10;
+	private static final int	CONSTANT_InterfaceMethodref	= 11;
+	private static final int	CONSTANT_NameAndType		= 12;
+	private static final int	CONSTANT_MethodHandle		= 15;
+	private static final int	CONSTANT_MethodType			= 16;
+	private static final int	CONSTANT_Dynamic			= 17;
+	private static final int	CONSTANT_InvokeDynamic		= 18;
+	private static final int	CONSTANT_Module				= 19;
+	private static final int	CONSTANT_Package			= 20;
+
+	private static final int	MAX_CONSTANTS				= 0xFFFF;
+	private static final int	MAX_UTF8_LENGTH				= 0xFFFF;
+
+	ClassConstantsTransformer(ClassActionImpl action, String inputName, byte[] inputBytes, int inputLength) {
+		this.action = action;
+		this.inputName = inputName;
+		this.inputBytes = inputBytes;
+		this.inputLength = inputLength;
+	}
+
+	private final ClassActionImpl	action;
+	private final String			inputName;
+	private final byte[]			inputBytes;
+	private final int				inputLength;
+
+	// Parse results ...
+
+	private int						numConstants;
+	private int[]					offsets;
+	private int						poolEnd;
+
+	// Transform results ...
+
+	/** UTF8 constants which contain a transformation key. */
+	private boolean[]				candidates;
+	private String[]				inputUtf8;
+	/** In-place values of UTF8 constants. Null for unchanged constants. */
+	private String[]				outputUtf8;
+	/** Updated UTF8 references of constants. Zero for unchanged references. */
+	private int[]					references;
+	private final List<String>		appendedUtf8	= new ArrayList<>();
+	private final Map<String, Integer>	appendedIndexes	= new HashMap<>();
+
+	private int						modifiedConstants;
+
+	private String					inputClassName;
+	private String					outputClassName;
+	private String					inputSuperName;
+	private String					outputSuperName;
+
+	private byte[]					outputBytes;
+
+	public String getInputClassName() {
+		return inputClassName;
+	}
+
+	public String getOutputClassName() {
+		return outputClassName;
+	}
+
+	public String getInputSuperName() {
+		return inputSuperName;
+	}
+
+	public String getOutputSuperName() {
+		return outputSuperName;
+	}
+
+	public int getModifiedConstants() {
+		return modifiedConstants;
+	}
+
+	/**
+	 * Answer the transformed class bytes. Answer null if the class was not
+	 * changed.
+	 */
+	public byte[] getOutputBytes() {
+		return outputBytes;
+	}
+
+	//
+
+	/**
+	 * Transform the class.
+	 *
+	 * @return True if the class was transformed. False if the class must be
+	 *         transformed by parsing the entire class, either because the
+	 *         class bytes are not valid, or because the uses of the constants
+	 *         of the class cannot be determined from the constant pool.
+	 */
+	public boolean transform() {
+		if (!parse()) {
+			return false;
+		}
+
+		candidates = new boolean[numConstants];
+		inputUtf8 = new String[numConstants];
+		outputUtf8 = new String[numConstants];
+		references = new int[numConstants];
+
+		try {
+			if (!transformUtf8()) {
+				return false;
+			}
+			if (!transformReferences()) {
+				return false;
+			}
+		} catch (IOException | RuntimeException e) {
+			action.debug("Failed to transform constants of class [ {} ]: {}", inputName, e.getMessage());
+			return false;
+		}
+
+		if ((numConstants + appendedUtf8.size()) > MAX_CONSTANTS) {
+			action.debug("Too many constants for class [ {} ]", inputName);
+			return false;
+		}
+
+		int thisIndex = u2(poolEnd + 2);
+		int superIndex = u2(poolEnd + 4);
+		try {
+			if (!isClass(thisIndex) || ((superIndex != 0) && !isClass(superIndex))) {
+				return false;
+			}
+			inputClassName = inputClassName(thisIndex);
+			outputClassName = outputClassName(thisIndex);
+			if (superIndex != 0) {
+				inputSuperName = inputClassName(superIndex);
+				outputSuperName = outputClassName(superIndex);
+			}
+		} catch (IOException e) {
+			action.debug("Failed to read class name of class [ {} ]: {}", inputName, e.getMessage());
+			return false;
+		}
+
+		if (modifiedConstants == 0) {
+			return true;
+		}
+
+		return write();
+	}
+
+	private boolean parse() {
+		if ((inputLength < 10) || (u4(0) != CLASS_MAGIC)) {
+			return false;
+		}
+
+		numConstants = u2(8);
+		offsets = new int[numConstants];
+
+		int pos = 10;
+		for (int constantNo = 1; constantNo < numConstants; constantNo++) {
+			if (pos >= inputLength) {
+				return false;
+			}
+			offsets[constantNo] = pos;
+			int tag = inputBytes[pos] & 0xFF;
+			int entryLength;
+			if (tag == CONSTANT_Utf8) {
+				entryLength = ((pos + 3 > inputLength) ? -1 : 3 + u2(pos + 1));
+			} else {
+				entryLength = entryLength(tag);
+			}
+			if (entryLength == -1) {
+				return false;
+			} else if ((tag == CONSTANT_Module) || (tag == CONSTANT_Package)) {
+				action.debug("Module declaration [ {} ]", inputName);
+				return false;
+			}
+			pos += entryLength;
+			if ((tag == CONSTANT_Long) || (tag == CONSTANT_Double)) {
+				constantNo++;
+			}
+		}
+
+		// The access flags, this class, and super class follow the pool.
+		if (pos + 6 > inputLength) {
+			return false;
+		}
+		poolEnd = pos;
+		return true;
+	}
+
+	//
+
+	/**
+	 * Transform UTF8 constants in place, according to their form.
+	 *
+	 * @return False if the class must be transformed by parsing the entire
+	 *         class.
+	 */
+	private boolean transformUtf8() throws IOException {
+		SignatureRuleImpl signatureRule = action.getSignatureRule();
+		ClassPrescan prescan = signatureRule.getClassPrescan();
+		boolean scanAll = signatureRule.hasConstantStrings(inputName);
+
+		boolean[] isName = new boolean[numConstants];
+		for (int constantNo = 1; constantNo < numConstants; constantNo++) {
+			if (tag(constantNo) == CONSTANT_NameAndType) {
+				int nameIndex = u2(offsets[constantNo] + 1);
+				if (!isUtf8(nameIndex)) {
+					return false;
+				}
+				isName[nameIndex] = true;
+			}
+		}
+
+		for (int constantNo = 1; constantNo < numConstants; constantNo++) {
+			int tag = tag(constantNo);
+			if (tag != CONSTANT_Utf8) {
+				if ((tag == CONSTANT_Long) || (tag == CONSTANT_Double)) {
+					constantNo++;
+				}
+				continue;
+			}
+
+			int start = offsets[constantNo] + 3;
+			int end = start + u2(offsets[constantNo] + 1);
+			if (!scanAll && !prescan.matches(inputBytes, start, end)) {
+				continue; // No transformation can change this constant.
+			}
+			candidates[constantNo] = true;
+
+			String input = utf8(constantNo);
+			if (input.isEmpty()) {
+				continue;
+			}
+
+			String output;
+			if (isStructured(input)) {
+				output = transformStructured(input);
+			} else {
+				// Names and other text are only changed by a direct string
+				// replacement in an annotation value, which cannot be
+				// distinguished here from a name.
+				if ((action.transformDirectString(input) != null)
+					|| (action.transformConstantString(input, inputName) != null)) {
+					action.debug("Direct string in class [ {} ]: {}", inputName, input);
+					return false;
+				}
+				output = null;
+			}
+
+			if (output != null) {
+				if (isName[constantNo]) {
+					action.debug("Changed name in class [ {} ]: {}", inputName, input);
+					return false;
+				}
+				outputUtf8[constantNo] = output;
+				modifiedConstants++;
+				action.debug("    UTF8: {} -> {}", input, output);
+				action.verbose("UTF8: {} -> {}", input, output);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Tell if text has the form of a descriptor or of a signature.
+	 */
+	private static boolean isStructured(String text) {
+		char c = text.charAt(0);
+		return (c == '(') || (c == '<')
+			|| (((c == 'L') || (c == '[')) && (text.charAt(text.length() - 1) == ';'));
+	}
+
+	/**
+	 * Transform a descriptor or a signature. The kind of the text is selected
+	 * by its syntax. Signatures are distinguished from descriptors by their
+	 * use of type arguments.
+	 *
+	 * @param input A descriptor or a signature.
+	 * @return The transformed text. Null if the text is not changed, or if
+	 *         the text is not a descriptor or a signature.
+	 */
+	private String transformStructured(String input) {
+		boolean isGeneric = (input.indexOf('<') != -1);
+		char c = input.charAt(0);
+		if (((c == '(') || (c == '<')) && SignatureSyntax.isMethodSignature(input)) {
+			return (isGeneric ? action.transform(input, SignatureType.METHOD) : action.transformDescriptor(input));
+		} else if (((c == 'L') || (c == '[')) && SignatureSyntax.isFieldSignature(input)) {
+			return (isGeneric ? action.transform(input, SignatureType.FIELD) : action.transformDescriptor(input));
+		} else if (((c == 'L') || (c == '<')) && SignatureSyntax.isClassSignature(input)) {
+			return action.transform(input, SignatureType.CLASS);
+		} else {
+			return null;
+		}
+	}
+
+	//
+
+	/**
+	 * Transform the UTF8 constants which are referenced by other constants,
+	 * according to the uses of the references.
+	 *
+	 * @return False if the class must be transformed by parsing the entire
+	 *         class.
+	 */
+	private boolean transformReferences() throws IOException {
+		for (int constantNo = 1; constantNo < numConstants; constantNo++) {
+			int tag = tag(constantNo);
+			int offset = offsets[constantNo];
+
+			int utf8Index;
+			if ((tag == CONSTANT_Class) || (tag == CONSTANT_String) || (tag == CONSTANT_MethodType)) {
+				utf8Index = u2(offset + 1);
+			} else if (tag == CONSTANT_NameAndType) {
+				utf8Index = u2(offset + 3);
+			} else {
+				if ((tag == CONSTANT_Long) || (tag == CONSTANT_Double)) {
+					constantNo++;
+				}
+				continue;
+			}
+			if (!isUtf8(utf8Index)) {
+				return false;
+			} else if (!candidates[utf8Index]) {
+				continue;
+			}
+
+			String input = utf8(utf8Index);
+			if (input.isEmpty()) {
+				continue;
+			}
+
+			String output;
+			if (tag == CONSTANT_Class) {
+				output = action.transformBinaryType(input);
+				if (output != null) {
+					action.verbose("Class Reference: {} -> {}", input, output);
+				}
+			} else if (tag == CONSTANT_String) {
+				output = transformString(input);
+				if (output != null) {
+					action.verbose("String: {} -> {}", input, output);
+				}
+			} else {
+				output = action.transformDescriptor(input);
+				if (output != null) {
+					action.verbose("{}: {} -> {}", ((tag == CONSTANT_NameAndType) ? "NameAndType" : "MethodType"),
+						input, output);
+				}
+			}
+
+			String finalValue = ((output == null) ? input : output);
+			String inPlaceValue = ((outputUtf8[utf8Index] == null) ? input : outputUtf8[utf8Index]);
+			if (!finalValue.equals(inPlaceValue)) {
+				references[constantNo] = append(finalValue);
+			}
+			if (output != null) {
+				modifiedConstants++;
+			}
+		}
+
+		return true;
+	}
+
+	private String transformString(String input) {
+		String output = action.transformConstantAsDescriptor(input, SignatureRule.ALLOW_SIMPLE_SUBSTITUTION);
+		if (output == null) {
+			output = action.transformConstantAsBinaryType(input, SignatureRule.ALLOW_SIMPLE_SUBSTITUTION);
+			if (output == null) {
+				output = action.transformDirectString(input);
+				if (output == null) {
+					output = action.transformConstantString(input, inputName);
+				}
+			}
+		}
+		return output;
+	}
+
+	private int append(String value) {
+		Integer index = appendedIndexes.get(value);
+		if (index == null) {
+			index = Integer.valueOf(numConstants + appendedUtf8.size());
+			appendedUtf8.add(value);
+			appendedIndexes.put(value, index);
+		}
+		return index.intValue();
+	}
+
+	private String inputClassName(int classIndex) throws IOException {
+		return utf8(u2(offsets[classIndex] + 1));
+	}
+
+	private String outputClassName(int classIndex) throws IOException {
+		int reference = references[classIndex];
+		if (reference != 0) {
+			return appendedUtf8.get(reference - numConstants);
+		}
+		int utf8Index = u2(offsets[classIndex] + 1);
+		String output = outputUtf8[utf8Index];
+		return ((output == null) ? utf8(utf8Index) : output);
+	}
+
+	//
+
+	private boolean write() {
+		ByteArrayBuilder output = new ByteArrayBuilder(inputLength + 64 * appendedUtf8.size());
+		output.write(inputBytes, 0, 8);
+		output.writeShort(numConstants + appendedUtf8.size());
+
+		for (int constantNo = 1; constantNo < numConstants; constantNo++) {
+			int tag = tag(constantNo);
+			int offset = offsets[constantNo];
+			int end = nextOffset(constantNo);
+
+			if ((tag == CONSTANT_Utf8) && (outputUtf8[constantNo] != null)) {
+				if (!writeUtf8(output, outputUtf8[constantNo])) {
+					return false;
+				}
+			} else if (references[constantNo] != 0) {
+				output.writeByte(tag);
+				if (tag == CONSTANT_NameAndType) {
+					output.write(inputBytes, offset + 1, 2);
+				}
+				output.writeShort(references[constantNo]);
+			} else {
+				output.write(inputBytes, offset, end - offset);
+			}
+
+			if ((tag == CONSTANT_Long) || (tag == CONSTANT_Double)) {
+				constantNo++;
+			}
+		}
+
+		for (String value : appendedUtf8) {
+			if (!writeUtf8(output, value)) {
+				return false;
+			}
+		}
+
+		output.write(inputBytes, poolEnd, inputLength - poolEnd);
+
+		outputBytes = output.toByteArray();
+		return true;
+	}
+
+	private boolean writeUtf8(ByteArrayBuilder output, String value) {
+		byte[] encoded = ClassPrescan.encode(value);
+		if (encoded.length > MAX_UTF8_LENGTH) {
+			action.debug("Constant too long for class [ {} ]: {}", inputName, value);
+			return false;
+		}
+		output.writeByte(CONSTANT_Utf8);
+		output.writeShort(encoded.length);
+		output.write(encoded, 0, encoded.length);
+		return true;
+	}
+
+	private int nextOffset(int constantNo) {
+		int tag = tag(constantNo);
+		int nextNo = constantNo + (((tag == CONSTANT_Long) || (tag == CONSTANT_Double)) ? 2 : 1);
+		return ((nextNo < numConstants) ? offsets[nextNo] : poolEnd);
+	}
+
+	/**
+	 * Minimal growable byte array. Used in place of a byte array output
+	 * stream, to avoid synchronized writes.
+	 */
+	private static final class ByteArrayBuilder {
+		private byte[]	bytes;
+		private int		length;
+
+		ByteArrayBuilder(int initialCapacity) {
+			bytes = new byte[initialCapacity];
+		}
+
+		private void ensure(int count) {
+			if (length + count > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+			}
+		}
+
+		void writeByte(int value) {
+			ensure(1);
+			bytes[length++] = (byte) value;
+		}
+
+		void writeShort(int value) {
+			ensure(2);
+			bytes[length++] = (byte) (value >> 8);
+			bytes[length++] = (byte) value;
+		}
+
+		void write(byte[] source, int offset, int count) {
+			ensure(count);
+			System.arraycopy(source, offset, bytes, length, count);
+			length += count;
+		}
+
+		byte[] toByteArray() {
+			return ((length == bytes.length) ? bytes : Arrays.copyOf(bytes, length));
+		}
+	}
+
+	//
+
+	private int tag(int constantNo) {
+		return inputBytes[offsets[constantNo]] & 0xFF;
+	}
+
+	private boolean isUtf8(int constantNo) {
+		return (constantNo > 0) && (constantNo < numConstants) && (offsets[constantNo] != 0)
+			&& (tag(constantNo) == CONSTANT_Utf8);
+	}
+
+	private boolean isClass(int constantNo) {
+		return (constantNo > 0) && (constantNo < numConstants) && (offsets[constantNo] != 0)
+			&& (tag(constantNo) == CONSTANT_Class) && isUtf8(u2(offsets[constantNo] + 1));
+	}
+
+	private String utf8(int constantNo) throws IOException {
+		String value = inputUtf8[constantNo];
+		if (value == null) {
+			// A UTF8 entry is a length prefixed modified UTF-8 string, which
+			// is the format read by DataInput.readUTF.
+			int offset = offsets[constantNo] + 1;
+			DataInputStream utf8Input = new DataInputStream(
+				new ByteArrayInputStream(inputBytes, offset, inputLength - offset));
+			value = utf8Input.readUTF(); // throws IOException
+			inputUtf8[constantNo] = value;
+		}
+		return value;
+	}
+
+	private int u2(int pos) {
+		return ((inputBytes[pos] & 0xFF) << 8) | (inputBytes[pos + 1] & 0xFF);
+	}
+
+	private int u4(int pos) {
+		return ((inputBytes[pos] & 0xFF) << 24) | ((inputBytes[pos + 1] & 0xFF) << 16)
+			| ((inputBytes[pos + 2] & 0xFF) << 8) | (inputBytes[pos + 3] & 0xFF);
+	}
+
+	/**
+	 * Answer the length of a constant pool entry, including the tag. Answer
+	 * -1 for unknown tags.
+	 */
+	private static int entryLength(int tag) {
+		switch (tag) {
+			case CONSTANT_Class :
+			case CONSTANT_String :
+			case CONSTANT_MethodType :
+			case CONSTANT_Module :
+			case CONSTANT_Package :
+				return 3;
+			case CONSTANT_MethodHandle :
+				return 4;
+			case CONSTANT_Integer :
+			case CONSTANT_Float :
+			case CONSTANT_Fieldref :
+			case CONSTANT_Methodref :
+			case CONSTANT_InterfaceMethodref :
+			case CONSTANT_NameAndType :
+			case CONSTANT_Dynamic :
+			case CONSTANT_InvokeDynamic :
+				return 5;
+			case CONSTANT_Long :
+			case CONSTANT_Double :
+				return 9;
+			default :
+				return -1;
+		}
+	}
+
+	//
+
+	/**
+	 * Describe the content of a class, for comparing the results of class
+	 * transformation engines. The description uses the values of the
+	 * constants of the class, and not their indexes, except for constants
+	 * which reference other non-UTF8 constants. UTF8 constants are only
+	 * described through their uses, since different engines leave different
+	 * unused UTF8 constants.
+	 *
+	 * @param classBytes Bytes of the class.
+	 * @param offset The offset to the class bytes.
+	 * @param length The count of class bytes.
+	 * @param numConstants The count of constants which are described. Only
+	 *            constants which were present in the initial class are
+	 *            described.
+	 * @return A description of the class.
+	 * @throws IOException Thrown if the class cannot be parsed.
+	 */
+	static String describe(byte[] classBytes, int offset, int length, int numConstants) throws IOException {
+		ClassFile classFile = ClassFile.parseClassFile(ByteBufferDataInput.wrap(classBytes, offset, length));
+
+		StringBuilder description = new StringBuilder();
+		description.append(classFile.major_version)
+			.append('.')
+			.append(classFile.minor_version)
+			.append(' ')
+			.append(classFile.access)
+			.append(' ')
+			.append(classFile.this_class)
+			.append(" extends ")
+			.append(classFile.super_class)
+			.append(" implements ")
+			.append(Arrays.toString(classFile.interfaces))
+			.append('\n');
+
+		ConstantPool constants = classFile.constant_pool;
+		int useConstants = Math.min(numConstants, constants.size());
+		for (int constantNo = 1; constantNo < useConstants; constantNo++) {
+			int tag = constants.tag(constantNo);
+			String value;
+			switch (tag) {
+				case ConstantPool.CONSTANT_Utf8 :
+					value = null;
+					break;
+				case ConstantPool.CONSTANT_Class :
+					value = constants.className(constantNo);
+					break;
+				case ConstantPool.CONSTANT_String :
+					value = constants.string(constantNo);
+					break;
+				case ConstantPool.CONSTANT_NameAndType : {
+					NameAndTypeInfo info = constants.entry(constantNo);
+					value = constants.utf8(info.name_index) + ' ' + constants.utf8(info.descriptor_index);
+					break;
+				}
+				case ConstantPool.CONSTANT_MethodType : {
+					MethodTypeInfo info = constants.entry(constantNo);
+					value = constants.utf8(info.descriptor_index);
+					break;
+				}
+				default : {
+					// An object, so that 'valueOf(char[])' is not selected.
+					Object entry = constants.entry(constantNo);
+					value = String.valueOf(entry);
+					break;
+				}
+			}
+			if (value != null) {
+				description.append("  #")
+					.append(constantNo)
+					.append(' ')
+					.append(tag)
+					.append(' ')
+					.append(value)
+					.append('\n');
+			}
+			if ((tag == ConstantPool.CONSTANT_Long) || (tag == ConstantPool.CONSTANT_Double)) {
+				constantNo++;
+			}
+		}
+
+		describe(description, "Field", classFile.fields);
+		describe(description, "Method", classFile.methods);
+		describe(description, "  ", classFile.attributes);
+
+		return description.toString();
+	}
+
+	private static void describe(StringBuilder description, String kind, MemberInfo[] members) {
+		for (MemberInfo member : members) {
+			description.append(kind)
+				.append(' ')
+				.append(member.access)
+				.append(' ')
+				.append(member.name)
+				.append(' ')
+				.append(member.descriptor)
+				.append('\n');
+			describe(description, "    ", member.attributes);
+		}
+	}
+
+	private static void describe(StringBuilder description, String indent, Attribute[] attributes) {
+		for (Attribute attribute : attributes) {
+			description.append(indent)
+				.append(attribute)
+				.append('\n');
+		}
+	}
+}
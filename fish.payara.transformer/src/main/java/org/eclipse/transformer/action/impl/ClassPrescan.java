@@ -0,0 +1,301 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Byte level scan of the UTF8 constants of a class.
+ * <p>
+ * Every change which a class transformation can make is triggered by a UTF8
+ * constant which contains a package rename key, in dotted or in slashed form,
+ * or which contains a direct string replacement key. Descriptors and
+ * signatures embed package names in slashed form, and string constants embed
+ * package names in dotted form.
+ * <p>
+ * A class which has no UTF8 constant which contains any of the keys cannot be
+ * changed by the transformation, and does not need to be parsed. The scan
+ * matches the encoded bytes of the keys against the encoded bytes of the
+ * constants, which avoids decoding the constants.
+ */
+public class ClassPrescan {
+	private static final int	CLASS_MAGIC					= 0xCAFEBABE;
+
+	// Constant pool tags; see JVMS 4.4.
+
+	private static final int	CONSTANT_Utf8				= 1;
+	private static final int	CONSTANT_Integer			= 3;
+	private static final int	CONSTANT_Float				= 4;
+	private static final int	CONSTANT_Long				= 5;
+	private static final int	CONSTANT_Double				= 6;
+	private static final int	CONSTANT_Class				= 7;
+	private static final int	CONSTANT_String				= 8;
+	private static final int	CONSTANT_Fieldref			= 9;
+	private static final int	CONSTANT_Methodref			= 10;
+	private static final int	CONSTANT_InterfaceMethodref	= 11;
+	private static final int	CONSTANT_NameAndType		= 12;
+	private static final int	CONSTANT_MethodHandle		= 15;
+	private static final int	CONSTANT_MethodType			= 16;
+	private static final int	CONSTANT_Dynamic			= 17;
+	private static final int	CONSTANT_InvokeDynamic		= 18;
+	private static final int	CONSTANT_Module				= 19;
+	private static final int	CONSTANT_Package			= 20;
+
+	/**
+	 * Create a scan for package rename keys and for direct string keys.
+	 *
+	 * @param packageRenames Package rename keys, in dotted form. Keys may
+	 *            have a wildcard suffix.
+	 * @param directStrings Direct string replacement keys.
+	 */
+	public ClassPrescan(Collection<String> packageRenames, Collection<String> directStrings) {
+		Set<String> keys = new LinkedHashSet<>();
+		for (String packageName : packageRenames) {
+			String useName = SignatureRuleImpl.stripWildcard(packageName);
+			keys.add(useName);
+			keys.add(useName.replace('.', '/'));
+		}
+		keys.addAll(directStrings);
+
+		List<byte[]> keyBytes = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			keyBytes.add(encode(key));
+		}
+		this.keyMatcher = new ByteKeyMatcher(keyBytes);
+	}
+
+	/** Matcher of the encoded keys. */
+	private final ByteKeyMatcher keyMatcher;
+
+	/**
+	 * Encode a key, or the value of a UTF8 constant, as modified UTF-8, which
+	 * is the encoding used by class file UTF8 constants.
+	 */
+	static byte[] encode(String key) {
+		int keyLength = key.length();
+		byte[] bytes = new byte[keyLength * 3];
+		int byteNo = 0;
+		for (int charNo = 0; charNo < keyLength; charNo++) {
+			char c = key.charAt(charNo);
+			if ((c >= 0x0001) && (c <= 0x007F)) {
+				bytes[byteNo++] = (byte) c;
+			} else if (c <= 0x07FF) {
+				bytes[byteNo++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+				bytes[byteNo++] = (byte) (0x80 | (c & 0x3F));
+			} else {
+				bytes[byteNo++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+				bytes[byteNo++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				bytes[byteNo++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		byte[] encoded = new byte[byteNo];
+		System.arraycopy(bytes, 0, encoded, 0, byteNo);
+		return encoded;
+	}
+
+	//
+
+	/**
+	 * Tell if any UTF8 constant of a class contains any key.
+	 *
+	 * @param classBytes Bytes of the class.
+	 * @param classLength The count of bytes of the class.
+	 * @return True if any UTF8 constant contains any key. True if the class
+	 *         bytes are not valid, since the class must then be parsed to
+	 *         report the problem.
+	 */
+	public boolean matches(byte[] classBytes, int classLength) {
+		if (!keyMatcher.hasKeys()) {
+			return false;
+		}
+
+		if ((classLength < 10) || (u4(classBytes, 0) != CLASS_MAGIC)) {
+			return true;
+		}
+
+		int numConstants = u2(classBytes, 8);
+		int pos = 10;
+		for (int constantNo = 1; constantNo < numConstants; constantNo++) {
+			if (pos >= classLength) {
+				return true;
+			}
+			int tag = classBytes[pos] & 0xFF;
+			if (tag == CONSTANT_Utf8) {
+				if (pos + 3 > classLength) {
+					return true;
+				}
+				int utf8Length = u2(classBytes, pos + 1);
+				int utf8Start = pos + 3;
+				int utf8End = utf8Start + utf8Length;
+				if (utf8End > classLength) {
+					return true;
+				}
+				if (keyMatcher.matches(classBytes, utf8Start, utf8End)) {
+					return true;
+				}
+				pos = utf8End;
+			} else {
+				int entryLength = entryLength(tag);
+				if (entryLength == -1) {
+					return true;
+				}
+				pos += entryLength;
+				if ((tag == CONSTANT_Long) || (tag == CONSTANT_Double)) {
+					constantNo++;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Tell if a range of bytes, which is the body of a single UTF8 constant,
+	 * contains any key.
+	 */
+	boolean matches(byte[] bytes, int start, int end) {
+		return keyMatcher.matches(bytes, start, end);
+	}
+
+	/**
+	 * Answer the length of a constant pool entry, including the tag. Answer
+	 * -1 for UTF8 entries, which have a variable length, and for unknown tags.
+	 */
+	private static int entryLength(int tag) {
+		switch (tag) {
+			case CONSTANT_Class :
+			case CONSTANT_String :
+			case CONSTANT_MethodType :
+			case CONSTANT_Module :
+			case CONSTANT_Package :
+				return 3;
+			case CONSTANT_MethodHandle :
+				return 4;
+			case CONSTANT_Integer :
+			case CONSTANT_Float :
+			case CONSTANT_Fieldref :
+			case CONSTANT_Methodref :
+			case CONSTANT_InterfaceMethodref :
+			case CONSTANT_NameAndType :
+			case CONSTANT_Dynamic :
+			case CONSTANT_InvokeDynamic :
+				return 5;
+			case CONSTANT_Long :
+			case CONSTANT_Double :
+				return 9;
+			default :
+				return -1;
+		}
+	}
+
+	/**
+	 * Read the names of a class and of its super class. These are needed to
+	 * record a class which is not parsed.
+	 *
+	 * @param classBytes Bytes of the class.
+	 * @param classLength The count of bytes of the class.
+	 * @return The class name and the super class name, in binary form. The
+	 *         super class name is null for a class which has no super class.
+	 *         Null if the class bytes are not valid.
+	 */
+	public static String[] readClassNames(byte[] classBytes, int classLength) {
+		if ((classLength < 10) || (u4(classBytes, 0) != CLASS_MAGIC)) {
+			return null;
+		}
+
+		int numConstants = u2(classBytes, 8);
+		int[] offsets = new int[numConstants];
+
+		int pos = 10;
+		for (int constantNo = 1; constantNo < numConstants; constantNo++) {
+			if (pos >= classLength) {
+				return null;
+			}
+			offsets[constantNo] = pos;
+			int tag = classBytes[pos] & 0xFF;
+			if (tag == CONSTANT_Utf8) {
+				if (pos + 3 > classLength) {
+					return null;
+				}
+				pos += 3 + u2(classBytes, pos + 1);
+			} else {
+				int entryLength = entryLength(tag);
+				if (entryLength == -1) {
+					return null;
+				}
+				pos += entryLength;
+				if ((tag == CONSTANT_Long) || (tag == CONSTANT_Double)) {
+					constantNo++;
+				}
+			}
+		}
+		if (pos + 6 > classLength) {
+			return null;
+		}
+
+		try {
+			String className = readClassName(classBytes, classLength, offsets, u2(classBytes, pos + 2));
+			if (className == null) {
+				return null;
+			}
+			int superIndex = u2(classBytes, pos + 4);
+			String superName = ((superIndex == 0) ? null
+				: readClassName(classBytes, classLength, offsets, superIndex));
+			return new String[] {
+				className, superName
+			};
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static String readClassName(byte[] classBytes, int classLength, int[] offsets, int classIndex)
+		throws IOException {
+
+		if ((classIndex <= 0) || (classIndex >= offsets.length)) {
+			return null;
+		}
+		int classPos = offsets[classIndex];
+		if ((classBytes[classPos] & 0xFF) != CONSTANT_Class) {
+			return null;
+		}
+		int nameIndex = u2(classBytes, classPos + 1);
+		if ((nameIndex <= 0) || (nameIndex >= offsets.length)) {
+			return null;
+		}
+		int namePos = offsets[nameIndex];
+		if ((classBytes[namePos] & 0xFF) != CONSTANT_Utf8) {
+			return null;
+		}
+
+		// A UTF8 entry is a length prefixed modified UTF-8 string, which is
+		// the format read by DataInput.readUTF.
+		DataInputStream nameInput = new DataInputStream(
+			new ByteArrayInputStream(classBytes, namePos + 1, classLength - (namePos + 1)));
+		return nameInput.readUTF(); // throws IOException
+	}
+
+	private static int u2(byte[] bytes, int pos) {
+		return ((bytes[pos] & 0xFF) << 8) | (bytes[pos + 1] & 0xFF);
+	}
+
+	private static int u4(byte[] bytes, int pos) {
+		return ((bytes[pos] & 0xFF) << 24) | ((bytes[pos + 1] & 0xFF) << 16) | ((bytes[pos + 2] & 0xFF) << 8)
+			| (bytes[pos + 3] & 0xFF);
+	}
+}
@@ -13,7 +13,9 @@ package org.eclipse.transformer.action.impl;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.transformer.TransformException;
 import org.eclipse.transformer.action.ActionType;
@@ -35,29 +37,33 @@ public class CompositeActionImpl extends ActionImpl implements CompositeAction {
 		super(logger, isTerse, isVerbose, buffer, selectionRule, signatureRule);
 
 		this.actions = new ArrayList<>();
-		this.acceptedAction = null;
+		this.acceptedAction = new ThreadLocal<>();
 	}
 
 	//
 
 	@Override
 	public String getName() {
-		return ((acceptedAction == null) ? null : acceptedAction.getName());
+		ActionImpl useAcceptedAction = getAcceptedAction();
+		return ((useAcceptedAction == null) ? null : useAcceptedAction.getName());
 	}
 
 	@Override
 	public ActionType getActionType() {
-		return ((acceptedAction == null) ? null : acceptedAction.getActionType());
+		ActionImpl useAcceptedAction = getAcceptedAction();
+		return ((useAcceptedAction == null) ? null : useAcceptedAction.getActionType());
 	}
 
 	@Override
 	public ChangesImpl getLastActiveChanges() {
-		return ((acceptedAction == null) ? null : acceptedAction.getLastActiveChanges());
+		ActionImpl useAcceptedAction = getAcceptedAction();
+		return ((useAcceptedAction == null) ? null : useAcceptedAction.getLastActiveChanges());
 	}
 
 	@Override
 	public ChangesImpl getActiveChanges() {
-		return ((acceptedAction == null) ? null : acceptedAction.getActiveChanges());
+		ActionImpl useAcceptedAction = getAcceptedAction();
+		return ((useAcceptedAction == null) ? null : useAcceptedAction.getActiveChanges());
 	}
 
 	@Override
@@ -68,8 +74,10 @@ public class CompositeActionImpl extends ActionImpl implements CompositeAction {
 
 	//
 
-	private final List<ActionImpl>	actions;
-	private ActionImpl				acceptedAction;
+	private final List<ActionImpl>			actions;
+	// The accepted action is kept per thread, since a composite action may be
+	// used by several threads at once.
+	private final ThreadLocal<ActionImpl>	acceptedAction;
 
 	@Override
 	public List<ActionImpl> getActions() {
@@ -78,6 +86,7 @@ public class CompositeActionImpl extends ActionImpl implements CompositeAction {
 
 	protected void addAction(ActionImpl action) {
 		getActions().add(action);
+		dispatch = null;
 	}
 
 	@Override
@@ -86,15 +95,171 @@ public class CompositeActionImpl extends ActionImpl implements CompositeAction {
 	}
 
 	@Override
-	public ActionImpl acceptAction(String resourceName, File resourceFile) {
+	public void clearThreadState() {
+		super.clearThreadState();
+		acceptedAction.remove();
 		for (ActionImpl action : getActions()) {
-			if (action.accept(resourceName, resourceFile)) {
-				acceptedAction = action;
-				return action;
+			action.clearThreadState();
+		}
+	}
+
+	@Override
+	public String getAcceptSuffix() {
+		return null; // Acceptance is not decided by the resource name suffix.
+	}
+
+	@Override
+	public ActionImpl acceptAction(String resourceName, File resourceFile) {
+		ActionImpl action = getDispatch().select(resourceName, resourceFile);
+		acceptedAction.set(action);
+		return action;
+	}
+
+	// Action dispatch ...
+	//
+	// Most actions accept resources using only a suffix of the resource name,
+	// for example, ".class". These actions are indexed by the extension of
+	// their suffix, which is the text of the suffix which begins with its
+	// last '.'. A resource name can only end with a suffix which has the same
+	// extension as the resource name, which is used to find the candidate
+	// actions without allocating. Other actions are asked, as before, using
+	// 'accept'. Candidates are tried in the order of the actions list, which
+	// keeps the precedence of the actions.
+
+	private volatile Dispatch dispatch;
+
+	private Dispatch getDispatch() {
+		List<ActionImpl> useActions = getActions();
+		Dispatch useDispatch = dispatch;
+		// The actions list is visible, and may be updated directly.
+		if ((useDispatch == null) || (useDispatch.actions.length != useActions.size())) {
+			dispatch = useDispatch = new Dispatch(useActions);
+		}
+		return useDispatch;
+	}
+
+	private static final class Dispatch {
+		/** The actions, in precedence order. */
+		final ActionImpl[]	actions;
+		/** The accepted suffix of each action. Null for custom actions. */
+		final String[]		suffixes;
+		/** The indexes of actions which are not accepted using a suffix. */
+		final int[]			customIndexes;
+
+		/** Hash table of suffix extensions. */
+		final String[]		extensions;
+		/** The indexes of the actions of each extension, in order. */
+		final int[][]		extensionIndexes;
+
+		Dispatch(List<ActionImpl> actionsList) {
+			int numActions = actionsList.size();
+			this.actions = actionsList.toArray(new ActionImpl[numActions]);
+			this.suffixes = new String[numActions];
+
+			Map<String, List<Integer>> useExtensions = new LinkedHashMap<>();
+			List<Integer> useCustom = new ArrayList<>();
+
+			for (int actionNo = 0; actionNo < numActions; actionNo++) {
+				String suffix = actions[actionNo].getAcceptSuffix();
+				int extensionStart = ((suffix == null) ? -1 : suffix.lastIndexOf('.'));
+				if (extensionStart == -1) {
+					useCustom.add(actionNo);
+				} else {
+					suffixes[actionNo] = suffix;
+					useExtensions.computeIfAbsent(suffix.substring(extensionStart), k -> new ArrayList<>())
+						.add(actionNo);
+				}
+			}
+
+			this.customIndexes = toArray(useCustom);
+
+			int tableSize = Integer.highestOneBit(Math.max(1, useExtensions.size() * 2) * 2 - 1);
+			this.extensions = new String[tableSize];
+			this.extensionIndexes = new int[tableSize][];
+			for (Map.Entry<String, List<Integer>> extensionEntry : useExtensions.entrySet()) {
+				String extension = extensionEntry.getKey();
+				int slot = lowerCaseHash(extension, 0) & (tableSize - 1);
+				while (extensions[slot] != null) {
+					slot = (slot + 1) & (tableSize - 1);
+				}
+				extensions[slot] = extension;
+				extensionIndexes[slot] = toArray(extensionEntry.getValue());
 			}
 		}
-		acceptedAction = null;
-		return null;
+
+		/**
+		 * Hash the text which begins at an offset, ignoring case.
+		 */
+		private static int lowerCaseHash(String text, int start) {
+			int hash = 0;
+			for (int charNo = start; charNo < text.length(); charNo++) {
+				hash = (31 * hash) + Character.toLowerCase(text.charAt(charNo));
+			}
+			return hash;
+		}
+
+		private static int[] toArray(List<Integer> values) {
+			int[] array = new int[values.size()];
+			for (int valueNo = 0; valueNo < array.length; valueNo++) {
+				array[valueNo] = values.get(valueNo);
+			}
+			return array;
+		}
+
+		/**
+		 * Answer the indexes of the actions which have the same extension as
+		 * a resource name.
+		 */
+		private int[] candidates(String resourceName) {
+			int nameLength = resourceName.length();
+			int extensionStart = resourceName.lastIndexOf('.');
+			if (extensionStart == -1) {
+				return null;
+			}
+
+			int hash = lowerCaseHash(resourceName, extensionStart);
+			int extensionLength = nameLength - extensionStart;
+			int slot = hash & (extensions.length - 1);
+			String extension;
+			while ((extension = extensions[slot]) != null) {
+				if ((extension.length() == extensionLength)
+					&& resourceName.regionMatches(true, extensionStart, extension, 0, extensionLength)) {
+					return extensionIndexes[slot];
+				}
+				slot = (slot + 1) & (extensions.length - 1);
+			}
+			return null;
+		}
+
+		ActionImpl select(String resourceName, File resourceFile) {
+			int[] suffixIndexes = candidates(resourceName);
+			int numSuffix = ((suffixIndexes == null) ? 0 : suffixIndexes.length);
+			int numCustom = customIndexes.length;
+
+			// Merge the suffix candidates with the custom actions, in action
+			// order.
+			int suffixNo = 0;
+			int customNo = 0;
+			while ((suffixNo < numSuffix) || (customNo < numCustom)) {
+				int actionNo;
+				boolean accepted;
+				if ((customNo == numCustom)
+					|| ((suffixNo < numSuffix) && (suffixIndexes[suffixNo] < customIndexes[customNo]))) {
+					actionNo = suffixIndexes[suffixNo++];
+					String suffix = suffixes[actionNo];
+					int suffixLength = suffix.length();
+					accepted = resourceName.regionMatches(true, resourceName.length() - suffixLength, suffix, 0,
+						suffixLength);
+				} else {
+					actionNo = customIndexes[customNo++];
+					accepted = actions[actionNo].accept(resourceName, resourceFile);
+				}
+				if (accepted) {
+					return actions[actionNo];
+				}
+			}
+			return null;
+		}
 	}
 
 	@Override
@@ -104,7 +269,7 @@ public class CompositeActionImpl extends ActionImpl implements CompositeAction {
 
 	@Override
 	public ActionImpl getAcceptedAction() {
-		return ((acceptedAction == null) ? null : acceptedAction);
+		return acceptedAction.get();
 	}
 
 	//
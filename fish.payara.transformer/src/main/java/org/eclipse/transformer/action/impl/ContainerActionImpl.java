@@ -15,10 +15,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -28,8 +27,8 @@ import org.eclipse.transformer.action.ActionType;
 import org.eclipse.transformer.action.ContainerAction;
 import org.eclipse.transformer.action.ContainerChanges;
 import org.eclipse.transformer.util.ByteData;
-import org.eclipse.transformer.util.FileUtils;
-import org.eclipse.transformer.util.InputStreamData;
+import org.eclipse.transformer.util.ZipArchive;
+import org.eclipse.transformer.util.ZipArchiveWriter;
 import java.util.logging.Logger;
 
 public abstract class ContainerActionImpl extends ActionImpl implements ContainerAction {
@@ -71,6 +70,110 @@ public abstract class ContainerActionImpl extends ActionImpl implements Containe
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public void clearThreadState() {
+		super.clearThreadState();
+		getAction().clearThreadState();
+	}
+
+	//
+
+	private TransformScheduler scheduler;
+
+	public TransformScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Set the scheduler which is used to process the entries of a container.
+	 * The same scheduler is set on all of the containers of an action tree.
+	 * When set, directories are processed as jobs of the scheduler, and
+	 * archives are processed as a pipeline: A reader reads entries, the
+	 * workers of the scheduler transform entries, and the calling thread
+	 * writes entries in their original order. Containers which are applied by
+	 * a worker of the scheduler, for example, nested archives, are processed
+	 * in sequence by that worker.
+	 *
+	 * @param scheduler The scheduler. Null to select sequential processing.
+	 */
+	public void setScheduler(TransformScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	public int getParallelism() {
+		return ((scheduler == null) ? 1 : scheduler.getParallelism());
+	}
+
+	/**
+	 * Set the number of threads which are used to process the entries of this
+	 * container, using a scheduler of this container only. Use
+	 * {@link #setScheduler(TransformScheduler)} to share one scheduler between
+	 * the containers of an action tree.
+	 *
+	 * @param parallelism The number of worker threads. Values less than two
+	 *            select sequential processing.
+	 */
+	public void setParallelism(int parallelism) {
+		setScheduler((parallelism > 1) ? new TransformScheduler(parallelism) : null);
+	}
+
+	/**
+	 * Tell if entries are processed concurrently: A scheduler is set, and the
+	 * calling thread is not a worker of a scheduler.
+	 *
+	 * @return True if entries are processed concurrently.
+	 */
+	public boolean isParallel() {
+		return (scheduler != null) && !TransformScheduler.isWorker();
+	}
+
+	private boolean concurrentNestedArchives;
+
+	public boolean getConcurrentNestedArchives() {
+		return concurrentNestedArchives;
+	}
+
+	/**
+	 * Set whether nested archives are transformed concurrently when entries
+	 * are processed as a pipeline. When set, nested archives are extracted to
+	 * temporary files, are transformed by the workers of the pipeline, largest
+	 * first, and are spliced into the output in their original order. When
+	 * not set, nested archives are transformed in sequence, as they are read.
+	 *
+	 * @param concurrentNestedArchives Whether to transform nested archives
+	 *            concurrently.
+	 */
+	public void setConcurrentNestedArchives(boolean concurrentNestedArchives) {
+		this.concurrentNestedArchives = concurrentNestedArchives;
+	}
+
+	private boolean rawCopy;
+
+	public boolean getRawCopy() {
+		return rawCopy;
+	}
+
+	/**
+	 * Set whether unchanged entries are copied without being decompressed and
+	 * recompressed. Raw copies are only possible when the input is an archive
+	 * file, which is then read using {@link ZipArchive} and written using
+	 * {@link ZipArchiveWriter}. Entries which are not selected, which are not
+	 * accepted by any action, or which are not changed by their action, are
+	 * copied as their original compressed bytes, with their original CRC,
+	 * sizes, and time. Only changed entries are recompressed.
+	 * <p>
+	 * Raw copies are not used for Zip64 archives, or for archives which have
+	 * encrypted entries, which are processed as streams.
+	 *
+	 * @param rawCopy Whether to copy unchanged entries without recompressing
+	 *            them.
+	 */
+	public void setRawCopy(boolean rawCopy) {
+		this.rawCopy = rawCopy;
+	}
+
+	//
+
 	@Override
 	public ActionImpl acceptAction(String resourceName) {
 		return acceptAction(resourceName, null);
@@ -109,21 +212,33 @@ public abstract class ContainerActionImpl extends ActionImpl implements Containe
 	//
 
 	protected void recordUnaccepted(String resourceName) {
+		recordUnaccepted(getActiveChanges(), resourceName);
+	}
+
+	protected void recordUnselected(Action action, String resourceName) {
+		recordUnselected(getActiveChanges(), action, resourceName);
+	}
+
+	protected void recordTransform(Action action, String resourceName) {
+		recordTransform(getActiveChanges(), action, resourceName);
+	}
+
+	protected void recordUnaccepted(ContainerChangesImpl useChanges, String resourceName) {
 		debug("Resource [ {} ]: Not accepted", resourceName);
 
-		getActiveChanges().record();
+		useChanges.record();
 	}
 
-	protected void recordUnselected(Action action, String resourceName) {
+	protected void recordUnselected(ContainerChangesImpl useChanges, Action action, String resourceName) {
 		debug("Resource [ {} ] Action [ {} ]: Accepted but not selected", resourceName, action.getName());
 
-		getActiveChanges().record(action, !ContainerChanges.HAS_CHANGES);
+		useChanges.record(action, !ContainerChanges.HAS_CHANGES);
 	}
 
-	protected void recordTransform(Action action, String resourceName) {
+	protected void recordTransform(ContainerChangesImpl useChanges, Action action, String resourceName) {
 		debug("Resource [ {} ] Action [ {} ]: Changes [ {} ]", resourceName, action.getName(), action.hadChanges());
 
-		getActiveChanges().record(action);
+		useChanges.record(action);
 	}
 
 	// Byte base container conversion is not supported.
@@ -144,6 +259,17 @@ public abstract class ContainerActionImpl extends ActionImpl implements Containe
 	public void apply(String inputPath, InputStream inputStream, long inputCount, OutputStream outputStream)
 		throws TransformException {
 
+		TransformCache useCache = getTransformCache();
+		if ((useCache != null) && useTransformCache()) {
+			applyCached(useCache, inputPath, inputStream, inputCount, outputStream);
+		} else {
+			applyZip(inputPath, inputStream, outputStream);
+		}
+	}
+
+	protected void applyZip(String inputPath, InputStream inputStream, OutputStream outputStream)
+		throws TransformException {
+
 		startRecording(inputPath);
 
 		try {
@@ -177,140 +303,286 @@ public abstract class ContainerActionImpl extends ActionImpl implements Containe
 	protected void apply(String inputPath, ZipInputStream zipInputStream, ZipOutputStream zipOutputStream)
 		throws TransformException {
 
-		String prevName = null;
-		String inputName = null;
-                
-		Set<String> processedFile = new HashSet<>();
+		new ZipPipeline(this, getActiveChanges(), inputPath, zipInputStream, zipOutputStream).run();
+	}
+
+	// Containers are cached as whole archives. The key of a streamed archive
+	// is computed as the archive is read into memory. A large streamed
+	// archive is staged in a temporary file as it is read, and is then
+	// transformed as an archive file.
+
+	@Override
+	protected boolean useTransformCache() {
+		return true;
+	}
+
+	protected void applyCached(TransformCache useCache, String inputPath, InputStream inputStream, long inputCount,
+		OutputStream outputStream) throws TransformException {
+
+		int memoryLimit = (isLargeEntry(inputCount) ? 0 : getLargeEntryProbe());
 
+		TransformCache.KeyedInput keyedInput;
 		try {
-			byte[] buffer = new byte[FileUtils.BUFFER_ADJUSTMENT];
-
-			ZipEntry inputEntry;
-			while ((inputEntry = zipInputStream.getNextEntry()) != null) {
-				inputName = inputEntry.getName();
-				if(processedFile.contains(inputName)) {
-				    continue;
-				} else {
-				    processedFile.add(inputName);
+			keyedInput = useCache.readInput(getName(), inputPath, inputStream, memoryLimit); // throws
+																							// IOException
+		} catch (IOException e) {
+			throw new TransformException("Failed to read input [ " + inputPath + " ]", e);
+		}
+
+		try {
+			if (restoreCached(useCache, keyedInput.key, inputPath, outputStream)) {
+				return;
+			}
+
+			File stagedInput = keyedInput.file;
+			if (stagedInput == null) {
+				applyCaching(useCache, keyedInput.key, inputPath, null, keyedInput.data.asStream(), outputStream);
+			} else {
+				InputStream stagedStream = openInputStream(stagedInput);
+				try {
+					applyCaching(useCache, keyedInput.key, inputPath, stagedInput, stagedStream, outputStream);
+				} finally {
+					closeInputStream(stagedInput, stagedStream);
 				}
-				long inputLength = inputEntry.getSize();
+			}
+		} finally {
+			keyedInput.close();
+		}
+	}
+
+	protected void applyCached(TransformCache useCache, String inputPath, File inputFile, InputStream inputStream,
+		OutputStream outputStream) throws TransformException {
 
-				debug("[ {}.{} ] [ {} ] Size [ {} ]", getClass().getSimpleName(), "apply", inputName, inputLength);
+		String key;
+		try {
+			key = useCache.getKey(getName(), inputPath, inputFile); // throws
+																	// IOException
+		} catch (IOException e) {
+			throw new TransformException("Failed to read input [ " + inputPath + " ]", e);
+		}
 
-				boolean selected = select(inputName);
-				Action acceptedAction = acceptAction(inputName);
+		if (!restoreCached(useCache, key, inputPath, outputStream)) {
+			applyCaching(useCache, key, inputPath, inputFile, inputStream, outputStream);
+		}
+	}
 
-				if (!selected || (acceptedAction == null)) {
-					if (acceptedAction == null) {
-						recordUnaccepted(inputName);
-					} else {
-						recordUnselected(acceptedAction, inputName);
-					}
+	/**
+	 * Copy a cached result to the output, and record its changes.
+	 *
+	 * @return True if the result was cached. False if the input must be
+	 *         transformed.
+	 */
+	private boolean restoreCached(TransformCache useCache, String key, String inputPath, OutputStream outputStream)
+		throws TransformException {
+
+		TransformCache.Entry entry;
+		try {
+			// The output of containers is always cached.
+			entry = useCache.read(key, outputStream); // throws IOException
+		} catch (IOException e) {
+			throw new TransformException("Failed to read cached result [ " + key + " ] of [ " + inputPath + " ]",
+				e);
+		}
+		if (entry == null) {
+			return false;
+		}
+
+		debug("Input [ {} ] uses cached result [ {} ]", inputPath, key);
+		startRecording(inputPath);
+		try {
+			restoreChanges(inputPath, entry);
+		} finally {
+			stopRecording(inputPath);
+		}
+		return true;
+	}
 
-					// TODO: Should more of the entry details be transferred?
+	/**
+	 * Transform an input, storing the output and the changes as a cached
+	 * result. The input is an archive file, or, when the input file is null,
+	 * a zip stream.
+	 */
+	private void applyCaching(TransformCache useCache, String key, String inputPath, File inputFile,
+		InputStream inputStream, OutputStream outputStream) throws TransformException {
 
-					ZipEntry outputEntry = new ZipEntry(inputName);
-					zipOutputStream.putNextEntry(outputEntry); // throws
+		TransformCache.Pending pending;
+		try {
+			pending = useCache.begin(); // throws IOException
+		} catch (IOException e) {
+			warn("Failed to write cached result [ {} ] of [ {} ]: {}", key, inputPath, e);
+			applyUncached(inputPath, inputFile, inputStream, outputStream);
+			return;
+		}
+
+		try {
+			applyUncached(inputPath, inputFile, inputStream, pending.tee(outputStream));
+
+			try {
+				pending.commit(key, getLastActiveChanges()); // throws
 																// IOException
-					FileUtils.transfer(zipInputStream, zipOutputStream, buffer); // throws
-																					// IOException
-					zipOutputStream.closeEntry(); // throws IOException
-
-				} else {
-					// long inputCRC = inputEntry.getCrc();
-					//
-					// int inputMethod = inputEntry.getMethod();
-					// long inputCompressed = inputEntry.getCompressedSize();
-					//
-					// FileTime inputCreation = inputEntry.getCreationTime();
-					// FileTime inputAccess = inputEntry.getLastAccessTime();
-					// FileTime inputModified =
-					// inputEntry.getLastModifiedTime();
-					//
-					// String className = getClass().getSimpleName();
-					// String methodName = "applyZip";
-					//
-					// debug( "[ {}.{} ] [ {} ] Size [ {} ] CRC [ {} ]",
-					// className, methodName, inputName, inputLength, inputCRC);
-					// debug( "[ {}.{} ] [ {} ] Compressed size [ {} ] Method [
-					// {} ]",
-					// className, methodName, inputName, inputCompressed,
-					// inputMethod);
-					// debug( "[ {}.{} ] [ {} ] Created [ {} ] Accessed [ {} ]
-					// Modified [ {} ]",
-					// className, methodName, inputName, inputCreation,
-					// inputAccess, inputModified);
-
-					// Archive type actions are processed using streams,
-					// while non-archive type actions do a full read of the
-					// entry
-					// data and process the resulting byte array.
-					//
-					// Ideally, a single pattern would be used for both cases,
-					// but
-					// but that is not possible:
-					//
-					// A full read of a nested archive is not possible because
-					// the nested
-					// archive can be very large.
-					//
-					// A read of non-archive data must be performed, since
-					// non-archive data
-					// may change the name associated with the data, and that
-					// can only be
-					// determined after reading the data.
-
-					if (acceptedAction.useStreams()) {
-						// TODO: Should more of the entry details be
-						// transferred?
-
-						ZipEntry outputEntry = new ZipEntry(inputName);
-						zipOutputStream.putNextEntry(outputEntry); // throws
-																	// IOException
+			} catch (IOException e) {
+				warn("Failed to write cached result [ {} ] of [ {} ]: {}", key, inputPath, e);
+			}
 
-						acceptedAction.apply(inputName, zipInputStream, inputLength, zipOutputStream);
-						recordTransform(acceptedAction, inputName);
-						zipOutputStream.closeEntry(); // throws IOException
+		} finally {
+			try {
+				pending.close(); // throws IOException
+			} catch (IOException e) {
+				debug("Failed to discard cached result [ {} ] of [ {} ]: {}", key, inputPath, e);
+			}
+		}
+	}
 
-					} else {
-						int intInputLength;
-						if (inputLength == -1L) {
-							intInputLength = -1;
-						} else {
-							intInputLength = FileUtils.verifyArray(0, inputLength);
-						}
+	private void applyUncached(String inputPath, File inputFile, InputStream inputStream,
+		OutputStream outputStream) throws TransformException {
+		if (inputFile == null) {
+			applyZip(inputPath, inputStream, outputStream);
+		} else {
+			applyArchive(inputPath, inputFile, inputStream, outputStream);
+		}
+	}
 
-						InputStreamData outputData = acceptedAction.apply(inputName, zipInputStream, intInputLength);
-						recordTransform(acceptedAction, inputName);
+	// Archive files are processed using their central directory, which
+	// gives the exact size of every entry before the entry is read, and which
+	// allows entries to be read out of order and concurrently.
 
-						// TODO: Should more of the entry details be
-						// transferred?
+	@Override
+	protected void apply(String inputPath, File inputFile, InputStream inputStream, long inputCount,
+		OutputStream outputStream) throws TransformException {
+
+		TransformCache useCache = getTransformCache();
+		if ((useCache != null) && useTransformCache()) {
+			applyCached(useCache, inputPath, inputFile, inputStream, outputStream);
+		} else {
+			applyArchive(inputPath, inputFile, inputStream, outputStream);
+		}
+	}
 
-						ZipEntry outputEntry = new ZipEntry(acceptedAction.getLastActiveChanges()
-							.getOutputResourceName());
-						zipOutputStream.putNextEntry(outputEntry); // throws
-																	// IOException
-						FileUtils.transfer(outputData.stream, zipOutputStream, buffer); // throws
-																						// IOException
-						zipOutputStream.closeEntry(); // throws IOException
+	protected void applyArchive(String inputPath, File inputFile, InputStream inputStream,
+		OutputStream outputStream) throws TransformException {
+
+		if (getRawCopy()) {
+			ZipArchive archive = openArchive(inputPath, inputFile);
+			if (archive != null) {
+				try {
+					apply(inputPath, archive, outputStream);
+				} finally {
+					try {
+						archive.close(); // throws IOException
+					} catch (IOException e) {
+						throw new TransformException("Failed to close input [ " + inputPath + " ]", e);
 					}
 				}
+				return;
+			}
 
-				prevName = inputName;
-				inputName = null;
+		} else {
+			ZipFile zipFile = openZipFile(inputPath, inputFile);
+			if (zipFile != null) {
+				try {
+					apply(inputPath, zipFile, outputStream);
+				} finally {
+					try {
+						zipFile.close(); // throws IOException
+					} catch (IOException e) {
+						throw new TransformException("Failed to close input [ " + inputPath + " ]", e);
+					}
+				}
+				return;
 			}
+		}
+
+		applyZip(inputPath, inputStream, outputStream);
+	}
+
+	/**
+	 * Open an archive file using its central directory.
+	 *
+	 * @param inputPath The name of the archive.
+	 * @param inputFile The archive file.
+	 * @return The opened archive. Null if the archive could not be read using
+	 *         its central directory, in which case the archive is to be
+	 *         processed as a stream.
+	 * @throws TransformException Thrown if the archive could not be read.
+	 */
+	protected ZipFile openZipFile(String inputPath, File inputFile) throws TransformException {
+		try {
+			return new ZipFile(inputFile); // throws IOException
+		} catch (ZipException e) {
+			debug("Archive [ {} ] is processed as a stream: {}", inputPath, e.getMessage());
+			return null;
+		} catch (IOException e) {
+			throw new TransformException("Failed to open input [ " + inputPath + " ]", e);
+		}
+	}
 
+	/**
+	 * Open an archive file for raw copies.
+	 *
+	 * @param inputPath The name of the archive.
+	 * @param inputFile The archive file.
+	 * @return The opened archive. Null if the archive uses features which
+	 *         require the archive to be processed as a stream.
+	 * @throws TransformException Thrown if the archive could not be read.
+	 */
+	protected ZipArchive openArchive(String inputPath, File inputFile) throws TransformException {
+		try {
+			return ZipArchive.open(inputFile); // throws IOException
+		} catch (ZipException e) {
+			debug("Archive [ {} ] is processed as a stream: {}", inputPath, e.getMessage());
+			return null;
 		} catch (IOException e) {
-			String message;
-			if (inputName != null) { // Actively processing an entry.
-				message = "Failure while processing [ " + inputName + " ] from [ " + inputPath + " ]";
-			} else if (prevName != null) { // Moving to a new entry but not the
-											// first entry.
-				message = "Failure after processing [ " + prevName + " ] from [ " + inputPath + " ]";
-			} else { // Moving to the first entry.
-				message = "Failed to process first entry of [ " + inputPath + " ]";
+			throw new TransformException("Failed to open input [ " + inputPath + " ]", e);
+		}
+	}
+
+	protected void apply(String inputPath, ZipFile zipFile, OutputStream outputStream) throws TransformException {
+		startRecording(inputPath);
+
+		try {
+			setResourceNames(inputPath, inputPath);
+
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+
+			try {
+				new ZipPipeline(this, getActiveChanges(), inputPath, zipFile, zipOutputStream).run();
+				// throws JakartaTransformException
+
+			} finally {
+				try {
+					zipOutputStream.finish(); // throws IOException
+				} catch (IOException e) {
+					throw new TransformException("Failed to complete output [ " + inputPath + " ]", e);
+				}
+			}
+
+		} finally {
+			stopRecording(inputPath);
+		}
+	}
+
+	protected void apply(String inputPath, ZipArchive archive, OutputStream outputStream) throws TransformException {
+		startRecording(inputPath);
+
+		try {
+			setResourceNames(inputPath, inputPath);
+
+			ZipArchiveWriter zipWriter = new ZipArchiveWriter(outputStream);
+
+			try {
+				new ZipPipeline(this, getActiveChanges(), inputPath, archive, zipWriter).run();
+				// throws JakartaTransformException
+
+			} finally {
+				try {
+					zipWriter.finish(); // throws IOException
+				} catch (IOException e) {
+					throw new TransformException("Failed to complete output [ " + inputPath + " ]", e);
+				}
 			}
-			throw new TransformException(message, e);
+
+		} finally {
+			stopRecording(inputPath);
 		}
 	}
 }
@@ -11,32 +11,47 @@
 
 package org.eclipse.transformer.action.impl;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 import org.eclipse.transformer.action.Action;
 import org.eclipse.transformer.action.ContainerChanges;
 import java.util.logging.Logger;
 
+/**
+ * Changes made to a container.
+ * <p>
+ * The counts of container changes are safe for concurrent update, which allows
+ * the entries of a container to be processed by several threads, with each
+ * thread recording directly into the changes of the container. The resource
+ * names and replacement count which are inherited from {@link ChangesImpl} are
+ * not safe for concurrent update, and are expected to be set by the thread
+ * which is processing the container.
+ */
 public class ContainerChangesImpl extends ChangesImpl implements ContainerChanges {
 
 	protected ContainerChangesImpl() {
 		super();
 
-		this.changedByAction = new HashMap<>();
-		this.unchangedByAction = new HashMap<>();
+		this.changedByAction = new ConcurrentHashMap<>();
+		this.unchangedByAction = new ConcurrentHashMap<>();
 
-		this.allChanged = 0;
-		this.allUnchanged = 0;
+		this.allChanged = new LongAdder();
+		this.allUnchanged = new LongAdder();
 
-		this.allSelected = 0;
-		this.allUnselected = 0;
-		this.allResources = 0;
+		this.allSelected = new LongAdder();
+		this.allUnselected = new LongAdder();
+		this.allResources = new LongAdder();
 
 		this.allNestedChanges = null;
 	}
@@ -45,7 +60,9 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 
 	@Override
 	public boolean hasNonResourceNameChanges() {
-		return (allChanged > 0);
+		// Replacements are recorded by results which are taken from the
+		// transform cache.
+		return (allChanged.sum() > 0) || super.hasNonResourceNameChanges();
 	}
 
 	@Override
@@ -53,12 +70,12 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 		changedByAction.clear();
 		unchangedByAction.clear();
 
-		allChanged = 0;
-		allUnchanged = 0;
+		allChanged.reset();
+		allUnchanged.reset();
 
-		allSelected = 0;
-		allUnselected = 0;
-		allResources = 0;
+		allSelected.reset();
+		allUnselected.reset();
+		allResources.reset();
 
 		allNestedChanges = null;
 
@@ -67,15 +84,15 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 
 	//
 
-	private final Map<String, int[]>	changedByAction;
-	private final Map<String, int[]>	unchangedByAction;
+	private final Map<String, LongAdder>	changedByAction;
+	private final Map<String, LongAdder>	unchangedByAction;
 
-	private int							allUnchanged;
-	private int							allChanged;
+	private final LongAdder					allUnchanged;
+	private final LongAdder					allChanged;
 
-	private int							allSelected;
-	private int							allUnselected;
-	private int							allResources;
+	private final LongAdder					allSelected;
+	private final LongAdder					allUnselected;
+	private final LongAdder					allResources;
 
 	//
 
@@ -94,41 +111,62 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 
 	//
 
+	/**
+	 * Answer a snapshot of the count of changed resources, by action name.
+	 *
+	 * @return A snapshot of the changed resource counts.
+	 */
 	@Override
 	public Map<String, int[]> getChangedByAction() {
-		return Collections.unmodifiableMap(changedByAction);
+		return snapshot(changedByAction);
 	}
 
+	/**
+	 * Answer a snapshot of the count of unchanged resources, by action name.
+	 *
+	 * @return A snapshot of the unchanged resource counts.
+	 */
 	@Override
 	public Map<String, int[]> getUnchangedByAction() {
-		return Collections.unmodifiableMap(unchangedByAction);
+		return snapshot(unchangedByAction);
+	}
+
+	private static Map<String, int[]> snapshot(Map<String, LongAdder> countMap) {
+		Map<String, int[]> snapshot = new HashMap<>(countMap.size());
+		for (Map.Entry<String, LongAdder> countEntry : countMap.entrySet()) {
+			snapshot.put(countEntry.getKey(), new int[] {
+				countEntry.getValue()
+					.intValue()
+			});
+		}
+		return Collections.unmodifiableMap(snapshot);
 	}
 
 	//
 
 	@Override
 	public int getAllResources() {
-		return allResources;
+		return allResources.intValue();
 	}
 
 	@Override
 	public int getAllUnselected() {
-		return allUnselected;
+		return allUnselected.intValue();
 	}
 
 	@Override
 	public int getAllSelected() {
-		return allSelected;
+		return allSelected.intValue();
 	}
 
 	@Override
 	public int getAllUnchanged() {
-		return allUnchanged;
+		return allUnchanged.intValue();
 	}
 
 	@Override
 	public int getAllChanged() {
-		return allChanged;
+		return allChanged.intValue();
 	}
 
 	@Override
@@ -138,8 +176,8 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 
 	@Override
 	public int getChanged(String name) {
-		int[] changes = changedByAction.get(name);
-		return ((changes == null) ? 0 : changes[0]);
+		LongAdder changes = changedByAction.get(name);
+		return ((changes == null) ? 0 : changes.intValue());
 	}
 
 	@Override
@@ -149,8 +187,8 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 
 	@Override
 	public int getUnchanged(String name) {
-		int[] changes = unchangedByAction.get(name);
-		return ((changes == null) ? 0 : changes[0]);
+		LongAdder changes = unchangedByAction.get(name);
+		return ((changes == null) ? 0 : changes.intValue());
 	}
 
 	@Override
@@ -168,33 +206,38 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 
 	@Override
 	public void record(String name, boolean hasChanges) {
-		allResources++;
-		allSelected++;
+		allResources.increment();
+		allSelected.increment();
 
-		Map<String, int[]> target;
+		Map<String, LongAdder> target;
 		if (hasChanges) {
-			allChanged++;
+			allChanged.increment();
 			target = changedByAction;
 		} else {
-			allUnchanged++;
+			allUnchanged.increment();
 			target = unchangedByAction;
 		}
 
-		int[] changes = target.get(name);
-		if (changes == null) {
-			changes = new int[] {
-				1
-			};
-			target.put(name, changes);
-		} else {
-			changes[0]++;
-		}
+		getCount(target, name).increment();
 	}
 
 	@Override
 	public void record() {
-		allResources++;
-		allUnselected++;
+		allResources.increment();
+		allUnselected.increment();
+	}
+
+	private static LongAdder getCount(Map<String, LongAdder> countMap, String name) {
+		// Avoid 'computeIfAbsent', which locks even when the count is present.
+		LongAdder count = countMap.get(name);
+		if (count == null) {
+			LongAdder newCount = new LongAdder();
+			count = countMap.putIfAbsent(name, newCount);
+			if (count == null) {
+				count = newCount;
+			}
+		}
+		return count;
 	}
 
 	@Override
@@ -204,7 +247,7 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 
 	//
 
-	private ContainerChangesImpl allNestedChanges;
+	private volatile ContainerChangesImpl allNestedChanges;
 
 	@Override
 	public boolean hasNestedChanges() {
@@ -224,14 +267,20 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 	 */
 	@Override
 	public void addNested(ContainerChanges otherChanges) {
-		if (allNestedChanges == null) {
-			allNestedChanges = new ContainerChangesImpl();
+		ContainerChangesImpl useNestedChanges = allNestedChanges;
+		if (useNestedChanges == null) {
+			synchronized (this) {
+				useNestedChanges = allNestedChanges;
+				if (useNestedChanges == null) {
+					allNestedChanges = useNestedChanges = new ContainerChangesImpl();
+				}
+			}
 		}
-		allNestedChanges.add(otherChanges);
+		useNestedChanges.add(otherChanges);
 
 		ContainerChanges otherNestedChanges = otherChanges.getNestedChanges();
 		if (otherNestedChanges != null) {
-			allNestedChanges.add(otherNestedChanges);
+			useNestedChanges.add(otherNestedChanges);
 		}
 	}
 
@@ -240,24 +289,88 @@ public class ContainerChangesImpl extends ChangesImpl implements ContainerChange
 		addChangeMap(this.changedByAction, otherChanges.getChangedByAction());
 		addChangeMap(this.unchangedByAction, otherChanges.getUnchangedByAction());
 
-		this.allChanged += otherChanges.getAllChanged();
-		this.allUnchanged += otherChanges.getAllUnchanged();
+		this.allChanged.add(otherChanges.getAllChanged());
+		this.allUnchanged.add(otherChanges.getAllUnchanged());
 
-		this.allSelected += otherChanges.getAllSelected();
-		this.allUnselected += otherChanges.getAllUnselected();
-		this.allResources += otherChanges.getAllResources();
+		this.allSelected.add(otherChanges.getAllSelected());
+		this.allUnselected.add(otherChanges.getAllUnselected());
+		this.allResources.add(otherChanges.getAllResources());
 	}
 
-	private void addChangeMap(Map<String, int[]> thisChangeMap, Map<String, int[]> otherChangeMap) {
-
-		int[] nextChanges = new int[1];
+	private void addChangeMap(Map<String, LongAdder> thisChangeMap, Map<String, int[]> otherChangeMap) {
 		for (Map.Entry<String, int[]> mapEntry : otherChangeMap.entrySet()) {
-			int[] thisChanges = thisChangeMap.putIfAbsent(mapEntry.getKey(), nextChanges);
-			if (thisChanges == null) {
-				thisChanges = nextChanges;
-				nextChanges = new int[1];
-			}
-			thisChanges[0] += mapEntry.getValue()[0];
+			getCount(thisChangeMap, mapEntry.getKey()).add(mapEntry.getValue()[0]);
+		}
+	}
+
+	// Counts are stored with the results of the transform cache ...
+
+	/**
+	 * Write the counts of these changes, including the counts of nested
+	 * changes.
+	 */
+	@Override
+	public void writeCounts(DataOutput output) throws IOException {
+		super.writeCounts(output);
+		writeContainerCounts(output);
+
+		ContainerChangesImpl useNestedChanges = allNestedChanges;
+		output.writeBoolean(useNestedChanges != null);
+		if (useNestedChanges != null) {
+			useNestedChanges.writeContainerCounts(output);
+		}
+	}
+
+	@Override
+	public void readCounts(DataInput input) throws IOException {
+		super.readCounts(input);
+		readContainerCounts(input);
+
+		if (input.readBoolean()) {
+			ContainerChangesImpl nestedChanges = new ContainerChangesImpl();
+			nestedChanges.readContainerCounts(input);
+			addNested(nestedChanges);
+		}
+	}
+
+	private void writeContainerCounts(DataOutput output) throws IOException {
+		writeCountMap(output, changedByAction);
+		writeCountMap(output, unchangedByAction);
+
+		output.writeInt(getAllChanged());
+		output.writeInt(getAllUnchanged());
+
+		output.writeInt(getAllSelected());
+		output.writeInt(getAllUnselected());
+		output.writeInt(getAllResources());
+	}
+
+	private void readContainerCounts(DataInput input) throws IOException {
+		readCountMap(input, changedByAction);
+		readCountMap(input, unchangedByAction);
+
+		allChanged.add(input.readInt());
+		allUnchanged.add(input.readInt());
+
+		allSelected.add(input.readInt());
+		allUnselected.add(input.readInt());
+		allResources.add(input.readInt());
+	}
+
+	private static void writeCountMap(DataOutput output, Map<String, LongAdder> countMap) throws IOException {
+		Map<String, int[]> counts = snapshot(countMap);
+		output.writeInt(counts.size());
+		for (Map.Entry<String, int[]> countEntry : counts.entrySet()) {
+			output.writeUTF(countEntry.getKey());
+			output.writeInt(countEntry.getValue()[0]);
+		}
+	}
+
+	private static void readCountMap(DataInput input, Map<String, LongAdder> countMap) throws IOException {
+		int countCount = input.readInt();
+		for (int countNo = 0; countNo < countCount; countNo++) {
+			String name = input.readUTF();
+			getCount(countMap, name).add(input.readInt());
 		}
 	}
 
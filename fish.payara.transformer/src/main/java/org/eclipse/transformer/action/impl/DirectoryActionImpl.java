@@ -12,6 +12,10 @@
 package org.eclipse.transformer.action.impl;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import org.eclipse.transformer.TransformException;
 import org.eclipse.transformer.action.Action;
@@ -49,24 +53,166 @@ public class DirectoryActionImpl extends ContainerActionImpl {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Directories are not cached: The resources of a directory are cached by
+	 * the actions which transform them.
+	 */
+	@Override
+	protected boolean useTransformCache() {
+		return false;
+	}
+
+	@Override
+	public String getAcceptSuffix() {
+		return null; // Acceptance is not decided by the resource name suffix.
+	}
+
 	@Override
 	public boolean accept(String resourceName, File resourceFile) {
 		return ((resourceFile != null) && resourceFile.isDirectory());
 	}
 
+	// Incremental transforms ...
+
+	private String journalFingerprint;
+
+	public String getJournalFingerprint() {
+		return journalFingerprint;
+	}
+
+	/**
+	 * Set the fingerprint of the rules which is recorded in the journal of
+	 * transformed directories. When set, a journal is kept next to each output
+	 * directory, and a later transform to the same output directory processes
+	 * only the files which were added or changed, and deletes the outputs of
+	 * files which were removed. Directories which are transformed in place are
+	 * never journaled.
+	 *
+	 * @param journalFingerprint The fingerprint of the rules. Null to
+	 *            transform every file.
+	 */
+	public void setJournalFingerprint(String journalFingerprint) {
+		this.journalFingerprint = journalFingerprint;
+	}
+
+	protected DirectoryJournal openJournal(String rootPath, File inputFile, File outputFile) {
+		String useFingerprint = getJournalFingerprint();
+		if ((useFingerprint == null) || inputFile.getAbsoluteFile()
+			.equals(outputFile.getAbsoluteFile())) {
+			return null;
+		}
+		try {
+			return DirectoryJournal.open(getLogger(), rootPath, outputFile, useFingerprint); // throws
+																								// IOException
+		} catch (IOException e) {
+			warn("Failed to open journal of [ {} ]: {}", outputFile.getAbsolutePath(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Write the journal of a transform. When the transform completed, the
+	 * outputs of removed files are deleted. When the transform failed, only
+	 * the files which were transformed before the failure are journaled.
+	 *
+	 * @param journal The journal of the transform.
+	 * @param completed Whether the transform completed.
+	 */
+	protected void closeJournal(DirectoryJournal journal, boolean completed) {
+		try {
+			if (completed) {
+				int deleted = journal.deleteRemoved();
+				if (deleted > 0) {
+					verbose("Deleted [ {} ] outputs of removed inputs", deleted);
+				}
+				journal.save(); // throws IOException
+			} else {
+				journal.saveFailed(); // throws IOException
+				warn("Transform failed: Journaled [ {} ] transformed files of [ {} ]", journal.getRecordedCount(),
+					journal.getOutputDir()
+						.getAbsolutePath());
+			}
+		} catch (IOException e) {
+			warn("Failed to write journal [ {} ]: {}", journal.getJournalFile()
+				.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Tell if the output of a file which was written by a previous transform
+	 * is current, and record the file if it is.
+	 *
+	 * @param useChanges The changes into which to record the file.
+	 * @param journal The journal of the transform. Null if the transform is
+	 *            not journaled.
+	 * @param action The action which was selected for the file.
+	 * @param inputPath The path of the file.
+	 * @param inputFile The input file.
+	 * @param outputFile The output file.
+	 * @return True if the file does not need to be transformed.
+	 */
+	protected boolean recordCurrent(ContainerChangesImpl useChanges, DirectoryJournal journal, Action action,
+		String inputPath, File inputFile, File outputFile) {
+		if (journal == null) {
+			return false;
+		}
+		DirectoryJournal.Entry entry = journal.getCurrent(journal.getRelativePath(inputPath), inputFile,
+			outputFile);
+		if (entry == null) {
+			return false;
+		}
+		debug("Resource [ {} ] Action [ {} ]: Unchanged since the previous transform", inputPath,
+			action.getName());
+		useChanges.record(action, entry.changed);
+		return true;
+	}
+
+	protected void journalTransform(DirectoryJournal journal, Action action, String inputPath, File inputFile,
+		File outputFile) throws TransformException {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.record(journal.getRelativePath(inputPath), inputFile, outputFile, action.hadChanges()); // throws
+																											// IOException
+		} catch (IOException e) {
+			throw new TransformException("Failed to journal [ " + inputPath + " ]", e);
+		}
+	}
+
+	//
+
 	@Override
 	public void apply(String inputPath, File inputFile, File outputFile) throws TransformException {
 
 		startRecording(inputPath);
 		try {
 			setResourceNames(inputPath, inputPath);
-			transform(".", inputFile, outputFile);
+			DirectoryJournal journal = openJournal("./" + inputFile.getName(), inputFile, outputFile);
+			boolean completed = false;
+			try {
+				if (isParallel()) {
+					transformParallel(journal, ".", inputFile, outputFile);
+				} else {
+					transform(journal, ".", inputFile, outputFile);
+				}
+				completed = true;
+			} finally {
+				if (journal != null) {
+					closeJournal(journal, completed);
+				}
+			}
 		} finally {
 			stopRecording(inputPath);
 		}
 	}
 
 	protected void transform(String inputPath, File inputFile, File outputFile) throws TransformException {
+		transform(null, inputPath, inputFile, outputFile);
+	}
+
+	protected void transform(DirectoryJournal journal, String inputPath, File inputFile, File outputFile)
+		throws TransformException {
 
 		inputPath = inputPath + '/' + inputFile.getName();
 
@@ -90,7 +236,7 @@ public class DirectoryActionImpl extends ContainerActionImpl {
 
 			for (File childInputFile : inputFile.listFiles()) {
 				File childOutputFile = new File(outputFile, childInputFile.getName());
-				transform(inputPath, childInputFile, childOutputFile);
+				transform(journal, inputPath, childInputFile, childOutputFile);
 			}
 
 		} else {
@@ -99,10 +245,102 @@ public class DirectoryActionImpl extends ContainerActionImpl {
 				recordUnaccepted(inputPath);
 			} else if (!select(inputPath)) {
 				recordUnselected(selectedAction, inputPath);
-			} else {
+			} else if (!recordCurrent(getActiveChanges(), journal, selectedAction, inputPath, inputFile,
+				outputFile)) {
 				selectedAction.apply(inputPath, inputFile, outputFile);
+				journalTransform(journal, selectedAction, inputPath, inputFile, outputFile);
 				recordTransform(selectedAction, inputPath);
 			}
 		}
 	}
+
+	//
+
+	/**
+	 * Parallel variant of {@link #transform(DirectoryJournal, String, File, File)}.
+	 * <p>
+	 * The calling thread walks the directory, and each file is transformed by
+	 * a worker of the scheduler of this action, largest first. Action state is
+	 * kept per thread, and the changes of the directory are safe for
+	 * concurrent update, which allows all workers to use the actions of this
+	 * directory action and to record directly into the active changes of this
+	 * action. Since recording only sums counts, the result is the same as is
+	 * obtained by sequential processing.
+	 */
+	protected void transformParallel(String inputPath, File inputFile, File outputFile) throws TransformException {
+		transformParallel(null, inputPath, inputFile, outputFile);
+	}
+
+	protected void transformParallel(DirectoryJournal journal, String inputPath, File inputFile, File outputFile)
+		throws TransformException {
+		ContainerChangesImpl useChanges = getActiveChanges();
+
+		List<TransformScheduler.Job<Void>> jobs = new ArrayList<>();
+		try {
+			schedule(useChanges, journal, inputPath, inputFile, outputFile, jobs);
+
+			for (TransformScheduler.Job<Void> job : jobs) {
+				try {
+					job.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof TransformException) {
+						throw (TransformException) cause;
+					}
+					throw new TransformException("Failure while processing [ " + inputPath + " ]", cause);
+				}
+			}
+
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+				.interrupt();
+			throw new TransformException("Interrupted while processing [ " + inputPath + " ]", e);
+
+		} finally {
+			// Abandon the remaining files if a file failed. Files which are
+			// being transformed are waited for.
+			try {
+				for (TransformScheduler.Job<Void> job : jobs) {
+					if (!job.isDone()) {
+						getScheduler().cancel(job);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+					.interrupt();
+			}
+		}
+	}
+
+	private void schedule(ContainerChangesImpl useChanges, DirectoryJournal journal, String parentPath,
+		File inputFile, File outputFile, List<TransformScheduler.Job<Void>> jobs) {
+
+		String inputPath = parentPath + '/' + inputFile.getName();
+
+		if (inputFile.isDirectory()) {
+			if (!outputFile.exists()) {
+				outputFile.mkdir();
+			}
+
+			for (File childInputFile : inputFile.listFiles()) {
+				File childOutputFile = new File(outputFile, childInputFile.getName());
+				schedule(useChanges, journal, inputPath, childInputFile, childOutputFile, jobs);
+			}
+
+		} else {
+			Action selectedAction = acceptAction(inputPath, inputFile);
+			if (selectedAction == null) {
+				recordUnaccepted(useChanges, inputPath);
+			} else if (!select(inputPath)) {
+				recordUnselected(useChanges, selectedAction, inputPath);
+			} else if (!recordCurrent(useChanges, journal, selectedAction, inputPath, inputFile, outputFile)) {
+				jobs.add(getScheduler().submit(true, inputFile.length(), () -> {
+					selectedAction.apply(inputPath, inputFile, outputFile);
+					journalTransform(journal, selectedAction, inputPath, inputFile, outputFile);
+					recordTransform(useChanges, selectedAction, inputPath);
+					return null;
+				}));
+			}
+		}
+	}
 }
@@ -0,0 +1,461 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.transformer.util.Fingerprint;
+
+/**
+ * Journal of the transform of a directory, which is used to transform only
+ * the files which changed since the previous transform of the directory.
+ * <p>
+ * The journal is kept next to the output directory. For each transformed
+ * file, the journal records the size, the modification time and a digest of
+ * the input file, the size and the modification time of the output file, and
+ * whether the transform changed the file. The journal also records the
+ * fingerprint of the rules of the transform.
+ * <p>
+ * An input file is current when the previous transform used the same rules,
+ * when the output file is as written by the previous transform, and when the
+ * input file has the recorded size and modification time. An input file
+ * which has a different modification time is current if its digest is
+ * unchanged. Input files which were recorded by the previous transform but
+ * which were not visited by the current transform have been removed, and
+ * their output files are deleted.
+ * <p>
+ * The journal file is deleted when the journal is opened, and is written when
+ * the transform completes. When the transform fails, the journal records the
+ * files which were transformed before the failure. Files which were recorded
+ * by the previous transform but which were not transformed before the failure
+ * are recorded as stale: Their outputs may have been partially written, and
+ * they are transformed by the next transform.
+ * <p>
+ * A journal may be used by several threads.
+ */
+public class DirectoryJournal {
+	/** Suffix of the name of the journal file, which is appended to the name of the output directory. */
+	public static final String	JOURNAL_SUFFIX	= ".journal";
+
+	/** First bytes of every journal file. */
+	private static final int	MAGIC			= 0x54524A31;
+	/** Version of the journal format. */
+	private static final int	FORMAT_VERSION	= 1;
+
+	/**
+	 * Answer the journal file of an output directory.
+	 *
+	 * @param outputDir The output directory.
+	 * @return The journal file of the output directory.
+	 */
+	public static File getJournalFile(File outputDir) {
+		return new File(outputDir.getAbsolutePath() + JOURNAL_SUFFIX);
+	}
+
+	/**
+	 * Open the journal of the transform of a directory. The previous journal
+	 * is read, then deleted.
+	 *
+	 * @param logger The logger of the journal.
+	 * @param rootPath The resource path of the input directory. Paths of
+	 *            resources of the directory start with this path.
+	 * @param outputDir The output directory.
+	 * @param fingerprint The fingerprint of the rules of the transform.
+	 * @return The journal.
+	 * @throws IOException Thrown if the previous journal could not be deleted.
+	 */
+	public static DirectoryJournal open(Logger logger, String rootPath, File outputDir, String fingerprint)
+		throws IOException {
+
+		DirectoryJournal journal = new DirectoryJournal(logger, rootPath, outputDir, fingerprint);
+		journal.load();
+		Files.deleteIfExists(journal.getJournalFile()
+			.toPath()); // throws IOException
+		return journal;
+	}
+
+	protected DirectoryJournal(Logger logger, String rootPath, File outputDir, String fingerprint) {
+		this.logger = logger;
+
+		this.rootPath = rootPath;
+		this.outputDir = outputDir;
+		this.journalFile = getJournalFile(outputDir);
+
+		this.fingerprint = fingerprint;
+
+		this.previous = Collections.emptyMap();
+		this.rulesChanged = true;
+		this.current = new ConcurrentHashMap<>();
+	}
+
+	//
+
+	private final Logger logger;
+
+	public Logger getLogger() {
+		return logger;
+	}
+
+	public void debug(String message, Object... parms) {
+		getLogger().log(Level.FINE, message, parms);
+	}
+
+	public void info(String message, Object... parms) {
+		getLogger().log(Level.INFO, message, parms);
+	}
+
+	public void warn(String message, Object... parms) {
+		getLogger().log(Level.WARNING, message, parms);
+	}
+
+	public void warn(String message, Throwable th) {
+		getLogger().log(Level.WARNING, message, th);
+	}
+
+	//
+
+	private final String	rootPath;
+	private final File		outputDir;
+	private final File		journalFile;
+
+	public File getOutputDir() {
+		return outputDir;
+	}
+
+	public File getJournalFile() {
+		return journalFile;
+	}
+
+	/**
+	 * Answer the path of a resource relative to the input directory. Journal
+	 * entries are keyed by relative paths, which are the same as the paths of
+	 * output files relative to the output directory.
+	 *
+	 * @param inputPath The path of the resource.
+	 * @return The path of the resource relative to the input directory.
+	 */
+	public String getRelativePath(String inputPath) {
+		if (inputPath.startsWith(rootPath) && (inputPath.length() > rootPath.length())
+			&& (inputPath.charAt(rootPath.length()) == '/')) {
+			return inputPath.substring(rootPath.length() + 1);
+		}
+		return inputPath;
+	}
+
+	private final String fingerprint;
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	// Entries ...
+
+	/** Journal entry of a transformed file. */
+	public static class Entry {
+		Entry(long inputLength, long inputModified, String inputDigest, long outputLength, long outputModified,
+			boolean changed) {
+			this.inputLength = inputLength;
+			this.inputModified = inputModified;
+			this.inputDigest = inputDigest;
+			this.outputLength = outputLength;
+			this.outputModified = outputModified;
+			this.changed = changed;
+		}
+
+		public final long		inputLength;
+		public final long		inputModified;
+		public final String		inputDigest;
+		public final long		outputLength;
+		public final long		outputModified;
+		/** Whether the transform changed the file. */
+		public final boolean	changed;
+
+		/**
+		 * Tell if the output of the file is not known to be current. Stale
+		 * entries are recorded for files which were not transformed by a
+		 * failed transform.
+		 *
+		 * @return True if the file must be transformed.
+		 */
+		public boolean isStale() {
+			return (outputLength == STALE_LENGTH);
+		}
+
+		Entry asStale() {
+			return new Entry(inputLength, inputModified, inputDigest, STALE_LENGTH, outputModified, changed);
+		}
+	}
+
+	/** Output length of stale entries. */
+	private static final long STALE_LENGTH = -1L;
+
+	/** Entries of the previous transform. Not modified after loading. */
+	private Map<String, Entry>					previous;
+	/** Whether the previous transform used different rules. */
+	private boolean								rulesChanged;
+	/** Entries of the current transform. */
+	private final ConcurrentHashMap<String, Entry>	current;
+
+	/**
+	 * Tell if the previous transform used different rules, or if there is no
+	 * previous transform.
+	 *
+	 * @return True if every file must be transformed.
+	 */
+	public boolean isRulesChanged() {
+		return rulesChanged;
+	}
+
+	/**
+	 * Answer the journal entry of a file, if the output of the file which was
+	 * written by the previous transform can be kept. The answered entry is
+	 * recorded as an entry of the current transform.
+	 *
+	 * @param relativePath The path of the file relative to the input
+	 *            directory.
+	 * @param inputFile The input file.
+	 * @param outputFile The output file.
+	 * @return The entry of the file. Null if the file must be transformed.
+	 */
+	public Entry getCurrent(String relativePath, File inputFile, File outputFile) {
+		if (rulesChanged) {
+			return null;
+		}
+		Entry entry = previous.get(relativePath);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.isStale()) {
+			debug("Output [ {0} ] is stale", relativePath);
+			return null;
+		}
+
+		if ((outputFile.length() != entry.outputLength) || (outputFile.lastModified() != entry.outputModified)) {
+			debug("Output [ {0} ] was modified", relativePath);
+			return null;
+		}
+
+		long inputLength = inputFile.length();
+		if (inputLength != entry.inputLength) {
+			return null;
+		}
+		long inputModified = inputFile.lastModified();
+		if (inputModified != entry.inputModified) {
+			String inputDigest;
+			try {
+				inputDigest = getDigest(inputFile); // throws IOException
+			} catch (IOException e) {
+				warn("Failed to digest [ " + inputFile.getAbsolutePath() + " ]", e);
+				return null;
+			}
+			if (!inputDigest.equals(entry.inputDigest)) {
+				return null;
+			}
+			debug("Input [ {0} ] was touched but is unchanged", relativePath);
+			entry = new Entry(inputLength, inputModified, inputDigest, entry.outputLength, entry.outputModified,
+				entry.changed);
+		}
+
+		current.put(relativePath, entry);
+		return entry;
+	}
+
+	/**
+	 * Record the transform of a file.
+	 *
+	 * @param relativePath The path of the file relative to the input
+	 *            directory.
+	 * @param inputFile The input file.
+	 * @param outputFile The output file.
+	 * @param changed Whether the transform changed the file.
+	 * @throws IOException Thrown if the input file could not be read.
+	 */
+	public void record(String relativePath, File inputFile, File outputFile, boolean changed) throws IOException {
+		long inputLength = inputFile.length();
+		long inputModified = inputFile.lastModified();
+		String inputDigest = getDigest(inputFile); // throws IOException
+
+		current.put(relativePath, new Entry(inputLength, inputModified, inputDigest, outputFile.length(),
+			outputFile.lastModified(), changed));
+	}
+
+	/**
+	 * Answer the count of files which were recorded by the current transform.
+	 *
+	 * @return The count of recorded files.
+	 */
+	public int getRecordedCount() {
+		return current.size();
+	}
+
+	private static String getDigest(File inputFile) throws IOException {
+		return new Fingerprint().add(inputFile) // throws IOException
+			.finish();
+	}
+
+	/**
+	 * Answer the paths of the files which were recorded by the previous
+	 * transform but which were not recorded by the current transform. These
+	 * are the files which were removed from the input directory, or which are
+	 * no longer selected.
+	 *
+	 * @return The relative paths of removed files.
+	 */
+	public List<String> getRemoved() {
+		List<String> removed = new ArrayList<>();
+		for (String relativePath : previous.keySet()) {
+			if (!current.containsKey(relativePath)) {
+				removed.add(relativePath);
+			}
+		}
+		Collections.sort(removed);
+		return removed;
+	}
+
+	/**
+	 * Delete the output files of removed files. Output directories which are
+	 * left empty are deleted.
+	 *
+	 * @return The count of deleted output files.
+	 */
+	public int deleteRemoved() {
+		int deleted = 0;
+		for (String relativePath : getRemoved()) {
+			File outputFile = new File(outputDir, relativePath);
+			if (outputFile.delete()) {
+				debug("Deleted output [ {0} ] of removed input", relativePath);
+				deleted++;
+			}
+			File parentDir = outputFile.getParentFile();
+			while ((parentDir != null) && !parentDir.equals(outputDir) && parentDir.delete()) {
+				// 'delete' fails for a directory which is not empty.
+				parentDir = parentDir.getParentFile();
+			}
+		}
+		return deleted;
+	}
+
+	// Persistence ...
+
+	private void load() {
+		if (!journalFile.exists()) {
+			debug("No journal [ {0} ]", journalFile.getAbsolutePath());
+			return;
+		}
+
+		Map<String, Entry> entries = new HashMap<>();
+		boolean sameRules;
+		try (DataInputStream input = new DataInputStream(
+			new BufferedInputStream(Files.newInputStream(journalFile.toPath())))) { // throws IOException
+			if ((input.readInt() != MAGIC) || (input.readInt() != FORMAT_VERSION)) {
+				warn("Ignoring journal [ {0} ] of a different format", journalFile.getAbsolutePath());
+				return;
+			}
+			sameRules = fingerprint.equals(input.readUTF());
+			int count = input.readInt();
+			for (int entryNo = 0; entryNo < count; entryNo++) {
+				String relativePath = input.readUTF();
+				Entry entry = new Entry(input.readLong(), input.readLong(), input.readUTF(), input.readLong(),
+					input.readLong(), input.readBoolean());
+				entries.put(relativePath, entry);
+			}
+		} catch (NoSuchFileException e) {
+			return;
+		} catch (IOException e) {
+			warn("Ignoring journal [ " + journalFile.getAbsolutePath() + " ] which could not be read", e);
+			return;
+		}
+
+		// Entries of different rules are still used to delete the outputs of
+		// removed files.
+		previous = entries;
+		rulesChanged = !sameRules;
+		if (rulesChanged) {
+			info("Journal [ {0} ] has different rules: Every file is transformed", journalFile.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Write the journal of the current transform. The journal is written to a
+	 * temporary file, which is moved into place.
+	 *
+	 * @throws IOException Thrown if the journal could not be written.
+	 */
+	public void save() throws IOException {
+		write(current);
+	}
+
+	/**
+	 * Write the journal of a failed transform. Files which were recorded by
+	 * the previous transform but which were not recorded by the current
+	 * transform are written as stale, so that the next transform transforms
+	 * them, and deletes their outputs if their inputs were removed.
+	 *
+	 * @throws IOException Thrown if the journal could not be written.
+	 */
+	public void saveFailed() throws IOException {
+		Map<String, Entry> entries = new HashMap<>(current);
+		for (Map.Entry<String, Entry> mapEntry : previous.entrySet()) {
+			entries.computeIfAbsent(mapEntry.getKey(), relativePath -> mapEntry.getValue()
+				.asStale());
+		}
+		write(entries);
+	}
+
+	private void write(Map<String, Entry> entries) throws IOException {
+		File tempFile = new File(journalFile.getPath() + ".tmp");
+		try {
+			try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) { // throws IOException
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				output.writeUTF(fingerprint);
+				output.writeInt(entries.size());
+				for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+					Entry entry = mapEntry.getValue();
+					output.writeUTF(mapEntry.getKey());
+					output.writeLong(entry.inputLength);
+					output.writeLong(entry.inputModified);
+					output.writeUTF(entry.inputDigest);
+					output.writeLong(entry.outputLength);
+					output.writeLong(entry.outputModified);
+					output.writeBoolean(entry.changed);
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), journalFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+}
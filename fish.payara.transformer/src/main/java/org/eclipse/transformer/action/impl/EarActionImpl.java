@@ -19,6 +19,10 @@ public class EarActionImpl extends ContainerActionImpl {
 		SelectionRuleImpl selectionRule, SignatureRuleImpl signatureRule) {
 
 		super(logger, isTerse, isVerbose, buffer, selectionRule, signatureRule);
+
+		// Enterprise archives usually contain many nested modules, which are
+		// worth transforming concurrently.
+		setConcurrentNestedArchives(true);
 	}
 
 	//
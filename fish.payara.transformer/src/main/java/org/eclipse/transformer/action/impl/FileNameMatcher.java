@@ -0,0 +1,222 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.transformer.util.FileUtils;
+
+/**
+ * Matcher of resource names against the file name rules of the master text
+ * updates, which selects the text substitutions of a resource.
+ * <p>
+ * A rule is either a specific file name or a wildcard file name, which uses
+ * '?' and '*'. A resource name is matched first using its simple file name:
+ * against the specific file names, then against the wildcard file names, in
+ * rule order. If that fails, the full resource name is matched against the
+ * wildcard file names.
+ * <p>
+ * As with a loop over the wildcard file names, each wildcard file name is
+ * matched in turn, and the first which matches is used. A name which does not
+ * end with the literal tail of a wildcard file name, for example, ".tld" for
+ * "*.tld", cannot match that wildcard file name, and the tail is checked
+ * before the pattern is run.
+ * <p>
+ * Results of matching simple file names are remembered. The least recently
+ * used results are discarded when more than a fixed count of names are
+ * remembered.
+ * <p>
+ * A matcher may be used by several threads.
+ */
+public class FileNameMatcher {
+	/**
+	 * Convert a wildcard file name to a regular expression.
+	 *
+	 * @param fileName A file name which contains '?' or '*'.
+	 * @return The regular expression for the wildcard file name.
+	 */
+	public static String toRegex(String fileName) {
+		return fileName.replace("?", ".?")
+			.replace("*", ".*?");
+	}
+
+	/**
+	 * Tell if a file name is a wildcard file name.
+	 *
+	 * @param fileName A file name.
+	 * @return True if the file name contains '?' or '*'.
+	 */
+	public static boolean isWildcard(String fileName) {
+		return (fileName.indexOf('?') != -1) || (fileName.indexOf('*') != -1);
+	}
+
+	/**
+	 * The largest count of simple file names which are remembered. When more
+	 * are matched, the least recently used are forgotten.
+	 */
+	public static final int MAX_REMEMBERED = 16 * 1024;
+
+	/**
+	 * Create a matcher.
+	 *
+	 * @param specificUpdates Text substitutions by specific file name.
+	 * @param wildcardUpdates Text substitutions by wildcard file name, in rule
+	 *            order. The keys are wildcard file names, not regular
+	 *            expressions.
+	 */
+	public FileNameMatcher(Map<String, TextSubstitutions> specificUpdates,
+		Map<String, TextSubstitutions> wildcardUpdates) {
+		this(specificUpdates, wildcardUpdates, MAX_REMEMBERED);
+	}
+
+	FileNameMatcher(Map<String, TextSubstitutions> specificUpdates, Map<String, TextSubstitutions> wildcardUpdates,
+		int maxRemembered) {
+
+		this.specificUpdates = specificUpdates;
+
+		int numWildcards = wildcardUpdates.size();
+		this.wildcardPatterns = new Pattern[numWildcards];
+		this.wildcardTails = new String[numWildcards];
+		this.wildcardSubstitutions = new TextSubstitutions[numWildcards];
+
+		int wildcardNo = 0;
+		for (Map.Entry<String, TextSubstitutions> wildcardEntry : wildcardUpdates.entrySet()) {
+			String fileName = wildcardEntry.getKey();
+			wildcardPatterns[wildcardNo] = Pattern.compile(toRegex(fileName));
+			wildcardTails[wildcardNo] = getTail(fileName);
+			wildcardSubstitutions[wildcardNo] = wildcardEntry.getValue();
+			wildcardNo++;
+		}
+
+		this.remembered = new LinkedHashMap<String, TextSubstitutions>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, TextSubstitutions> eldest) {
+				return (size() > maxRemembered);
+			}
+		};
+	}
+
+	//
+
+	private final Map<String, TextSubstitutions>	specificUpdates;
+
+	/** The patterns of the wildcard file names, in rule order. */
+	private final Pattern[]							wildcardPatterns;
+	/** The literal tails of the wildcard file names. */
+	private final String[]							wildcardTails;
+	/** The substitutions of each wildcard file name. */
+	private final TextSubstitutions[]				wildcardSubstitutions;
+
+	private static final TextSubstitutions			NO_SUBSTITUTIONS	= new TextSubstitutions(
+		Collections.emptyMap());
+
+	/**
+	 * Remembered results, by simple file name, in access order. Guarded by
+	 * itself.
+	 */
+	private final Map<String, TextSubstitutions>	remembered;
+
+	int getRememberedCount() {
+		synchronized (remembered) {
+			return remembered.size();
+		}
+	}
+
+	/**
+	 * Select the text substitutions of a resource.
+	 *
+	 * @param resourceName The name of the resource.
+	 * @return The substitutions of the resource. Null if no file name rule
+	 *         matches the resource.
+	 */
+	public TextSubstitutions match(String resourceName) {
+		String simpleFileName = FileUtils.getFileNameFromFullyQualifiedFileName(resourceName);
+
+		TextSubstitutions substitutions;
+		synchronized (remembered) {
+			substitutions = remembered.get(simpleFileName);
+		}
+		if (substitutions == null) {
+			substitutions = specificUpdates.get(simpleFileName);
+			if (substitutions == null) {
+				substitutions = matchWildcard(simpleFileName);
+			}
+			synchronized (remembered) {
+				remembered.put(simpleFileName, ((substitutions == null) ? NO_SUBSTITUTIONS : substitutions));
+			}
+		} else if (substitutions == NO_SUBSTITUTIONS) {
+			substitutions = null;
+		}
+
+		if ((substitutions == null) && (simpleFileName != resourceName)) {
+			substitutions = matchWildcard(resourceName);
+		}
+
+		return substitutions;
+	}
+
+	private TextSubstitutions matchWildcard(String name) {
+		for (int wildcardNo = 0; wildcardNo < wildcardPatterns.length; wildcardNo++) {
+			if (endsWithTail(name, wildcardTails[wildcardNo]) && wildcardPatterns[wildcardNo].matcher(name)
+				.matches()) {
+				return wildcardSubstitutions[wildcardNo];
+			}
+		}
+		return null;
+	}
+
+	// Tails of the wildcard file names ...
+	//
+	// The tail of a wildcard file name is the text which follows its last
+	// wildcard. The regular expression of a wildcard file name ends with
+	// its tail, which must match the end of a name. In the tail, '.' matches
+	// any character other than a line terminator. A tail which has other
+	// regular expression characters is treated as being empty, which matches
+	// every name.
+
+	private static final String REGEX_CHARS = "\\[](){}+^$|";
+
+	private static String getTail(String fileName) {
+		int tailStart = Math.max(fileName.lastIndexOf('*'), fileName.lastIndexOf('?')) + 1;
+		for (int charNo = tailStart; charNo < fileName.length(); charNo++) {
+			if (REGEX_CHARS.indexOf(fileName.charAt(charNo)) != -1) {
+				return "";
+			}
+		}
+		return fileName.substring(tailStart);
+	}
+
+	private static boolean endsWithTail(String name, String tail) {
+		int tailLength = tail.length();
+		int offset = name.length() - tailLength;
+		if (offset < 0) {
+			return false;
+		}
+		for (int charNo = 0; charNo < tailLength; charNo++) {
+			char tailChar = tail.charAt(charNo);
+			char nameChar = name.charAt(offset + charNo);
+			if ((tailChar == '.') ? isLineTerminator(nameChar) : (tailChar != nameChar)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return (c == '\n') || (c == '\r') || (c == '\u0085') || (c == '\u2028') || (c == '\u2029');
+	}
+}
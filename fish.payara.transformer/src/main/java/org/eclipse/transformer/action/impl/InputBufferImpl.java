@@ -13,20 +13,34 @@ package org.eclipse.transformer.action.impl;
 
 import org.eclipse.transformer.action.InputBuffer;
 
+/**
+ * Read buffer which is shared by the actions of an action tree. The buffer is
+ * kept per thread, which allows an action tree to be used by any number of
+ * threads.
+ */
 public class InputBufferImpl implements InputBuffer {
 	public InputBufferImpl() {
-		this.inputBuffer = null;
+		this.inputBuffer = new ThreadLocal<>();
 	}
 
-	private byte[] inputBuffer;
+	private final ThreadLocal<byte[]> inputBuffer;
 
 	@Override
 	public byte[] getInputBuffer() {
-		return inputBuffer;
+		return inputBuffer.get();
 	}
 
 	@Override
 	public void setInputBuffer(byte[] inputBuffer) {
-		this.inputBuffer = inputBuffer;
+		this.inputBuffer.set(inputBuffer);
+	}
+
+	/**
+	 * Discard the buffer of the calling thread. Threads which outlive the
+	 * action tree, for example, the threads of a server, otherwise keep the
+	 * buffer reachable.
+	 */
+	public void clearInputBuffer() {
+		this.inputBuffer.remove();
 	}
 }
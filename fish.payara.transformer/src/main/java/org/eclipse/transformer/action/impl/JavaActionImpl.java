@@ -11,24 +11,11 @@
 
 package org.eclipse.transformer.action.impl;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.util.Map;
-
 import org.eclipse.transformer.TransformException;
 import org.eclipse.transformer.action.ActionType;
 import org.eclipse.transformer.util.ByteData;
 import java.util.logging.Logger;
 
-import aQute.lib.io.ByteBufferInputStream;
-import aQute.lib.io.ByteBufferOutputStream;
-
 public class JavaActionImpl extends ActionImpl {
 
 	public JavaActionImpl(Logger logger, boolean isTerse, boolean isVerbose, InputBufferImpl buffer,
@@ -49,6 +36,11 @@ public class JavaActionImpl extends ActionImpl {
 		return (ActionType.JAVA);
 	}
 
+	@Override
+	protected boolean useTransformCache() {
+		return true;
+	}
+
 	//
 
 	@Override
@@ -67,72 +59,31 @@ public class JavaActionImpl extends ActionImpl {
 	 *         replacements were performed.
 	 */
 	protected String replacePackages(String text) {
-		// System.out.println("replacePackages: Initial text [ " + text + " ]");
-
-		String initialText = text;
-
-		for (Map.Entry<String, String> renameEntry : getPackageRenames().entrySet()) {
-			String key = renameEntry.getKey();
-			int keyLen = key.length();
-
-			boolean matchSubpackages = SignatureRuleImpl.containsWildcard(key);
-			if (matchSubpackages) {
-				key = SignatureRuleImpl.stripWildcard(key);
-			}
-
-			// System.out.println("replacePackages: Next target [ " + key + "
-			// ]");
-			int textLimit = text.length() - keyLen;
-
-			int lastMatchEnd = 0;
-			while (lastMatchEnd <= textLimit) {
-				int matchStart = text.indexOf(key, lastMatchEnd);
-				if (matchStart == -1) {
-					break;
-				}
-
-				if (!SignatureRuleImpl.isTruePackageMatch(text, matchStart, keyLen, matchSubpackages)) {
-					lastMatchEnd = matchStart + keyLen;
-					continue;
-				}
-
-				String value = renameEntry.getValue();
-				int valueLen = value.length();
-
-				String head = text.substring(0, matchStart);
-				String tail = text.substring(matchStart + keyLen);
-
-				// int tailLenBeforeReplaceVersion = tail.length();
-				// tail = replacePackageVersion(tail,
-				// getPackageVersions().get(value));
-				// int tailLenAfterReplaceVersion = tail.length();
-
-				text = head + value + tail;
+		return getSignatureRule().getPackageMatcher()
+			.replace(text);
+	}
 
-				lastMatchEnd = matchStart + valueLen;
+	@Override
+	public ByteData apply(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
 
-				// Replacing the key or the version can increase or decrease the
-				// text length.
-				textLimit += (valueLen - keyLen);
-				// textLimit += (tailLenAfterReplaceVersion -
-				// tailLenBeforeReplaceVersion);
+		LineTransformer lineTransformer = newLineTransformer(inputName);
 
-				// System.out.println("Next text [ " + text + " ]");
-			}
+		if (!lineTransformer.mayChange(inputBytes, inputLength)) {
+			debug("Input [ {} ] contains no rename keys; passing through", inputName);
+			return null;
 		}
 
-		if (initialText == text) {
-			// System.out.println("Final text is unchanged");
+		byte[] outputBytes = lineTransformer.transform(inputBytes, inputLength);
+
+		if (!hasNonResourceNameChanges()) {
 			return null;
-		} else {
-			// System.out.println("Final text [ " + text + " ]");
-			return text;
 		}
+
+		return new ByteData(inputName, outputBytes, 0, outputBytes.length);
 	}
 
 	@Override
-	public ByteData apply(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
-
+	protected LineTransformer newLineTransformer(String inputName) {
 		String outputName = null;
 		// String outputName = renameInput(inputName); // TODO
 		// if ( outputName == null ) {
@@ -143,51 +94,16 @@ public class JavaActionImpl extends ActionImpl {
 		// }
 		setResourceNames(inputName, outputName);
 
-		InputStream inputStream = new ByteBufferInputStream(inputBytes, 0, inputLength);
-		InputStreamReader inputReader = new InputStreamReader(inputStream, UTF_8);
-
-		BufferedReader reader = new BufferedReader(inputReader);
+		ByteKeyMatcher keyMatcher = getSignatureRule().getPackageMatcher()
+			.getKeyMatcher();
 
-		ByteBufferOutputStream outputStream = new ByteBufferOutputStream(inputBytes.length);
-		OutputStreamWriter outputWriter = new OutputStreamWriter(outputStream, UTF_8);
-
-		BufferedWriter writer = new BufferedWriter(outputWriter);
-
-		try {
-			transform(reader, writer); // throws IOException
-		} catch (IOException e) {
-			error("Failed to transform [ {} ]", e, inputName);
-			return null;
-		}
-
-		try {
-			writer.flush(); // throws
-		} catch (IOException e) {
-			error("Failed to flush [ {} ]", e, inputName);
-			return null;
-		}
-
-		if (!hasNonResourceNameChanges()) {
-			return null;
-		}
-
-		byte[] outputBytes = outputStream.toByteArray();
-		return new ByteData(inputName, outputBytes, 0, outputBytes.length);
-	}
-
-	protected void transform(BufferedReader reader, BufferedWriter writer) throws IOException {
-
-		String inputLine;
-		while ((inputLine = reader.readLine()) != null) {
+		return new LineTransformer(keyMatcher, inputLine -> {
 			String outputLine = replacePackages(inputLine);
-			if (outputLine == null) {
-				outputLine = inputLine;
-			} else {
+			if (outputLine != null) {
 				addReplacement();
 			}
-			writer.write(outputLine);
-			writer.write('\n');
-		}
+			return outputLine;
+		});
 	}
 
 	// TODO: Copied from ServiceConfigActionImpl; need to update
@@ -0,0 +1,224 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Quick reject filter of whole resources against encoded keys.
+ * <p>
+ * The filter tells if a resource may contain a key. A resource for which the
+ * filter answers false contains no key, and cannot be changed by a
+ * transformation which is driven by the keys. A resource for which the filter
+ * answers true may or may not contain a key.
+ * <p>
+ * Keys are reduced to a smaller set of distinguishing byte sequences, such
+ * that each key contains at least one of the sequences. Keys which start with
+ * the same byte and which share a long enough leading token are reduced to
+ * that token. For example, the jakarta package rename keys are all reduced to
+ * "javax.". Sequences which contain another sequence are discarded.
+ * <p>
+ * The sequences are searched using a set variant of the Horspool algorithm:
+ * a window the length of the shortest sequence is moved along the bytes, by
+ * a shift which is selected by the last byte of the window. Most windows are
+ * passed over with a single table lookup, and by more than one byte.
+ * <p>
+ * A filter is immutable, and may be used by several threads.
+ */
+public class KeyPrefilter {
+	/** The shortest leading token to which keys are reduced. */
+	public static final int MIN_TOKEN_LENGTH = 5;
+
+	/**
+	 * Create a filter for encoded keys.
+	 *
+	 * @param keys The encoded keys. An empty key matches every resource.
+	 */
+	public KeyPrefilter(Collection<byte[]> keys) {
+		boolean useMatchAll = false;
+		for (byte[] key : keys) {
+			if (key.length == 0) {
+				useMatchAll = true;
+			}
+		}
+		this.matchAll = useMatchAll;
+
+		byte[][] useSequences = (useMatchAll ? new byte[0][] : reduce(keys));
+		this.sequences = useSequences;
+
+		int useWindow = Integer.MAX_VALUE;
+		for (byte[] sequence : useSequences) {
+			useWindow = Math.min(useWindow, sequence.length);
+		}
+		this.window = ((useSequences.length == 0) ? 0 : useWindow);
+
+		this.shifts = new int[256];
+		Arrays.fill(shifts, window);
+		this.sequencesByFirstByte = new byte[256][][];
+
+		List<List<byte[]>> byFirstByte = ByteKeyMatcher.newKeyLists();
+		for (byte[] sequence : useSequences) {
+			for (int byteNo = 0; byteNo < window - 1; byteNo++) {
+				int b = sequence[byteNo] & 0xFF;
+				shifts[b] = Math.min(shifts[b], window - 1 - byteNo);
+			}
+			byFirstByte.get(sequence[0] & 0xFF)
+				.add(sequence);
+		}
+
+		this.lastBytes = new boolean[256];
+		for (byte[] sequence : useSequences) {
+			lastBytes[sequence[window - 1] & 0xFF] = true;
+		}
+		for (int byteNo = 0; byteNo < 256; byteNo++) {
+			List<byte[]> byteSequences = byFirstByte.get(byteNo);
+			if (!byteSequences.isEmpty()) {
+				sequencesByFirstByte[byteNo] = byteSequences.toArray(new byte[byteSequences.size()][]);
+			}
+		}
+	}
+
+	/** Set when a key is empty, which matches every resource. */
+	private final boolean		matchAll;
+	/** The distinguishing sequences. */
+	private final byte[][]		sequences;
+	/** The length of the shortest sequence. */
+	private final int			window;
+	/** The shift of the window, by the last byte of the window. */
+	private final int[]			shifts;
+	/** Flags of the bytes which are at the end of the window of a sequence. */
+	private final boolean[]		lastBytes;
+	/** The sequences, indexed by their first byte. */
+	private final byte[][][]	sequencesByFirstByte;
+
+	/**
+	 * Reduce keys to distinguishing sequences. Keys which share a first byte
+	 * are reduced to their common leading token, if the token is long enough.
+	 * Sequences which contain another sequence are then discarded.
+	 */
+	private static byte[][] reduce(Collection<byte[]> keys) {
+		List<List<byte[]>> byFirstByte = ByteKeyMatcher.newKeyLists();
+		for (byte[] key : keys) {
+			byFirstByte.get(key[0] & 0xFF)
+				.add(key);
+		}
+
+		List<byte[]> candidates = new ArrayList<>();
+		for (List<byte[]> firstKeys : byFirstByte) {
+			if (firstKeys.isEmpty()) {
+				continue;
+			}
+			byte[] firstKey = firstKeys.get(0);
+			int commonLength = firstKey.length;
+			for (byte[] key : firstKeys) {
+				int byteNo = 0;
+				while ((byteNo < commonLength) && (byteNo < key.length) && (key[byteNo] == firstKey[byteNo])) {
+					byteNo++;
+				}
+				commonLength = byteNo;
+			}
+			if (commonLength >= MIN_TOKEN_LENGTH) {
+				candidates.add(Arrays.copyOf(firstKey, commonLength));
+			} else {
+				candidates.addAll(firstKeys);
+			}
+		}
+
+		List<byte[]> reduced = new ArrayList<>();
+		for (int candidateNo = 0; candidateNo < candidates.size(); candidateNo++) {
+			byte[] candidate = candidates.get(candidateNo);
+			boolean isRedundant = false;
+			for (int otherNo = 0; !isRedundant && (otherNo < candidates.size()); otherNo++) {
+				if (otherNo == candidateNo) {
+					continue;
+				}
+				byte[] other = candidates.get(otherNo);
+				if (Arrays.equals(candidate, other)) {
+					isRedundant = (otherNo < candidateNo); // Keep the first.
+				} else {
+					isRedundant = (indexOf(candidate, 0, candidate.length, other) != -1);
+				}
+			}
+			if (!isRedundant) {
+				reduced.add(candidate);
+			}
+		}
+		return reduced.toArray(new byte[reduced.size()][]);
+	}
+
+	private static int indexOf(byte[] bytes, int start, int end, byte[] sequence) {
+		int lastStart = end - sequence.length;
+		for (int pos = start; pos <= lastStart; pos++) {
+			if (startsWith(bytes, pos, sequence)) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean startsWith(byte[] bytes, int pos, byte[] sequence) {
+		for (int byteNo = 0; byteNo < sequence.length; byteNo++) {
+			if (bytes[pos + byteNo] != sequence[byteNo]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Answer the distinguishing sequences of the filter.
+	 *
+	 * @return The distinguishing sequences. Empty if the filter matches every
+	 *         resource, or if it matches no resource.
+	 */
+	public List<byte[]> getSequences() {
+		return Arrays.asList(sequences.clone());
+	}
+
+	/**
+	 * Tell if a range of bytes may contain a key.
+	 *
+	 * @param bytes The bytes which are to be scanned.
+	 * @param start The offset of the first byte of the range.
+	 * @param end The offset following the last byte of the range.
+	 * @return False if the range contains no key. True if the range may
+	 *         contain a key.
+	 */
+	public boolean mayMatch(byte[] bytes, int start, int end) {
+		if (matchAll) {
+			return true;
+		} else if (window == 0) {
+			return false;
+		}
+
+		int lastStart = end - window;
+		int pos = start;
+		while (pos <= lastStart) {
+			int last = bytes[pos + window - 1] & 0xFF;
+			if (lastBytes[last]) {
+				byte[][] candidates = sequencesByFirstByte[bytes[pos] & 0xFF];
+				if (candidates != null) {
+					for (byte[] sequence : candidates) {
+						if ((pos + sequence.length <= end) && startsWith(bytes, pos, sequence)) {
+							return true;
+						}
+					}
+				}
+			}
+			pos += shifts[last];
+		}
+		return false;
+	}
+}
@@ -0,0 +1,241 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.eclipse.transformer.util.FileUtils;
+
+import aQute.lib.io.ByteBufferOutputStream;
+
+/**
+ * Line by line transformation of UTF-8 encoded text, which works on the
+ * encoded bytes.
+ * <p>
+ * Lines are ended by a line feed, by a carriage return, or by a carriage
+ * return followed by a line feed, as for
+ * {@link java.io.BufferedReader#readLine()}. Line terminators, including the
+ * absence of a terminator on the last line, are kept as they are.
+ * <p>
+ * Keys are matched using their UTF-8 encoding, which occurs in encoded text
+ * only where the key occurs in the text. A line which does not contain the
+ * encoded bytes of any key cannot be changed, and is not decoded. Only lines
+ * which contain a key are decoded and passed to the line transformation.
+ * Unchanged spans of the input are copied to the output as bytes. No output
+ * is created until a line is changed.
+ */
+public class LineTransformer {
+	/**
+	 * Transformation of a single line.
+	 */
+	public interface LineTransform {
+		/**
+		 * Transform a line which contains at least one key.
+		 *
+		 * @param line The line, without its line terminator.
+		 * @return The transformed line. Null if the line is not changed.
+		 */
+		String transform(String line);
+
+		/**
+		 * Note a line which contains no key, and which was not passed to
+		 * {@link #transform(String)}.
+		 */
+		default void skip() {
+			// By default do nothing.
+		}
+	}
+
+	/**
+	 * Create a line transformer.
+	 *
+	 * @param keyMatcher Matcher of the keys which select lines for
+	 *            transformation. Null to transform every line.
+	 * @param lineTransform The transformation of selected lines.
+	 */
+	public LineTransformer(ByteKeyMatcher keyMatcher, LineTransform lineTransform) {
+		this.keyMatcher = keyMatcher;
+		this.lineTransform = lineTransform;
+	}
+
+	private final ByteKeyMatcher	keyMatcher;
+	private final LineTransform		lineTransform;
+
+	/**
+	 * Tell if text may be changed. This is a quick reject test of the whole
+	 * text, which neither splits the text into lines nor decodes the text.
+	 * Text which cannot be changed may be passed through unchanged.
+	 *
+	 * @param inputBytes The encoded text.
+	 * @param inputLength The count of bytes of the text.
+	 * @return False if no line of the text can be changed. True if a line may
+	 *         be changed.
+	 */
+	public boolean mayChange(byte[] inputBytes, int inputLength) {
+		return (keyMatcher == null) || keyMatcher.getPrefilter()
+			.mayMatch(inputBytes, 0, inputLength);
+	}
+
+	/**
+	 * Transform UTF-8 encoded text.
+	 *
+	 * @param inputBytes The encoded text.
+	 * @param inputLength The count of bytes of the text.
+	 * @return The transformed text. Null if no line was changed.
+	 */
+	public byte[] transform(byte[] inputBytes, int inputLength) {
+		ByteBufferOutputStream output = null;
+		int copyStart = 0;
+
+		int lineStart = 0;
+		while (lineStart < inputLength) {
+			int lineEnd = lineStart;
+			while ((lineEnd < inputLength) && (inputBytes[lineEnd] != '\n') && (inputBytes[lineEnd] != '\r')) {
+				lineEnd++;
+			}
+
+			int nextStart = lineEnd;
+			if (nextStart < inputLength) {
+				if ((inputBytes[nextStart] == '\r') && (nextStart + 1 < inputLength)
+					&& (inputBytes[nextStart + 1] == '\n')) {
+					nextStart += 2;
+				} else {
+					nextStart += 1;
+				}
+			}
+
+			byte[] outputLineBytes = transformLine(inputBytes, lineStart, lineEnd);
+			if (outputLineBytes != null) {
+				if (output == null) {
+					output = new ByteBufferOutputStream(inputLength + 64);
+				}
+				output.write(inputBytes, copyStart, lineStart - copyStart);
+				output.write(outputLineBytes, 0, outputLineBytes.length);
+				copyStart = lineEnd; // Keep the line terminator.
+			}
+
+			lineStart = nextStart;
+		}
+
+		if (output == null) {
+			return null;
+		}
+		output.write(inputBytes, copyStart, inputLength - copyStart);
+		return output.toByteArray();
+	}
+
+	/**
+	 * Transform UTF-8 encoded text which is read from a stream, writing the
+	 * transformed text to a stream. All of the text is written, including
+	 * unchanged lines.
+	 * <p>
+	 * Only the current line is held in memory, which bounds the memory used
+	 * by the transformation of large text by the length of its longest line.
+	 *
+	 * @param inputStream The stream from which to read the encoded text.
+	 * @param outputStream The stream to which to write the transformed text.
+	 * @return True if any line was changed.
+	 * @throws IOException Thrown if the text could not be read or written.
+	 */
+	public boolean transform(InputStream inputStream, OutputStream outputStream) throws IOException {
+		boolean changed = false;
+
+		byte[] buffer = new byte[FileUtils.BUFFER_ADJUSTMENT];
+		int bufferUsed = 0;
+		boolean atEnd = false;
+
+		while (!atEnd) {
+			if (bufferUsed == buffer.length) {
+				// The buffer holds part of a single line.
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			int bytesRead = inputStream.read(buffer, bufferUsed, buffer.length - bufferUsed); // throws
+																								// IOException
+			if (bytesRead == -1) {
+				atEnd = true;
+			} else {
+				bufferUsed += bytesRead;
+			}
+
+			int copyStart = 0;
+			int lineStart = 0;
+			while (lineStart < bufferUsed) {
+				int lineEnd = lineStart;
+				while ((lineEnd < bufferUsed) && (buffer[lineEnd] != '\n') && (buffer[lineEnd] != '\r')) {
+					lineEnd++;
+				}
+
+				// A line is only processed once its terminator is known. A
+				// carriage return is only known to end a line once the next
+				// byte is read.
+
+				int nextStart;
+				if (lineEnd == bufferUsed) {
+					if (!atEnd) {
+						break;
+					}
+					nextStart = lineEnd;
+				} else if (buffer[lineEnd] == '\r') {
+					if (lineEnd + 1 < bufferUsed) {
+						nextStart = lineEnd + ((buffer[lineEnd + 1] == '\n') ? 2 : 1);
+					} else if (atEnd) {
+						nextStart = lineEnd + 1;
+					} else {
+						break;
+					}
+				} else {
+					nextStart = lineEnd + 1;
+				}
+
+				byte[] outputLineBytes = transformLine(buffer, lineStart, lineEnd);
+				if (outputLineBytes != null) {
+					outputStream.write(buffer, copyStart, lineStart - copyStart); // throws
+																					// IOException
+					outputStream.write(outputLineBytes); // throws IOException
+					copyStart = lineEnd; // Keep the line terminator.
+					changed = true;
+				}
+
+				lineStart = nextStart;
+			}
+
+			outputStream.write(buffer, copyStart, lineStart - copyStart); // throws
+																			// IOException
+
+			bufferUsed -= lineStart;
+			System.arraycopy(buffer, lineStart, buffer, 0, bufferUsed);
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Transform one line.
+	 *
+	 * @return The encoded transformed line. Null if the line is not changed.
+	 */
+	private byte[] transformLine(byte[] bytes, int lineStart, int lineEnd) {
+		if ((keyMatcher != null) && !keyMatcher.matches(bytes, lineStart, lineEnd)) {
+			lineTransform.skip();
+			return null;
+		}
+
+		String inputLine = new String(bytes, lineStart, lineEnd - lineStart, UTF_8);
+		String outputLine = lineTransform.transform(inputLine);
+		return ((outputLine == null) ? null : outputLine.getBytes(UTF_8));
+	}
+}
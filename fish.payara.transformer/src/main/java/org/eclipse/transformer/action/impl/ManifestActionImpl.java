@@ -309,72 +309,21 @@ public class ManifestActionImpl extends ActionImpl {
 	 *         replacements were performed.
 	 */
 	protected String replacePackages(String text) {
-
-		// System.out.println("Initial text [ " + text + " ]");
-
 		String initialText = text;
 
-		for (Map.Entry<String, String> renameEntry : getPackageRenames().entrySet()) {
-			String key = renameEntry.getKey();
-			int keyLen = key.length();
-
-			boolean matchSubpackages = SignatureRuleImpl.containsWildcard(key);
-			if (matchSubpackages) {
-				key = SignatureRuleImpl.stripWildcard(key);
-			}
-
-			// System.out.println("Next target [ " + key + " ]");
-
-			int textLimit = text.length() - keyLen;
-
-			int lastMatchEnd = 0;
-			while (lastMatchEnd <= textLimit) {
-				int matchStart = text.indexOf(key, lastMatchEnd);
-				if (matchStart == -1) {
-					break;
-				}
-
-				if (!SignatureRuleImpl.isTruePackageMatch(text, matchStart, keyLen, matchSubpackages)) {
-					lastMatchEnd = matchStart + keyLen;
-					continue;
-				}
-
-				String value = renameEntry.getValue();
-				int valueLen = value.length();
-
-				String head = text.substring(0, matchStart);
-				String tail = text.substring(matchStart + keyLen);
-
-				int tailLenBeforeReplaceVersion = tail.length();
+		// Replacing a package can change the version of the package which
+		// follows the replaced package.
 
+		return getSignatureRule().getPackageMatcher()
+			.replace(text, (value, tail) -> {
 				String newVersion = getPackageVersions().get(value);
 				if (newVersion != null) {
-					tail = replacePackageVersion(tail, newVersion);
+					return replacePackageVersion(tail, newVersion);
 				} else {
-					debug("replacePackages [ {} ]: [ {} -> {} ]; leaving version", initialText, key, value);
+					debug("replacePackages [ {} ]: [ {} ]; leaving version", initialText, value);
+					return tail;
 				}
-
-				text = head + value + tail;
-				int tailLenAfterReplaceVersion = tail.length();
-
-				lastMatchEnd = matchStart + valueLen;
-
-				// Replacing the key or the version can increase or decrease the
-				// text length.
-				textLimit += (valueLen - keyLen);
-				textLimit += (tailLenAfterReplaceVersion - tailLenBeforeReplaceVersion);
-
-				// System.out.println("Next text [ " + text + " ]");
-			}
-		}
-
-		if (initialText == text) {
-			// System.out.println("Final text is unchanged");
-			return null;
-		} else {
-			// System.out.println("Final text [ " + text + " ]");
-			return text;
-		}
+			});
 	}
 
 	// DynamicImport-Package: com.ibm.websphere.monitor.meters;version="1.0.0
@@ -45,6 +45,11 @@ public class NullActionImpl extends ActionImpl {
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public String getAcceptSuffix() {
+		return null; // Acceptance is not decided by the resource name suffix.
+	}
+
 	@Override
 	public boolean accept(String resourcePath, File resourceFile) {
 		return true;
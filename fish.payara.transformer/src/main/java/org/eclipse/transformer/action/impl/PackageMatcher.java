@@ -0,0 +1,470 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Multi-pattern matcher for package names embedded in text.
+ * <p>
+ * The package rename keys are compiled into an Aho-Corasick automaton, which
+ * finds, in a single pass over the text, the occurrences of the keys. Most
+ * text contains no key, and is answered as unchanged after that pass.
+ * <p>
+ * Text which contains keys is updated as by a search for each key in turn,
+ * in the iteration order of the package renames: Each occurrence of a key is
+ * accepted using the package boundary rules of
+ * {@link SignatureRuleImpl#isTruePackageMatch(CharSequence, int, int, boolean)},
+ * and is replaced, after which the search for the key continues after the
+ * replacement. Later keys are matched against the updated text.
+ * <p>
+ * The occurrences which are found by the automaton are used for the updates.
+ * A replacement removes the occurrences which overlap the replaced text, and
+ * moves the occurrences which follow it. Only the text around a replacement
+ * is searched again, for occurrences which the replacement created.
+ * <p>
+ * The length of a key which has a wildcard suffix includes the suffix. The
+ * suffix is not matched, but is used for the boundary check, and is removed
+ * from the text with the matched key. A key, less its suffix, at the end of
+ * the text is not a match.
+ * <p>
+ * A matcher is immutable, and may be used by several threads.
+ */
+public class PackageMatcher {
+	/**
+	 * Create a matcher for package rename keys. Keys which have a wildcard
+	 * suffix match sub-packages.
+	 *
+	 * @param packageRenames Package rename keys and their replacements.
+	 */
+	public PackageMatcher(Map<String, String> packageRenames) {
+		int numKeys = packageRenames.size();
+		String[] useKeys = new String[numKeys];
+		int[] useKeyLengths = new int[numKeys];
+		String[] useValues = new String[numKeys];
+		boolean[] useSubpackages = new boolean[numKeys];
+		int useMaxKeyLength = 0;
+
+		int keyNo = 0;
+		for (Map.Entry<String, String> renameEntry : packageRenames.entrySet()) {
+			String key = renameEntry.getKey();
+			useKeyLengths[keyNo] = key.length();
+			boolean matchSubpackages = SignatureRuleImpl.containsWildcard(key);
+			if (matchSubpackages) {
+				key = SignatureRuleImpl.stripWildcard(key);
+			}
+			useKeys[keyNo] = key;
+			useMaxKeyLength = Math.max(useMaxKeyLength, key.length());
+			useValues[keyNo] = renameEntry.getValue();
+			useSubpackages[keyNo] = matchSubpackages;
+			keyNo++;
+		}
+
+		this.keys = useKeys;
+		this.keyLengths = useKeyLengths;
+		this.values = useValues;
+		this.matchSubpackages = useSubpackages;
+		this.maxKeyLength = useMaxKeyLength;
+
+		List<byte[]> keyBytes = new ArrayList<>(numKeys);
+		for (String key : useKeys) {
+			keyBytes.add(key.getBytes(UTF_8));
+		}
+		this.keyMatcher = new ByteKeyMatcher(keyBytes);
+
+		build();
+	}
+
+	private final String[]	keys;
+	/** The lengths of the keys, including any wildcard suffix. */
+	private final int[]		keyLengths;
+	private final String[]	values;
+	private final boolean[]	matchSubpackages;
+	/** The length of the longest key, less any wildcard suffix. */
+	private final int		maxKeyLength;
+
+	/** Matcher of the encoded keys. */
+	private final ByteKeyMatcher keyMatcher;
+
+	public boolean isEmpty() {
+		return (keys.length == 0);
+	}
+
+	/**
+	 * Answer a matcher of the encoded keys, which tells if encoded text may
+	 * contain a package which is renamed. Keys are stripped of their wildcard
+	 * suffix.
+	 *
+	 * @return A matcher of the UTF-8 encoded keys.
+	 */
+	public ByteKeyMatcher getKeyMatcher() {
+		return keyMatcher;
+	}
+
+	// Automaton ...
+	//
+	// State 0 is the root. The transitions of each state are stored as a
+	// sorted array of characters with a parallel array of target states.
+	// Transitions of the root on ASCII characters are also stored in a dense
+	// table.
+
+	private static final int	ROOT		= 0;
+	private static final int	NO_STATE	= -1;
+
+	private char[][]			edgeChars;
+	private int[][]				edgeTargets;
+	private int[]				rootTargets;
+	private int[]				failures;
+	/** The key which ends at each state. -1 for states which end no key. */
+	private int[]				stateKeys;
+	/** The next key which is the same as each key. -1 if there is none. */
+	private int[]				sameKeys;
+	/** The next state along the failure chain which ends a key. */
+	private int[]				outputLinks;
+
+	private void build() {
+		// Build the trie using maps, then compact the maps into arrays.
+
+		List<Map<Character, Integer>> trie = new ArrayList<>();
+		List<Integer> trieKeys = new ArrayList<>();
+		trie.add(new HashMap<>());
+		trieKeys.add(-1);
+
+		sameKeys = new int[keys.length];
+		Arrays.fill(sameKeys, -1);
+
+		for (int keyNo = 0; keyNo < keys.length; keyNo++) {
+			String key = keys[keyNo];
+			if (key.isEmpty()) {
+				continue; // An empty key would match everywhere.
+			}
+			int state = ROOT;
+			for (int charNo = 0; charNo < key.length(); charNo++) {
+				Character c = Character.valueOf(key.charAt(charNo));
+				Integer next = trie.get(state)
+					.get(c);
+				if (next == null) {
+					next = Integer.valueOf(trie.size());
+					trie.add(new HashMap<>());
+					trieKeys.add(-1);
+					trie.get(state)
+						.put(c, next);
+				}
+				state = next.intValue();
+			}
+			// Keys which differ only by a wildcard suffix end at the same
+			// state.
+			sameKeys[keyNo] = trieKeys.get(state)
+				.intValue();
+			trieKeys.set(state, keyNo);
+		}
+
+		int numStates = trie.size();
+		edgeChars = new char[numStates][];
+		edgeTargets = new int[numStates][];
+		stateKeys = new int[numStates];
+		for (int state = 0; state < numStates; state++) {
+			Map<Character, Integer> edges = trie.get(state);
+			char[] chars = new char[edges.size()];
+			int charNo = 0;
+			for (Character c : edges.keySet()) {
+				chars[charNo++] = c.charValue();
+			}
+			Arrays.sort(chars);
+			int[] targets = new int[chars.length];
+			for (charNo = 0; charNo < chars.length; charNo++) {
+				targets[charNo] = edges.get(Character.valueOf(chars[charNo]))
+					.intValue();
+			}
+			edgeChars[state] = chars;
+			edgeTargets[state] = targets;
+			stateKeys[state] = trieKeys.get(state)
+				.intValue();
+		}
+
+		rootTargets = new int[128];
+		Arrays.fill(rootTargets, ROOT);
+		for (int charNo = 0; charNo < edgeChars[ROOT].length; charNo++) {
+			char c = edgeChars[ROOT][charNo];
+			if (c < 128) {
+				rootTargets[c] = edgeTargets[ROOT][charNo];
+			}
+		}
+
+		// Compute failure and output links breadth first.
+
+		failures = new int[numStates];
+		outputLinks = new int[numStates];
+		Arrays.fill(outputLinks, NO_STATE);
+
+		int[] queue = new int[numStates];
+		int head = 0;
+		int tail = 0;
+		for (int target : edgeTargets[ROOT]) {
+			failures[target] = ROOT;
+			queue[tail++] = target;
+		}
+		while (head < tail) {
+			int state = queue[head++];
+			char[] chars = edgeChars[state];
+			int[] targets = edgeTargets[state];
+			for (int charNo = 0; charNo < chars.length; charNo++) {
+				int target = targets[charNo];
+				int failure = next(failures[state], chars[charNo]);
+				failures[target] = failure;
+				outputLinks[target] = ((stateKeys[failure] != -1) ? failure : outputLinks[failure]);
+				queue[tail++] = target;
+			}
+		}
+	}
+
+	private int next(int state, char c) {
+		while (true) {
+			if (state == ROOT) {
+				if (c < 128) {
+					return rootTargets[c];
+				}
+				int charNo = Arrays.binarySearch(edgeChars[ROOT], c);
+				return ((charNo < 0) ? ROOT : edgeTargets[ROOT][charNo]);
+			}
+			int charNo = Arrays.binarySearch(edgeChars[state], c);
+			if (charNo >= 0) {
+				return edgeTargets[state][charNo];
+			}
+			state = failures[state];
+		}
+	}
+
+	//
+
+	/**
+	 * Replace all embedded packages of specified text with replacement
+	 * packages.
+	 *
+	 * @param text Text embedding zero, one, or more package names.
+	 * @return The text with all embedded package names replaced. Null if no
+	 *         replacements were performed.
+	 */
+	public String replace(String text) {
+		return replace(text, null);
+	}
+
+	/**
+	 * Replace all embedded packages of specified text with replacement
+	 * packages, and update the text which follows each replaced package.
+	 *
+	 * @param text Text embedding zero, one, or more package names.
+	 * @param tailUpdate Function which is given a replacement package and the
+	 *            text which follows the replaced package, and which answers
+	 *            the updated text which is to follow the replacement package.
+	 *            The function must answer the same text instance if no update
+	 *            is made. Null if no updates are to be made.
+	 * @return The text with all embedded package names replaced. Null if no
+	 *         replacements were performed.
+	 */
+	public String replace(String text, BiFunction<String, String, String> tailUpdate) {
+		Occurrences occurrences = find(text, 0, text.length(), 0, 0, Integer.MAX_VALUE, null);
+		if (occurrences == null) {
+			return null;
+		}
+
+		// The text is copied to the builder by the first replacement.
+		StringBuilder output = null;
+		CharSequence current = text;
+
+		for (int keyNo = 0; keyNo < keys.length; keyNo++) {
+			int keyLength = keyLengths[keyNo];
+			boolean useSubpackages = matchSubpackages[keyNo];
+			String value = values[keyNo];
+
+			int searchStart = 0;
+			int matchStart;
+			while ((matchStart = occurrences.next(keyNo, searchStart)) != -1) {
+				int matchEnd = matchStart + keyLength;
+				if ((matchEnd > current.length())
+					|| !SignatureRuleImpl.isTruePackageMatch(current, matchStart, keyLength, useSubpackages)) {
+					searchStart = matchEnd;
+					continue;
+				}
+
+				if (output == null) {
+					output = new StringBuilder(text.length() + 16).append(text);
+					current = output;
+				}
+				output.replace(matchStart, matchEnd, value);
+				int valueEnd = matchStart + value.length();
+				searchStart = valueEnd;
+
+				boolean tailUpdated = false;
+				if (tailUpdate != null) {
+					String tail = output.substring(valueEnd);
+					String updatedTail = tailUpdate.apply(value, tail);
+					if (updatedTail != tail) {
+						output.setLength(valueEnd);
+						output.append(updatedTail);
+						tailUpdated = true;
+					}
+				}
+
+				// A replacement may create an occurrence of a later key: Search
+				// again around the replacement, or, when the tail was updated,
+				// from the replacement to the end of the text.
+				if (tailUpdated) {
+					occurrences.replace(keyNo, matchStart, Integer.MAX_VALUE, 0);
+					find(output, Math.max(0, matchStart - maxKeyLength + 1), output.length(), keyNo, matchStart,
+						Integer.MAX_VALUE, occurrences);
+				} else {
+					occurrences.replace(keyNo, matchStart, matchEnd, value.length() - keyLength);
+					find(output, Math.max(0, matchStart - maxKeyLength + 1),
+						Math.min(output.length(), valueEnd + maxKeyLength - 1), keyNo, matchStart, valueEnd,
+						occurrences);
+				}
+			}
+		}
+
+		return ((output == null) ? null : output.toString());
+	}
+
+	/**
+	 * Find the occurrences of keys in a range of text. Only occurrences which
+	 * overlap a region of the text are added. An empty region adds the
+	 * occurrences which span the start of the region.
+	 *
+	 * @param text Text which is to be searched.
+	 * @param from The start of the range which is to be searched.
+	 * @param to The end of the range which is to be searched.
+	 * @param firstKeyNo The first key which is to be added.
+	 * @param regionStart The start of the region.
+	 * @param regionEnd The end of the region.
+	 * @param occurrences The occurrences to which to add. Null to create
+	 *            occurrences when a key is found.
+	 * @return The occurrences. Null if none were given, and no key occurs in
+	 *         the range.
+	 */
+	private Occurrences find(CharSequence text, int from, int to, int firstKeyNo, int regionStart, int regionEnd,
+		Occurrences occurrences) {
+		if (keys.length == 0) {
+			return occurrences;
+		}
+
+		int state = ROOT;
+		for (int charNo = from; charNo < to; charNo++) {
+			state = next(state, text.charAt(charNo));
+			int outputState = ((stateKeys[state] != -1) ? state : outputLinks[state]);
+			for (; outputState != NO_STATE; outputState = outputLinks[outputState]) {
+				int matchEnd = charNo + 1;
+				int matchStart = matchEnd - keys[stateKeys[outputState]].length();
+				if ((matchStart >= regionEnd) || (matchEnd <= regionStart)) {
+					continue;
+				}
+				for (int keyNo = stateKeys[outputState]; keyNo != -1; keyNo = sameKeys[keyNo]) {
+					if (keyNo < firstKeyNo) {
+						continue;
+					}
+					if (occurrences == null) {
+						occurrences = new Occurrences();
+					}
+					occurrences.add(keyNo, matchStart);
+				}
+			}
+		}
+
+		return occurrences;
+	}
+
+	/**
+	 * The occurrences of the keys in text which is being updated: For each
+	 * key, the ascending start positions of the key in the text.
+	 */
+	private final class Occurrences {
+		private final int[][]	starts	= new int[keys.length][];
+		private final int[]		counts	= new int[keys.length];
+
+		void add(int keyNo, int start) {
+			int[] keyStarts = starts[keyNo];
+			int count = counts[keyNo];
+			if (keyStarts == null) {
+				keyStarts = starts[keyNo] = new int[4];
+			} else if (count == keyStarts.length) {
+				keyStarts = starts[keyNo] = Arrays.copyOf(keyStarts, count * 2);
+			}
+			// Starts are usually found in ascending order.
+			int startNo = count;
+			while ((startNo > 0) && (keyStarts[startNo - 1] > start)) {
+				startNo--;
+			}
+			System.arraycopy(keyStarts, startNo, keyStarts, startNo + 1, count - startNo);
+			keyStarts[startNo] = start;
+			counts[keyNo] = count + 1;
+		}
+
+		/**
+		 * Answer the first start of a key which is at or after a position.
+		 *
+		 * @return The first start of the key at or after the position. -1 if
+		 *         there is none.
+		 */
+		int next(int keyNo, int from) {
+			int[] keyStarts = starts[keyNo];
+			int count = counts[keyNo];
+			int low = 0;
+			int high = count;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (keyStarts[middle] < from) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return ((low < count) ? keyStarts[low] : -1);
+		}
+
+		/**
+		 * Update the occurrences of keys for a replacement of text: Remove
+		 * the occurrences which overlap the replaced text, and move the
+		 * occurrences which follow it.
+		 *
+		 * @param firstKeyNo The first key which is to be updated.
+		 * @param replacedStart The start of the replaced text.
+		 * @param replacedEnd The end of the replaced text.
+		 * @param delta The change of the length of the text.
+		 */
+		void replace(int firstKeyNo, int replacedStart, int replacedEnd, int delta) {
+			for (int keyNo = firstKeyNo; keyNo < keys.length; keyNo++) {
+				int count = counts[keyNo];
+				if (count == 0) {
+					continue;
+				}
+				int[] keyStarts = starts[keyNo];
+				int keyLength = keys[keyNo].length();
+				int keptCount = 0;
+				for (int startNo = 0; startNo < count; startNo++) {
+					int start = keyStarts[startNo];
+					if (start >= replacedEnd) {
+						keyStarts[keptCount++] = start + delta;
+					} else if ((start + keyLength) <= replacedStart) {
+						keyStarts[keptCount++] = start;
+					}
+				}
+				counts[keyNo] = keptCount;
+			}
+		}
+	}
+}
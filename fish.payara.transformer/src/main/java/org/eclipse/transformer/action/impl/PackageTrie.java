@@ -0,0 +1,210 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Prefix tree of package rename keys, used to rename the package of a single
+ * package name or of a single type name.
+ * <p>
+ * Keys are stored by character, in either dotted or slashed form, and are
+ * ended by the package separator. A lookup walks the characters of a name
+ * once, without allocating, and allocates only the replacement text.
+ * <p>
+ * A key which does not have a wildcard suffix matches only the same package.
+ * A key which has a wildcard suffix, for example, "javax.servlet.*", matches
+ * the package and all of its sub-packages. When several keys match, the key
+ * which matches the entire package is used, and otherwise the longest
+ * matching wildcard key is used.
+ * <p>
+ * A trie is immutable, and may be used by several threads.
+ */
+public class PackageTrie {
+	/**
+	 * Create a trie of package renames.
+	 *
+	 * @param packageRenames Package rename keys and their replacements, in
+	 *            dotted form. Keys may have a wildcard suffix.
+	 * @param separator The package separator which is used by names which are
+	 *            to be looked up, either '.' or '/'.
+	 */
+	public PackageTrie(Map<String, String> packageRenames, char separator) {
+		this.separator = separator;
+		this.root = new Node();
+
+		for (Map.Entry<String, String> renameEntry : packageRenames.entrySet()) {
+			String key = renameEntry.getKey();
+			String value = renameEntry.getValue();
+
+			boolean matchSubpackages = SignatureRuleImpl.containsWildcard(key);
+			if (matchSubpackages) {
+				key = SignatureRuleImpl.stripWildcard(key);
+			}
+			if (separator != '.') {
+				key = key.replace('.', separator);
+				value = value.replace('.', separator);
+			}
+
+			Node node = root;
+			for (int charNo = 0; charNo < key.length(); charNo++) {
+				node = node.add(key.charAt(charNo));
+			}
+			if (matchSubpackages) {
+				node.subpackagesValue = value;
+			} else {
+				node.value = value;
+			}
+		}
+	}
+
+	private final char	separator;
+	private final Node	root;
+
+	private static final class Node {
+		private char[]	edgeChars	= new char[0];
+		private Node[]	edgeTargets	= new Node[0];
+
+		/** Replacement of a key which matches only this package. */
+		String			value;
+		/** Replacement of a key which matches sub-packages. */
+		String			subpackagesValue;
+
+		Node next(char c) {
+			int charNo = Arrays.binarySearch(edgeChars, c);
+			return ((charNo < 0) ? null : edgeTargets[charNo]);
+		}
+
+		Node add(char c) {
+			int charNo = Arrays.binarySearch(edgeChars, c);
+			if (charNo >= 0) {
+				return edgeTargets[charNo];
+			}
+
+			int insertNo = -(charNo + 1);
+			int numEdges = edgeChars.length;
+
+			char[] newChars = new char[numEdges + 1];
+			Node[] newTargets = new Node[numEdges + 1];
+			System.arraycopy(edgeChars, 0, newChars, 0, insertNo);
+			System.arraycopy(edgeTargets, 0, newTargets, 0, insertNo);
+			System.arraycopy(edgeChars, insertNo, newChars, insertNo + 1, numEdges - insertNo);
+			System.arraycopy(edgeTargets, insertNo, newTargets, insertNo + 1, numEdges - insertNo);
+
+			Node target = new Node();
+			newChars[insertNo] = c;
+			newTargets[insertNo] = target;
+
+			edgeChars = newChars;
+			edgeTargets = newTargets;
+			return target;
+		}
+	}
+
+	//
+
+	/**
+	 * Answer the replacement of a package name.
+	 *
+	 * @param packageName The package name which is to be replaced.
+	 * @return The replacement package name. Null if no key matches the
+	 *         package.
+	 */
+	public String replacePackage(String packageName) {
+		return replacePackage(packageName, 0, packageName.length());
+	}
+
+	/**
+	 * Answer the replacement of a package name which is embedded in text.
+	 *
+	 * @param text Text which contains the package name.
+	 * @param start The offset of the package name in the text.
+	 * @param end The offset which follows the package name in the text.
+	 * @return The replacement package name. Null if no key matches the
+	 *         package.
+	 */
+	public String replacePackage(String text, int start, int end) {
+		Node node = root;
+		Node subpackagesNode = null;
+		int subpackagesEnd = -1;
+
+		for (int charNo = start; (node != null) && (charNo < end); charNo++) {
+			char c = text.charAt(charNo);
+			if ((c == separator) && (node.subpackagesValue != null)) {
+				subpackagesNode = node;
+				subpackagesEnd = charNo;
+			}
+			node = node.next(c);
+		}
+
+		if (node != null) {
+			if (node.value != null) {
+				return node.value;
+			} else if (node.subpackagesValue != null) {
+				return node.subpackagesValue;
+			}
+		}
+		if (subpackagesNode != null) {
+			return subpackagesNode.subpackagesValue + text.substring(subpackagesEnd, end);
+		}
+		return null;
+	}
+
+	/**
+	 * Answer the replacement of a type name, which is the type name with its
+	 * package replaced.
+	 *
+	 * @param typeName A fully qualified type name.
+	 * @return The type name with a replaced package. Null if the type has no
+	 *         package, or if no key matches the package.
+	 */
+	public String replaceType(String typeName) {
+		int end = typeName.length();
+
+		Node node = root;
+		// Matches of the walked text, which are accepted only if they end at
+		// the last separator.
+		Node exactNode = null;
+		int exactEnd = -1;
+		Node subpackagesNode = null;
+		int subpackagesEnd = -1;
+
+		for (int charNo = 0; (node != null) && (charNo < end); charNo++) {
+			char c = typeName.charAt(charNo);
+			if (c == separator) {
+				if (node.value != null) {
+					exactNode = node;
+					exactEnd = charNo;
+				}
+				if (node.subpackagesValue != null) {
+					subpackagesNode = node;
+					subpackagesEnd = charNo;
+				}
+			}
+			node = node.next(c);
+		}
+
+		// The walk either reached the end of the name, or left the trie. An
+		// exact match which is followed by another separator is of a parent
+		// of the package of the type. A wildcard match is of the package of
+		// the type or of one of its parents.
+
+		if ((exactNode != null) && (typeName.indexOf(separator, exactEnd + 1) == -1)) {
+			return exactNode.value + typeName.substring(exactEnd);
+		} else if (subpackagesNode != null) {
+			return subpackagesNode.subpackagesValue + typeName.substring(subpackagesEnd);
+		} else {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,482 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.eclipse.transformer.action.BundleData;
+import org.eclipse.transformer.util.Fingerprint;
+
+/**
+ * Immutable set of transformation rules, as resolved from the rules
+ * properties.
+ * <p>
+ * A rule set holds the selections, the package renames, the package versions,
+ * the bundle updates, the text updates, the direct strings and the per class
+ * constants, after inversion, and with the text updates of the master text
+ * properties merged from their sub-properties. Null values mean that no rules
+ * of that kind were specified.
+ * <p>
+ * A rule set can be written to a compact binary snapshot, which is loaded with
+ * a single read. This avoids the loading and parsing of the rules properties,
+ * which for the text updates spans many property files. A snapshot records a
+ * key of the references to its rules, a key of the sources of its rules, and
+ * the stamps of the external rules files from which it was compiled. A
+ * snapshot of the same references is checked by the stamps of its files, and
+ * the content of the files is compared only when a stamp is not current.
+ */
+public class RuleSet {
+	/** First bytes of every snapshot. */
+	private static final int	MAGIC			= 0x54525331;
+	/** Version of the snapshot format. */
+	private static final int	FORMAT_VERSION	= 2;
+
+	public RuleSet(String sourceKey, Set<String> includes, Set<String> excludes, Map<String, String> renames,
+		Map<String, String> versions, Map<String, BundleData> bundleUpdates,
+		Map<String, Map<String, String>> masterTextUpdates, Map<String, String> directStrings,
+		Map<String, Map<String, String>> perClassConstant) {
+
+		this(null, sourceKey, null, includes, excludes, renames, versions, bundleUpdates, masterTextUpdates,
+			directStrings, perClassConstant);
+	}
+
+	public RuleSet(String referenceKey, String sourceKey, List<RulesDependency> dependencies, Set<String> includes,
+		Set<String> excludes, Map<String, String> renames, Map<String, String> versions,
+		Map<String, BundleData> bundleUpdates, Map<String, Map<String, String>> masterTextUpdates,
+		Map<String, String> directStrings, Map<String, Map<String, String>> perClassConstant) {
+
+		this.referenceKey = referenceKey;
+		this.sourceKey = sourceKey;
+		this.dependencies = (dependencies == null) ? Collections.emptyList()
+			: Collections.unmodifiableList(new ArrayList<>(dependencies));
+
+		this.includes = copySet(includes);
+		this.excludes = copySet(excludes);
+		this.renames = copyMap(renames);
+		this.versions = copyMap(versions);
+		this.bundleUpdates = (bundleUpdates == null) ? null
+			: Collections.unmodifiableMap(new LinkedHashMap<>(bundleUpdates));
+		this.masterTextUpdates = copyMaps(masterTextUpdates);
+		this.directStrings = copyMap(directStrings);
+		this.perClassConstant = copyMaps(perClassConstant);
+	}
+
+	private static Set<String> copySet(Set<String> set) {
+		return (set == null) ? null : Collections.unmodifiableSet(new LinkedHashSet<>(set));
+	}
+
+	private static Map<String, String> copyMap(Map<String, String> map) {
+		return (map == null) ? null : Collections.unmodifiableMap(new LinkedHashMap<>(map));
+	}
+
+	private static Map<String, Map<String, String>> copyMaps(Map<String, Map<String, String>> maps) {
+		if (maps == null) {
+			return null;
+		}
+		Map<String, Map<String, String>> copy = new LinkedHashMap<>(maps.size());
+		for (Map.Entry<String, Map<String, String>> entry : maps.entrySet()) {
+			copy.put(entry.getKey(), copyMap(entry.getValue()));
+		}
+		return Collections.unmodifiableMap(copy);
+	}
+
+	//
+
+	private final String referenceKey;
+
+	/**
+	 * Answer the key of the references to the rules: The version of the
+	 * transformer, whether the rules are inverted, and the references to the
+	 * rules properties.
+	 *
+	 * @return The key of the references to the rules. Null if the rules were
+	 *         not compiled for a snapshot.
+	 */
+	public String getReferenceKey() {
+		return referenceKey;
+	}
+
+	private final String sourceKey;
+
+	/**
+	 * Answer the key of the sources of the rules. Rule sets which were
+	 * compiled from the same rules properties have the same source key.
+	 *
+	 * @return The key of the sources of the rules.
+	 */
+	public String getSourceKey() {
+		return sourceKey;
+	}
+
+	private final List<RulesDependency> dependencies;
+
+	/**
+	 * Answer the stamps of the external rules files from which the rules were
+	 * compiled.
+	 *
+	 * @return The stamps of the external rules files.
+	 */
+	public List<RulesDependency> getDependencies() {
+		return dependencies;
+	}
+
+	/**
+	 * Tell if none of the external rules files changed since the rules were
+	 * compiled. Only the stamps of the files are checked.
+	 *
+	 * @return True if the stamps of all of the external rules files are
+	 *         current.
+	 */
+	public boolean isCurrent() {
+		for (RulesDependency dependency : dependencies) {
+			if (!dependency.isCurrent()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private final Set<String>						includes;
+	private final Set<String>						excludes;
+	private final Map<String, String>				renames;
+	private final Map<String, String>				versions;
+	private final Map<String, BundleData>			bundleUpdates;
+	private final Map<String, Map<String, String>>	masterTextUpdates;
+	private final Map<String, String>				directStrings;
+	private final Map<String, Map<String, String>>	perClassConstant;
+
+	public Set<String> getIncludes() {
+		return includes;
+	}
+
+	public Set<String> getExcludes() {
+		return excludes;
+	}
+
+	public Map<String, String> getPackageRenames() {
+		return renames;
+	}
+
+	public Map<String, String> getPackageVersions() {
+		return versions;
+	}
+
+	public Map<String, BundleData> getBundleUpdates() {
+		return bundleUpdates;
+	}
+
+	public Map<String, Map<String, String>> getMasterTextUpdates() {
+		return masterTextUpdates;
+	}
+
+	public Map<String, String> getDirectStrings() {
+		return directStrings;
+	}
+
+	public Map<String, Map<String, String>> getPerClassConstantStrings() {
+		return perClassConstant;
+	}
+
+	/**
+	 * Answer the fingerprint of the rules. Rule sets which have the same
+	 * fingerprint make the same changes.
+	 *
+	 * @return The fingerprint of the rules.
+	 */
+	public String getFingerprint() {
+		return new Fingerprint().addValue(includes)
+			.addValue(excludes)
+			.addValue(renames)
+			.addValue(versions)
+			.addValue(bundleUpdates)
+			.addValue(masterTextUpdates)
+			.addValue(directStrings)
+			.addValue(perClassConstant)
+			.finish();
+	}
+
+	//
+
+	public SelectionRuleImpl newSelectionRule(Logger logger) {
+		return new SelectionRuleImpl(logger, includes, excludes);
+	}
+
+	public SignatureRuleImpl newSignatureRule(Logger logger) {
+		return new SignatureRuleImpl(logger, renames, versions, bundleUpdates, masterTextUpdates, directStrings,
+			perClassConstant);
+	}
+
+	// Snapshots ...
+
+	/**
+	 * Write a snapshot of the rules. The snapshot is written to a temporary
+	 * file, which is moved into place.
+	 *
+	 * @param snapshotFile The file to which to write the snapshot.
+	 * @throws IOException Thrown if the snapshot could not be written.
+	 */
+	public void write(File snapshotFile) throws IOException {
+		File parentDir = snapshotFile.getAbsoluteFile()
+			.getParentFile();
+		Files.createDirectories(parentDir.toPath()); // throws IOException
+
+		File tempFile = File.createTempFile(snapshotFile.getName(), ".tmp", parentDir); // throws
+																						// IOException
+		try {
+			try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) { // throws IOException
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				writeString(output, referenceKey);
+				writeString(output, sourceKey);
+				writeDependencies(output, dependencies);
+				writeSet(output, includes);
+				writeSet(output, excludes);
+				writeMap(output, renames);
+				writeMap(output, versions);
+				writeBundles(output, bundleUpdates);
+				writeMaps(output, masterTextUpdates);
+				writeMap(output, directStrings);
+				writeMaps(output, perClassConstant);
+			}
+			try {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	/**
+	 * Read a snapshot of rules. The snapshot is read with a single read.
+	 *
+	 * @param snapshotFile The file from which to read the snapshot.
+	 * @return The rules of the snapshot.
+	 * @throws IOException Thrown if the snapshot could not be read, or is not
+	 *             a valid snapshot.
+	 */
+	public static RuleSet read(File snapshotFile) throws IOException {
+		byte[] bytes = Files.readAllBytes(snapshotFile.toPath()); // throws
+																	// IOException
+
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			if ((input.readInt() != MAGIC) || (input.readInt() != FORMAT_VERSION)) {
+				throw new IOException("Not a rules snapshot [ " + snapshotFile.getAbsolutePath() + " ]");
+			}
+			String useReferenceKey = readString(input);
+			String useSourceKey = readString(input);
+			List<RulesDependency> useDependencies = readDependencies(input);
+			Set<String> useIncludes = readSet(input);
+			Set<String> useExcludes = readSet(input);
+			Map<String, String> useRenames = readMap(input);
+			Map<String, String> useVersions = readMap(input);
+			Map<String, BundleData> useBundleUpdates = readBundles(input);
+			Map<String, Map<String, String>> useMasterTextUpdates = readMaps(input);
+			Map<String, String> useDirectStrings = readMap(input);
+			Map<String, Map<String, String>> usePerClassConstant = readMaps(input);
+			if (input.available() != 0) {
+				throw new IOException("Extra data in rules snapshot [ " + snapshotFile.getAbsolutePath() + " ]");
+			}
+
+			return new RuleSet(useReferenceKey, useSourceKey, useDependencies, useIncludes, useExcludes, useRenames, useVersions, useBundleUpdates,
+				useMasterTextUpdates, useDirectStrings, usePerClassConstant);
+
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid rules snapshot [ " + snapshotFile.getAbsolutePath() + " ]", e);
+		}
+	}
+
+	// Values are written with a count or a length, which is -1 for null.
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		if (value == null) {
+			output.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(UTF_8);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+		int length = input.readInt();
+		if (length == -1) {
+			return null;
+		}
+		if ((length < 0) || (length > input.available())) {
+			throw new IOException("Invalid string length [ " + length + " ]");
+		}
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static int readCount(DataInputStream input) throws IOException {
+		int count = input.readInt();
+		if ((count < -1) || (count > input.available())) {
+			throw new IOException("Invalid count [ " + count + " ]");
+		}
+		return count;
+	}
+
+	private static void writeDependencies(DataOutputStream output, List<RulesDependency> dependencies)
+		throws IOException {
+		output.writeInt(dependencies.size());
+		for (RulesDependency dependency : dependencies) {
+			writeString(output, dependency.getPath());
+			output.writeLong(dependency.getLength());
+			output.writeLong(dependency.getLastModified());
+		}
+	}
+
+	private static List<RulesDependency> readDependencies(DataInputStream input) throws IOException {
+		int count = readCount(input);
+		if (count == -1) {
+			throw new IOException("Invalid dependency count [ " + count + " ]");
+		}
+		List<RulesDependency> dependencies = new ArrayList<>(count);
+		for (int dependencyNo = 0; dependencyNo < count; dependencyNo++) {
+			dependencies.add(new RulesDependency(readString(input), input.readLong(), input.readLong()));
+		}
+		return dependencies;
+	}
+
+	private static void writeSet(DataOutputStream output, Set<String> set) throws IOException {
+		if (set == null) {
+			output.writeInt(-1);
+			return;
+		}
+		output.writeInt(set.size());
+		for (String element : set) {
+			writeString(output, element);
+		}
+	}
+
+	private static Set<String> readSet(DataInputStream input) throws IOException {
+		int count = readCount(input);
+		if (count == -1) {
+			return null;
+		}
+		Set<String> set = new LinkedHashSet<>(count);
+		for (int elementNo = 0; elementNo < count; elementNo++) {
+			set.add(readString(input));
+		}
+		return set;
+	}
+
+	private static void writeMap(DataOutputStream output, Map<String, String> map) throws IOException {
+		if (map == null) {
+			output.writeInt(-1);
+			return;
+		}
+		output.writeInt(map.size());
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			writeString(output, entry.getKey());
+			writeString(output, entry.getValue());
+		}
+	}
+
+	private static Map<String, String> readMap(DataInputStream input) throws IOException {
+		int count = readCount(input);
+		if (count == -1) {
+			return null;
+		}
+		Map<String, String> map = new LinkedHashMap<>(count);
+		for (int entryNo = 0; entryNo < count; entryNo++) {
+			map.put(readString(input), readString(input));
+		}
+		return map;
+	}
+
+	private static void writeMaps(DataOutputStream output, Map<String, Map<String, String>> maps)
+		throws IOException {
+		if (maps == null) {
+			output.writeInt(-1);
+			return;
+		}
+		output.writeInt(maps.size());
+		for (Map.Entry<String, Map<String, String>> entry : maps.entrySet()) {
+			writeString(output, entry.getKey());
+			writeMap(output, entry.getValue());
+		}
+	}
+
+	private static Map<String, Map<String, String>> readMaps(DataInputStream input) throws IOException {
+		int count = readCount(input);
+		if (count == -1) {
+			return null;
+		}
+		Map<String, Map<String, String>> maps = new LinkedHashMap<>(count);
+		for (int entryNo = 0; entryNo < count; entryNo++) {
+			maps.put(readString(input), readMap(input));
+		}
+		return maps;
+	}
+
+	private static void writeBundles(DataOutputStream output, Map<String, BundleData> bundles) throws IOException {
+		if (bundles == null) {
+			output.writeInt(-1);
+			return;
+		}
+		output.writeInt(bundles.size());
+		for (Map.Entry<String, BundleData> entry : bundles.entrySet()) {
+			BundleData bundleData = entry.getValue();
+			writeString(output, entry.getKey());
+			writeString(output, bundleData.getSymbolicName());
+			writeString(output, bundleData.getVersion());
+			output.writeBoolean(bundleData.getAddName());
+			writeString(output, bundleData.getName());
+			output.writeBoolean(bundleData.getAddDescription());
+			writeString(output, bundleData.getDescription());
+		}
+	}
+
+	private static Map<String, BundleData> readBundles(DataInputStream input) throws IOException {
+		int count = readCount(input);
+		if (count == -1) {
+			return null;
+		}
+		Map<String, BundleData> bundles = new LinkedHashMap<>(count);
+		for (int entryNo = 0; entryNo < count; entryNo++) {
+			String key = readString(input);
+			String symbolicName = readString(input);
+			String version = readString(input);
+			boolean addName = input.readBoolean();
+			String name = readString(input);
+			boolean addDescription = input.readBoolean();
+			String description = readString(input);
+			bundles.put(key, new BundleDataImpl(symbolicName, version, addName, name, addDescription, description));
+		}
+		return bundles;
+	}
+}
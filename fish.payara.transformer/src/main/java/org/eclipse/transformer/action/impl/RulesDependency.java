@@ -0,0 +1,89 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.io.File;
+
+/**
+ * Stamp of an external rules file: The path of the file, and the length and
+ * the last modified time of the file when its rules were read.
+ * <p>
+ * A stamp is used to cheaply detect that a rules file did not change: Only
+ * when the stamp is not current is the content of the file read. Rules which
+ * are not read from a file have a stamp which is never current.
+ */
+public class RulesDependency {
+	/** Length of rules which are not read from a file. */
+	public static final long UNKNOWN_LENGTH = -1L;
+
+	/**
+	 * Answer the current stamp of a rules file.
+	 *
+	 * @param file The rules file.
+	 * @return The current stamp of the file.
+	 */
+	public static RulesDependency of(File file) {
+		return new RulesDependency(file.getAbsolutePath(), file.length(), file.lastModified());
+	}
+
+	/**
+	 * Answer a stamp of rules which are not read from a file.
+	 *
+	 * @param reference The reference to the rules.
+	 * @return A stamp which is never current.
+	 */
+	public static RulesDependency unknown(String reference) {
+		return new RulesDependency(reference, UNKNOWN_LENGTH, 0L);
+	}
+
+	public RulesDependency(String path, long length, long lastModified) {
+		this.path = path;
+		this.length = length;
+		this.lastModified = lastModified;
+	}
+
+	private final String	path;
+	private final long		length;
+	private final long		lastModified;
+
+	public String getPath() {
+		return path;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Tell if the rules file is unchanged since the stamp was taken. A file
+	 * which does not exist has a length and a last modified time of zero.
+	 *
+	 * @return True if the file has the length and the last modified time of
+	 *         the stamp.
+	 */
+	public boolean isCurrent() {
+		if (length == UNKNOWN_LENGTH) {
+			return false;
+		}
+		File file = new File(path);
+		return ((file.length() == length) && (file.lastModified() == lastModified));
+	}
+
+	@Override
+	public String toString() {
+		return path + " [ " + length + " ] [ " + lastModified + " ]";
+	}
+}
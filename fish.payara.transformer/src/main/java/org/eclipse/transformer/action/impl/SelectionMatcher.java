@@ -0,0 +1,238 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compiled matcher of resource names against one kind of selection rule,
+ * either includes or excludes.
+ * <p>
+ * Selections match resource names exactly, by a suffix ("*.jar"), by a
+ * prefix ("com/ibm/*"), or by a middle ("*internal*"). Exact selections are
+ * stored in a set. Suffixes are stored in a reversed prefix tree, and
+ * prefixes are stored in a prefix tree, each of which matches a name in one
+ * walk of the name. Middles are compiled into an Aho-Corasick automaton,
+ * which finds any middle in one pass over the name.
+ * <p>
+ * Matching does not allocate. The match methods answer the matched
+ * selection text, which was stored when the matcher was created.
+ * <p>
+ * A matcher is immutable, and may be used by several threads.
+ */
+public class SelectionMatcher {
+	/**
+	 * Create a matcher.
+	 *
+	 * @param exact Selections which match resource names exactly.
+	 * @param suffixes Selections which match the ends of resource names.
+	 * @param prefixes Selections which match the beginnings of resource names.
+	 * @param middles Selections which match anywhere in resource names.
+	 */
+	public SelectionMatcher(Collection<String> exact, Collection<String> suffixes, Collection<String> prefixes,
+		Collection<String> middles) {
+
+		this.exact = new HashSet<>(exact);
+
+		this.suffixRoot = new Node();
+		for (String suffix : suffixes) {
+			Node node = suffixRoot;
+			for (int charNo = suffix.length() - 1; charNo >= 0; charNo--) {
+				node = node.add(suffix.charAt(charNo));
+			}
+			node.selection = suffix;
+		}
+
+		this.prefixRoot = new Node();
+		for (String prefix : prefixes) {
+			Node node = prefixRoot;
+			for (int charNo = 0; charNo < prefix.length(); charNo++) {
+				node = node.add(prefix.charAt(charNo));
+			}
+			node.selection = prefix;
+		}
+
+		this.middleRoot = new Node();
+		for (String middle : middles) {
+			Node node = middleRoot;
+			for (int charNo = 0; charNo < middle.length(); charNo++) {
+				node = node.add(middle.charAt(charNo));
+			}
+			node.selection = middle;
+		}
+		linkFailures(middleRoot);
+	}
+
+	private final Set<String>	exact;
+	private final Node			suffixRoot;
+	private final Node			prefixRoot;
+	private final Node			middleRoot;
+
+	private static final class Node {
+		private char[]	edgeChars	= new char[0];
+		private Node[]	edgeTargets	= new Node[0];
+
+		/** The selection which ends at this node. Null if none ends here. */
+		String			selection;
+
+		/** Automaton failure link. */
+		Node			failure;
+		/** The selection which ends at this node or along its failure links. */
+		String			output;
+
+		Node next(char c) {
+			int charNo = Arrays.binarySearch(edgeChars, c);
+			return ((charNo < 0) ? null : edgeTargets[charNo]);
+		}
+
+		Node add(char c) {
+			int charNo = Arrays.binarySearch(edgeChars, c);
+			if (charNo >= 0) {
+				return edgeTargets[charNo];
+			}
+
+			int insertNo = -(charNo + 1);
+			int numEdges = edgeChars.length;
+
+			char[] newChars = new char[numEdges + 1];
+			Node[] newTargets = new Node[numEdges + 1];
+			System.arraycopy(edgeChars, 0, newChars, 0, insertNo);
+			System.arraycopy(edgeTargets, 0, newTargets, 0, insertNo);
+			System.arraycopy(edgeChars, insertNo, newChars, insertNo + 1, numEdges - insertNo);
+			System.arraycopy(edgeTargets, insertNo, newTargets, insertNo + 1, numEdges - insertNo);
+
+			Node target = new Node();
+			newChars[insertNo] = c;
+			newTargets[insertNo] = target;
+
+			edgeChars = newChars;
+			edgeTargets = newTargets;
+			return target;
+		}
+	}
+
+	private static void linkFailures(Node root) {
+		root.output = root.selection;
+
+		Deque<Node> queue = new ArrayDeque<>();
+		for (Node child : root.edgeTargets) {
+			child.failure = root;
+			child.output = ((child.selection != null) ? child.selection : root.output);
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty()) {
+			Node node = queue.remove();
+			for (int charNo = 0; charNo < node.edgeChars.length; charNo++) {
+				char c = node.edgeChars[charNo];
+				Node child = node.edgeTargets[charNo];
+
+				Node failure = node.failure;
+				Node failureNext;
+				while (((failureNext = failure.next(c)) == null) && (failure != root)) {
+					failure = failure.failure;
+				}
+				child.failure = ((failureNext == null) ? root : failureNext);
+				child.output = ((child.selection != null) ? child.selection : child.failure.output);
+
+				queue.add(child);
+			}
+		}
+	}
+
+	//
+
+	/**
+	 * Tell if a resource name matches an exact selection.
+	 *
+	 * @param resourceName A resource name.
+	 * @return True if the resource name is an exact selection.
+	 */
+	public boolean matchExact(String resourceName) {
+		return exact.contains(resourceName);
+	}
+
+	/**
+	 * Match the end of a resource name against the suffix selections.
+	 *
+	 * @param resourceName A resource name.
+	 * @return A suffix which ends the resource name. Null if none does.
+	 */
+	public String matchSuffix(String resourceName) {
+		Node node = suffixRoot;
+		for (int charNo = resourceName.length() - 1; node != null; charNo--) {
+			if (node.selection != null) {
+				return node.selection;
+			} else if (charNo < 0) {
+				return null;
+			}
+			node = node.next(resourceName.charAt(charNo));
+		}
+		return null;
+	}
+
+	/**
+	 * Match the beginning of a resource name against the prefix selections.
+	 *
+	 * @param resourceName A resource name.
+	 * @return A prefix which begins the resource name. Null if none does.
+	 */
+	public String matchPrefix(String resourceName) {
+		int nameLength = resourceName.length();
+		Node node = prefixRoot;
+		for (int charNo = 0; node != null; charNo++) {
+			if (node.selection != null) {
+				return node.selection;
+			} else if (charNo == nameLength) {
+				return null;
+			}
+			node = node.next(resourceName.charAt(charNo));
+		}
+		return null;
+	}
+
+	/**
+	 * Match a resource name against the middle selections.
+	 *
+	 * @param resourceName A resource name.
+	 * @return A middle which is contained by the resource name. Null if none
+	 *         is.
+	 */
+	public String matchMiddle(String resourceName) {
+		Node root = middleRoot;
+		if (root.output != null) {
+			return root.output; // An empty middle
+		} else if (root.edgeChars.length == 0) {
+			return null;
+		}
+
+		Node node = root;
+		int nameLength = resourceName.length();
+		for (int charNo = 0; charNo < nameLength; charNo++) {
+			char c = resourceName.charAt(charNo);
+			Node next;
+			while (((next = node.next(c)) == null) && (node != root)) {
+				node = node.failure;
+			}
+			node = ((next == null) ? root : next);
+			if (node.output != null) {
+				return node.output;
+			}
+		}
+		return null;
+	}
+}
@@ -18,6 +18,7 @@ import java.util.logging.Level;
 
 import org.eclipse.transformer.TransformProperties;
 import org.eclipse.transformer.action.SelectionRule;
+import org.eclipse.transformer.util.Fingerprint;
 import java.util.logging.Logger;
 
 public class SelectionRuleImpl implements SelectionRule {
@@ -56,6 +57,31 @@ public class SelectionRuleImpl implements SelectionRule {
 			TransformProperties.processSelections(this.excluded, this.excludedExact, this.excludedHead,
 				this.excludedTail, this.excludedAny);
 		}
+
+		// The head sets hold the selections which match the ends of resource
+		// names, and the tail sets hold the selections which match the
+		// beginnings of resource names.
+
+		this.includedMatcher = new SelectionMatcher(includedExact, includedHead, includedTail, includedAny);
+		this.excludedMatcher = new SelectionMatcher(excludedExact, excludedHead, excludedTail, excludedAny);
+
+		this.fingerprint = new Fingerprint().addValue(included)
+			.addValue(excluded)
+			.finish();
+	}
+
+	//
+
+	private final String fingerprint;
+
+	/**
+	 * Answer the fingerprint of the selections: A digest of the included and
+	 * excluded resource names.
+	 *
+	 * @return The fingerprint of the selections.
+	 */
+	public String getFingerprint() {
+		return fingerprint;
 	}
 
 	//
@@ -70,6 +96,10 @@ public class SelectionRuleImpl implements SelectionRule {
 		getLogger().log(Level.FINE, message, parms);
 	}
 
+	public boolean isDebugEnabled() {
+		return getLogger().isLoggable(Level.FINE);
+	}
+
 	//
 
 	private final Set<String>	included;
@@ -84,81 +114,104 @@ public class SelectionRuleImpl implements SelectionRule {
 	private final Set<String>	excludedTail;
 	private final Set<String>	excludedAny;
 
+	private final SelectionMatcher	includedMatcher;
+	private final SelectionMatcher	excludedMatcher;
+
 	@Override
 	public boolean select(String resourceName) {
-		boolean isIncluded = selectIncluded(resourceName);
-		boolean isExcluded = rejectExcluded(resourceName);
-
-		return (isIncluded && !isExcluded);
+		// Excludes are only checked for included resources.
+		return selectIncluded(resourceName) && !rejectExcluded(resourceName);
 	}
 
 	@Override
 	public boolean selectIncluded(String resourceName) {
+		// Debug messages are guarded: Their parameter arrays would otherwise
+		// be created for every resource.
+		boolean isDebugEnabled = isDebugEnabled();
+
 		if (included.isEmpty()) {
-			debug("Include [ {} ]: {}", resourceName, "No includes");
+			if (isDebugEnabled) {
+				debug("Include [ {} ]: {}", resourceName, "No includes");
+			}
 			return true;
 
-		} else if (includedExact.contains(resourceName)) {
-			debug("Include [ {} ]: {}", resourceName, "Exact include");
+		} else if (includedMatcher.matchExact(resourceName)) {
+			if (isDebugEnabled) {
+				debug("Include [ {} ]: {}", resourceName, "Exact include");
+			}
 			return true;
+		}
 
-		} else {
-			for (String tail : includedHead) {
-				if (resourceName.endsWith(tail)) {
-					debug("Include [ {} ]: {} ({})", resourceName, "Match tail", tail);
-					return true;
-				}
+		String tail = includedMatcher.matchSuffix(resourceName);
+		if (tail != null) {
+			if (isDebugEnabled) {
+				debug("Include [ {} ]: {} ({})", resourceName, "Match tail", tail);
 			}
-			for (String head : includedTail) {
-				if (resourceName.startsWith(head)) {
-					debug("Include [ {} ]: {} ({})", resourceName, "Match head", head);
-					return true;
-				}
+			return true;
+		}
+		String head = includedMatcher.matchPrefix(resourceName);
+		if (head != null) {
+			if (isDebugEnabled) {
+				debug("Include [ {} ]: {} ({})", resourceName, "Match head", head);
 			}
-			for (String middle : includedAny) {
-				if (resourceName.contains(middle)) {
-					debug("Include [ {} ]: {} ({})", resourceName, "Match middle", middle);
-					return true;
-				}
+			return true;
+		}
+		String middle = includedMatcher.matchMiddle(resourceName);
+		if (middle != null) {
+			if (isDebugEnabled) {
+				debug("Include [ {} ]: {} ({})", resourceName, "Match middle", middle);
 			}
+			return true;
+		}
 
+		if (isDebugEnabled) {
 			debug("Do not include [ {} ]", resourceName);
-			return false;
 		}
+		return false;
 	}
 
 	@Override
 	public boolean rejectExcluded(String resourceName) {
+		boolean isDebugEnabled = isDebugEnabled();
+
 		if (excluded.isEmpty()) {
-			debug("Do not exclude[ {} ]: {}", resourceName, "No excludes");
+			if (isDebugEnabled) {
+				debug("Do not exclude[ {} ]: {}", resourceName, "No excludes");
+			}
 			return false;
 
-		} else if (excludedExact.contains(resourceName)) {
-			debug("Exclude [ {} ]: {}", resourceName, "Exact exclude");
+		} else if (excludedMatcher.matchExact(resourceName)) {
+			if (isDebugEnabled) {
+				debug("Exclude [ {} ]: {}", resourceName, "Exact exclude");
+			}
 			return true;
+		}
 
-		} else {
-			for (String tail : excludedHead) {
-				if (resourceName.endsWith(tail)) {
-					debug("Exclude[ {} ]: {} ({})", resourceName, "Match tail", tail);
-					return true;
-				}
+		String tail = excludedMatcher.matchSuffix(resourceName);
+		if (tail != null) {
+			if (isDebugEnabled) {
+				debug("Exclude[ {} ]: {} ({})", resourceName, "Match tail", tail);
 			}
-			for (String head : excludedTail) {
-				if (resourceName.startsWith(head)) {
-					debug("Exclude[ {} ]: {} ({})", resourceName, "Match head", head);
-					return true;
-				}
+			return true;
+		}
+		String head = excludedMatcher.matchPrefix(resourceName);
+		if (head != null) {
+			if (isDebugEnabled) {
+				debug("Exclude[ {} ]: {} ({})", resourceName, "Match head", head);
 			}
-			for (String middle : excludedAny) {
-				if (resourceName.contains(middle)) {
-					debug("Exclude[ {} ]: {} ({})", resourceName, "Match middle", middle);
-					return true;
-				}
+			return true;
+		}
+		String middle = excludedMatcher.matchMiddle(resourceName);
+		if (middle != null) {
+			if (isDebugEnabled) {
+				debug("Exclude[ {} ]: {} ({})", resourceName, "Match middle", middle);
 			}
+			return true;
+		}
 
+		if (isDebugEnabled) {
 			debug("Do not exclude [ {} ]", resourceName);
-			return false;
 		}
+		return false;
 	}
 }
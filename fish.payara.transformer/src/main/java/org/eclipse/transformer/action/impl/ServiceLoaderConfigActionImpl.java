@@ -11,24 +11,13 @@
 
 package org.eclipse.transformer.action.impl;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 
 import org.eclipse.transformer.TransformException;
 import org.eclipse.transformer.action.ActionType;
 import org.eclipse.transformer.util.ByteData;
 import java.util.logging.Logger;
 
-import aQute.lib.io.ByteBufferInputStream;
-import aQute.lib.io.ByteBufferOutputStream;
-
 /**
  * Transform service configuration bytes. Per:
  * https://docs.oracle.com/javase/6/docs/api/java/util/ServiceLoader.html A
@@ -97,6 +86,11 @@ public class ServiceLoaderConfigActionImpl extends ActionImpl {
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public String getAcceptSuffix() {
+		return null; // Acceptance is not decided by the resource name suffix.
+	}
+
 	@Override
 	public boolean accept(String resourceName, File resourceFile) {
 		return resourceName.contains(META_INF_SERVICES);
@@ -107,6 +101,17 @@ public class ServiceLoaderConfigActionImpl extends ActionImpl {
 	@Override
 	public ByteData apply(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
 
+		byte[] outputBytes = newLineTransformer(inputName).transform(inputBytes, inputLength);
+
+		if (!hasNonResourceNameChanges()) {
+			return null;
+		}
+
+		return new ByteData(inputName, outputBytes, 0, outputBytes.length);
+	}
+
+	@Override
+	protected LineTransformer newLineTransformer(String inputName) {
 		String outputName = renameInput(inputName);
 		if (outputName == null) {
 			outputName = inputName;
@@ -115,124 +120,112 @@ public class ServiceLoaderConfigActionImpl extends ActionImpl {
 		}
 		setResourceNames(inputName, outputName);
 
-		InputStream inputStream = new ByteBufferInputStream(inputBytes, 0, inputLength);
-		InputStreamReader inputReader = new InputStreamReader(inputStream, UTF_8);
-
-		BufferedReader reader = new BufferedReader(inputReader);
-
-		ByteBufferOutputStream outputStream = new ByteBufferOutputStream(inputLength);
-		OutputStreamWriter outputWriter = new OutputStreamWriter(outputStream, UTF_8);
-
-		BufferedWriter writer = new BufferedWriter(outputWriter);
+		// A line which contains no package rename key has no package to
+		// rename, and is an unchanged provider.
 
-		try {
-			transform(reader, writer); // throws IOException
-		} catch (IOException e) {
-			error("Failed to transform [ {} ]", e, inputName);
-			return null;
-		}
-
-		try {
-			writer.flush(); // throws
-		} catch (IOException e) {
-			error("Failed to flush [ {} ]", e, inputName);
-			return null;
-		}
+		ByteKeyMatcher keyMatcher = getSignatureRule().getPackageMatcher()
+			.getKeyMatcher();
 
-		if (!hasNonResourceNameChanges()) {
-			return null;
-		}
+		return new LineTransformer(keyMatcher, new LineTransformer.LineTransform() {
+			@Override
+			public String transform(String inputLine) {
+				return transformLine(inputLine);
+			}
 
-		byte[] outputBytes = outputStream.toByteArray();
-		return new ByteData(inputName, outputBytes, 0, outputBytes.length);
+			@Override
+			public void skip() {
+				addUnchangedProvider();
+			}
+		});
 	}
 
-	protected void transform(BufferedReader reader, BufferedWriter writer) throws IOException {
+	/**
+	 * Transform one line of a service configuration file.
+	 *
+	 * @param inputLine The line, without its line terminator.
+	 * @return The transformed line. Null if the line is not changed.
+	 */
+	protected String transformLine(String inputLine) {
+		// Goal is to find the input package name. Find it by
+		// successively taking text off of the input line.
 
-		String inputLine;
-		while ((inputLine = reader.readLine()) != null) { // throws IOException
-			// Goal is to find the input package name. Find it by
-			// successively taking text off of the input line.
+		String inputPackageName;
 
-			String inputPackageName;
+		// The first '#' and all following characters are ignored.
 
-			// The first '#' and all following characters are ignored.
+		int poundLocation = inputLine.indexOf('#');
+		if (poundLocation != -1) {
+			inputPackageName = inputLine.substring(0, poundLocation);
+		} else {
+			inputPackageName = inputLine;
+		}
 
-			int poundLocation = inputLine.indexOf('#');
-			if (poundLocation != -1) {
-				inputPackageName = inputLine.substring(0, poundLocation);
-			} else {
-				inputPackageName = inputLine;
-			}
+		// Leading and trailing whitespace which surrounds the fully
+		// qualified name is ignored. This step must be done after
+		// trimming off a comment, since the trim must be of immediately
+		// surrounding whitespace.
 
-			// Leading and trailing whitespace which surrounds the fully
-			// qualified name is ignored. This step must be done after
-			// trimming off a comment, since the trim must be of immediately
-			// surrounding whitespace.
+		inputPackageName = inputPackageName.trim();
 
-			inputPackageName = inputPackageName.trim();
+		// Renames are performed on package names. Per the documentation,
+		// the values are fully qualified class names.
 
-			// Renames are performed on package names. Per the documentation,
-			// the values are fully qualified class names.
+		int dotLocation;
+		String outputPackageName;
 
-			int dotLocation;
-			String outputPackageName;
+		if (inputPackageName.isEmpty()) {
+			// The line was either entirely blank space, or was just
+			// comment. There is no package to rename.
+			dotLocation = -1;
+			outputPackageName = null;
 
-			if (inputPackageName.isEmpty()) {
-				// The line was either entirely blank space, or was just
-				// comment. There is no package to rename.
-				dotLocation = -1;
+		} else {
+			dotLocation = inputPackageName.lastIndexOf('.');
+			if (dotLocation == -1) {
+				// A class which uses the default package: There is no
+				// package
+				// to rename.
+				outputPackageName = null;
+			} else if (dotLocation == 0) {
+				// Strange leading ".": Ignore it.
 				outputPackageName = null;
-
 			} else {
-				dotLocation = inputPackageName.lastIndexOf('.');
-				if (dotLocation == -1) {
-					// A class which uses the default package: There is no
-					// package
-					// to rename.
-					outputPackageName = null;
-				} else if (dotLocation == 0) {
-					// Strange leading ".": Ignore it.
-					outputPackageName = null;
-				} else {
-					// Nab just the fully qualified package name.
-					inputPackageName = inputPackageName.substring(0, dotLocation);
-					// And perform any renames which apply.
-					outputPackageName = replacePackage(inputPackageName);
-				}
+				// Nab just the fully qualified package name.
+				inputPackageName = inputPackageName.substring(0, dotLocation);
+				// And perform any renames which apply.
+				outputPackageName = replacePackage(inputPackageName);
 			}
+		}
 
-			String outputLine;
-
-			if (outputPackageName == null) {
-				// For one of the reasons, above, no rename was performed on the
-				// line.
-				outputLine = inputLine;
-				addUnchangedProvider();
+		String outputLine;
 
-			} else {
-				// Not most efficient, but good enough:
-				// Service configuration files are expected to have only a few
-				// values, and these are expected to use little or no white
-				// space.
+		if (outputPackageName == null) {
+			// For one of the reasons, above, no rename was performed on the
+			// line.
+			outputLine = null;
+			addUnchangedProvider();
 
-				// Figure where the input fully qualified package name began and
-				// ended.
+		} else {
+			// Not most efficient, but good enough:
+			// Service configuration files are expected to have only a few
+			// values, and these are expected to use little or no white
+			// space.
 
-				int inputPackageStart = inputLine.indexOf(inputPackageName);
-				int inputPackageEnd = inputPackageStart + dotLocation;
+			// Figure where the input fully qualified package name began and
+			// ended.
 
-				// Recover as much of the original file as possible.
+			int inputPackageStart = inputLine.indexOf(inputPackageName);
+			int inputPackageEnd = inputPackageStart + dotLocation;
 
-				outputLine = inputLine.substring(0, inputPackageStart) + outputPackageName
-					+ inputLine.substring(inputPackageEnd);
+			// Recover as much of the original file as possible.
 
-				addChangedProvider();
-			}
+			outputLine = inputLine.substring(0, inputPackageStart) + outputPackageName
+				+ inputLine.substring(inputPackageEnd);
 
-			writer.write(outputLine); // throws IOException
-			writer.newLine(); // throws IOException
+			addChangedProvider();
 		}
+
+		return outputLine;
 	}
 
 	protected String renameInput(String inputName) {
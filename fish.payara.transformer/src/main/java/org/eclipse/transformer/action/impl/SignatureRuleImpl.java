@@ -13,15 +13,14 @@ package org.eclipse.transformer.action.impl;
 
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.transformer.action.BundleData;
 import org.eclipse.transformer.action.SignatureRule;
-import org.eclipse.transformer.util.FileUtils;
+import org.eclipse.transformer.util.Fingerprint;
 import java.util.logging.Logger;
 
 import aQute.bnd.signatures.ArrayTypeSignature;
@@ -79,6 +78,12 @@ public class SignatureRuleImpl implements SignatureRule {
 		this.dottedPackageRenames = useRenames;
 		this.slashedPackageRenames = useBinaryRenames;
 
+		this.dottedPackageMatcher = new PackageMatcher(useRenames);
+		this.slashedPackageMatcher = new PackageMatcher(useBinaryRenames);
+
+		this.dottedPackageTrie = new PackageTrie(useRenames, '.');
+		this.slashedPackageTrie = new PackageTrie(useRenames, '/');
+
 		Map<String, String> useVersions;
 		if ((versions != null) && !versions.isEmpty()) {
 			useVersions = new HashMap<>(versions);
@@ -96,18 +101,20 @@ public class SignatureRuleImpl implements SignatureRule {
 		this.bundleUpdates = useBundleUpdates;
 
 		if ((masterTextUpdates != null) && !masterTextUpdates.isEmpty()) {
-			Map<String, Map<String, String>> useSpecificTextUpdates = new HashMap<>();
-			Map<Pattern, Map<String, String>> useWildCardTextUpdates = new HashMap<>();
+			Map<String, TextSubstitutions> useSpecificTextUpdates = new HashMap<>();
+			Map<Pattern, TextSubstitutions> useWildCardTextUpdates = new LinkedHashMap<>();
+			Map<String, TextSubstitutions> useWildCardFileNames = new LinkedHashMap<>();
 
 			for (Map.Entry<String, Map<String, String>> entry : masterTextUpdates.entrySet()) {
 				String matchesFileName = entry.getKey();
-				Map<String, String> substitutions = entry.getValue();
+				// Prepare the substitutions once, instead of once per line of
+				// text.
+				TextSubstitutions substitutions = new TextSubstitutions(entry.getValue());
 
-				if ((matchesFileName.indexOf('?') != -1) || (matchesFileName.indexOf('*') != -1)) {
-					matchesFileName = matchesFileName.replace("?", ".?")
-						.replace("*", ".*?");
-					Pattern matchPattern = Pattern.compile(matchesFileName);
+				if (FileNameMatcher.isWildcard(matchesFileName)) {
+					Pattern matchPattern = Pattern.compile(FileNameMatcher.toRegex(matchesFileName));
 					useWildCardTextUpdates.put(matchPattern, substitutions);
+					useWildCardFileNames.put(matchesFileName, substitutions);
 
 				} else {
 					useSpecificTextUpdates.put(matchesFileName, substitutions);
@@ -116,10 +123,12 @@ public class SignatureRuleImpl implements SignatureRule {
 
 			this.specificTextUpdates = useSpecificTextUpdates;
 			this.wildCardTextUpdates = useWildCardTextUpdates;
+			this.textUpdatesMatcher = new FileNameMatcher(useSpecificTextUpdates, useWildCardFileNames);
 
 		} else {
 			this.specificTextUpdates = null;
 			this.wildCardTextUpdates = null;
+			this.textUpdatesMatcher = null;
 		}
 
 		Map<String, String> useDirectStrings;
@@ -130,14 +139,24 @@ public class SignatureRuleImpl implements SignatureRule {
 		}
 		this.directStrings = useDirectStrings;
 
-		this.unchangedBinaryTypes = new HashSet<>();
-		this.changedBinaryTypes = new HashMap<>();
+		// The caches are segmented so that one signature rule may be shared
+		// by actions running on different threads: A lookup locks only the
+		// segment of its value. Concurrent misses on the same value may
+		// compute the value more than once, which is harmless, since the
+		// computation is a pure function of the rules. For the same reason,
+		// the least recently used values of a full segment may be discarded:
+		// See 'setMaxCached'.
+
+		this.maxCached = DEFAULT_MAX_CACHED;
+
+		this.unchangedBinaryTypes = new SegmentedCache<>(DEFAULT_MAX_CACHED);
+		this.changedBinaryTypes = new SegmentedCache<>(DEFAULT_MAX_CACHED);
 
-		this.unchangedSignatures = new HashSet<>();
-		this.changedSignatures = new HashMap<>();
+		this.unchangedSignatures = new SegmentedCache<>(DEFAULT_MAX_CACHED);
+		this.changedSignatures = new SegmentedCache<>(DEFAULT_MAX_CACHED);
 
-		this.unchangedDescriptors = new HashSet<>();
-		this.changedDescriptors = new HashMap<>();
+		this.unchangedDescriptors = new SegmentedCache<>(DEFAULT_MAX_CACHED);
+		this.changedDescriptors = new SegmentedCache<>(DEFAULT_MAX_CACHED);
 
 		Map<String, Map<String, String>> perClass;
 		if ((perClassConstant == null) || perClassConstant.isEmpty()) {
@@ -146,6 +165,32 @@ public class SignatureRuleImpl implements SignatureRule {
 			perClass = new HashMap<>(perClassConstant);
 		}
 		this.perClassConstantStrings = perClass;
+
+		this.classPrescan = new ClassPrescan(useRenames.keySet(), useDirectStrings.keySet());
+
+		this.fingerprint = new Fingerprint().addValue(useRenames)
+			.addValue(useVersions)
+			.addValue(useBundleUpdates)
+			.addValue(masterTextUpdates)
+			.addValue(useDirectStrings)
+			.addValue(perClass)
+			.finish();
+	}
+
+	//
+
+	private final String fingerprint;
+
+	/**
+	 * Answer the fingerprint of the rules: A digest of the package renames,
+	 * package versions, bundle updates, text updates, direct strings and per
+	 * class constants. Rules which have the same fingerprint make the same
+	 * changes.
+	 *
+	 * @return The fingerprint of the rules.
+	 */
+	public String getFingerprint() {
+		return fingerprint;
 	}
 
 	//
@@ -171,17 +216,23 @@ public class SignatureRuleImpl implements SignatureRule {
 
 	//
 
-	private final Map<String, Map<String, String>>	specificTextUpdates;
-	private final Map<Pattern, Map<String, String>>	wildCardTextUpdates;
+	private final Map<String, TextSubstitutions>	specificTextUpdates;
+	private final Map<Pattern, TextSubstitutions>	wildCardTextUpdates;
 
-	public Map<String, Map<String, String>> getSpecificTextUpdates() {
+	public Map<String, TextSubstitutions> getSpecificTextUpdates() {
 		return specificTextUpdates;
 	}
 
-	public Map<Pattern, Map<String, String>> getWildCardTextUpdates() {
+	public Map<Pattern, TextSubstitutions> getWildCardTextUpdates() {
 		return wildCardTextUpdates;
 	}
 
+	/**
+	 * Matcher of resource names against the specific and the wildcard file
+	 * names of the text updates. Null if there are no text updates.
+	 */
+	private final FileNameMatcher textUpdatesMatcher;
+
 	//
 
 	private final Map<String, String> directStrings;
@@ -193,6 +244,16 @@ public class SignatureRuleImpl implements SignatureRule {
 
 	private final Map<String, Map<String, String>> perClassConstantStrings;
 
+	/**
+	 * Tell if there are per class constant string replacements for a class.
+	 *
+	 * @param clazz The resource name of the class.
+	 * @return True if there are replacements for the class.
+	 */
+	public boolean hasConstantStrings(String clazz) {
+		return perClassConstantStrings.containsKey(clazz);
+	}
+
 	@Override
 	public String getConstantString(String initialValue, String clazz) {
 		Map<String, String> m = perClassConstantStrings.get(clazz);
@@ -227,6 +288,21 @@ public class SignatureRuleImpl implements SignatureRule {
 
 	//
 
+	private final ClassPrescan classPrescan;
+
+	/**
+	 * Answer the scan which detects classes which cannot be changed by these
+	 * rules. The scan is compiled from the package renames and from the direct
+	 * string replacements.
+	 *
+	 * @return The class scan for these rules.
+	 */
+	public ClassPrescan getClassPrescan() {
+		return classPrescan;
+	}
+
+	//
+
 	// Package rename: "javax.servlet.Servlet"
 	// Direct form : "javax.servlet"
 	// Binary form: "javax/servlet"
@@ -239,6 +315,21 @@ public class SignatureRuleImpl implements SignatureRule {
 		return dottedPackageRenames;
 	}
 
+	private final PackageMatcher	dottedPackageMatcher;
+	private final PackageMatcher	slashedPackageMatcher;
+
+	/**
+	 * Answer the matcher which is compiled from the package renames.
+	 *
+	 * @return The matcher of the package renames, in dotted form.
+	 */
+	public PackageMatcher getPackageMatcher() {
+		return dottedPackageMatcher;
+	}
+
+	private final PackageTrie	dottedPackageTrie;
+	private final PackageTrie	slashedPackageTrie;
+
 	//
 
 	protected final Map<String, String> packageVersions;
@@ -250,7 +341,8 @@ public class SignatureRuleImpl implements SignatureRule {
 
 	/**
 	 * Replace a single package according to the package rename rules. Package
-	 * names must match exactly.
+	 * names must match exactly, or must match a rule which has a wildcard
+	 * suffix.
 	 *
 	 * @param initialName The package name which is to be replaced.
 	 * @return The replacement for the initial package name. Null if no
@@ -258,13 +350,13 @@ public class SignatureRuleImpl implements SignatureRule {
 	 */
 	@Override
 	public String replacePackage(String initialName) {
-		return dottedPackageRenames.getOrDefault(initialName, null);
+		return dottedPackageTrie.replacePackage(initialName);
 	}
 
 	/**
 	 * Replace a single package according to the package rename rules. The
 	 * package name has '/' separators, not '.' separators. Package names must
-	 * match exactly.
+	 * match exactly, or must match a rule which has a wildcard suffix.
 	 *
 	 * @param initialName The package name which is to be replaced.
 	 * @return The replacement for the initial package name. Null if no
@@ -272,10 +364,7 @@ public class SignatureRuleImpl implements SignatureRule {
 	 */
 	@Override
 	public String replaceBinaryPackage(String initialName) {
-		String finalName = slashedPackageRenames.getOrDefault(initialName, null);
-		// System.out.println("Initial binary [ " + initialName + " ] Final [ "
-		// + finalName + " ]");
-		return finalName;
+		return slashedPackageTrie.replacePackage(initialName);
 	}
 
 	@Override
@@ -294,56 +383,15 @@ public class SignatureRuleImpl implements SignatureRule {
 	 */
 	@Override
 	public String replacePackages(String text, Map<String, String> packageRenames) {
-		// System.out.println("Initial text [ " + text + " ]");
-
-		String initialText = text;
-
-		for (Map.Entry<String, String> renameEntry : packageRenames.entrySet()) {
-			String key = renameEntry.getKey();
-			int keyLen = key.length();
-
-			boolean matchSubpackages = containsWildcard(key);
-			if (matchSubpackages) {
-				key = stripWildcard(key);
-			}
-
-			// System.out.println("Next target [ " + key + " ]");
-
-			int textLimit = text.length() - keyLen;
-
-			int lastMatchEnd = 0;
-			while (lastMatchEnd <= textLimit) {
-				int matchStart = text.indexOf(key, lastMatchEnd);
-				if (matchStart == -1) {
-					break;
-				}
-
-				if (!isTruePackageMatch(text, matchStart, keyLen, matchSubpackages)) {
-					lastMatchEnd = matchStart + keyLen;
-					continue;
-				}
-
-				String value = renameEntry.getValue();
-				int valueLen = value.length();
-
-				String head = text.substring(0, matchStart);
-				String tail = text.substring(matchStart + keyLen);
-				text = head + value + tail;
-
-				lastMatchEnd = matchStart + valueLen;
-				textLimit += (valueLen - keyLen);
-
-				// System.out.println("Next text [ " + text + " ]");
-			}
-		}
-
-		if (initialText == text) {
-			// System.out.println("RETURN Final text is unchanged");
-			return null;
+		PackageMatcher packageMatcher;
+		if (packageRenames == dottedPackageRenames) {
+			packageMatcher = dottedPackageMatcher;
+		} else if (packageRenames == slashedPackageRenames) {
+			packageMatcher = slashedPackageMatcher;
 		} else {
-			// System.out.println("RETURN Final text [ " + text + " ]");
-			return text;
+			packageMatcher = new PackageMatcher(packageRenames);
 		}
+		return packageMatcher.replace(text);
 	}
 
 	/**
@@ -357,6 +405,21 @@ public class SignatureRuleImpl implements SignatureRule {
 	 * @return true if a package match
 	 */
 	public static boolean isTruePackageMatch(String text, int matchStart, int keyLen, boolean matchSubpackages) {
+		return isTruePackageMatch((CharSequence) text, matchStart, keyLen, matchSubpackages);
+	}
+
+	/**
+	 * Checks the character before and after a match to verify that the match is
+	 * NOT a subset of a larger package, and thus not really a match.
+	 *
+	 * @param text Text which is being updated.
+	 * @param matchStart The start of the match.
+	 * @param keyLen The length of the key, including any wildcard suffix.
+	 * @param matchSubpackages Whether the key has a wildcard suffix.
+	 * @return true if a package match
+	 */
+	public static boolean isTruePackageMatch(CharSequence text, int matchStart, int keyLen,
+		boolean matchSubpackages) {
 		// System.out.println("isTruePackageMatch:"
 		// + " text[" + text + "]"
 		// + " key[" + text.substring(matchStart, matchStart + keyLen) + "]"
@@ -438,80 +501,197 @@ public class SignatureRuleImpl implements SignatureRule {
 	}
 
 	public Map<String, String> getTextSubstitutions(String inputFileName) {
-		String simpleFileName = FileUtils.getFileNameFromFullyQualifiedFileName(inputFileName);
-
-		Map<String, String> specificUpdates = getSpecificTextUpdates().get(simpleFileName);
-		if (specificUpdates != null) {
-			return specificUpdates;
-		}
+		TextSubstitutions substitutions = getPreparedTextSubstitutions(inputFileName);
+		return ((substitutions == null) ? null : substitutions.getSubstitutions());
+	}
 
-		for (Map.Entry<Pattern, Map<String, String>> wildcardEntry : getWildCardTextUpdates().entrySet()) {
-			if (matches(wildcardEntry.getKey(), simpleFileName)) {
-				return wildcardEntry.getValue();
-			}
-		}
-                
-        for (Map.Entry<Pattern, Map<String, String>> wildcardEntry : getWildCardTextUpdates().entrySet()) {
-			if (matches(wildcardEntry.getKey(), inputFileName)) {
-				return wildcardEntry.getValue();
-			}
+	/**
+	 * Select the prepared text substitutions of a resource. The simple file
+	 * name of the resource is matched against the specific file names, then
+	 * against the wildcard file names. Then, the full resource name is
+	 * matched against the wildcard file names.
+	 *
+	 * @param inputFileName The name of the resource.
+	 * @return The text substitutions of the resource. Null if the resource
+	 *         has no text substitutions.
+	 */
+	public TextSubstitutions getPreparedTextSubstitutions(String inputFileName) {
+		if (textUpdatesMatcher == null) {
+			return null;
 		}
-
-		return null;
+		return textUpdatesMatcher.match(inputFileName);
 	}
 
         private String RESERVED_TEXT = "<?xml";
 	public String replaceText(String inputFileName, String text) {
-		Map<String, String> substitutions = getTextSubstitutions(inputFileName);
+		TextSubstitutions substitutions = getPreparedTextSubstitutions(inputFileName);
 		if (substitutions == null) {
 			throw new IllegalStateException(
 				"Input [ " + inputFileName + " ] selected for TEXT transformation, but found no substitutions");
 		}
 
-		String initialText = text;
-                if(text.trim().startsWith(RESERVED_TEXT)) {
-                     return null;
-                }
-
-            for (Map.Entry<String, String> entry : substitutions.entrySet()) {
-                String key = entry.getKey();
-                int keyLen = key.length();
-                
-                String value = entry.getValue();
-                int valueLen = value.length();
-                if (key.contains("[")) {
-                    text = Pattern.compile(key).matcher(text).replaceAll(value);
-                } else {
-                    int textLimit = text.length() - keyLen;
-
-                    int lastMatchEnd = 0;
-                    while (lastMatchEnd <= textLimit) {
-                        int matchStart = text.indexOf(key, lastMatchEnd);
-                        if (matchStart == -1) {
-                            break;
-                        }
-
-                        String head = text.substring(0, matchStart);
-                        String tail = text.substring(matchStart + keyLen);
-                        text = head + value + tail;
-
-                        lastMatchEnd = matchStart + valueLen;
-                        textLimit += (valueLen - keyLen);
-                    }
-                }
-            }
-
-		if (initialText == text) {
+		if (text.trim().startsWith(RESERVED_TEXT)) {
 			return null;
-		} else {
-			return text;
+		}
+
+		return substitutions.apply(text);
+	}
+
+	// Caches ...
+
+	/** Default of the most values which are kept by each cache. */
+	public static final int DEFAULT_MAX_CACHED = 64 * 1024;
+
+	private volatile int maxCached;
+
+	public int getMaxCached() {
+		return maxCached;
+	}
+
+	/**
+	 * Set the most values which are kept by each of the caches of transformed
+	 * binary types, descriptors and signatures. Each cache is split into
+	 * segments, which discard their least recently used values when they are
+	 * full. The bound matters to a signature rule which is used for a long
+	 * time, for example by every deployment of a server. Setting the bound
+	 * discards the cached values.
+	 *
+	 * @param maxCached The most values which are kept by each cache.
+	 */
+	public void setMaxCached(int maxCached) {
+		if (maxCached <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive [ " + maxCached + " ]");
+		}
+		this.maxCached = maxCached;
+
+		unchangedBinaryTypes.setMaxSize(maxCached);
+		changedBinaryTypes.setMaxSize(maxCached);
+		unchangedDescriptors.setMaxSize(maxCached);
+		changedDescriptors.setMaxSize(maxCached);
+		unchangedSignatures.setMaxSize(maxCached);
+		changedSignatures.setMaxSize(maxCached);
+	}
+
+	/**
+	 * Answer the count of values which are kept by the caches.
+	 *
+	 * @return The count of cached values.
+	 */
+	public int getCachedCount() {
+		return unchangedBinaryTypes.size() + changedBinaryTypes.size() + unchangedDescriptors.size()
+			+ changedDescriptors.size() + unchangedSignatures.size() + changedSignatures.size();
+	}
+
+	/** Discard the values which are kept by the caches. */
+	public void clearCaches() {
+		unchangedBinaryTypes.clear();
+		changedBinaryTypes.clear();
+		unchangedDescriptors.clear();
+		changedDescriptors.clear();
+		unchangedSignatures.clear();
+		changedSignatures.clear();
+	}
+
+	private void cacheUnchanged(SegmentedCache<Boolean> unchanged, String input) {
+		unchanged.put(input, Boolean.TRUE);
+	}
+
+	private void cacheChanged(SegmentedCache<String> changed, String input, String output) {
+		changed.put(input, output);
+	}
+
+	/**
+	 * A bounded cache of values which are keyed by strings. The cache is
+	 * split into segments by the hash of the key. Each segment is locked
+	 * while it is used, and discards its least recently used value when it
+	 * is full.
+	 *
+	 * @param <V> The type of the cached values.
+	 */
+	private static class SegmentedCache<V> {
+		/** The most segments of a cache. */
+		private static final int MAX_SEGMENTS = 16;
+
+		SegmentedCache(int maxSize) {
+			this.segments = createSegments(maxSize);
+		}
+
+		/** The segments. Replaced when the bound is set. */
+		private volatile Map<String, V>[] segments;
+
+		/**
+		 * Create the segments of a cache. There are no more segments than
+		 * the bound, and the bounds of the segments sum to the bound of the
+		 * cache.
+		 */
+		private static <V> Map<String, V>[] createSegments(int maxSize) {
+			int segmentCount = Math.min(maxSize, MAX_SEGMENTS);
+			@SuppressWarnings("unchecked")
+			Map<String, V>[] useSegments = new Map[segmentCount];
+			for (int segmentNo = 0; segmentNo < segmentCount; segmentNo++) {
+				int maxSegmentSize = (maxSize / segmentCount) + ((segmentNo < (maxSize % segmentCount)) ? 1 : 0);
+				useSegments[segmentNo] = new LinkedHashMap<String, V>(16, 0.75f, true) {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+						return (size() > maxSegmentSize);
+					}
+				};
+			}
+			return useSegments;
+		}
+
+		void setMaxSize(int maxSize) {
+			segments = createSegments(maxSize);
+		}
+
+		private Map<String, V> getSegment(String key) {
+			Map<String, V>[] useSegments = segments;
+			return useSegments[(key.hashCode() & 0x7FFFFFFF) % useSegments.length];
+		}
+
+		V get(String key) {
+			Map<String, V> segment = getSegment(key);
+			synchronized (segment) {
+				return segment.get(key);
+			}
+		}
+
+		boolean contains(String key) {
+			return (get(key) != null);
+		}
+
+		void put(String key, V value) {
+			Map<String, V> segment = getSegment(key);
+			synchronized (segment) {
+				segment.put(key, value);
+			}
+		}
+
+		int size() {
+			int size = 0;
+			for (Map<String, V> segment : segments) {
+				synchronized (segment) {
+					size += segment.size();
+				}
+			}
+			return size;
+		}
+
+		void clear() {
+			for (Map<String, V> segment : segments) {
+				synchronized (segment) {
+					segment.clear();
+				}
+			}
 		}
 	}
 
 	//
 
-	private final Map<String, String>	changedBinaryTypes;
-	private final Set<String>			unchangedBinaryTypes;
+	private final SegmentedCache<String>	changedBinaryTypes;
+	private final SegmentedCache<Boolean>	unchangedBinaryTypes;
 
 	@Override
 	public String transformConstantAsBinaryType(String inputConstant) {
@@ -520,14 +700,39 @@ public class SignatureRuleImpl implements SignatureRule {
 
 	@Override
 	public String transformConstantAsBinaryType(String inputConstant, boolean allowSimpleSubstitution) {
+		if (inputConstant.isEmpty()) {
+			return null;
+		} else if (isMalformedType(inputConstant)) {
+			return (allowSimpleSubstitution ? replacePackages(inputConstant, slashedPackageRenames) : null);
+		}
 		try {
 			return transformBinaryType(inputConstant, allowSimpleSubstitution);
 		} catch (Throwable th) {
+			// Not expected: Text which cannot be parsed is detected by
+			// a syntax check.
 			debug("Failed to parse constant as resource reference [ {} ]: {}", inputConstant, th.getMessage());
 			return null;
 		}
 	}
 
+	/**
+	 * Tell if text has the form of a type descriptor but is not a type
+	 * descriptor. Such text is transformed as ordinary text, and is not
+	 * parsed.
+	 *
+	 * @param text Text which is to be tested.
+	 * @return True if the text has the form of a type descriptor but is not
+	 *         a type descriptor.
+	 */
+	private static boolean isMalformedType(String text) {
+		char c = text.charAt(0);
+		if ((c == '[') || ((c == 'L') && (text.charAt(text.length() - 1) == ';'))) {
+			return !SignatureSyntax.isJavaTypeSignature(text);
+		} else {
+			return false;
+		}
+	}
+
 	@Override
 	public String transformBinaryType(String inputName) {
 		return transformBinaryType(inputName, NO_SIMPLE_SUBSTITUTION);
@@ -546,59 +751,54 @@ public class SignatureRuleImpl implements SignatureRule {
 	protected String transformBinaryType(String inputName, boolean allowSimpleSubstitution) {
 		// System.out.println("Input type [ " + inputName + " ]");
 
+		// The caches hold the results of the structural transformation
+		// only, so that a type which was first transformed without simple
+		// substitution may later be transformed with simple substitution.
+
+		String outputName;
 		if (unchangedBinaryTypes.contains(inputName)) {
 			// System.out.println("Unchanged (Prior)");
-			return null;
+			outputName = null;
+		} else {
+			outputName = changedBinaryTypes.get(inputName);
+			if (outputName != null) {
+				// System.out.println("Change to [ " + outputName + " ] (Prior)");
+				return outputName;
+			}
+			outputName = transformBinaryTypeStructure(inputName);
+			if (outputName == null) {
+				cacheUnchanged(unchangedBinaryTypes, inputName);
+				// System.out.println("Unchanged");
+			} else {
+				cacheChanged(changedBinaryTypes, inputName, outputName);
+				// System.out.println("Change to [ " + outputName + " ]");
+				return outputName;
+			}
 		}
 
-		String outputName = changedBinaryTypes.get(inputName);
-		if (outputName != null) {
-			// System.out.println("Change to [ " + outputName + " ] (Prior)");
-			return outputName;
+		if (allowSimpleSubstitution) {
+			outputName = replacePackages(inputName, slashedPackageRenames);
 		}
+		return outputName;
+	}
 
+	private String transformBinaryTypeStructure(String inputName) {
 		char c = inputName.charAt(0);
 		if ((c == '[') || ((c == 'L') && (inputName.charAt(inputName.length() - 1) == ';'))) {
 			JavaTypeSignature inputSignature = JavaTypeSignature.of(inputName.replace('$', '.'));
 			JavaTypeSignature outputSignature = transform(inputSignature);
 			if (outputSignature != null) {
-				outputName = outputSignature.toString()
+				return outputSignature.toString()
 					.replace('.', '$');
 			} else {
-				// Leave outputName null.
-			}
-
-		} else {
-			int lastSlashOffset = inputName.lastIndexOf('/');
-			if (lastSlashOffset != -1) {
-				String inputPackage = inputName.substring(0, lastSlashOffset);
-				// System.out.println("Input package [ " + inputPackage + " ]");
-				String outputPackage = replaceBinaryPackage(inputPackage);
-				if (outputPackage != null) {
-					// System.out.println("Output package [ " + outputPackage +
-					// " ]");
-					outputName = outputPackage + inputName.substring(lastSlashOffset);
-				} else {
-					// Leave outputName null.
-				}
-			} else {
-				// Leave outputName with null;
+				return null;
 			}
-		}
-
-		if ((outputName == null) && allowSimpleSubstitution) {
-			outputName = replacePackages(inputName, slashedPackageRenames);
-		}
 
-		if (outputName == null) {
-			unchangedBinaryTypes.add(inputName);
-			// System.out.println("Unchanged");
 		} else {
-			changedBinaryTypes.put(inputName, outputName);
-			// System.out.println("Change to [ " + outputName + " ]");
+			// Null if the type has no package, or if the package is not
+			// renamed.
+			return slashedPackageTrie.replaceType(inputName);
 		}
-
-		return outputName;
 	}
 
 	//
@@ -610,16 +810,43 @@ public class SignatureRuleImpl implements SignatureRule {
 
 	@Override
 	public String transformConstantAsDescriptor(String inputConstant, boolean allowSimpleSubstitution) {
+		if (inputConstant.isEmpty()) {
+			return null;
+		} else if (isMalformedDescriptor(inputConstant)) {
+			return (allowSimpleSubstitution ? replacePackages(inputConstant, dottedPackageRenames) : null);
+		}
 		try {
 			return transformDescriptor(inputConstant, allowSimpleSubstitution);
 		} catch (Throwable th) {
+			// Not expected: Text which cannot be parsed is detected by
+			// a syntax check.
 			debug("Failed to parse constant as descriptor [ {} ]: {}", inputConstant, th.getMessage());
 			return null;
 		}
 	}
 
-	private final Set<String>			unchangedDescriptors;
-	private final Map<String, String>	changedDescriptors;
+	/**
+	 * Tell if text has the form of a method or of a field descriptor but is
+	 * not a method or a field signature. Such text is transformed as ordinary
+	 * text, and is not parsed.
+	 *
+	 * @param text Text which is to be tested.
+	 * @return True if the text has the form of a descriptor but is not a
+	 *         signature.
+	 */
+	private static boolean isMalformedDescriptor(String text) {
+		char c = text.charAt(0);
+		if (c == '(') {
+			return !SignatureSyntax.isMethodSignature(text);
+		} else if ((c == '[') || ((c == 'L') && (text.charAt(text.length() - 1) == ';'))) {
+			return !SignatureSyntax.isFieldSignature(text);
+		} else {
+			return false;
+		}
+	}
+
+	private final SegmentedCache<Boolean>	unchangedDescriptors;
+	private final SegmentedCache<String>	changedDescriptors;
 
 	@Override
 	public String transformDescriptor(String inputDescriptor) {
@@ -628,48 +855,46 @@ public class SignatureRuleImpl implements SignatureRule {
 
 	@Override
 	public String transformDescriptor(String inputDescriptor, boolean allowSimpleSubstitution) {
-		if (unchangedDescriptors.contains(inputDescriptor)) {
-			return null;
-		}
+		// As with binary types, the caches hold the results of the structural
+		// transformation only.
 
-		String outputDescriptor = changedDescriptors.get(inputDescriptor);
-		if (outputDescriptor != null) {
-			return outputDescriptor;
-		}
-
-		char c = inputDescriptor.charAt(0);
-		if (c == '(') {
-			String inputSignature = inputDescriptor.replace('$', '.');
-			String outputSignature = transform(inputSignature, SignatureType.METHOD);
-			if (outputSignature != null) {
-				outputDescriptor = outputSignature.replace('.', '$');
-			} else {
-				// leave outputDescriptor null
+		String outputDescriptor;
+		if (unchangedDescriptors.contains(inputDescriptor)) {
+			outputDescriptor = null;
+		} else {
+			outputDescriptor = changedDescriptors.get(inputDescriptor);
+			if (outputDescriptor != null) {
+				return outputDescriptor;
 			}
-
-		} else if ((c == '[') || ((c == 'L') && (inputDescriptor.charAt(inputDescriptor.length() - 1) == ';'))) {
-			String inputSignature = inputDescriptor.replace('$', '.');
-			String outputSignature = transform(inputSignature, SignatureType.FIELD);
-			if (outputSignature != null) {
-				outputDescriptor = outputSignature.replace('.', '$');
+			outputDescriptor = transformDescriptorStructure(inputDescriptor);
+			if (outputDescriptor == null) {
+				cacheUnchanged(unchangedDescriptors, inputDescriptor);
 			} else {
-				// leave outputDescriptor null
+				cacheChanged(changedDescriptors, inputDescriptor, outputDescriptor);
+				return outputDescriptor;
 			}
-
-		} else {
-			// leave outputDescriptor null
 		}
 
-		if ((outputDescriptor == null) && allowSimpleSubstitution) {
+		if (allowSimpleSubstitution) {
 			outputDescriptor = replacePackages(inputDescriptor, dottedPackageRenames);
 		}
+		return outputDescriptor;
+	}
 
-		if (outputDescriptor == null) {
-			unchangedDescriptors.add(inputDescriptor);
+	private String transformDescriptorStructure(String inputDescriptor) {
+		SignatureType signatureType;
+		char c = inputDescriptor.charAt(0);
+		if (c == '(') {
+			signatureType = SignatureType.METHOD;
+		} else if ((c == '[') || ((c == 'L') && (inputDescriptor.charAt(inputDescriptor.length() - 1) == ';'))) {
+			signatureType = SignatureType.FIELD;
 		} else {
-			changedDescriptors.put(inputDescriptor, outputDescriptor);
+			return null;
 		}
-		return outputDescriptor;
+
+		String inputSignature = inputDescriptor.replace('$', '.');
+		String outputSignature = transform(inputSignature, signatureType);
+		return ((outputSignature == null) ? null : outputSignature.replace('.', '$'));
 	}
 
 	/**
@@ -679,8 +904,8 @@ public class SignatureRuleImpl implements SignatureRule {
 	 * values across signature types.
 	 */
 
-	private final Set<String>			unchangedSignatures;
-	private final Map<String, String>	changedSignatures;
+	private final SegmentedCache<Boolean>	unchangedSignatures;
+	private final SegmentedCache<String>	changedSignatures;
 
 	/**
 	 * Transform a class, field, or method signature. Answer a wrapped null if
@@ -735,9 +960,9 @@ public class SignatureRuleImpl implements SignatureRule {
 		}
 
 		if (output == null) {
-			unchangedSignatures.add(input);
+			cacheUnchanged(unchangedSignatures, input);
 		} else {
-			changedSignatures.put(input, output);
+			cacheChanged(changedSignatures, input, output);
 		}
 
 		return output;
@@ -935,8 +1160,7 @@ public class SignatureRuleImpl implements SignatureRule {
 
 		int length = inputPackageSpecifier.length();
 		if (length > 0) {
-			String inputBinaryPackage = inputPackageSpecifier.substring(0, length - 1);
-			String outputBinaryPackage = replaceBinaryPackage(inputBinaryPackage);
+			String outputBinaryPackage = slashedPackageTrie.replacePackage(inputPackageSpecifier, 0, length - 1);
 			if (outputBinaryPackage != null) {
 				outputPackageSpecifier = outputBinaryPackage + '/';
 			}
@@ -0,0 +1,315 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+/**
+ * Syntax checks for descriptors and signatures.
+ * <p>
+ * Constants are transformed by trying them as descriptors and as binary type
+ * names. Most constants are neither, and parsing them fails with an
+ * exception. These checks decide, without parsing and without allocating,
+ * whether text has the syntax of a descriptor or of a signature, so that
+ * only text which can be parsed is parsed.
+ * <p>
+ * The checks follow the signature grammar of JVMS 4.7.9.1, which includes
+ * descriptors as signatures which have no type arguments and no type
+ * parameters. As with the signature parser, identifiers are only checked for
+ * the characters which end them, and may be empty. Unlike the signature
+ * parser, which ignores text which follows a signature, the entire text must
+ * be a signature.
+ */
+final class SignatureSyntax {
+	private SignatureSyntax() {
+		// Static methods only.
+	}
+
+	private static final int NO_MATCH = -1;
+
+	/**
+	 * Tell if text is a field type: A base type, a class type, a type
+	 * variable, or an array type.
+	 *
+	 * @param text Text which is to be checked.
+	 * @return True if the text is a field type.
+	 */
+	static boolean isJavaTypeSignature(String text) {
+		return (javaType(text, 0) == text.length());
+	}
+
+	/**
+	 * Tell if text is a field signature, which is a reference type: A class
+	 * type, a type variable, or an array type.
+	 *
+	 * @param text Text which is to be checked.
+	 * @return True if the text is a field signature.
+	 */
+	static boolean isFieldSignature(String text) {
+		return (referenceType(text, 0) == text.length());
+	}
+
+	/**
+	 * Tell if text is a method signature, which includes method descriptors.
+	 *
+	 * @param text Text which is to be checked.
+	 * @return True if the text is a method signature.
+	 */
+	static boolean isMethodSignature(String text) {
+		int length = text.length();
+
+		int pos = 0;
+		if ((pos < length) && (text.charAt(pos) == '<')) {
+			pos = typeParameters(text, pos);
+			if (pos == NO_MATCH) {
+				return false;
+			}
+		}
+
+		if ((pos >= length) || (text.charAt(pos) != '(')) {
+			return false;
+		}
+		pos++;
+		while ((pos < length) && (text.charAt(pos) != ')')) {
+			pos = javaType(text, pos);
+			if (pos == NO_MATCH) {
+				return false;
+			}
+		}
+		if (pos >= length) {
+			return false;
+		}
+		pos++;
+
+		if ((pos < length) && (text.charAt(pos) == 'V')) {
+			pos++;
+		} else {
+			pos = javaType(text, pos);
+			if (pos == NO_MATCH) {
+				return false;
+			}
+		}
+
+		while ((pos < length) && (text.charAt(pos) == '^')) {
+			pos++;
+			if ((pos < length) && (text.charAt(pos) == 'T')) {
+				pos = typeVariable(text, pos);
+			} else {
+				pos = classType(text, pos);
+			}
+			if (pos == NO_MATCH) {
+				return false;
+			}
+		}
+
+		return (pos == length);
+	}
+
+	/**
+	 * Tell if text is a class signature.
+	 *
+	 * @param text Text which is to be checked.
+	 * @return True if the text is a class signature.
+	 */
+	static boolean isClassSignature(String text) {
+		int length = text.length();
+
+		int pos = 0;
+		if ((pos < length) && (text.charAt(pos) == '<')) {
+			pos = typeParameters(text, pos);
+			if (pos == NO_MATCH) {
+				return false;
+			}
+		}
+
+		// The super class, then the interfaces.
+		do {
+			pos = classType(text, pos);
+			if (pos == NO_MATCH) {
+				return false;
+			}
+		} while (pos < length);
+
+		return true;
+	}
+
+	//
+
+	/**
+	 * Match a field type.
+	 *
+	 * @return The position following the type. NO_MATCH if the text does not
+	 *         have a type at the position.
+	 */
+	private static int javaType(String text, int pos) {
+		if (pos >= text.length()) {
+			return NO_MATCH;
+		}
+		switch (text.charAt(pos)) {
+			case 'B' :
+			case 'C' :
+			case 'D' :
+			case 'F' :
+			case 'I' :
+			case 'J' :
+			case 'S' :
+			case 'Z' :
+				return pos + 1;
+			default :
+				return referenceType(text, pos);
+		}
+	}
+
+	private static int referenceType(String text, int pos) {
+		if (pos >= text.length()) {
+			return NO_MATCH;
+		}
+		switch (text.charAt(pos)) {
+			case 'L' :
+				return classType(text, pos);
+			case 'T' :
+				return typeVariable(text, pos);
+			case '[' :
+				return javaType(text, pos + 1);
+			default :
+				return NO_MATCH;
+		}
+	}
+
+	/**
+	 * Match a class type: 'L', a package specifier, a simple class type,
+	 * suffixes, and ';'.
+	 */
+	private static int classType(String text, int pos) {
+		int length = text.length();
+		if ((pos >= length) || (text.charAt(pos) != 'L')) {
+			return NO_MATCH;
+		}
+		pos++;
+
+		while (true) {
+			// The package specifier is matched with the first simple class
+			// type.
+			while ((pos < length) && isClassNameChar(text.charAt(pos))) {
+				pos++;
+			}
+			if (pos >= length) {
+				return NO_MATCH;
+			}
+
+			char c = text.charAt(pos);
+			if (c == '<') {
+				pos = typeArguments(text, pos);
+				if (pos == NO_MATCH) {
+					return NO_MATCH;
+				}
+				if (pos >= length) {
+					return NO_MATCH;
+				}
+				c = text.charAt(pos);
+			}
+
+			if (c == ';') {
+				return pos + 1;
+			} else if (c == '.') {
+				pos++;
+			} else {
+				return NO_MATCH;
+			}
+		}
+	}
+
+	/**
+	 * Match type arguments: '&lt;', one or more type arguments, and '&gt;'.
+	 */
+	private static int typeArguments(String text, int pos) {
+		int length = text.length();
+		pos++;
+		if ((pos < length) && (text.charAt(pos) == '>')) {
+			return NO_MATCH;
+		}
+		while ((pos < length) && (text.charAt(pos) != '>')) {
+			char c = text.charAt(pos);
+			if (c == '*') {
+				pos++;
+			} else {
+				if ((c == '+') || (c == '-')) {
+					pos++;
+				}
+				pos = referenceType(text, pos);
+				if (pos == NO_MATCH) {
+					return NO_MATCH;
+				}
+			}
+		}
+		return ((pos < length) ? pos + 1 : NO_MATCH);
+	}
+
+	/**
+	 * Match type parameters: '&lt;', one or more type parameters, and
+	 * '&gt;'. A type parameter is an identifier, a class bound, which may be
+	 * empty, and interface bounds.
+	 */
+	private static int typeParameters(String text, int pos) {
+		int length = text.length();
+		pos++;
+		if ((pos < length) && (text.charAt(pos) == '>')) {
+			return NO_MATCH;
+		}
+		while ((pos < length) && (text.charAt(pos) != '>')) {
+			pos = identifier(text, pos);
+			if ((pos >= length) || (text.charAt(pos) != ':')) {
+				return NO_MATCH;
+			}
+			pos++;
+			if ((pos < length) && (text.charAt(pos) != ':') && (text.charAt(pos) != '>')) {
+				pos = referenceType(text, pos);
+				if (pos == NO_MATCH) {
+					return NO_MATCH;
+				}
+			}
+			while ((pos < length) && (text.charAt(pos) == ':')) {
+				pos = referenceType(text, pos + 1);
+				if (pos == NO_MATCH) {
+					return NO_MATCH;
+				}
+			}
+		}
+		return ((pos < length) ? pos + 1 : NO_MATCH);
+	}
+
+	/**
+	 * Match a type variable: 'T', an identifier, and ';'.
+	 */
+	private static int typeVariable(String text, int pos) {
+		int end = text.indexOf(';', pos + 1);
+		return ((end == -1) ? NO_MATCH : end + 1);
+	}
+
+	/**
+	 * Match the identifier of a type parameter, which is ended by ':'.
+	 */
+	private static int identifier(String text, int pos) {
+		int length = text.length();
+		while ((pos < length) && (text.charAt(pos) != ':')) {
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Tell if a character may be used in the name of a class type. The name
+	 * includes the package specifier, and is ended by type arguments, by a
+	 * suffix, or by ';'.
+	 */
+	private static boolean isClassNameChar(char c) {
+		return (c != ';') && (c != '<') && (c != '.');
+	}
+}
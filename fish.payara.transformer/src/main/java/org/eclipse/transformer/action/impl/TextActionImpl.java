@@ -11,24 +11,13 @@
 
 package org.eclipse.transformer.action.impl;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 
 import org.eclipse.transformer.TransformException;
 import org.eclipse.transformer.action.ActionType;
 import org.eclipse.transformer.util.ByteData;
 import java.util.logging.Logger;
 
-import aQute.lib.io.ByteBufferInputStream;
-import aQute.lib.io.ByteBufferOutputStream;
-
 public class TextActionImpl extends ActionImpl {
 
 	public TextActionImpl(Logger logger, boolean isTerse, boolean isVerbose, InputBufferImpl buffer,
@@ -49,11 +38,21 @@ public class TextActionImpl extends ActionImpl {
 		return ActionType.TEXT;
 	}
 
+	@Override
+	protected boolean useTransformCache() {
+		return true;
+	}
+
 	@Override
 	public String getAcceptExtension() {
 		throw new UnsupportedOperationException("Text does not use this API");
 	}
 
+	@Override
+	public String getAcceptSuffix() {
+		return null; // Acceptance is not decided by the resource name suffix.
+	}
+
 	@Override
 	public boolean accept(String resourceName, File resourceFile) {
 		if (signatureRule.getTextSubstitutions(resourceName) != null) {
@@ -67,56 +66,35 @@ public class TextActionImpl extends ActionImpl {
 	@Override
 	public ByteData apply(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
 
-		String outputName = inputName;
-
-		setResourceNames(inputName, outputName);
+		LineTransformer lineTransformer = newLineTransformer(inputName);
 
-		InputStream inputStream = new ByteBufferInputStream(inputBytes, 0, inputLength);
-		InputStreamReader inputReader = new InputStreamReader(inputStream, UTF_8);
-
-		BufferedReader reader = new BufferedReader(inputReader);
-
-		ByteBufferOutputStream outputStream = new ByteBufferOutputStream(inputBytes.length);
-		OutputStreamWriter outputWriter = new OutputStreamWriter(outputStream, UTF_8);
-
-		BufferedWriter writer = new BufferedWriter(outputWriter);
-
-		try {
-			transform(inputName, reader, writer); // throws IOException
-		} catch (IOException e) {
-			error("Failed to transform [ {} ]", e, inputName);
+		if (!lineTransformer.mayChange(inputBytes, inputLength)) {
+			debug("Input [ {} ] contains no rename keys; passing through", inputName);
 			return null;
 		}
 
-		try {
-			writer.flush(); // throws
-		} catch (IOException e) {
-			error("Failed to flush [ {} ]", e, inputName);
-			return null;
-		}
+		byte[] outputBytes = lineTransformer.transform(inputBytes, inputLength);
 
 		if (!hasNonResourceNameChanges()) {
 			return null;
 		}
 
-		byte[] outputBytes = outputStream.toByteArray();
 		return new ByteData(inputName, outputBytes, 0, outputBytes.length);
 	}
 
-	//
+	@Override
+	protected LineTransformer newLineTransformer(String inputName) {
+		setResourceNames(inputName, inputName);
 
-	protected void transform(String inputName, BufferedReader reader, BufferedWriter writer) throws IOException {
+		TextSubstitutions substitutions = getSignatureRule().getPreparedTextSubstitutions(inputName);
+		ByteKeyMatcher keyMatcher = ((substitutions == null) ? null : substitutions.getKeyMatcher());
 
-		String inputLine;
-		while ((inputLine = reader.readLine()) != null) {
+		return new LineTransformer(keyMatcher, inputLine -> {
 			String outputLine = replaceText(inputName, inputLine);
-			if (outputLine == null) {
-				outputLine = inputLine;
-			} else {
+			if (outputLine != null) {
 				addReplacement();
 			}
-			writer.write(outputLine);
-			writer.write('\n');
-		}
+			return outputLine;
+		});
 	}
 }
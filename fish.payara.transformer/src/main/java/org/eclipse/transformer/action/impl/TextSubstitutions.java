@@ -0,0 +1,243 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Text substitutions which are prepared for use.
+ * <p>
+ * A substitution key which contains '[' is a regular expression, and is
+ * compiled once, when the substitutions are prepared. Other keys are literal
+ * text. The substitutions are applied in turn, in the iteration order of the
+ * substitutions map.
+ * <p>
+ * Literal keys are also collected into a multi-pattern matcher, which tells,
+ * in a single pass over the text, if any literal key is present. Text which
+ * contains no literal key is only processed by the regular expressions.
+ * <p>
+ * Prepared substitutions are immutable, and may be used by several threads.
+ */
+public class TextSubstitutions {
+	/**
+	 * Prepare text substitutions.
+	 *
+	 * @param substitutions Substitution keys and their replacement values.
+	 */
+	public TextSubstitutions(Map<String, String> substitutions) {
+		this.substitutions = Collections.unmodifiableMap(substitutions);
+
+		int numSubstitutions = substitutions.size();
+		this.keys = new String[numSubstitutions];
+		this.values = new String[numSubstitutions];
+		this.patterns = new Pattern[numSubstitutions];
+		this.patternErrors = new PatternSyntaxException[numSubstitutions];
+
+		List<String> literalKeys = new ArrayList<>();
+		boolean hasPatterns = false;
+
+		int substitutionNo = 0;
+		for (Map.Entry<String, String> substitution : substitutions.entrySet()) {
+			String key = substitution.getKey();
+			keys[substitutionNo] = key;
+			values[substitutionNo] = substitution.getValue();
+
+			if (key.indexOf('[') != -1) {
+				hasPatterns = true;
+				try {
+					patterns[substitutionNo] = Pattern.compile(key);
+				} catch (PatternSyntaxException e) {
+					// Reported when the substitutions are applied, which is
+					// when an uncompiled key would have failed.
+					patternErrors[substitutionNo] = e;
+				}
+			} else if (!key.isEmpty()) {
+				literalKeys.add(key);
+			}
+			substitutionNo++;
+		}
+
+		this.literalMatcher = (literalKeys.isEmpty() ? null : new LiteralMatcher(literalKeys));
+
+		if (hasPatterns) {
+			this.keyMatcher = null;
+		} else {
+			List<byte[]> keyBytes = new ArrayList<>(literalKeys.size());
+			for (String key : literalKeys) {
+				keyBytes.add(key.getBytes(UTF_8));
+			}
+			this.keyMatcher = new ByteKeyMatcher(keyBytes);
+		}
+	}
+
+	private final Map<String, String>		substitutions;
+
+	private final String[]					keys;
+	private final String[]					values;
+	/** Compiled keys. Null for literal keys. */
+	private final Pattern[]					patterns;
+	/** Errors compiling keys. Null for keys which compiled. */
+	private final PatternSyntaxException[]	patternErrors;
+
+	private final LiteralMatcher			literalMatcher;
+	/** Matcher of the encoded literal keys. Null if there are pattern keys. */
+	private final ByteKeyMatcher			keyMatcher;
+
+	/**
+	 * Answer the substitutions which were prepared.
+	 *
+	 * @return The substitution keys and their replacement values.
+	 */
+	public Map<String, String> getSubstitutions() {
+		return substitutions;
+	}
+
+	/**
+	 * Answer a matcher of the encoded keys, which tells if encoded text may
+	 * be changed by the substitutions. Text which contains no key cannot be
+	 * changed. A regular expression key may match text which contains no
+	 * literal key, and no matcher is available when there are regular
+	 * expression keys.
+	 *
+	 * @return A matcher of the UTF-8 encoded keys. Null if any key is a
+	 *         regular expression.
+	 */
+	public ByteKeyMatcher getKeyMatcher() {
+		return keyMatcher;
+	}
+
+	/**
+	 * Apply the substitutions to text.
+	 *
+	 * @param text The text which is to be updated.
+	 * @return The updated text. Null if no substitutions were made.
+	 * @throws PatternSyntaxException Thrown if a regular expression key is not
+	 *             valid.
+	 */
+	public String apply(String text) {
+		String initialText = text;
+
+		boolean hasLiterals = ((literalMatcher != null) && literalMatcher.containsAny(text));
+
+		for (int keyNo = 0; keyNo < keys.length; keyNo++) {
+			if (patternErrors[keyNo] != null) {
+				throw patternErrors[keyNo];
+			}
+
+			Pattern pattern = patterns[keyNo];
+			if (pattern != null) {
+				String updatedText = pattern.matcher(text)
+					.replaceAll(values[keyNo]);
+				if (!updatedText.equals(text)) {
+					text = updatedText;
+					// The replacement may have added literal keys.
+					hasLiterals = ((literalMatcher != null) && literalMatcher.containsAny(text));
+				}
+			} else if (hasLiterals) {
+				text = replaceLiteral(text, keys[keyNo], values[keyNo]);
+			}
+		}
+
+		return ((initialText == text) ? null : text);
+	}
+
+	/**
+	 * Replace all occurrences of a literal key. An occurrence which overlaps a
+	 * replacement value is not replaced.
+	 *
+	 * @return The updated text. The same text instance if the key does not
+	 *         occur.
+	 */
+	private static String replaceLiteral(String text, String key, String value) {
+		int keyLen = key.length();
+		if (keyLen == 0) {
+			return text;
+		}
+
+		int matchStart = text.indexOf(key);
+		if (matchStart == -1) {
+			return text;
+		}
+
+		StringBuilder output = new StringBuilder(text.length() + Math.max(0, value.length() - keyLen));
+		int textNo = 0;
+		do {
+			output.append(text, textNo, matchStart)
+				.append(value);
+			textNo = matchStart + keyLen;
+			matchStart = text.indexOf(key, textNo);
+		} while (matchStart != -1);
+		output.append(text, textNo, text.length());
+
+		return output.toString();
+	}
+
+	/**
+	 * Matcher which tells if text contains any of several literal keys. Keys
+	 * are indexed by their first character, so that the text is scanned once.
+	 */
+	private static final class LiteralMatcher {
+		LiteralMatcher(List<String> keys) {
+			char[] useFirstChars = new char[keys.size()];
+			int numFirstChars = 0;
+			for (String key : keys) {
+				useFirstChars[numFirstChars++] = key.charAt(0);
+			}
+			Arrays.sort(useFirstChars);
+
+			int numDistinct = 0;
+			for (int charNo = 0; charNo < numFirstChars; charNo++) {
+				if ((numDistinct == 0) || (useFirstChars[numDistinct - 1] != useFirstChars[charNo])) {
+					useFirstChars[numDistinct++] = useFirstChars[charNo];
+				}
+			}
+			this.firstChars = Arrays.copyOf(useFirstChars, numDistinct);
+
+			this.keysByFirstChar = new String[numDistinct][];
+			for (int charNo = 0; charNo < numDistinct; charNo++) {
+				char firstChar = firstChars[charNo];
+				keysByFirstChar[charNo] = keys.stream()
+					.filter(key -> key.charAt(0) == firstChar)
+					.toArray(String[]::new);
+			}
+		}
+
+		/** The distinct first characters of the keys, sorted. */
+		private final char[]		firstChars;
+		/** The keys, indexed by the offset of their first character. */
+		private final String[][]	keysByFirstChar;
+
+		boolean containsAny(String text) {
+			int textLength = text.length();
+			for (int pos = 0; pos < textLength; pos++) {
+				int charNo = Arrays.binarySearch(firstChars, text.charAt(pos));
+				if (charNo < 0) {
+					continue;
+				}
+				for (String key : keysByFirstChar[charNo]) {
+					if (text.startsWith(key, pos)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+}
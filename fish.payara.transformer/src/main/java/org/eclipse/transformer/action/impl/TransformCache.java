@@ -0,0 +1,692 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.transformer.util.ByteData;
+import org.eclipse.transformer.util.FileUtils;
+import org.eclipse.transformer.util.Fingerprint;
+
+/**
+ * Persistent cache of transform results, keyed by content.
+ * <p>
+ * The key of a result is a digest of the rules fingerprint, the name of the
+ * action, the name of the input and the bytes of the input. Results of rules
+ * which have a different fingerprint are never answered, and are eventually
+ * evicted.
+ * <p>
+ * Each result is stored as a file, named by its key. The file holds the
+ * output bytes, followed by a trailer which holds the output name and the
+ * counts of the changes which were made by the transform, including the
+ * counts of nested archives. A result which has no output bytes means that
+ * the output bytes are the input bytes.
+ * <p>
+ * The key of an input stream is computed as the stream is read. An input
+ * stream is held in memory while it is read, and is staged in a temporary
+ * file only if it is large.
+ * <p>
+ * A cache directory may be shared by several processes. Results are written
+ * to temporary files, which are moved into place, so that a partial result is
+ * never read. The cache is bounded by the total size of its results: When the
+ * bound is exceeded, the least recently used results are evicted. Eviction
+ * holds a lock on a file of the cache directory, so that a single process
+ * evicts at a time. Use of a result updates its modification time, which
+ * orders eviction.
+ * <p>
+ * A cache may be used by several threads.
+ */
+public class TransformCache {
+	/** Default bound on the total size of cached results. */
+	public static final long	DEFAULT_MAX_SIZE	= 1024L * 1024 * 1024;
+
+	/** Version of the result format. Part of every key. */
+	private static final int	FORMAT_VERSION		= 2;
+	/** Last bytes of every result file. */
+	private static final int	MAGIC				= 0x54524331;
+	/** Length of the fixed part of a result trailer. */
+	private static final int	TRAILER_LENGTH		= 4 + 4 + 8 + 4;
+
+	/** Results are kept when at or below this share of the bound. */
+	private static final int	EVICT_PERCENT		= 90;
+	/** Modification times of used results are updated at most this often. */
+	private static final long	TOUCH_INTERVAL		= 60L * 1000;
+	/** Temporary files older than this are left over by failed processes. */
+	private static final long	STALE_INTERVAL		= 24L * 60 * 60 * 1000;
+
+	private static final String	TEMP_DIR			= "tmp";
+	private static final String	LOCK_FILE			= "cache.lock";
+
+	public TransformCache(Logger logger, File cacheDir, long maxSize, String fingerprint) throws IOException {
+		this.logger = logger;
+
+		this.cacheDir = cacheDir;
+		this.tempDir = new File(cacheDir, TEMP_DIR);
+		Files.createDirectories(tempDir.toPath()); // throws IOException
+		this.lockFile = new File(cacheDir, LOCK_FILE);
+
+		this.maxSize = maxSize;
+		this.totalSize = new AtomicLong(-1L);
+
+		this.fingerprint = fingerprint;
+	}
+
+	//
+
+	private final Logger logger;
+
+	public Logger getLogger() {
+		return logger;
+	}
+
+	public void debug(String message, Object... parms) {
+		getLogger().log(Level.FINE, message, parms);
+	}
+
+	//
+
+	private final File	cacheDir;
+	private final File	tempDir;
+	private final File	lockFile;
+
+	public File getCacheDir() {
+		return cacheDir;
+	}
+
+	private final long			maxSize;
+	/** Estimate of the total size of results. -1 until results are counted. */
+	private final AtomicLong	totalSize;
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	private final String fingerprint;
+
+	/**
+	 * Answer the fingerprint of the rules of the results of the cache.
+	 *
+	 * @return The fingerprint of the rules.
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	// Keys ...
+
+	private Fingerprint newKey(String actionName, String inputName) {
+		return new Fingerprint().add(FORMAT_VERSION)
+			.add(fingerprint)
+			.add(actionName)
+			.add(inputName);
+	}
+
+	/**
+	 * Answer the key of the result of transforming input bytes.
+	 *
+	 * @param actionName The name of the action.
+	 * @param inputName The name of the input.
+	 * @param inputBytes The input bytes.
+	 * @param inputOffset The offset of the input in the bytes.
+	 * @param inputLength The length of the input.
+	 * @return The key of the result.
+	 */
+	public String getKey(String actionName, String inputName, byte[] inputBytes, int inputOffset,
+		int inputLength) {
+		return newKey(actionName, inputName).add(inputBytes, inputOffset, inputLength)
+			.finish();
+	}
+
+	/**
+	 * Answer the key of the result of transforming an input file. The key is
+	 * the key of the same bytes when read as a stream by
+	 * {@link #readInput(String, String, InputStream, int)}.
+	 *
+	 * @param actionName The name of the action.
+	 * @param inputName The name of the input.
+	 * @param inputFile The input file.
+	 * @return The key of the result.
+	 * @throws IOException Thrown if the input file could not be read.
+	 */
+	public String getKey(String actionName, String inputName, File inputFile) throws IOException {
+		Fingerprint key = newKey(actionName, inputName);
+		long length;
+		try (InputStream inputStream = Files.newInputStream(inputFile.toPath())) {
+			length = addContent(key, inputStream, null); // throws IOException
+		}
+		return key.endContent(length)
+			.finish();
+	}
+
+	/**
+	 * Add the remaining bytes of a stream to a key, and copy them to another
+	 * stream.
+	 *
+	 * @return The count of bytes which were added.
+	 */
+	private static long addContent(Fingerprint key, InputStream inputStream, OutputStream copyStream)
+		throws IOException {
+		byte[] buffer = new byte[FileUtils.BUFFER_ADJUSTMENT];
+		long length = 0L;
+		int bytesRead;
+		while ((bytesRead = inputStream.read(buffer)) != -1) { // throws
+																// IOException
+			key.addContent(buffer, 0, bytesRead);
+			if (copyStream != null) {
+				copyStream.write(buffer, 0, bytesRead);
+			}
+			length += bytesRead;
+		}
+		return length;
+	}
+
+	/**
+	 * An input stream which was read to compute the key of its result. The
+	 * input is held in memory, or, if it is large, in a temporary file, which
+	 * is deleted when the input is closed.
+	 */
+	public class KeyedInput implements Closeable {
+		KeyedInput(String key, ByteData data, File file) {
+			this.key = key;
+			this.data = data;
+			this.file = file;
+		}
+
+		/** The key of the result of the input. */
+		public final String		key;
+		/** The input bytes. Null if the input was staged in a file. */
+		public final ByteData	data;
+		/** The file which holds the input. Null if the input is in memory. */
+		public final File		file;
+
+		@Override
+		public void close() {
+			if (file != null) {
+				delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Read an input stream, computing the key of its result as the stream is
+	 * read. The input is held in memory, unless it is read up to a limit, in
+	 * which case it is staged in a temporary file of the cache directory.
+	 *
+	 * @param actionName The name of the action.
+	 * @param inputName The name of the input.
+	 * @param inputStream The input stream.
+	 * @param memoryLimit The count of bytes at which the input is staged. -1
+	 *            to always hold the input in memory. 0 to always stage the
+	 *            input.
+	 * @return The read input and the key of its result.
+	 * @throws IOException Thrown if the input could not be read or staged.
+	 */
+	public KeyedInput readInput(String actionName, String inputName, InputStream inputStream, int memoryLimit)
+		throws IOException {
+		Fingerprint key = newKey(actionName, inputName);
+
+		ByteData headData = null;
+		if (memoryLimit != 0) {
+			headData = ((memoryLimit == -1) ? FileUtils.read(inputName, inputStream)
+				: FileUtils.readAtMost(inputName, inputStream, memoryLimit)); // throws
+																				// IOException
+			key.addContent(headData.data, headData.offset, headData.length);
+			if ((memoryLimit == -1) || (headData.length < memoryLimit)) {
+				return new KeyedInput(key.endContent(headData.length)
+					.finish(), headData, null);
+			}
+		}
+
+		File stagedFile = createTempFile();
+		try (OutputStream outputStream = Files.newOutputStream(stagedFile.toPath())) {
+			long length = 0L;
+			if (headData != null) {
+				headData.write(outputStream);
+				length = headData.length;
+			}
+			length += addContent(key, inputStream, outputStream); // throws
+																	// IOException
+			return new KeyedInput(key.endContent(length)
+				.finish(), null, stagedFile);
+		} catch (IOException | RuntimeException e) {
+			delete(stagedFile);
+			throw e;
+		}
+	}
+
+	private File getFile(String key) {
+		return new File(new File(cacheDir, key.substring(0, 2)), key);
+	}
+
+	// Results ...
+
+	/** A cached transform result. */
+	public static class Entry {
+		Entry(String outputName, byte[] counts, long dataLength, byte[] data) {
+			this.outputName = outputName;
+			this.counts = counts;
+			this.dataLength = dataLength;
+			this.data = data;
+		}
+
+		/** The name of the output. */
+		public final String		outputName;
+		/** The counts of the changes, per {@link ChangesImpl#writeCounts}. */
+		private final byte[]	counts;
+		/** The length of the output bytes. -1 if the output is the input. */
+		public final long		dataLength;
+		/**
+		 * The output bytes, when read into memory. Null if the output is the
+		 * input, or if the output bytes were copied to a stream.
+		 */
+		public final byte[]		data;
+
+		public boolean hasData() {
+			return (dataLength != -1L);
+		}
+
+		/**
+		 * Add the counts of the changes of this result to changes.
+		 *
+		 * @param changes The changes which receive the counts.
+		 * @throws IOException Thrown if the counts could not be read.
+		 */
+		public void restoreCounts(ChangesImpl changes) throws IOException {
+			changes.readCounts(new DataInputStream(new ByteArrayInputStream(counts)));
+		}
+	}
+
+	/**
+	 * Read a result into memory.
+	 *
+	 * @param key The key of the result.
+	 * @return The result. Null if the result is not cached.
+	 * @throws IOException Thrown if the result could not be read.
+	 */
+	public Entry read(String key) throws IOException {
+		return read(key, null);
+	}
+
+	/**
+	 * Read a result, copying its output bytes to a stream.
+	 *
+	 * @param key The key of the result.
+	 * @param outputStream The stream which receives the output bytes. Null
+	 *            to read the output bytes into memory.
+	 * @return The result. Null if the result is not cached.
+	 * @throws IOException Thrown if the result could not be read.
+	 */
+	public Entry read(String key, OutputStream outputStream) throws IOException {
+		File resultFile = getFile(key);
+
+		RandomAccessFile resultData;
+		try {
+			resultData = new RandomAccessFile(resultFile, "r");
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+
+		Entry entry;
+		try {
+			entry = read(resultData, outputStream);
+		} finally {
+			resultData.close();
+		}
+
+		if (entry == null) {
+			debug("Invalid cached result [ {} ]", resultFile);
+			delete(resultFile);
+			return null;
+		}
+
+		long now = System.currentTimeMillis();
+		if (resultFile.lastModified() < (now - TOUCH_INTERVAL)) {
+			resultFile.setLastModified(now);
+		}
+		return entry;
+	}
+
+	private Entry read(RandomAccessFile resultData, OutputStream outputStream) throws IOException {
+		long fileLength = resultData.length();
+		if (fileLength < TRAILER_LENGTH) {
+			return null;
+		}
+
+		resultData.seek(fileLength - TRAILER_LENGTH);
+		int nameLength = resultData.readInt();
+		int countsLength = resultData.readInt();
+		long dataLength = resultData.readLong();
+		int magic = resultData.readInt();
+
+		long nameOffset = ((dataLength == -1L) ? 0L : dataLength);
+		long countsOffset = nameOffset + Math.max(nameLength, 0);
+		if ((magic != MAGIC) || (dataLength < -1L) || (nameLength < -1) || (countsLength < 0)
+			|| (countsOffset + countsLength != fileLength - TRAILER_LENGTH)) {
+			return null;
+		}
+
+		String outputName;
+		if (nameLength == -1) {
+			outputName = null;
+		} else {
+			byte[] nameBytes = new byte[nameLength];
+			resultData.seek(nameOffset);
+			resultData.readFully(nameBytes);
+			outputName = new String(nameBytes, UTF_8);
+		}
+
+		byte[] counts = new byte[countsLength];
+		resultData.seek(countsOffset);
+		resultData.readFully(counts);
+
+		byte[] data = null;
+		if (dataLength != -1L) {
+			resultData.seek(0L);
+			if (outputStream == null) {
+				data = new byte[FileUtils.verifyArray(0, dataLength)];
+				resultData.readFully(data);
+			} else {
+				byte[] buffer = new byte[FileUtils.BUFFER_ADJUSTMENT];
+				long remaining = dataLength;
+				while (remaining > 0L) {
+					int bytesRead = resultData.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+					if (bytesRead == -1) {
+						throw new EOFException("Truncated cached result");
+					}
+					outputStream.write(buffer, 0, bytesRead);
+					remaining -= bytesRead;
+				}
+			}
+		}
+
+		return new Entry(outputName, counts, dataLength, data);
+	}
+
+	/**
+	 * Write a result.
+	 *
+	 * @param key The key of the result.
+	 * @param changes The changes which were made by the transform.
+	 * @param outputData The output bytes. Null if the output is the input.
+	 * @throws IOException Thrown if the result could not be written.
+	 */
+	public void write(String key, ChangesImpl changes, ByteData outputData) throws IOException {
+		try (Pending pending = begin()) {
+			if (outputData != null) {
+				outputData.write(pending.outputStream);
+				pending.dataLength = outputData.length;
+			}
+			pending.commit(key, changes);
+		}
+	}
+
+	/**
+	 * Begin writing a result, the output bytes of which are written as a
+	 * stream.
+	 *
+	 * @return The result which is being written.
+	 * @throws IOException Thrown if the result could not be started.
+	 */
+	public Pending begin() throws IOException {
+		return new Pending(createTempFile());
+	}
+
+	/**
+	 * A result which is being written. A result which is closed without being
+	 * committed is discarded.
+	 */
+	public class Pending implements Closeable {
+		Pending(File tempFile) throws IOException {
+			this.tempFile = tempFile;
+			this.outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()),
+				FileUtils.BUFFER_ADJUSTMENT);
+			this.dataLength = -1L;
+		}
+
+		private final File			tempFile;
+		private final OutputStream	outputStream;
+		private long				dataLength;
+		private boolean				isClosed;
+
+		/**
+		 * Answer a stream which writes to another stream and to this result.
+		 *
+		 * @param otherStream The other stream.
+		 * @return A stream which writes to both streams.
+		 */
+		public OutputStream tee(OutputStream otherStream) {
+			dataLength = 0L;
+
+			return new OutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					otherStream.write(b);
+					outputStream.write(b);
+					dataLength++;
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					otherStream.write(b, off, len);
+					outputStream.write(b, off, len);
+					dataLength += len;
+				}
+
+				@Override
+				public void flush() throws IOException {
+					otherStream.flush();
+				}
+
+				@Override
+				public void close() {
+					// The other stream is closed by its owner. This result is
+					// closed when it is committed.
+				}
+			};
+		}
+
+		/**
+		 * Complete the result and store it in the cache.
+		 *
+		 * @param key The key of the result.
+		 * @param changes The changes which were made by the transform.
+		 * @throws IOException Thrown if the result could not be stored.
+		 */
+		public void commit(String key, ChangesImpl changes) throws IOException {
+			String outputName = changes.getOutputResourceName();
+			byte[] nameBytes = ((outputName == null) ? null : outputName.getBytes(UTF_8));
+
+			ByteArrayOutputStream countsBytes = new ByteArrayOutputStream();
+			changes.writeCounts(new DataOutputStream(countsBytes));
+
+			DataOutputStream trailerStream = new DataOutputStream(outputStream);
+			if (nameBytes != null) {
+				trailerStream.write(nameBytes);
+			}
+			countsBytes.writeTo(trailerStream);
+			trailerStream.writeInt((nameBytes == null) ? -1 : nameBytes.length);
+			trailerStream.writeInt(countsBytes.size());
+			trailerStream.writeLong(dataLength);
+			trailerStream.writeInt(MAGIC);
+			trailerStream.flush();
+
+			isClosed = true;
+			outputStream.close();
+
+			File resultFile = getFile(key);
+			Files.createDirectories(resultFile.getParentFile()
+				.toPath());
+			try {
+				Files.move(tempFile.toPath(), resultFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), resultFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			added(resultFile.length());
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!isClosed) {
+				isClosed = true;
+				try {
+					outputStream.close();
+				} finally {
+					delete(tempFile);
+				}
+			}
+		}
+	}
+
+	// Temporary files ...
+
+	/**
+	 * Create a temporary file in the cache directory.
+	 *
+	 * @return A new temporary file.
+	 * @throws IOException Thrown if the file could not be created.
+	 */
+	public File createTempFile() throws IOException {
+		return File.createTempFile("result", ".tmp", tempDir);
+	}
+
+	public void delete(File file) {
+		if (file.exists() && !file.delete()) {
+			debug("Failed to delete [ {} ]", file);
+		}
+	}
+
+	// Eviction ...
+
+	private void added(long resultSize) {
+		long useTotalSize = totalSize.get();
+		if (useTotalSize == -1L) {
+			evict(); // Counts the results.
+		} else if (totalSize.addAndGet(resultSize) > maxSize) {
+			evict();
+		}
+	}
+
+	/**
+	 * Count the cached results, and evict the least recently used results
+	 * when their total size exceeds the bound of the cache. Nothing is done if
+	 * another process or thread is evicting.
+	 */
+	public synchronized void evict() {
+		try (FileChannel lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE)) {
+
+			FileLock lock;
+			try {
+				lock = lockChannel.tryLock();
+			} catch (OverlappingFileLockException e) {
+				lock = null; // Another cache of this process holds the lock.
+			}
+			if (lock == null) {
+				return;
+			}
+
+			try {
+				evictLocked();
+			} finally {
+				lock.release();
+			}
+
+		} catch (IOException e) {
+			debug("Failed to evict results of [ {} ]: {}", cacheDir, e);
+		}
+	}
+
+	private void evictLocked() {
+		long now = System.currentTimeMillis();
+
+		File[] tempFiles = tempDir.listFiles();
+		if (tempFiles != null) {
+			for (File tempFile : tempFiles) {
+				if (tempFile.lastModified() < (now - STALE_INTERVAL)) {
+					delete(tempFile);
+				}
+			}
+		}
+
+		List<File> resultFiles = new ArrayList<>();
+		List<long[]> resultTimes = new ArrayList<>();
+		long useTotalSize = 0L;
+
+		File[] resultDirs = cacheDir.listFiles(File::isDirectory);
+		if (resultDirs != null) {
+			for (File resultDir : resultDirs) {
+				if (resultDir.equals(tempDir)) {
+					continue;
+				}
+				File[] dirFiles = resultDir.listFiles();
+				if (dirFiles == null) {
+					continue;
+				}
+				for (File resultFile : dirFiles) {
+					long resultSize = resultFile.length();
+					resultTimes.add(new long[] {
+						resultFile.lastModified(), resultSize, resultFiles.size()
+					});
+					resultFiles.add(resultFile);
+					useTotalSize += resultSize;
+				}
+			}
+		}
+
+		if (useTotalSize > maxSize) {
+			long keepSize = (maxSize / 100) * EVICT_PERCENT;
+			resultTimes.sort((t1, t2) -> Long.compare(t1[0], t2[0]));
+
+			int evicted = 0;
+			for (long[] resultTime : resultTimes) {
+				if (useTotalSize <= keepSize) {
+					break;
+				}
+				File resultFile = resultFiles.get((int) resultTime[2]);
+				if (resultFile.delete()) {
+					useTotalSize -= resultTime[1];
+					evicted++;
+				}
+			}
+			debug("Evicted [ {} ] results of [ {} ]; [ {} ] bytes remain", evicted, cacheDir, useTotalSize);
+		}
+
+		totalSize.set(useTotalSize);
+	}
+}
@@ -0,0 +1,243 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The worker threads, and the bound on the bytes held in memory, which are
+ * shared by all of the container actions of an action tree.
+ * <p>
+ * Only the outermost container of a transform schedules work: A container
+ * which is applied by a worker, for example, a nested archive, or an archive
+ * of a directory, is processed in sequence by that worker. The count of
+ * threads of a transform is the parallelism of the scheduler, however deep
+ * the nesting of the containers.
+ * <p>
+ * Jobs are run in priority order: Jobs which transform nested archives and
+ * large entries are run first, largest first, which shortens the critical
+ * path of the transform. Other jobs are run in the order they were scheduled.
+ * <p>
+ * Idle worker threads end after a short delay, which allows a scheduler which
+ * is not shut down to be reclaimed.
+ */
+public class TransformScheduler {
+	/** Default bound on the count of entry bytes held by pipelined transforms. */
+	public static final int			DEFAULT_MAX_PENDING_BYTES	= 64 * 1024 * 1024;
+
+	/** Count of entries held by a pipeline, per worker. */
+	public static final int			ENTRIES_PER_WORKER			= 16;
+
+	private static final long		KEEP_ALIVE_SECONDS			= 5L;
+
+	private static final AtomicInteger	schedulerCount			= new AtomicInteger();
+
+	private final int				parallelism;
+	private final int				maxPendingBytes;
+
+	private final ThreadPoolExecutor	workers;
+	private final Semaphore			pendingBytes;
+
+	public TransformScheduler(int parallelism) {
+		this(parallelism, DEFAULT_MAX_PENDING_BYTES);
+	}
+
+	/**
+	 * Create a scheduler.
+	 *
+	 * @param parallelism The count of worker threads.
+	 * @param maxPendingBytes The bound on the count of entry bytes which are
+	 *            held in memory by all of the pipelines of the scheduler. A
+	 *            single entry which is larger than the bound is still
+	 *            processed.
+	 */
+	public TransformScheduler(int parallelism, int maxPendingBytes) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive [ " + parallelism + " ]");
+		}
+		this.parallelism = parallelism;
+		this.maxPendingBytes = Math.max(1, maxPendingBytes);
+
+		String namePrefix = "transformer-worker-" + schedulerCount.incrementAndGet() + "-";
+		AtomicInteger threadCount = new AtomicInteger();
+
+		this.workers = new ThreadPoolExecutor(parallelism, parallelism, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+			new PriorityBlockingQueue<>(),
+			(Runnable runnable) -> new Worker(runnable, namePrefix + threadCount.incrementAndGet()));
+		this.workers.allowCoreThreadTimeOut(true);
+
+		this.pendingBytes = new Semaphore(this.maxPendingBytes);
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public int getMaxPendingBytes() {
+		return maxPendingBytes;
+	}
+
+	/**
+	 * Answer the count of entries which a pipeline may hold.
+	 *
+	 * @return The count of entries which a pipeline may hold.
+	 */
+	public int getMaxPendingEntries() {
+		return parallelism * ENTRIES_PER_WORKER;
+	}
+
+	/**
+	 * Discard the worker threads. Jobs which were already scheduled are
+	 * completed.
+	 */
+	public void shutdown() {
+		workers.shutdown();
+	}
+
+	//
+
+	/** A worker thread of a scheduler. */
+	private static class Worker extends Thread {
+		Worker(Runnable runnable, String name) {
+			super(runnable, name);
+			setDaemon(true);
+		}
+	}
+
+	/**
+	 * Tell if the calling thread is a worker of a scheduler. Containers which
+	 * are applied by workers are processed in sequence.
+	 *
+	 * @return True if the calling thread is a worker of a scheduler.
+	 */
+	public static boolean isWorker() {
+		return (Thread.currentThread() instanceof Worker);
+	}
+
+	//
+
+	/**
+	 * A job of the scheduler. Nested archives and large entries are run before
+	 * other jobs, largest first. Other jobs are run in their original order.
+	 */
+	static class Job<V> extends FutureTask<V> implements Comparable<Job<?>> {
+		private static final AtomicInteger	jobCount	= new AtomicInteger();
+
+		private final boolean				isNested;
+		private final long					size;
+		private final long					sequence;
+
+		private final CountDownLatch		finished;
+
+		Job(boolean isNested, long size, Callable<V> callable) {
+			super(callable);
+
+			this.isNested = isNested;
+			this.size = size;
+			this.sequence = jobCount.incrementAndGet();
+
+			this.finished = new CountDownLatch(1);
+		}
+
+		@Override
+		public void run() {
+			try {
+				super.run();
+			} finally {
+				finished.countDown();
+			}
+		}
+
+		@Override
+		public int compareTo(Job<?> other) {
+			if (isNested != other.isNested) {
+				return (isNested ? -1 : +1);
+			}
+			if (isNested && (size != other.size)) {
+				return ((size > other.size) ? -1 : +1);
+			}
+			return Long.compare(sequence, other.sequence);
+		}
+	}
+
+	/**
+	 * Schedule a job.
+	 *
+	 * @param isNested Whether the job transforms a nested archive or a large
+	 *            entry.
+	 * @param size The size of the input of the job.
+	 * @param callable The work of the job.
+	 * @return The scheduled job.
+	 */
+	<V> Job<V> submit(boolean isNested, long size, Callable<V> callable) {
+		Job<V> job = new Job<>(isNested, size, callable);
+		workers.execute(job);
+		return job;
+	}
+
+	/**
+	 * Abandon a job. A job which has not started is discarded. A job which
+	 * has started is waited for, since the job may still be using resources
+	 * of its caller.
+	 *
+	 * @param job The job which is to be abandoned.
+	 * @throws InterruptedException Thrown if the wait was interrupted.
+	 */
+	void cancel(Job<?> job) throws InterruptedException {
+		job.cancel(false);
+		if (!workers.remove(job)) {
+			job.finished.await();
+		}
+	}
+
+	//
+
+	/**
+	 * Acquire room for bytes which are to be held in memory.
+	 *
+	 * @param count The count of bytes.
+	 * @return The count of bytes which were acquired, which is to be released
+	 *         once the bytes are no longer held.
+	 * @throws InterruptedException Thrown if the wait for room was
+	 *             interrupted.
+	 */
+	int acquire(int count) throws InterruptedException {
+		int permits = Math.min(count, maxPendingBytes);
+		pendingBytes.acquire(permits);
+		return permits;
+	}
+
+	/**
+	 * Acquire room for bytes which are to be held in memory, if there is
+	 * room.
+	 *
+	 * @param count The count of bytes, which must be no more than the bound of
+	 *            the scheduler.
+	 * @return True if the room was acquired.
+	 */
+	boolean tryAcquire(int count) {
+		return pendingBytes.tryAcquire(count);
+	}
+
+	void release(int permits) {
+		if (permits > 0) {
+			pendingBytes.release(permits);
+		}
+	}
+}
@@ -19,6 +19,10 @@ public class WarActionImpl extends ContainerActionImpl {
 		SelectionRuleImpl selectionRule, SignatureRuleImpl signatureRule) {
 
 		super(logger, isTerse, isVerbose, buffer, selectionRule, signatureRule);
+
+		// Web archives usually contain many nested library archives, which
+		// are worth transforming concurrently.
+		setConcurrentNestedArchives(true);
 	}
 
 	//
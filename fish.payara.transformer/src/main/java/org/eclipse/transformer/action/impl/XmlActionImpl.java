@@ -13,14 +13,10 @@ package org.eclipse.transformer.action.impl;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 
 import javax.xml.parsers.SAXParser;
@@ -59,11 +55,21 @@ public class XmlActionImpl extends ActionImpl {
 		return null; // THis action is disabled.
 	}
 
+	@Override
+	protected boolean useTransformCache() {
+		return true;
+	}
+
 	@Override
 	public String getAcceptExtension() {
 		return ".xml";
 	}
 
+	@Override
+	public String getAcceptSuffix() {
+		return null; // Acceptance is not decided by the resource name suffix.
+	}
+
 	@Override
 	public boolean accept(String resourceName, File resourceFile) {
 		if (resourceName.toLowerCase()
@@ -108,43 +114,42 @@ public class XmlActionImpl extends ActionImpl {
 	@SuppressWarnings("unused")
 	public ByteData applyAsPlainText(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
 
-		String outputName = inputName;
-
-		setResourceNames(inputName, outputName);
-
-		InputStream inputStream = new ByteBufferInputStream(inputBytes, 0, inputLength);
-		InputStreamReader inputReader = new InputStreamReader(inputStream, UTF_8);
-
-		BufferedReader reader = new BufferedReader(inputReader);
+		LineTransformer lineTransformer = newPlainTextTransformer(inputName);
 
-		ByteBufferOutputStream outputStream = new ByteBufferOutputStream(inputBytes.length);
-		OutputStreamWriter outputWriter = new OutputStreamWriter(outputStream, UTF_8);
-
-		BufferedWriter writer = new BufferedWriter(outputWriter);
-
-		try {
-			transformAsPlainText(inputName, reader, writer); // throws
-																// IOException
-		} catch (IOException e) {
-			error("Failed to transform [ {} ]", e, inputName);
+		if (!lineTransformer.mayChange(inputBytes, inputLength)) {
+			debug("Input [ {} ] contains no rename keys; passing through", inputName);
 			return null;
 		}
 
-		try {
-			writer.flush(); // throws
-		} catch (IOException e) {
-			error("Failed to flush [ {} ]", e, inputName);
-			return null;
-		}
+		byte[] outputBytes = lineTransformer.transform(inputBytes, inputLength);
 
 		if (!hasNonResourceNameChanges()) {
 			return null;
 		}
 
-		byte[] outputBytes = outputStream.toByteArray();
 		return new ByteData(inputName, outputBytes, 0, outputBytes.length);
 	}
 
+	@Override
+	protected LineTransformer newLineTransformer(String inputName) {
+		return (XML_AS_PLAIN_TEXT ? newPlainTextTransformer(inputName) : null);
+	}
+
+	protected LineTransformer newPlainTextTransformer(String inputName) {
+		setResourceNames(inputName, inputName);
+
+		TextSubstitutions substitutions = getSignatureRule().getPreparedTextSubstitutions(inputName);
+		ByteKeyMatcher keyMatcher = ((substitutions == null) ? null : substitutions.getKeyMatcher());
+
+		return new LineTransformer(keyMatcher, inputLine -> {
+			String outputLine = replaceText(inputName, inputLine);
+			if (outputLine != null) {
+				addReplacement();
+			}
+			return outputLine;
+		});
+	}
+
 	//
 
 	private static final SAXParserFactory parserFactory;
@@ -201,22 +206,6 @@ public class XmlActionImpl extends ActionImpl {
 		}
 	}
 
-	protected void transformAsPlainText(String inputName, BufferedReader reader, BufferedWriter writer)
-		throws IOException {
-
-		String inputLine;
-		while ((inputLine = reader.readLine()) != null) {
-			String outputLine = replaceText(inputName, inputLine);
-			if (outputLine == null) {
-				outputLine = inputLine;
-			} else {
-				addReplacement();
-			}
-			writer.write(outputLine);
-			writer.write('\n');
-		}
-	}
-
 	//
 
 	public class XMLContentHandler extends DefaultHandler {
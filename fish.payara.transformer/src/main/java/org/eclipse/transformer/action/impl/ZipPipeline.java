@@ -0,0 +1,880 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.transformer.TransformException;
+import org.eclipse.transformer.action.Changes;
+import org.eclipse.transformer.util.ByteData;
+import org.eclipse.transformer.util.FileUtils;
+import org.eclipse.transformer.util.ZipArchive;
+import org.eclipse.transformer.util.ZipArchiveWriter;
+
+/**
+ * Pipelined processing of the entries of an archive.
+ * <p>
+ * The calling thread reads entries ahead of the entry which is being written,
+ * schedules the entries on the {@link TransformScheduler} of the container,
+ * and writes the entries in their original order. No other thread is used
+ * than the workers of the scheduler.
+ * <p>
+ * The input is either a zip stream or an archive file. The entries of an
+ * archive file are read using its central directory, through a
+ * {@link ZipFile}, or, when raw copies are enabled, through a
+ * {@link ZipArchive}: The size of every entry is known before the entry is
+ * read, and the workers read their entries directly from the archive file,
+ * concurrently. The entries of a zip stream are read by the calling thread, in
+ * order, before they are scheduled.
+ * <p>
+ * Entries are handled as follows:
+ * <ul>
+ * <li>Entries which are not transformed are copied by the writer. Entries of a
+ * zip stream are read into memory when they are read ahead.</li>
+ * <li>Nested archives are transformed by the writer, directly from the input
+ * to the output. Entries of a zip stream are not read ahead of a nested
+ * archive. When {@link ContainerActionImpl#getConcurrentNestedArchives()} is
+ * set, nested archives are instead transformed by the workers into temporary
+ * files, largest first, which shortens the critical path of the
+ * transform.</li>
+ * <li>Large entries, per {@link ActionImpl#isLargeEntry(long)}, are not held
+ * in memory. These are transformed by the workers into temporary files, as
+ * streams. A large entry of a zip stream is first staged in a temporary
+ * file.</li>
+ * <li>Other entries are read into memory and are transformed by the
+ * workers.</li>
+ * </ul>
+ * <p>
+ * Entries are read ahead while the count of pending entries is less than a
+ * multiple of the parallelism, and while the scheduler has room for the bytes
+ * held by the entries. The first pending entry is always read, which allows an
+ * entry to be processed while other pipelines hold the bytes of the scheduler.
+ * <p>
+ * A container which is not processed concurrently, per
+ * {@link ContainerActionImpl#isParallel()}, uses a pipeline of one entry: Each
+ * entry is transformed by the calling thread when it is written, and entries
+ * which are not transformed, nested archives and large entries are copied or
+ * transformed directly from the input to the output. An entry of a zip stream
+ * is read before the next entry is read, and so needs not be staged.
+ */
+class ZipPipeline {
+	private final ContainerActionImpl		containerAction;
+	private final ContainerChangesImpl		useChanges;
+	private final String					inputPath;
+	private final ZipIO						zipIO;
+	private final TransformScheduler		scheduler;
+
+	private final boolean					concurrentNestedArchives;
+
+	private final int						maxPendingEntries;
+
+	private final Set<File>					tempFiles;
+
+	ZipPipeline(ContainerActionImpl containerAction, ContainerChangesImpl useChanges, String inputPath,
+		ZipInputStream zipInputStream, ZipOutputStream zipOutputStream) {
+		this(containerAction, useChanges, inputPath, new StreamIO(zipInputStream, zipOutputStream));
+	}
+
+	ZipPipeline(ContainerActionImpl containerAction, ContainerChangesImpl useChanges, String inputPath,
+		ZipFile zipFile, ZipOutputStream zipOutputStream) {
+		this(containerAction, useChanges, inputPath, new FileIO(zipFile, zipOutputStream));
+	}
+
+	ZipPipeline(ContainerActionImpl containerAction, ContainerChangesImpl useChanges, String inputPath,
+		ZipArchive archive, ZipArchiveWriter zipWriter) {
+		this(containerAction, useChanges, inputPath, new ArchiveIO(archive, zipWriter));
+	}
+
+	private ZipPipeline(ContainerActionImpl containerAction, ContainerChangesImpl useChanges, String inputPath,
+		ZipIO zipIO) {
+
+		this.containerAction = containerAction;
+		this.useChanges = useChanges;
+		this.inputPath = inputPath;
+		this.zipIO = zipIO;
+		this.scheduler = (containerAction.isParallel() ? containerAction.getScheduler() : null);
+
+		this.concurrentNestedArchives = ((scheduler != null) && containerAction.getConcurrentNestedArchives());
+
+		this.maxPendingEntries = ((scheduler == null) ? 1 : scheduler.getMaxPendingEntries());
+
+		this.tempFiles = ConcurrentHashMap.newKeySet();
+	}
+
+	// The input and the output of a pipeline ...
+
+	/** An entry of the input of a pipeline. */
+	private static class InputEntry {
+		final String			name;
+		final long				size;
+
+		/** The entry of a zip stream or of a zip file. */
+		final ZipEntry			zipEntry;
+
+		/** The entry of an archive which is read for raw copies. */
+		final ZipArchive.Entry	archiveEntry;
+
+		InputEntry(String name, long size, ZipEntry zipEntry, ZipArchive.Entry archiveEntry) {
+			this.name = name;
+			this.size = size;
+			this.zipEntry = zipEntry;
+			this.archiveEntry = archiveEntry;
+		}
+	}
+
+	/** The input and the output of a pipeline. */
+	private abstract static class ZipIO {
+		/**
+		 * Tell if entries may be read in any order, and concurrently, once
+		 * they have been listed. Otherwise, only the last listed entry may be
+		 * read, and only by the calling thread.
+		 */
+		abstract boolean isRandomAccess();
+
+		/** Answer the next input entry. Null at the end of the input. */
+		abstract InputEntry next() throws IOException;
+
+		/** Open an input entry. The answered stream must be closed. */
+		abstract InputStream open(InputEntry inputEntry) throws IOException;
+
+		/**
+		 * Copy an input entry which is not transformed. Not used for a zip
+		 * stream which is read ahead: Its entries are read when they are read
+		 * ahead.
+		 */
+		abstract void copy(InputEntry inputEntry) throws IOException;
+
+		/**
+		 * Tell if entries which are transformed without changes are copied
+		 * without being compressed again.
+		 */
+		abstract boolean isRawCopy();
+
+		/** Copy the compressed data of an input entry. */
+		abstract void copyRaw(InputEntry inputEntry) throws IOException;
+
+		/** Answer the stream which receives the data of output entries. */
+		abstract OutputStream getOutput();
+
+		/**
+		 * Start an output entry. Raw copies keep the time of the input entry.
+		 */
+		abstract void putNextEntry(String outputName, InputEntry inputEntry) throws IOException;
+
+		abstract void closeEntry() throws IOException;
+	}
+
+	/** The output of a pipeline which writes a zip stream. */
+	private abstract static class ZipOutputIO extends ZipIO {
+		private final ZipOutputStream zipOutputStream;
+
+		ZipOutputIO(ZipOutputStream zipOutputStream) {
+			this.zipOutputStream = zipOutputStream;
+		}
+
+		@Override
+		void copy(InputEntry inputEntry) throws IOException {
+			putNextEntry(inputEntry.name, inputEntry);
+			try (InputStream inputStream = open(inputEntry)) {
+				FileUtils.transfer(inputStream, zipOutputStream);
+			}
+			closeEntry();
+		}
+
+		@Override
+		boolean isRawCopy() {
+			return false;
+		}
+
+		@Override
+		void copyRaw(InputEntry inputEntry) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		OutputStream getOutput() {
+			return zipOutputStream;
+		}
+
+		@Override
+		void putNextEntry(String outputName, InputEntry inputEntry) throws IOException {
+			zipOutputStream.putNextEntry(new ZipEntry(outputName));
+		}
+
+		@Override
+		void closeEntry() throws IOException {
+			zipOutputStream.closeEntry();
+		}
+	}
+
+	private static class StreamIO extends ZipOutputIO {
+		private final ZipInputStream zipInputStream;
+
+		StreamIO(ZipInputStream zipInputStream, ZipOutputStream zipOutputStream) {
+			super(zipOutputStream);
+			this.zipInputStream = zipInputStream;
+		}
+
+		@Override
+		boolean isRandomAccess() {
+			return false;
+		}
+
+		@Override
+		InputEntry next() throws IOException {
+			ZipEntry zipEntry = zipInputStream.getNextEntry();
+			if (zipEntry == null) {
+				return null;
+			}
+			return new InputEntry(zipEntry.getName(), zipEntry.getSize(), zipEntry, null);
+		}
+
+		@Override
+		InputStream open(InputEntry inputEntry) {
+			// Closing the entry stream must not close the zip stream.
+			return new FilterInputStream(zipInputStream) {
+				@Override
+				public void close() {
+					// Empty
+				}
+			};
+		}
+	}
+
+	private static class FileIO extends ZipOutputIO {
+		private final ZipFile							zipFile;
+		private final Enumeration<? extends ZipEntry>	zipEntries;
+
+		FileIO(ZipFile zipFile, ZipOutputStream zipOutputStream) {
+			super(zipOutputStream);
+			this.zipFile = zipFile;
+			this.zipEntries = zipFile.entries();
+		}
+
+		@Override
+		boolean isRandomAccess() {
+			return true;
+		}
+
+		@Override
+		InputEntry next() {
+			if (!zipEntries.hasMoreElements()) {
+				return null;
+			}
+			ZipEntry zipEntry = zipEntries.nextElement();
+			return new InputEntry(zipEntry.getName(), zipEntry.getSize(), zipEntry, null);
+		}
+
+		@Override
+		InputStream open(InputEntry inputEntry) throws IOException {
+			return zipFile.getInputStream(inputEntry.zipEntry);
+		}
+	}
+
+	private static class ArchiveIO extends ZipIO {
+		private final ZipArchive					archive;
+		private final ZipArchiveWriter				zipWriter;
+		private final Iterator<ZipArchive.Entry>	archiveEntries;
+
+		ArchiveIO(ZipArchive archive, ZipArchiveWriter zipWriter) {
+			this.archive = archive;
+			this.zipWriter = zipWriter;
+			this.archiveEntries = archive.getEntries()
+				.iterator();
+		}
+
+		@Override
+		boolean isRandomAccess() {
+			return true;
+		}
+
+		@Override
+		InputEntry next() {
+			if (!archiveEntries.hasNext()) {
+				return null;
+			}
+			ZipArchive.Entry archiveEntry = archiveEntries.next();
+			return new InputEntry(archiveEntry.getName(), archiveEntry.getSize(), null, archiveEntry);
+		}
+
+		@Override
+		InputStream open(InputEntry inputEntry) throws IOException {
+			return archive.getInputStream(inputEntry.archiveEntry);
+		}
+
+		@Override
+		void copy(InputEntry inputEntry) throws IOException {
+			zipWriter.copyEntry(archive, inputEntry.archiveEntry);
+		}
+
+		@Override
+		boolean isRawCopy() {
+			return true;
+		}
+
+		@Override
+		void copyRaw(InputEntry inputEntry) throws IOException {
+			zipWriter.copyEntry(archive, inputEntry.archiveEntry);
+		}
+
+		@Override
+		OutputStream getOutput() {
+			return zipWriter;
+		}
+
+		@Override
+		void putNextEntry(String outputName, InputEntry inputEntry) throws IOException {
+			zipWriter.putNextEntry(outputName, inputEntry.archiveEntry.getTime());
+		}
+
+		@Override
+		void closeEntry() throws IOException {
+			zipWriter.closeEntry();
+		}
+	}
+
+	// Pending entries ...
+
+	private enum EntryKind {
+		/** Copied by the writer from the input. */
+		COPY,
+		/** Transformed as a stream by the writer. */
+		STREAM,
+		/**
+		 * Written from a temporary file. Nested archives and large entries
+		 * are transformed as streams, by a worker, to a temporary file.
+		 */
+		FILE,
+		/** Written from memory. Transformed by a worker, in memory. */
+		DATA;
+	}
+
+	/**
+	 * An entry which has been read ahead and which is waiting to be written.
+	 */
+	private static class PendingEntry {
+		final InputEntry		inputEntry;
+		final EntryKind			kind;
+		final ActionImpl		action;
+
+		/** Count of bytes held by the entry. */
+		final int				weight;
+
+		/** Count of bytes acquired from the scheduler for the entry. */
+		int						permits;
+
+		/**
+		 * The data which was read from a zip stream, for a data entry, or the
+		 * start of a large entry of unknown length, for a stream entry.
+		 */
+		ByteData				inputData;
+
+		/** The file which was staged from a zip stream, for a file entry. */
+		File					stagedInput;
+
+		/**
+		 * The transformed data, for a transformed data entry. The data is null
+		 * if the entry is to be copied from the input.
+		 */
+		Future<ByteData>		outputData;
+
+		/** The transformed file, for a transformed file entry. */
+		Future<File>			outputFile;
+
+		PendingEntry(InputEntry inputEntry, EntryKind kind, ActionImpl action, int weight) {
+			this.inputEntry = inputEntry;
+			this.kind = kind;
+			this.action = action;
+			this.weight = weight;
+		}
+	}
+
+	//
+
+	void run() throws TransformException {
+		Deque<PendingEntry> pendingEntries = new ArrayDeque<>();
+		try {
+			process(pendingEntries);
+
+		} finally {
+			// Abandon the jobs of the entries which were not written, if the
+			// write failed.
+			try {
+				for (PendingEntry pendingEntry : pendingEntries) {
+					cancel(pendingEntry.outputData);
+					cancel(pendingEntry.outputFile);
+					release(pendingEntry);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+					.interrupt();
+			}
+
+			for (File tempFile : tempFiles) {
+				delete(tempFile);
+			}
+		}
+	}
+
+	private void cancel(Future<?> output) throws InterruptedException {
+		if (output instanceof TransformScheduler.Job) {
+			scheduler.cancel((TransformScheduler.Job<?>) output);
+		}
+	}
+
+	private void release(PendingEntry pendingEntry) {
+		if (scheduler != null) {
+			scheduler.release(pendingEntry.permits);
+		}
+	}
+
+	/**
+	 * Submit the transform of an entry to the scheduler. Without a scheduler,
+	 * the transform is run immediately, by the calling thread.
+	 */
+	private <V> Future<V> submit(boolean isNested, long size, Callable<V> callable) {
+		if (scheduler == null) {
+			FutureTask<V> task = new FutureTask<>(callable);
+			task.run();
+			return task;
+		}
+		return scheduler.submit(isNested, size, callable);
+	}
+
+	/**
+	 * Tell if entries are read from the input when they are written: The
+	 * input is an archive file, or no entry is read ahead of the entry which
+	 * is being written.
+	 */
+	private boolean isReadWhenWritten() {
+		return (zipIO.isRandomAccess() || (scheduler == null));
+	}
+
+	private void process(Deque<PendingEntry> pendingEntries) throws TransformException {
+		boolean isRandomAccess = zipIO.isRandomAccess();
+		Set<String> processedFile = new HashSet<>();
+
+		PendingEntry nextEntry = null;
+
+		String inputName = null;
+		String prevName = null;
+
+		try {
+			while (true) {
+				// Read entries ahead of the writer, within the bounds.
+
+				while (pendingEntries.size() < maxPendingEntries) {
+					if (nextEntry == null) {
+						InputEntry inputEntry = zipIO.next(); // throws
+																// IOException
+						if (inputEntry == null) {
+							break;
+						}
+						if (!processedFile.add(inputEntry.name)) {
+							continue;
+						}
+						inputName = inputEntry.name;
+						nextEntry = prepare(inputEntry); // throws IOException
+						inputName = null;
+					}
+
+					// Nothing is read ahead of an entry which the writer
+					// transforms from a zip stream.
+
+					boolean isBlocking = (!isRandomAccess && (nextEntry.kind == EntryKind.STREAM));
+					if (isBlocking && !pendingEntries.isEmpty()) {
+						break;
+					}
+
+					if (nextEntry.weight > 0) {
+						if (pendingEntries.isEmpty()) {
+							nextEntry.permits = scheduler.acquire(nextEntry.weight);
+						} else if (!scheduler.tryAcquire(nextEntry.weight)) {
+							break;
+						} else {
+							nextEntry.permits = nextEntry.weight;
+						}
+					}
+
+					schedule(nextEntry);
+					pendingEntries.add(nextEntry);
+					nextEntry = null;
+
+					if (isBlocking) {
+						break;
+					}
+				}
+
+				PendingEntry pendingEntry = pendingEntries.peek();
+				if (pendingEntry == null) {
+					break;
+				}
+
+				inputName = pendingEntry.inputEntry.name;
+				write(pendingEntry); // throws IOException
+				pendingEntries.poll();
+				release(pendingEntry);
+
+				prevName = inputName;
+				inputName = null;
+			}
+
+		} catch (IOException e) {
+			String message;
+			if (inputName != null) { // Actively processing an entry.
+				message = "Failure while processing [ " + inputName + " ] from [ " + inputPath + " ]";
+			} else if (prevName != null) { // Moving to a new entry but not the
+											// first entry.
+				message = "Failure after processing [ " + prevName + " ] from [ " + inputPath + " ]";
+			} else { // Moving to the first entry.
+				message = "Failed to process first entry of [ " + inputPath + " ]";
+			}
+			throw new TransformException(message, e);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+				.interrupt();
+			throw new TransformException("Interrupted while processing [ " + inputPath + " ]", e);
+		}
+	}
+
+	/**
+	 * Select the action for an entry, and determine how the entry is to be
+	 * processed. Unselected and unaccepted entries are recorded immediately.
+	 * <p>
+	 * The data of an entry of a zip stream is read, unless the entry is
+	 * transformed by the writer, since the zip stream moves past the entry
+	 * when the next entry is read. The entries of an archive file are read
+	 * when they are scheduled.
+	 */
+	private PendingEntry prepare(InputEntry inputEntry) throws IOException {
+		String inputName = inputEntry.name;
+		long inputLength = inputEntry.size;
+
+		containerAction.debug("[ {}.{} ] [ {} ] Size [ {} ]", containerAction.getClass()
+			.getSimpleName(), "apply", inputName, inputLength);
+
+		boolean selected = containerAction.select(inputName);
+		ActionImpl acceptedAction = containerAction.acceptAction(inputName);
+
+		if (!selected || (acceptedAction == null)) {
+			if (acceptedAction == null) {
+				containerAction.recordUnaccepted(useChanges, inputName);
+			} else {
+				containerAction.recordUnselected(useChanges, acceptedAction, inputName);
+			}
+			if (isReadWhenWritten()) {
+				return new PendingEntry(inputEntry, EntryKind.COPY, null, 0);
+			}
+			return read(inputEntry, null);
+
+		} else if (acceptedAction.useStreams()) {
+			if (!concurrentNestedArchives) {
+				return new PendingEntry(inputEntry, EntryKind.STREAM, acceptedAction, 0);
+			}
+			PendingEntry pendingEntry = new PendingEntry(inputEntry, EntryKind.FILE, acceptedAction, 0);
+			if (!zipIO.isRandomAccess()) {
+				pendingEntry.stagedInput = stageEntry(inputEntry, null);
+			}
+			return pendingEntry;
+
+		} else if (zipIO.isRandomAccess()) {
+			if (acceptedAction.isLargeEntry(inputLength)) {
+				// Large entries are not read into memory.
+				EntryKind kind = ((scheduler == null) ? EntryKind.STREAM : EntryKind.FILE);
+				return new PendingEntry(inputEntry, kind, acceptedAction, 0);
+			}
+			return new PendingEntry(inputEntry, EntryKind.DATA, acceptedAction, weigh(inputLength));
+
+		} else if (scheduler == null) {
+			// Large entries of a zip stream are transformed by the writer.
+			if (acceptedAction.isLargeEntry(inputLength)) {
+				return new PendingEntry(inputEntry, EntryKind.STREAM, acceptedAction, 0);
+			}
+			ByteData inputData = readEntry(inputEntry);
+			if (inputData == null) {
+				return new PendingEntry(inputEntry, EntryKind.STREAM, acceptedAction, 0);
+			}
+			EntryKind kind = (containerAction.isLargeEntry(inputData.length) ? EntryKind.STREAM : EntryKind.DATA);
+			PendingEntry pendingEntry = new PendingEntry(inputEntry, kind, acceptedAction, 0);
+			pendingEntry.inputData = inputData;
+			return pendingEntry;
+
+		} else {
+			return read(inputEntry, acceptedAction);
+		}
+	}
+
+	/**
+	 * Read an entry of a zip stream, into memory, or, for a large entry, into a
+	 * temporary file.
+	 */
+	private PendingEntry read(InputEntry inputEntry, ActionImpl acceptedAction) throws IOException {
+		ByteData inputData = readEntry(inputEntry);
+		if ((inputData == null) || containerAction.isLargeEntry(inputData.length)) {
+			PendingEntry pendingEntry = new PendingEntry(inputEntry, EntryKind.FILE, acceptedAction, 0);
+			pendingEntry.stagedInput = stageEntry(inputEntry, inputData);
+			return pendingEntry;
+		}
+		PendingEntry pendingEntry = new PendingEntry(inputEntry, EntryKind.DATA, acceptedAction,
+			weigh(inputData.length));
+		pendingEntry.inputData = inputData;
+		return pendingEntry;
+	}
+
+	private int weigh(long inputLength) {
+		if (scheduler == null) {
+			return 0;
+		}
+		return (int) Math.min(Math.max(inputLength, 0L), scheduler.getMaxPendingBytes());
+	}
+
+	/**
+	 * Schedule the transform of an entry. The input of a transformed entry is
+	 * the input entry, for an archive file, or the data or the staged file
+	 * which was read by {@link #prepare(InputEntry)}, for a zip stream.
+	 */
+	private void schedule(PendingEntry pendingEntry) {
+		ActionImpl acceptedAction = pendingEntry.action;
+		if (acceptedAction == null) {
+			return;
+		}
+
+		InputEntry inputEntry = pendingEntry.inputEntry;
+		String inputName = inputEntry.name;
+
+		if (pendingEntry.kind == EntryKind.FILE) {
+			File stagedInput = pendingEntry.stagedInput;
+			long inputLength = ((stagedInput == null) ? inputEntry.size : stagedInput.length());
+			boolean useStreams = acceptedAction.useStreams();
+
+			pendingEntry.outputFile = submit(true, inputLength, () -> {
+				File transformedOutput = createTempFile();
+				try (InputStream inputStream = ((stagedInput == null) ? zipIO.open(inputEntry) : openInput(stagedInput));
+					OutputStream outputStream = openOutput(transformedOutput)) {
+					if (useStreams) {
+						acceptedAction.apply(inputName, inputStream, inputLength, outputStream);
+					} else {
+						acceptedAction.applyLarge(inputName, inputStream, outputStream);
+					}
+				}
+				containerAction.recordTransform(useChanges, acceptedAction, inputName);
+				if (stagedInput != null) {
+					delete(stagedInput);
+				}
+				return transformedOutput;
+			});
+
+		} else if (pendingEntry.kind == EntryKind.DATA) {
+			ByteData preparedData = pendingEntry.inputData;
+			long inputLength = ((preparedData == null) ? inputEntry.size : preparedData.length);
+
+			pendingEntry.outputData = submit(false, inputLength, () -> {
+				ByteData inputData = preparedData;
+				if (inputData == null) {
+					try (InputStream inputStream = zipIO.open(inputEntry)) {
+						inputData = FileUtils.read(inputName, inputStream, FileUtils.verifyArray(0, inputLength));
+					}
+				}
+
+				ByteData transformedData = acceptedAction.apply(inputData);
+				containerAction.recordTransform(useChanges, acceptedAction, inputName);
+
+				// Unchanged entries are copied when raw copies are enabled.
+
+				Changes lastChanges = acceptedAction.getLastActiveChanges();
+				if (zipIO.isRawCopy() && !lastChanges.hasChanges()) {
+					return null;
+				}
+				return new ByteData(lastChanges.getOutputResourceName(), transformedData.data,
+					transformedData.offset, transformedData.length);
+			});
+		}
+	}
+
+	private void write(PendingEntry pendingEntry) throws TransformException, IOException, InterruptedException {
+		InputEntry inputEntry = pendingEntry.inputEntry;
+		String inputName = inputEntry.name;
+
+		switch (pendingEntry.kind) {
+			case COPY :
+				zipIO.copy(inputEntry); // throws IOException
+				break;
+
+			case STREAM :
+				ActionImpl streamAction = pendingEntry.action;
+				zipIO.putNextEntry(inputName, inputEntry); // throws IOException
+				try (InputStream inputStream = zipIO.open(inputEntry)) {
+					if (pendingEntry.inputData == null) {
+						streamAction.apply(inputName, inputStream, inputEntry.size, zipIO.getOutput());
+					} else {
+						streamAction.applyLarge(inputName, FileUtils.prepend(pendingEntry.inputData, inputStream),
+							zipIO.getOutput());
+					}
+				}
+				containerAction.recordTransform(useChanges, streamAction, inputName);
+				zipIO.closeEntry(); // throws IOException
+				break;
+
+			case FILE :
+				// An entry which is not transformed is written from its staged
+				// input.
+				File outputFile = ((pendingEntry.action == null) ? pendingEntry.stagedInput
+					: get(pendingEntry.outputFile, inputName));
+
+				zipIO.putNextEntry(inputName, inputEntry); // throws IOException
+				try (InputStream inputStream = Files.newInputStream(outputFile.toPath())) {
+					FileUtils.transfer(inputStream, zipIO.getOutput()); // throws
+																		// IOException
+				}
+				zipIO.closeEntry(); // throws IOException
+
+				delete(outputFile);
+				break;
+
+			case DATA :
+				if (pendingEntry.action == null) {
+					zipIO.putNextEntry(inputName, inputEntry); // throws IOException
+					pendingEntry.inputData.write(zipIO.getOutput()); // throws
+																		// IOException
+					zipIO.closeEntry(); // throws IOException
+					break;
+				}
+
+				ByteData outputData = get(pendingEntry.outputData, inputName);
+				if (outputData == null) {
+					zipIO.copyRaw(inputEntry); // throws IOException
+				} else {
+					zipIO.putNextEntry(outputData.name, inputEntry); // throws IOException
+					outputData.write(zipIO.getOutput()); // throws IOException
+					zipIO.closeEntry(); // throws IOException
+				}
+				break;
+
+			default :
+				throw new IllegalStateException("Unknown entry kind [ " + pendingEntry.kind + " ]");
+		}
+	}
+
+	private <V> V get(Future<V> output, String inputName) throws TransformException, InterruptedException {
+		try {
+			return output.get();
+		} catch (ExecutionException e) {
+			throw new TransformException("Failure while processing [ " + inputName + " ] from [ " + inputPath + " ]",
+				e.getCause());
+		}
+	}
+
+	// Entries of zip streams ...
+
+	/**
+	 * Read an entry of a zip stream into memory. An entry of unknown length is
+	 * read until it is known to be large.
+	 *
+	 * @return The read entry data. Null if the entry is known to be large, in
+	 *         which case no data was read. Data which is larger than the large
+	 *         entry threshold is the start of a large entry.
+	 */
+	private ByteData readEntry(InputEntry inputEntry) throws IOException {
+		String inputName = inputEntry.name;
+		long inputLength = inputEntry.size;
+
+		if (containerAction.isLargeEntry(inputLength)) {
+			return null;
+		}
+
+		// A new buffer is used for each entry: Entry data is held by the
+		// pipeline until the entry is written.
+
+		try (InputStream inputStream = zipIO.open(inputEntry)) {
+			int intInputLength;
+			if (inputLength == -1L) {
+				int probeLength = containerAction.getLargeEntryProbe();
+				if (probeLength != -1) {
+					return FileUtils.readAtMost(inputName, inputStream, probeLength);
+				}
+				intInputLength = -1;
+			} else {
+				intInputLength = FileUtils.verifyArray(0, inputLength);
+			}
+
+			return FileUtils.read(inputName, inputStream, null, intInputLength);
+		}
+	}
+
+	/**
+	 * Stage an entry of a zip stream in a temporary file.
+	 *
+	 * @param inputEntry The entry.
+	 * @param headData Data which was already read from the entry. Null if no
+	 *            data was read.
+	 * @return The temporary file which holds the entry.
+	 */
+	private File stageEntry(InputEntry inputEntry, ByteData headData) throws IOException {
+		containerAction.debug("Entry [ {} ] is staged in a temporary file", inputEntry.name);
+
+		File stagedInput = createTempFile();
+		try (InputStream inputStream = zipIO.open(inputEntry); OutputStream outputStream = openOutput(stagedInput)) {
+			if (headData != null) {
+				headData.write(outputStream); // throws IOException
+			}
+			FileUtils.transfer(inputStream, outputStream); // throws
+															// IOException
+		}
+		return stagedInput;
+	}
+
+	// Temporary files ...
+
+	private File createTempFile() throws IOException {
+		File tempFile = File.createTempFile("transformer", ".nested");
+		tempFiles.add(tempFile);
+		return tempFile;
+	}
+
+	private void delete(File tempFile) {
+		tempFiles.remove(tempFile);
+		if (tempFile.exists() && !tempFile.delete()) {
+			containerAction.debug("Failed to delete temporary file [ {} ]", tempFile);
+		}
+	}
+
+	static InputStream openInput(File inputFile) throws IOException {
+		return new BufferedInputStream(Files.newInputStream(inputFile.toPath()), FileUtils.BUFFER_ADJUSTMENT);
+	}
+
+	static OutputStream openOutput(File outputFile) throws IOException {
+		return new BufferedOutputStream(Files.newOutputStream(outputFile.toPath()), FileUtils.BUFFER_ADJUSTMENT);
+	}
+}
@@ -12,10 +12,13 @@
 package org.eclipse.transformer.util;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.net.URL;
+import java.util.Arrays;
 
 import aQute.lib.utf8properties.UTF8Properties;
 
@@ -90,7 +93,8 @@ public class FileUtils {
 	 * @param inputName A name associated with the input stram.
 	 * @param inputStream The stream from which to read bytes.
 	 * @param buffer A buffer into which to place the read bytes.
-	 * @param count The number of bytes to read.
+	 * @param count The number of bytes to read. {@code -1} to read all of the
+	 *            bytes of the stream, when the count is not known.
 	 * @return The final buffer which contains the read bytes. The same as the
 	 *         parameter buffer if that buffer had a sufficient capacity to read
 	 *         the requested count of bytes. A new buffer if the parameter
@@ -101,7 +105,10 @@ public class FileUtils {
 		throws IOException {
 
 		if (count == -1) {
-			return read(inputName, inputStream, new byte[BUFFER_ADJUSTMENT]);
+			if ((buffer == null) || (buffer.length == 0)) {
+				buffer = new byte[BUFFER_ADJUSTMENT];
+			}
+			return read(inputName, inputStream, buffer);
 
 		} else {
 			count = verifyArray(0, count);
@@ -137,35 +144,94 @@ public class FileUtils {
 		return read(inputName, inputStream, new byte[BUFFER_ADJUSTMENT]);
 	}
 
+	/**
+	 * Read all data from an input stream, starting with a buffer.
+	 * <p>
+	 * When the buffer is filled, it is replaced by a buffer which is twice as
+	 * large, up to {@link #MAX_ARRAY_LENGTH}. Data of unknown length is read
+	 * in linear time: The bytes copied when growing the buffer are no more
+	 * than the bytes read. The final buffer is not trimmed: The answered byte
+	 * data is a view of the read bytes in that buffer.
+	 *
+	 * @param inputName A name associated with the input stream.
+	 * @param inputStream The stream from which to read bytes.
+	 * @param buffer The initial buffer into which to read bytes. Must not be
+	 *            empty.
+	 * @return Byte data of the read bytes.
+	 * @throws IOException Thrown if an error occurred during a read, or if
+	 *             the stream has more than {@link #MAX_ARRAY_LENGTH} bytes.
+	 */
 	public static ByteData read(String inputName, InputStream inputStream, byte[] buffer) throws IOException {
+		return read(inputName, inputStream, buffer, MAX_ARRAY_LENGTH, true);
+	}
+
+	/**
+	 * Read data from an input stream, up to a limit. Stop reading when the
+	 * limit is reached, leaving any remaining bytes in the stream. The data
+	 * is read as by {@link #read(String, InputStream, byte[])}.
+	 *
+	 * @param inputName A name associated with the input stream.
+	 * @param inputStream The stream from which to read bytes.
+	 * @param limit The largest count of bytes which is to be read.
+	 * @return Byte data of the read bytes. If the count of read bytes is the
+	 *         limit, the stream may have more bytes.
+	 * @throws IOException Thrown if an error occurred during a read.
+	 */
+	public static ByteData readAtMost(String inputName, InputStream inputStream, int limit) throws IOException {
+		byte[] buffer = new byte[Math.max(1, Math.min(limit, BUFFER_ADJUSTMENT))];
+		return read(inputName, inputStream, buffer, verifyArray(0, limit), false);
+	}
+
+	/**
+	 * Answer a stream of data which was read from a stream, followed by the
+	 * remaining bytes of that stream. Closing the answered stream does not
+	 * close the underlying stream.
+	 *
+	 * @param headData Data which was read from the stream.
+	 * @param inputStream The stream from which the data was read.
+	 * @return A stream of the data followed by the remaining bytes.
+	 */
+	public static InputStream prepend(ByteData headData, InputStream inputStream) {
+		InputStream tailStream = new FilterInputStream(inputStream) {
+			@Override
+			public void close() {
+				// The underlying stream is closed by its owner.
+			}
+		};
+		return new SequenceInputStream(headData.asStream(), tailStream);
+	}
+
+	private static ByteData read(String inputName, InputStream inputStream, byte[] buffer, int limit,
+		boolean failOnLimit) throws IOException {
+
 		int bytesUsed = 0;
-		int bytesRemaining = buffer.length;
+		int bytesRemaining = Math.min(buffer.length, limit);
 
 		int bytesRead;
-		while ((bytesRead = inputStream.read(buffer, bytesUsed, bytesRemaining)) != -1) { // throws
-																							// IOEXception
+		while ((bytesRemaining > 0)
+			&& ((bytesRead = inputStream.read(buffer, bytesUsed, bytesRemaining)) != -1)) { // throws
+																								// IOEXception
 			bytesUsed += bytesRead;
 			bytesRemaining -= bytesRead;
 
 			if (bytesRemaining == 0) {
-				int bytesAdded = MAX_ARRAY_LENGTH - bytesUsed;
-				if (bytesAdded == 0) {
-					if (inputStream.read() == -1) {
+				int maxAdded = limit - bytesUsed;
+				if (maxAdded == 0) {
+					if (!failOnLimit || (inputStream.read() == -1)) {
 						break;
 					} else {
 						throw new IOException(
 							"Overflow of [ " + inputName + " ] after reading [ " + bytesUsed + " ] bytes");
 					}
-				} else if (bytesAdded > BUFFER_ADJUSTMENT) {
-					bytesAdded = BUFFER_ADJUSTMENT;
 				}
 
-				int nextLength = bytesUsed + BUFFER_ADJUSTMENT;
-				bytesRemaining = BUFFER_ADJUSTMENT;
+				int bytesAdded = Math.max(bytesUsed, BUFFER_ADJUSTMENT);
+				if (bytesAdded > maxAdded) {
+					bytesAdded = maxAdded;
+				}
 
-				byte[] nextBuffer = new byte[nextLength];
-				System.arraycopy(buffer, 0, nextBuffer, 0, bytesUsed);
-				buffer = nextBuffer;
+				buffer = Arrays.copyOf(buffer, bytesUsed + bytesAdded);
+				bytesRemaining = bytesAdded;
 			}
 		}
 
@@ -0,0 +1,222 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.transformer.action.BundleData;
+
+/**
+ * SHA-256 digest of values, which is used to identify rules and contents.
+ * <p>
+ * Values are added with their type and length, so that different sequences
+ * of values have different fingerprints. Maps and collections are added in
+ * sorted order, so that the fingerprint of a map or a collection does not
+ * depend on its iteration order.
+ * <p>
+ * A fingerprint is not thread safe.
+ */
+public class Fingerprint {
+	/** The digest algorithm of fingerprints. */
+	public static final String ALGORITHM = "SHA-256";
+
+	public static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256.
+			throw new IllegalStateException("Digest [ " + ALGORITHM + " ] is not available", e);
+		}
+	}
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	public static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int byteNo = 0; byteNo < bytes.length; byteNo++) {
+			int b = bytes[byteNo] & 0xFF;
+			chars[byteNo * 2] = HEX_DIGITS[b >>> 4];
+			chars[byteNo * 2 + 1] = HEX_DIGITS[b & 0x0F];
+		}
+		return new String(chars);
+	}
+
+	//
+
+	public Fingerprint() {
+		this.digest = newDigest();
+		this.lengthBytes = new byte[8];
+	}
+
+	private final MessageDigest	digest;
+	private final byte[]		lengthBytes;
+
+	private void addTag(char tag) {
+		digest.update((byte) tag);
+	}
+
+	public Fingerprint add(long value) {
+		addTag('L');
+		for (int byteNo = 0; byteNo < 8; byteNo++) {
+			lengthBytes[byteNo] = (byte) (value >>> (56 - (byteNo * 8)));
+		}
+		digest.update(lengthBytes, 0, 8);
+		return this;
+	}
+
+	public Fingerprint add(boolean value) {
+		addTag(value ? 'T' : 'F');
+		return this;
+	}
+
+	public Fingerprint add(String value) {
+		if (value == null) {
+			addTag('N');
+		} else {
+			byte[] bytes = value.getBytes(UTF_8);
+			add((long) bytes.length);
+			addTag('S');
+			digest.update(bytes);
+		}
+		return this;
+	}
+
+	public Fingerprint add(byte[] bytes, int offset, int length) {
+		add((long) length);
+		addTag('B');
+		digest.update(bytes, offset, length);
+		return this;
+	}
+
+	/**
+	 * Add bytes of a content the length of which is not known in advance. The
+	 * bytes of a content may be added by several calls. The content is
+	 * completed by {@link #endContent(long)}.
+	 *
+	 * @param bytes The bytes which are to be added.
+	 * @param offset The offset of the bytes which are to be added.
+	 * @param length The count of bytes which are to be added.
+	 * @return This fingerprint.
+	 */
+	public Fingerprint addContent(byte[] bytes, int offset, int length) {
+		digest.update(bytes, offset, length);
+		return this;
+	}
+
+	/**
+	 * Complete a content which was added by
+	 * {@link #addContent(byte[], int, int)}.
+	 *
+	 * @param length The count of bytes of the content.
+	 * @return This fingerprint.
+	 */
+	public Fingerprint endContent(long length) {
+		addTag('X');
+		return add(length);
+	}
+
+	/**
+	 * Add the bytes of a file.
+	 *
+	 * @param file The file which is to be added.
+	 * @return This fingerprint.
+	 * @throws IOException Thrown if the file could not be read.
+	 */
+	public Fingerprint add(File file) throws IOException {
+		add(file.length());
+		addTag('B');
+		byte[] buffer = new byte[FileUtils.BUFFER_ADJUSTMENT];
+		try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+			int bytesRead;
+			while ((bytesRead = inputStream.read(buffer)) != -1) { // throws
+																	// IOException
+				digest.update(buffer, 0, bytesRead);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Add a value of the rules. Strings, maps, collections and bundle data
+	 * are added by their content. Other values are added by their string
+	 * value.
+	 *
+	 * @param value The value which is to be added.
+	 * @return This fingerprint.
+	 */
+	public Fingerprint addValue(Object value) {
+		if ((value == null) || (value instanceof String)) {
+			add((String) value);
+
+		} else if (value instanceof Map) {
+			Map<String, Object> sorted = new TreeMap<>();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+			}
+			addTag('M');
+			add((long) sorted.size());
+			for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+				add(entry.getKey());
+				addValue(entry.getValue());
+			}
+
+		} else if (value instanceof Collection) {
+			List<String> sorted = new ArrayList<>();
+			for (Object element : (Collection<?>) value) {
+				sorted.add(String.valueOf(element));
+			}
+			sorted.sort(null);
+			addTag('C');
+			add((long) sorted.size());
+			for (String element : sorted) {
+				add(element);
+			}
+
+		} else if (value instanceof BundleData) {
+			BundleData bundleData = (BundleData) value;
+			addTag('D');
+			add(bundleData.getSymbolicName());
+			add(bundleData.getVersion());
+			add(bundleData.getAddName());
+			add(bundleData.getName());
+			add(bundleData.getAddDescription());
+			add(bundleData.getDescription());
+
+		} else {
+			addTag('O');
+			add(value.toString());
+		}
+		return this;
+	}
+
+	/**
+	 * Complete the fingerprint. The fingerprint must not be used after it is
+	 * completed.
+	 *
+	 * @return The fingerprint, as lower case hexadecimal digits.
+	 */
+	public String finish() {
+		return toHex(digest.digest());
+	}
+}
@@ -0,0 +1,628 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.util;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * An archive on disk, read using the central directory of the archive.
+ * <p>
+ * Entries are read using positional reads of the archive file. Entries may be
+ * read in any order, and may be read concurrently by several threads.
+ * <p>
+ * The compressed bytes of entries are available, which allows entries to be
+ * copied to a {@link ZipArchiveWriter} without being decompressed and
+ * recompressed.
+ * <p>
+ * Entry names are decoded as UTF-8 when the language encoding flag of the
+ * entry is set, and as code page 437 otherwise, per the zip specification.
+ * The CRC and the size of the uncompressed bytes of an entry are verified
+ * when the entry is read.
+ * <p>
+ * Only the common subset of the zip format is supported: Zip64 archives,
+ * archives which span several disks, and archives which have encrypted
+ * entries are rejected when opened, with a {@link ZipException}.
+ */
+public class ZipArchive implements Closeable {
+
+	static final int	LOCAL_SIGNATURE				= 0x04034b50;
+	static final int	DESCRIPTOR_SIGNATURE		= 0x08074b50;
+	static final int	CENTRAL_SIGNATURE			= 0x02014b50;
+	static final int	END_SIGNATURE				= 0x06054b50;
+	static final int	ZIP64_LOCATOR_SIGNATURE		= 0x07064b50;
+
+	static final int	LOCAL_HEADER_LENGTH			= 30;
+	static final int	CENTRAL_HEADER_LENGTH		= 46;
+	static final int	END_LENGTH					= 22;
+	static final int	ZIP64_LOCATOR_LENGTH		= 20;
+
+	static final int	MAX_COMMENT_LENGTH			= 0xFFFF;
+	static final long	MAX_UINT32					= 0xFFFFFFFFL;
+	static final int	MAX_UINT16					= 0xFFFF;
+
+	static final int	FLAG_ENCRYPTED				= 0x0001;
+	static final int	FLAG_DESCRIPTOR				= 0x0008;
+	static final int	FLAG_UTF8					= 0x0800;
+
+	static final int	ZIP64_EXTRA_ID				= 0x0001;
+
+	/** The encoding of names which do not have the language encoding flag. */
+	static final Charset	CP437					= getCp437();
+
+	private static Charset getCp437() {
+		try {
+			return Charset.forName("IBM437");
+		} catch (IllegalArgumentException e) {
+			// The extended charsets are not available: Fall back to a charset
+			// which maps every byte, and which agrees with code page 437 for
+			// ASCII names.
+			return StandardCharsets.ISO_8859_1;
+		}
+	}
+
+	/**
+	 * An entry of an archive, as recorded by the central directory of the
+	 * archive.
+	 */
+	public static class Entry {
+		private final String	name;
+		final byte[]			nameBytes;
+
+		final int				versionMadeBy;
+		final int				versionNeeded;
+		final int				flags;
+		final int				method;
+		final int				dosTime;
+		final long				crc;
+		final long				compressedSize;
+		final long				size;
+		final byte[]			extra;
+		final byte[]			comment;
+		final int				internalAttributes;
+		final long				externalAttributes;
+		final long				localHeaderOffset;
+
+		// Read from the local header, on first use.
+		private volatile long	dataOffset	= -1L;
+		volatile byte[]			localExtra;
+
+		Entry(byte[] nameBytes, int versionMadeBy, int versionNeeded, int flags, int method, int dosTime, long crc,
+			long compressedSize, long size, byte[] extra, byte[] comment, int internalAttributes,
+			long externalAttributes, long localHeaderOffset) {
+
+			this.name = new String(nameBytes, (((flags & FLAG_UTF8) != 0) ? StandardCharsets.UTF_8 : CP437));
+			this.nameBytes = nameBytes;
+
+			this.versionMadeBy = versionMadeBy;
+			this.versionNeeded = versionNeeded;
+			this.flags = flags;
+			this.method = method;
+			this.dosTime = dosTime;
+			this.crc = crc;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.extra = extra;
+			this.comment = comment;
+			this.internalAttributes = internalAttributes;
+			this.externalAttributes = externalAttributes;
+			this.localHeaderOffset = localHeaderOffset;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isDirectory() {
+			return name.endsWith("/");
+		}
+
+		/**
+		 * Answer the compression method of the entry.
+		 *
+		 * @return The compression method of the entry, usually
+		 *         {@link ZipEntry#STORED} or {@link ZipEntry#DEFLATED}.
+		 */
+		public int getMethod() {
+			return method;
+		}
+
+		public long getCrc() {
+			return crc;
+		}
+
+		public long getCompressedSize() {
+			return compressedSize;
+		}
+
+		/**
+		 * Answer the uncompressed size of the entry. Unlike entries which are
+		 * read using a {@link java.util.zip.ZipInputStream}, the size is
+		 * always known.
+		 *
+		 * @return The uncompressed size of the entry.
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * Answer the modification time of the entry, as recorded, in MS-DOS
+		 * format, by the central directory.
+		 *
+		 * @return The modification time of the entry, in milliseconds since
+		 *         the epoch, in the local time zone.
+		 */
+		public long getTime() {
+			return javaTime(dosTime);
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * Open an archive. The central directory of the archive is read
+	 * immediately.
+	 *
+	 * @param archiveFile The archive which is to be opened.
+	 * @return The opened archive.
+	 * @throws ZipException Thrown if the file is not an archive, or uses
+	 *             unsupported features of the zip format.
+	 * @throws IOException Thrown if the archive could not be read.
+	 */
+	public static ZipArchive open(File archiveFile) throws IOException {
+		FileChannel channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ);
+		try {
+			return new ZipArchive(archiveFile, channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private final File			archiveFile;
+	private final FileChannel	channel;
+	private final List<Entry>	entries;
+
+	private ZipArchive(File archiveFile, FileChannel channel) throws IOException {
+		this.archiveFile = archiveFile;
+		this.channel = channel;
+		this.entries = Collections.unmodifiableList(readEntries());
+	}
+
+	public File getFile() {
+		return archiveFile;
+	}
+
+	/**
+	 * Answer the entries of the archive, in central directory order.
+	 *
+	 * @return The entries of the archive.
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	//
+
+	private List<Entry> readEntries() throws IOException {
+		long archiveLength = channel.size();
+		if (archiveLength < END_LENGTH) {
+			throw new ZipException("Not an archive [ " + archiveFile + " ]");
+		}
+
+		// The end record is followed by a variable length comment: Scan
+		// backwards for the end record signature.
+
+		int tailLength = (int) Math.min(archiveLength, END_LENGTH + MAX_COMMENT_LENGTH);
+		long tailOffset = archiveLength - tailLength;
+		ByteBuffer tail = readFully(tailOffset, tailLength);
+
+		int endPos = -1;
+		for (int pos = tailLength - END_LENGTH; pos >= 0; pos--) {
+			if ((tail.getInt(pos) == END_SIGNATURE) && (pos + END_LENGTH + u16(tail, pos + 20) == tailLength)) {
+				endPos = pos;
+				break;
+			}
+		}
+		if (endPos == -1) {
+			throw new ZipException("No central directory [ " + archiveFile + " ]");
+		}
+
+		long endOffset = tailOffset + endPos;
+		if ((endOffset >= ZIP64_LOCATOR_LENGTH)
+			&& (readFully(endOffset - ZIP64_LOCATOR_LENGTH, 4).getInt(0) == ZIP64_LOCATOR_SIGNATURE)) {
+			throw new ZipException("Zip64 archives are not supported [ " + archiveFile + " ]");
+		}
+
+		int diskNo = u16(tail, endPos + 4);
+		int centralDiskNo = u16(tail, endPos + 6);
+		int diskEntries = u16(tail, endPos + 8);
+		int totalEntries = u16(tail, endPos + 10);
+		long centralLength = u32(tail, endPos + 12);
+		long centralOffset = u32(tail, endPos + 16);
+
+		if ((diskNo != 0) || (centralDiskNo != 0) || (diskEntries != totalEntries)) {
+			throw new ZipException("Multiple disk archives are not supported [ " + archiveFile + " ]");
+		}
+		if ((totalEntries == MAX_UINT16) || (centralLength == MAX_UINT32) || (centralOffset == MAX_UINT32)) {
+			throw new ZipException("Zip64 archives are not supported [ " + archiveFile + " ]");
+		}
+
+		// Offsets are relative to the start of the archive, which follows
+		// any data which was prepended to the archive, for example, by a
+		// self-extracting archive.
+
+		long baseOffset = endOffset - centralLength - centralOffset;
+		if (baseOffset < 0L) {
+			throw new ZipException("Invalid central directory [ " + archiveFile + " ]");
+		}
+		centralOffset += baseOffset;
+
+		ByteBuffer central = readFully(centralOffset, (int) centralLength);
+
+		List<Entry> useEntries = new ArrayList<>(totalEntries);
+		int pos = 0;
+		for (int entryNo = 0; entryNo < totalEntries; entryNo++) {
+			if ((pos + CENTRAL_HEADER_LENGTH > centralLength) || (central.getInt(pos) != CENTRAL_SIGNATURE)) {
+				throw new ZipException("Invalid central directory entry [ " + entryNo + " ] [ " + archiveFile + " ]");
+			}
+
+			int nameLength = u16(central, pos + 28);
+			int extraLength = u16(central, pos + 30);
+			int commentLength = u16(central, pos + 32);
+
+			int namePos = pos + CENTRAL_HEADER_LENGTH;
+			int extraPos = namePos + nameLength;
+			int commentPos = extraPos + extraLength;
+			int nextPos = commentPos + commentLength;
+			if (nextPos > centralLength) {
+				throw new ZipException("Invalid central directory entry [ " + entryNo + " ] [ " + archiveFile + " ]");
+			}
+
+			long compressedSize = u32(central, pos + 20);
+			long size = u32(central, pos + 24);
+			long localHeaderOffset = u32(central, pos + 42);
+			if ((compressedSize == MAX_UINT32) || (size == MAX_UINT32) || (localHeaderOffset == MAX_UINT32)) {
+				throw new ZipException("Zip64 entries are not supported [ " + archiveFile + " ]");
+			}
+			int flags = u16(central, pos + 8);
+			if ((flags & FLAG_ENCRYPTED) != 0) {
+				throw new ZipException("Encrypted entries are not supported [ " + entryNo + " ] [ " + archiveFile + " ]");
+			}
+
+			useEntries.add(new Entry(bytes(central, namePos, nameLength), u16(central, pos + 4),
+				u16(central, pos + 6), flags, u16(central, pos + 10), central.getInt(pos + 12),
+				u32(central, pos + 16), compressedSize, size, bytes(central, extraPos, extraLength),
+				bytes(central, commentPos, commentLength), u16(central, pos + 36), u32(central, pos + 38),
+				baseOffset + localHeaderOffset));
+
+			pos = nextPos;
+		}
+
+		return useEntries;
+	}
+
+	/**
+	 * Answer the offset of the data of an entry. The local header of the entry
+	 * is read on first use, since the length of the local extra data may
+	 * differ from the length of the central extra data.
+	 */
+	long getDataOffset(Entry entry) throws IOException {
+		long dataOffset = entry.dataOffset;
+		if (dataOffset == -1L) {
+			ByteBuffer local = readFully(entry.localHeaderOffset, LOCAL_HEADER_LENGTH);
+			if (local.getInt(0) != LOCAL_SIGNATURE) {
+				throw new ZipException("Invalid local header [ " + entry.getName() + " ] [ " + archiveFile + " ]");
+			}
+			int nameLength = u16(local, 26);
+			int extraLength = u16(local, 28);
+
+			long extraOffset = entry.localHeaderOffset + LOCAL_HEADER_LENGTH + nameLength;
+			entry.localExtra = bytes(readFully(extraOffset, extraLength), 0, extraLength);
+
+			dataOffset = extraOffset + extraLength;
+			if (dataOffset + entry.compressedSize > channel.size()) {
+				throw new ZipException("Truncated entry [ " + entry.getName() + " ] [ " + archiveFile + " ]");
+			}
+			entry.dataOffset = dataOffset;
+		}
+		return dataOffset;
+	}
+
+	/**
+	 * Open a stream on the compressed bytes of an entry.
+	 *
+	 * @param entry The entry which is to be read.
+	 * @return A stream on the compressed bytes of the entry.
+	 * @throws IOException Thrown if the entry could not be read.
+	 */
+	public InputStream getRawInputStream(Entry entry) throws IOException {
+		return new ChannelInputStream(getDataOffset(entry), entry.compressedSize);
+	}
+
+	/**
+	 * Open a stream on the uncompressed bytes of an entry. The CRC and the
+	 * size of the uncompressed bytes are verified when the end of the stream
+	 * is reached.
+	 *
+	 * @param entry The entry which is to be read.
+	 * @return A stream on the uncompressed bytes of the entry.
+	 * @throws IOException Thrown if the entry could not be read, or if the
+	 *             compression method of the entry is not supported.
+	 */
+	public InputStream getInputStream(Entry entry) throws IOException {
+		InputStream rawStream = getRawInputStream(entry);
+
+		InputStream dataStream;
+		if (entry.method == ZipEntry.STORED) {
+			dataStream = rawStream;
+		} else if (entry.method == ZipEntry.DEFLATED) {
+			int bufferSize = (int) Math.max(64L, Math.min(entry.compressedSize, FileUtils.BUFFER_ADJUSTMENT));
+			dataStream = new EntryInflaterInputStream(new BufferedInputStream(rawStream, bufferSize), bufferSize);
+		} else {
+			rawStream.close();
+			throw new ZipException("Unsupported compression method [ " + entry.method + " ] of [ "
+				+ entry.getName() + " ] [ " + archiveFile + " ]");
+		}
+		return new VerifyingInputStream(dataStream, entry);
+	}
+
+	//
+
+	private ByteBuffer readFully(long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length)
+			.order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) == -1) {
+				throw new EOFException("Unexpected end of archive [ " + archiveFile + " ]");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static int u16(ByteBuffer buffer, int pos) {
+		return buffer.getShort(pos) & 0xFFFF;
+	}
+
+	private static long u32(ByteBuffer buffer, int pos) {
+		return buffer.getInt(pos) & MAX_UINT32;
+	}
+
+	private static byte[] bytes(ByteBuffer buffer, int pos, int length) {
+		byte[] bytes = new byte[length];
+		for (int byteNo = 0; byteNo < length; byteNo++) {
+			bytes[byteNo] = buffer.get(pos + byteNo);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Stream on a range of the archive file. Positional reads are used, which
+	 * allows several streams to be read concurrently.
+	 */
+	private class ChannelInputStream extends InputStream {
+		private long		position;
+		private final long	limit;
+
+		ChannelInputStream(long offset, long length) {
+			this.position = offset;
+			this.limit = offset + length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] singleByte = new byte[1];
+			return ((read(singleByte, 0, 1) == -1) ? -1 : (singleByte[0] & 0xFF));
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			long remaining = limit - position;
+			if (remaining <= 0L) {
+				return -1;
+			}
+			int useLength = (int) Math.min(length, remaining);
+			int count = channel.read(ByteBuffer.wrap(bytes, offset, useLength), position);
+			if (count == -1) {
+				throw new EOFException("Unexpected end of archive [ " + archiveFile + " ]");
+			}
+			position += count;
+			return count;
+		}
+
+		@Override
+		public long skip(long count) {
+			long skipped = Math.max(0L, Math.min(count, limit - position));
+			position += skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(Integer.MAX_VALUE, limit - position);
+		}
+	}
+
+	/**
+	 * Stream which verifies the CRC and the size of the bytes of an entry when
+	 * the end of the entry is reached.
+	 */
+	private class VerifyingInputStream extends FilterInputStream {
+		private final Entry	entry;
+		private final CRC32	crc;
+		private long		count;
+		private boolean		verified;
+
+		VerifyingInputStream(InputStream dataStream, Entry entry) {
+			super(dataStream);
+			this.entry = entry;
+			this.crc = new CRC32();
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] singleByte = new byte[1];
+			return ((read(singleByte, 0, 1) == -1) ? -1 : (singleByte[0] & 0xFF));
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			int readCount = in.read(bytes, offset, length);
+			if (readCount == -1) {
+				verify();
+			} else {
+				crc.update(bytes, offset, readCount);
+				count += readCount;
+				if (count > entry.size) {
+					throw new ZipException(
+						"Invalid entry size [ " + entry.getName() + " ] [ " + archiveFile + " ]: Expected [ "
+							+ entry.size + " ] but read at least [ " + count + " ]");
+				}
+			}
+			return readCount;
+		}
+
+		@Override
+		public long skip(long skipCount) throws IOException {
+			// Skipped bytes must still be verified.
+			byte[] skipBuffer = new byte[(int) Math.min(FileUtils.BUFFER_ADJUSTMENT, Math.max(skipCount, 1L))];
+			long skipped = 0L;
+			while (skipped < skipCount) {
+				int readCount = read(skipBuffer, 0, (int) Math.min(skipBuffer.length, skipCount - skipped));
+				if (readCount == -1) {
+					break;
+				}
+				skipped += readCount;
+			}
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		private void verify() throws ZipException {
+			if (verified) {
+				return;
+			}
+			verified = true;
+			if (count != entry.size) {
+				throw new ZipException("Invalid entry size [ " + entry.getName() + " ] [ " + archiveFile
+					+ " ]: Expected [ " + entry.size + " ] but read [ " + count + " ]");
+			}
+			if (crc.getValue() != entry.crc) {
+				throw new ZipException("Invalid entry CRC [ " + entry.getName() + " ] [ " + archiveFile + " ]: Expected [ "
+					+ Long.toHexString(entry.crc) + " ] but computed [ " + Long.toHexString(crc.getValue()) + " ]");
+			}
+		}
+	}
+
+	//
+
+	/**
+	 * Convert a MS-DOS time, with the time in the low half and the date in the
+	 * high half, to a java time.
+	 */
+	static long javaTime(int dosTime) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(((dosTime >> 25) & 0x7F) + 1980, ((dosTime >> 21) & 0x0F) - 1, (dosTime >> 16) & 0x1F,
+			(dosTime >> 11) & 0x1F, (dosTime >> 5) & 0x3F, (dosTime << 1) & 0x3E);
+		return calendar.getTimeInMillis();
+	}
+
+	/**
+	 * Convert a java time to a MS-DOS time, with the time in the low half and
+	 * the date in the high half. Times before 1980 are answered as the start
+	 * of 1980.
+	 */
+	static int dosTime(long javaTime) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(javaTime);
+
+		int year = calendar.get(Calendar.YEAR);
+		if (year < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+		return ((year - 1980) << 25) | ((calendar.get(Calendar.MONTH) + 1) << 21)
+			| (calendar.get(Calendar.DAY_OF_MONTH) << 16) | (calendar.get(Calendar.HOUR_OF_DAY) << 11)
+			| (calendar.get(Calendar.MINUTE) << 5) | (calendar.get(Calendar.SECOND) >> 1);
+	}
+
+	/**
+	 * Inflater stream which releases its inflater when closed, and which
+	 * supplies the extra trailing byte needed by an inflater which reads raw
+	 * deflate data.
+	 */
+	private static class EntryInflaterInputStream extends InflaterInputStream {
+		private boolean	eof;
+		private boolean	closed;
+
+		EntryInflaterInputStream(InputStream rawStream, int bufferSize) {
+			super(rawStream, new Inflater(true), bufferSize);
+		}
+
+		@Override
+		protected void fill() throws IOException {
+			if (eof) {
+				throw new EOFException("Unexpected end of compressed data");
+			}
+			len = in.read(buf, 0, buf.length);
+			if (len == -1) {
+				buf[0] = 0;
+				len = 1;
+				eof = true;
+			}
+			inf.setInput(buf, 0, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				inf.end();
+				super.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,443 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.util;
+
+import static org.eclipse.transformer.util.ZipArchive.CENTRAL_HEADER_LENGTH;
+import static org.eclipse.transformer.util.ZipArchive.CENTRAL_SIGNATURE;
+import static org.eclipse.transformer.util.ZipArchive.DESCRIPTOR_SIGNATURE;
+import static org.eclipse.transformer.util.ZipArchive.END_SIGNATURE;
+import static org.eclipse.transformer.util.ZipArchive.FLAG_DESCRIPTOR;
+import static org.eclipse.transformer.util.ZipArchive.FLAG_UTF8;
+import static org.eclipse.transformer.util.ZipArchive.LOCAL_SIGNATURE;
+import static org.eclipse.transformer.util.ZipArchive.MAX_UINT16;
+import static org.eclipse.transformer.util.ZipArchive.MAX_UINT32;
+import static org.eclipse.transformer.util.ZipArchive.ZIP64_EXTRA_ID;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Writer of an archive, which can copy entries of a {@link ZipArchive}
+ * without decompressing and recompressing the entries.
+ * <p>
+ * New entries are written the same as by a
+ * {@link java.util.zip.ZipOutputStream}: Entries are started by
+ * {@link #putNextEntry(String)}, the entry data is written to this stream,
+ * and is deflated, and entries are ended by {@link #closeEntry()}. Copied
+ * entries are written by {@link #copyEntry(ZipArchive, ZipArchive.Entry)}.
+ * <p>
+ * Zip64 archives are not supported: An exception is thrown if the archive
+ * becomes too large for the usual zip format.
+ */
+public class ZipArchiveWriter extends OutputStream {
+
+	private static final int	VERSION_DEFLATED	= 20;
+
+	/** An entry which was written, for the central directory. */
+	private static class WrittenEntry {
+		final byte[]	nameBytes;
+		final int		versionMadeBy;
+		final int		versionNeeded;
+		final int		flags;
+		final int		method;
+		final int		dosTime;
+		long			crc;
+		long			compressedSize;
+		long			size;
+		final byte[]	extra;
+		final byte[]	comment;
+		final int		internalAttributes;
+		final long		externalAttributes;
+		final long		localHeaderOffset;
+
+		WrittenEntry(byte[] nameBytes, int versionMadeBy, int versionNeeded, int flags, int method, int dosTime,
+			long crc, long compressedSize, long size, byte[] extra, byte[] comment, int internalAttributes,
+			long externalAttributes, long localHeaderOffset) {
+
+			this.nameBytes = nameBytes;
+			this.versionMadeBy = versionMadeBy;
+			this.versionNeeded = versionNeeded;
+			this.flags = flags;
+			this.method = method;
+			this.dosTime = dosTime;
+			this.crc = crc;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.extra = extra;
+			this.comment = comment;
+			this.internalAttributes = internalAttributes;
+			this.externalAttributes = externalAttributes;
+			this.localHeaderOffset = localHeaderOffset;
+		}
+	}
+
+	private final OutputStream				outputStream;
+	private long							written;
+
+	private final ByteArrayOutputStream		central;
+	private int								entryCount;
+
+	private final byte[]					buffer;
+	private byte[]							transferBuffer;
+	private final ByteBuffer				header;
+
+	private final Deflater					deflater;
+	private final CRC32						crc;
+	private WrittenEntry					currentEntry;
+
+	private boolean							finished;
+
+	public ZipArchiveWriter(OutputStream outputStream) {
+		this.outputStream = new BufferedOutputStream(outputStream, FileUtils.BUFFER_ADJUSTMENT);
+
+		this.central = new ByteArrayOutputStream();
+
+		this.buffer = new byte[FileUtils.BUFFER_ADJUSTMENT];
+		this.header = ByteBuffer.allocate(CENTRAL_HEADER_LENGTH)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		this.crc = new CRC32();
+	}
+
+	//
+
+	/**
+	 * Start a new entry. The entry data is deflated. The entry is given the
+	 * current time.
+	 *
+	 * @param name The name of the entry.
+	 * @throws IOException Thrown if the entry header could not be written.
+	 */
+	public void putNextEntry(String name) throws IOException {
+		putNextEntry(name, System.currentTimeMillis());
+	}
+
+	/**
+	 * Start a new entry. The entry data is deflated.
+	 *
+	 * @param name The name of the entry.
+	 * @param time The modification time of the entry, in milliseconds since
+	 *            the epoch. The time is recorded in MS-DOS format, which has a
+	 *            precision of two seconds.
+	 * @throws IOException Thrown if the entry header could not be written.
+	 */
+	public void putNextEntry(String name, long time) throws IOException {
+		ensureOpen();
+		if (currentEntry != null) {
+			closeEntry();
+		}
+
+		WrittenEntry entry = new WrittenEntry(name.getBytes(StandardCharsets.UTF_8), VERSION_DEFLATED,
+			VERSION_DEFLATED, FLAG_DESCRIPTOR | FLAG_UTF8, ZipEntry.DEFLATED, ZipArchive.dosTime(time), 0L,
+			0L, 0L, new byte[0], new byte[0], 0, 0L, written);
+
+		writeLocalHeader(entry, entry.extra);
+
+		deflater.reset();
+		crc.reset();
+		currentEntry = entry;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] {
+			(byte) b
+		}, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) throws IOException {
+		ensureOpen();
+		if (currentEntry == null) {
+			throw new ZipException("No current entry");
+		}
+		if (length == 0) {
+			return;
+		}
+
+		crc.update(bytes, offset, length);
+		currentEntry.size += length;
+
+		deflater.setInput(bytes, offset, length);
+		while (!deflater.needsInput()) {
+			deflate();
+		}
+	}
+
+	/**
+	 * End the current entry, if there is one.
+	 *
+	 * @throws IOException Thrown if the entry could not be completed.
+	 */
+	public void closeEntry() throws IOException {
+		ensureOpen();
+		WrittenEntry entry = currentEntry;
+		if (entry == null) {
+			return;
+		}
+		currentEntry = null;
+
+		deflater.finish();
+		while (!deflater.finished()) {
+			deflate();
+		}
+
+		entry.crc = crc.getValue();
+		entry.compressedSize = deflater.getBytesWritten();
+
+		checkLimit(entry.size, "Entry size");
+		checkLimit(entry.compressedSize, "Entry compressed size");
+
+		header.clear();
+		header.putInt(DESCRIPTOR_SIGNATURE);
+		header.putInt((int) entry.crc);
+		header.putInt((int) entry.compressedSize);
+		header.putInt((int) entry.size);
+		writeHeader();
+
+		writeCentralHeader(entry);
+	}
+
+	private void deflate() throws IOException {
+		int count = deflater.deflate(buffer, 0, buffer.length);
+		if (count > 0) {
+			outputStream.write(buffer, 0, count);
+			written += count;
+		}
+	}
+
+	/**
+	 * Copy an entry of an archive. The compressed bytes of the entry are
+	 * copied, as are the CRC, sizes, time, and attributes of the entry.
+	 *
+	 * @param archive The archive which contains the entry.
+	 * @param archiveEntry The entry which is to be copied.
+	 * @throws IOException Thrown if the entry could not be read or written.
+	 */
+	public void copyEntry(ZipArchive archive, ZipArchive.Entry archiveEntry) throws IOException {
+		ensureOpen();
+		if (currentEntry != null) {
+			closeEntry();
+		}
+
+		try (InputStream rawStream = archive.getRawInputStream(archiveEntry)) {
+			// The local header, which is read when opening the raw stream,
+			// is written with the exact CRC and sizes, and without a data
+			// descriptor.
+
+			WrittenEntry entry = new WrittenEntry(archiveEntry.nameBytes, archiveEntry.versionMadeBy,
+				archiveEntry.versionNeeded, archiveEntry.flags & ~FLAG_DESCRIPTOR, archiveEntry.method,
+				archiveEntry.dosTime, archiveEntry.crc, archiveEntry.compressedSize, archiveEntry.size,
+				withoutZip64(archiveEntry.extra), archiveEntry.comment, archiveEntry.internalAttributes,
+				archiveEntry.externalAttributes, written);
+
+			writeLocalHeader(entry, withoutZip64(archiveEntry.localExtra));
+
+			long remaining = archiveEntry.compressedSize;
+			while (remaining > 0L) {
+				int count = rawStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+				if (count == -1) {
+					throw new ZipException("Truncated entry [ " + archiveEntry.getName() + " ]");
+				}
+				outputStream.write(buffer, 0, count);
+				written += count;
+				remaining -= count;
+			}
+
+			writeCentralHeader(entry);
+		}
+	}
+
+	/**
+	 * Copy an entry of an archive as a new entry. The entry data is
+	 * decompressed, and is compressed again, as when an entry is copied
+	 * between a {@link java.util.zip.ZipInputStream} and a
+	 * {@link java.util.zip.ZipOutputStream}. The time of the entry is kept.
+	 *
+	 * @param archive The archive which contains the entry.
+	 * @param archiveEntry The entry which is to be copied.
+	 * @throws IOException Thrown if the entry could not be read or written.
+	 */
+	public void transferEntry(ZipArchive archive, ZipArchive.Entry archiveEntry) throws IOException {
+		putNextEntry(archiveEntry.getName(), archiveEntry.getTime());
+		try (InputStream inputStream = archive.getInputStream(archiveEntry)) {
+			if (transferBuffer == null) {
+				transferBuffer = new byte[FileUtils.BUFFER_ADJUSTMENT];
+			}
+			FileUtils.transfer(inputStream, this, transferBuffer);
+		}
+		closeEntry();
+	}
+
+	/**
+	 * Complete the archive, by writing the central directory. The underlying
+	 * stream is flushed but is not closed.
+	 *
+	 * @throws IOException Thrown if the central directory could not be
+	 *             written.
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		if (currentEntry != null) {
+			closeEntry();
+		}
+		finished = true;
+
+		try {
+			long centralOffset = written;
+			long centralLength = central.size();
+
+			checkLimit(centralOffset, "Central directory offset");
+			checkLimit(centralLength, "Central directory length");
+			if (entryCount >= MAX_UINT16) {
+				throw new ZipException("Entry count [ " + entryCount + " ] requires Zip64, which is not supported");
+			}
+
+			central.writeTo(outputStream);
+			written += centralLength;
+
+			header.clear();
+			header.putInt(END_SIGNATURE);
+			header.putShort((short) 0);
+			header.putShort((short) 0);
+			header.putShort((short) entryCount);
+			header.putShort((short) entryCount);
+			header.putInt((int) centralLength);
+			header.putInt((int) centralOffset);
+			header.putShort((short) 0);
+			writeHeader();
+
+			outputStream.flush();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		outputStream.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	//
+
+	private void ensureOpen() throws IOException {
+		if (finished) {
+			throw new ZipException("Archive is finished");
+		}
+	}
+
+	private void writeLocalHeader(WrittenEntry entry, byte[] localExtra) throws IOException {
+		checkLimit(entry.localHeaderOffset, "Entry offset");
+
+		header.clear();
+		header.putInt(LOCAL_SIGNATURE);
+		header.putShort((short) entry.versionNeeded);
+		header.putShort((short) entry.flags);
+		header.putShort((short) entry.method);
+		header.putInt(entry.dosTime);
+		header.putInt((int) entry.crc);
+		header.putInt((int) entry.compressedSize);
+		header.putInt((int) entry.size);
+		header.putShort((short) entry.nameBytes.length);
+		header.putShort((short) localExtra.length);
+		writeHeader();
+
+		outputStream.write(entry.nameBytes);
+		outputStream.write(localExtra);
+		written += entry.nameBytes.length + localExtra.length;
+	}
+
+	private void writeHeader() throws IOException {
+		outputStream.write(header.array(), 0, header.position());
+		written += header.position();
+	}
+
+	private void writeCentralHeader(WrittenEntry entry) {
+		header.clear();
+		header.putInt(CENTRAL_SIGNATURE);
+		header.putShort((short) entry.versionMadeBy);
+		header.putShort((short) entry.versionNeeded);
+		header.putShort((short) entry.flags);
+		header.putShort((short) entry.method);
+		header.putInt(entry.dosTime);
+		header.putInt((int) entry.crc);
+		header.putInt((int) entry.compressedSize);
+		header.putInt((int) entry.size);
+		header.putShort((short) entry.nameBytes.length);
+		header.putShort((short) entry.extra.length);
+		header.putShort((short) entry.comment.length);
+		header.putShort((short) 0);
+		header.putShort((short) entry.internalAttributes);
+		header.putInt((int) entry.externalAttributes);
+		header.putInt((int) entry.localHeaderOffset);
+
+		central.write(header.array(), 0, CENTRAL_HEADER_LENGTH);
+		central.write(entry.nameBytes, 0, entry.nameBytes.length);
+		central.write(entry.extra, 0, entry.extra.length);
+		central.write(entry.comment, 0, entry.comment.length);
+
+		entryCount++;
+	}
+
+	private static void checkLimit(long value, String description) throws ZipException {
+		if (value >= MAX_UINT32) {
+			throw new ZipException(description + " [ " + value + " ] requires Zip64, which is not supported");
+		}
+	}
+
+	/**
+	 * Remove Zip64 extended information from extra data. Sizes and offsets
+	 * are always written directly, which makes that information stale.
+	 */
+	private static byte[] withoutZip64(byte[] extra) {
+		if (extra.length == 0) {
+			return extra;
+		}
+
+		ByteBuffer extraBuffer = ByteBuffer.wrap(extra)
+			.order(ByteOrder.LITTLE_ENDIAN);
+		ByteArrayOutputStream useExtra = new ByteArrayOutputStream(extra.length);
+		int pos = 0;
+		while (pos + 4 <= extra.length) {
+			int id = extraBuffer.getShort(pos) & 0xFFFF;
+			int length = extraBuffer.getShort(pos + 2) & 0xFFFF;
+			int nextPos = Math.min(extra.length, pos + 4 + length);
+			if (id != ZIP64_EXTRA_ID) {
+				useExtra.write(extra, pos, nextPos - pos);
+			}
+			pos = nextPos;
+		}
+		return ((useExtra.size() == extra.length) ? extra : useExtra.toByteArray());
+	}
+}
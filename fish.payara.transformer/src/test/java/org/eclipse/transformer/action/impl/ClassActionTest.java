@@ -14,8 +14,10 @@ package org.eclipse.transformer.action.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -25,6 +27,7 @@ import java.util.stream.Stream;
 
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.eclipse.transformer.action.Action;
+import org.eclipse.transformer.action.SignatureRule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
@@ -33,17 +36,22 @@ import aQute.bnd.classfile.Attribute;
 import aQute.bnd.classfile.ClassFile;
 import aQute.bnd.classfile.ElementInfo;
 import aQute.bnd.classfile.EnclosingMethodAttribute;
+import aQute.bnd.classfile.ExceptionsAttribute;
+import aQute.bnd.classfile.FieldInfo;
+import aQute.bnd.classfile.MethodInfo;
 import aQute.bnd.classfile.ModuleAttribute;
 import aQute.bnd.classfile.ModuleMainClassAttribute;
 import aQute.bnd.classfile.ModulePackagesAttribute;
 import aQute.bnd.classfile.NestHostAttribute;
 import aQute.bnd.classfile.NestMembersAttribute;
+import aQute.bnd.classfile.SignatureAttribute;
 import aQute.bnd.classfile.builder.ClassFileBuilder;
 import aQute.bnd.classfile.builder.ModuleInfoBuilder;
 import aQute.lib.io.ByteBufferDataInput;
 import aQute.lib.io.ByteBufferDataOutput;
 import aQute.lib.io.ByteBufferInputStream;
 import aQute.lib.io.ByteBufferOutputStream;
+import aQute.lib.io.IO;
 
 public class ClassActionTest {
 	Logger	logger;
@@ -265,4 +273,215 @@ public class ClassActionTest {
 
 	}
 
+	@Test
+	public void prescan_skips_unmatched_class() throws Exception {
+		ClassFileBuilder builder = new ClassFileBuilder(Modifier.PUBLIC, ClassFile.MAJOR_VERSION, 0, "prescan/Test",
+			"pkg/other/Base");
+		builder.attributes(new EnclosingMethodAttribute("pkg/enclosing/Enclosing", "method",
+			"(Lpkg/param/Param1;)Lpkg/result/Result;"));
+		ClassFile original = builder.build();
+
+		ByteBufferDataOutput dataOutput = new ByteBufferDataOutput();
+		original.write(dataOutput);
+		byte[] originalBytes = dataOutput.toByteArray();
+
+		Map<String, String> renames = new HashMap<>();
+		renames.put("original.param", "transformed.param");
+		renames.put("original.result.*", "transformed.result");
+		SignatureRuleImpl signatureRule = new SignatureRuleImpl(logger, renames, null, null, null, null,
+			Collections.emptyMap());
+
+		ClassPrescan prescan = signatureRule.getClassPrescan();
+		assertThat(prescan.matches(originalBytes, originalBytes.length)).as("unmatched class")
+			.isFalse();
+		assertThat(ClassPrescan.readClassNames(originalBytes, originalBytes.length)).as("class names")
+			.containsExactly("prescan/Test", "pkg/other/Base");
+
+		ClassActionImpl classAction = new ClassActionImpl(logger, false, false, new InputBufferImpl(),
+			new SelectionRuleImpl(logger, Collections.emptySet(), Collections.emptySet()), signatureRule);
+		ByteBufferOutputStream outputStream = new ByteBufferOutputStream(originalBytes.length);
+		classAction.apply(testName, new ByteBufferInputStream(originalBytes), originalBytes.length, outputStream);
+
+		assertThat(classAction.getLastActiveChanges()
+			.hasChanges()).as("unmatched class changes")
+				.isFalse();
+		assertThat(classAction.getLastActiveChanges()
+			.getInputClassName()).as("unmatched class name")
+				.isEqualTo("prescan/Test");
+		assertThat(outputStream.toByteBuffer()).as("unmatched class bytes")
+			.isEqualTo(ByteBuffer.wrap(originalBytes));
+
+		// Matches are found in slashed and in dotted forms.
+
+		for (String reference : new String[] {
+			"Loriginal/param/Param1;", "original.result.sub.Result"
+		}) {
+			ClassFileBuilder matchBuilder = new ClassFileBuilder(Modifier.PUBLIC, ClassFile.MAJOR_VERSION, 0,
+				"prescan/Test", "java/lang/Object");
+			matchBuilder.constant_pool()
+				.utf8Info(reference);
+			ByteBufferDataOutput matchOutput = new ByteBufferDataOutput();
+			matchBuilder.build()
+				.write(matchOutput);
+			byte[] matchBytes = matchOutput.toByteArray();
+			assertThat(prescan.matches(matchBytes, matchBytes.length)).as("matched class [ %s ]", reference)
+				.isTrue();
+		}
+	}
+
+	@Test
+	public void constants_engine_matches_full_engine() throws Exception {
+		ClassFileBuilder builder = new ClassFileBuilder(Modifier.PUBLIC, ClassFile.MAJOR_VERSION, 0, "original/engine/Test",
+			"original/base/Base");
+		builder.interfaces("original/api/Api", "pkg/other/Other");
+		builder.fields(new FieldInfo(Modifier.PRIVATE, "value", "Loriginal/param/Param1;", new Attribute[] {
+			new SignatureAttribute("Ljava/util/List<Loriginal/param/Param1;>;")
+		}));
+		builder.methods(new MethodInfo(Modifier.PUBLIC, "run", "(Loriginal/param/Param1;)Loriginal/result/Result;",
+			new Attribute[] {
+				new ExceptionsAttribute(new String[] {
+					"original/result/Failure"
+				})
+			}));
+		builder.attributes(new SignatureAttribute("<T:Ljava/lang/Object;>Loriginal/base/Base;Loriginal/api/Api;"));
+		builder.attributes(new EnclosingMethodAttribute("original/enclosing/Enclosing", "method",
+			"(Loriginal/param/Param1;Lpkg/other/Param2;)Loriginal/result/Result;"));
+		builder.constant_pool()
+			.stringInfo("original.param.Param1");
+		builder.constant_pool()
+			.stringInfo("Loriginal/param/Param1;");
+
+		ByteBufferDataOutput dataOutput = new ByteBufferDataOutput();
+		builder.build()
+			.write(dataOutput);
+
+		Map<String, String> renames = new HashMap<>();
+		renames.put("original.engine", "transformed.engine");
+		renames.put("original.base", "transformed.base");
+		renames.put("original.api", "transformed.api");
+		renames.put("original.param", "transformed.param");
+		renames.put("original.result", "transformed.result");
+		renames.put("original.enclosing", "transformed.enclosing");
+
+		assertEnginesMatch(dataOutput.toByteArray(), renames, "transformed/engine/Test");
+
+		// A compiled class has code, stack maps, local variables, inner
+		// classes, and annotations.
+
+		byte[] compiledBytes;
+		try (InputStream compiledInput = ClassActionImpl.class.getResourceAsStream("ClassActionImpl.class")) {
+			compiledBytes = IO.read(compiledInput);
+		}
+
+		renames.clear();
+		renames.put("org.eclipse.transformer", "transformed.transformer");
+		renames.put("org.eclipse.transformer.action", "transformed.transformer.action");
+		renames.put("org.eclipse.transformer.action.impl", "transformed.transformer.action.impl");
+		renames.put("org.eclipse.transformer.util", "transformed.transformer.util");
+		renames.put("aQute.bnd.classfile", "transformed.classfile");
+
+		assertEnginesMatch(compiledBytes, renames, "transformed/transformer/action/impl/ClassActionImpl");
+	}
+
+	@Test
+	public void constants_engine_matches_full_engine_for_strings() throws Exception {
+		Map<String, String> renames = new HashMap<>();
+		renames.put("original.param", "transformed.param");
+		renames.put("original.result", "transformed.result");
+
+		for (String constant : DESCRIPTOR_LIKE_CONSTANTS) {
+			for (boolean isString : new boolean[] {
+				true, false
+			}) {
+				ClassFileBuilder builder = new ClassFileBuilder(Modifier.PUBLIC, ClassFile.MAJOR_VERSION, 0,
+					"pkg/engine/Test", "java/lang/Object");
+				if (isString) {
+					builder.constant_pool()
+						.stringInfo(constant);
+				} else {
+					builder.constant_pool()
+						.utf8Info(constant);
+				}
+				ByteBufferDataOutput dataOutput = new ByteBufferDataOutput();
+				builder.build()
+					.write(dataOutput);
+
+				assertEnginesMatch(dataOutput.toByteArray(), renames, "pkg/engine/Test");
+			}
+
+			// The constants engine tries text as a descriptor before trying
+			// it as a string constant. The cached result of the first try
+			// must not change the result of the second.
+
+			SignatureRuleImpl usedRule = new SignatureRuleImpl(logger, renames, null, null, null, null,
+				Collections.emptyMap());
+			SignatureRuleImpl unusedRule = new SignatureRuleImpl(logger, renames, null, null, null, null,
+				Collections.emptyMap());
+			if (SignatureSyntax.isMethodSignature(constant) || SignatureSyntax.isFieldSignature(constant)) {
+				usedRule.transformDescriptor(constant);
+			}
+			if (SignatureSyntax.isJavaTypeSignature(constant)) {
+				usedRule.transformBinaryType(constant);
+			}
+			assertThat(usedRule.transformConstantAsDescriptor(constant, SignatureRule.ALLOW_SIMPLE_SUBSTITUTION))
+				.as("descriptor constant [ %s ]", constant)
+				.isEqualTo(
+					unusedRule.transformConstantAsDescriptor(constant, SignatureRule.ALLOW_SIMPLE_SUBSTITUTION));
+			assertThat(usedRule.transformConstantAsBinaryType(constant, SignatureRule.ALLOW_SIMPLE_SUBSTITUTION))
+				.as("binary type constant [ %s ]", constant)
+				.isEqualTo(
+					unusedRule.transformConstantAsBinaryType(constant, SignatureRule.ALLOW_SIMPLE_SUBSTITUTION));
+		}
+	}
+
+	/**
+	 * Constants which have the form of descriptors, of signatures, and of
+	 * binary type names, including malformed ones.
+	 */
+	private static final String[] DESCRIPTOR_LIKE_CONSTANTS = {
+		"Loriginal/param/Param1;", "[Loriginal/param/Param1;", "Loriginal.param.Param1;",
+		"(Loriginal/param/Param1;)Loriginal/result/Result;", "(Loriginal/param/Param1;)V",
+		"Ljava/util/List<Loriginal/param/Param1;>;",
+		"<T:Ljava/lang/Object;>(TT;Loriginal/param/Param1;)Loriginal/result/Result;",
+		"<T:Loriginal/param/Param1;>Ljava/lang/Object;", "Loriginal/param/Param1;Loriginal/result/Result;",
+		"Loriginal/param/Param1;trailing", "(Loriginal/param/Param1;)", "(original.param.Param1)",
+		"(Loriginal/param/Param1;)Vtrailing", "[original.param.Param1]", "[INFO] original.param.Param1;",
+		"Lorem original.param ipsum;", "<original.param.Param1>", "<T:Loriginal/param/Param1;",
+		"original/param/Param1", "original.param.Param1", "[", "L;", "(", "<", "Loriginal/param/Param1",
+		"Ljava/util/List<Loriginal/param/Param1;>;trailing", "[[Loriginal/param/Param1;", "[I", "I", "TT;"
+	};
+
+	private void assertEnginesMatch(byte[] inputBytes, Map<String, String> renames, String outputClassName)
+		throws Exception {
+		int numConstants = ((inputBytes[8] & 0xFF) << 8) | (inputBytes[9] & 0xFF);
+
+		String[] descriptions = new String[2];
+		ClassActionImpl.ClassEngine[] engines = {
+			ClassActionImpl.ClassEngine.FULL, ClassActionImpl.ClassEngine.CONSTANTS
+		};
+		for (int engineNo = 0; engineNo < engines.length; engineNo++) {
+			ClassActionImpl classAction = new ClassActionImpl(logger, false, false, new InputBufferImpl(),
+				new SelectionRuleImpl(logger, Collections.emptySet(), Collections.emptySet()),
+				new SignatureRuleImpl(logger, renames, null, null, null, null, Collections.emptyMap()));
+			classAction.setClassEngine(engines[engineNo]);
+			if (engines[engineNo] == ClassActionImpl.ClassEngine.CONSTANTS) {
+				assertThat(new ClassConstantsTransformer(classAction, testName, inputBytes, inputBytes.length)
+					.transform()).as("constants engine handles class")
+						.isTrue();
+			}
+
+			ByteBufferOutputStream outputStream = new ByteBufferOutputStream(inputBytes.length);
+			classAction.apply(testName, new ByteBufferInputStream(inputBytes), inputBytes.length, outputStream);
+			assertThat(classAction.getLastActiveChanges()
+				.getOutputClassName()).as("%s engine class name", engines[engineNo])
+					.isEqualTo(outputClassName);
+
+			byte[] outputBytes = IO.read(outputStream.toByteBuffer());
+			descriptions[engineNo] = ClassConstantsTransformer.describe(outputBytes, 0, outputBytes.length,
+				numConstants);
+		}
+
+		assertThat(descriptions[1]).as("constants engine class content")
+			.isEqualTo(descriptions[0]);
+	}
 }
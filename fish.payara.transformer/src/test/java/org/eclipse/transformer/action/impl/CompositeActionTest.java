@@ -0,0 +1,118 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class CompositeActionTest {
+
+	@Test
+	public void dispatch_keeps_action_precedence() {
+		Logger logger = Logger.getLogger(getClass().getName());
+
+		Map<String, String> tldUpdates = new HashMap<>();
+		tldUpdates.put("javax.servlet", "jakarta.servlet");
+		Map<String, Map<String, String>> masterTextUpdates = new HashMap<>();
+		masterTextUpdates.put("*.tld", tldUpdates);
+		masterTextUpdates.put("web.xml", tldUpdates);
+
+		CompositeActionImpl rootAction = new CompositeActionImpl(logger, false, false, new InputBufferImpl(),
+			new SelectionRuleImpl(logger, Collections.emptySet(), Collections.emptySet()),
+			new SignatureRuleImpl(logger, null, null, null, masterTextUpdates, null, Collections.emptyMap()));
+
+		ClassActionImpl classAction = rootAction.addUsing(ClassActionImpl::new);
+		TLDActionImpl tldAction = rootAction.addUsing(TLDActionImpl::new);
+		ServiceLoaderConfigActionImpl serviceAction = rootAction.addUsing(ServiceLoaderConfigActionImpl::new);
+		ManifestActionImpl manifestAction = rootAction.addUsing(ManifestActionImpl::newManifestAction);
+		ManifestActionImpl featureAction = rootAction.addUsing(ManifestActionImpl::newFeatureAction);
+		JarActionImpl jarAction = rootAction.addUsing(JarActionImpl::new);
+		TextActionImpl textAction = rootAction.addUsing(TextActionImpl::new);
+		NullActionImpl nullAction = rootAction.addUsing(NullActionImpl::new);
+
+		String[] resourceNames = {
+			"org/example/Main.class", "ORG/EXAMPLE/MAIN.CLASS", "META-INF/c.tld", "META-INF/C.TLD",
+			"META-INF/services/javax.servlet.ServletContainerInitializer", "META-INF/services/org.example.class",
+			"META-INF/MANIFEST.MF", "OSGI-INF/feature.mf", "lib/x.jar", "WEB-INF/web.xml", "image.png", "README",
+			"class", ".class", "dir.jar/file", "x.tld.bak"
+		};
+
+		for (String resourceName : resourceNames) {
+			ActionImpl expected = null;
+			for (ActionImpl action : rootAction.getActions()) {
+				if (action.accept(resourceName, null)) {
+					expected = action;
+					break;
+				}
+			}
+			assertThat(rootAction.acceptAction(resourceName, null)).as("resource [ %s ]", resourceName)
+				.isSameAs(expected);
+			assertThat(rootAction.getAcceptedAction()).isSameAs(expected);
+		}
+
+		assertThat(rootAction.acceptAction("org/example/Main.class", null)).isSameAs(classAction);
+		assertThat(rootAction.acceptAction("META-INF/C.TLD", null)).isSameAs(tldAction);
+		assertThat(rootAction.acceptAction("META-INF/services/org.example.class", null)).isSameAs(classAction);
+		assertThat(rootAction.acceptAction("META-INF/services/org.example.Service", null)).isSameAs(serviceAction);
+		assertThat(rootAction.acceptAction("META-INF/MANIFEST.MF", null)).isSameAs(manifestAction);
+		assertThat(rootAction.acceptAction("OSGI-INF/feature.mf", null)).isSameAs(featureAction);
+		assertThat(rootAction.acceptAction("lib/x.jar", null)).isSameAs(jarAction);
+		assertThat(rootAction.acceptAction("WEB-INF/web.xml", null)).isSameAs(textAction);
+		assertThat(rootAction.acceptAction("image.png", null)).isSameAs(nullAction);
+	}
+
+	@Test
+	public void thread_state_is_cleared() throws Exception {
+		Logger logger = Logger.getLogger(getClass().getName());
+
+		CompositeActionImpl rootAction = TestFixtures.createRootAction(logger, "jakarta.servlet");
+		JarActionImpl jarAction = rootAction.addUsing(JarActionImpl::new);
+		TextActionImpl textAction = rootAction.addUsing(TextActionImpl::new);
+		jarAction.addAction(textAction);
+
+		ByteArrayOutputStream jarStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(jarStream)) {
+			zipOutputStream.putNextEntry(new ZipEntry("a.txt"));
+			zipOutputStream.write("javax.servlet.A".getBytes(UTF_8));
+			zipOutputStream.closeEntry();
+		}
+		byte[] inputJar = jarStream.toByteArray();
+
+		assertThat(rootAction.acceptAction("a.jar", null)).isSameAs(jarAction);
+		jarAction.apply("a.jar", new ByteArrayInputStream(inputJar), inputJar.length, new ByteArrayOutputStream());
+		assertThat(rootAction.getLastActiveChanges()).isNotNull();
+		assertThat(textAction.getLastActiveChanges()).isNotNull();
+		assertThat(jarAction.getAction()
+			.getAcceptedAction()).isSameAs(textAction);
+
+		rootAction.clearThreadState();
+
+		// Nothing of the transform is kept for the thread.
+		assertThat(rootAction.getAcceptedAction()).isNull();
+		assertThat(jarAction.getLastActiveChanges()).isNull();
+		assertThat(textAction.getLastActiveChanges()).isNull();
+		assertThat(jarAction.getAction()
+			.getAcceptedAction()).isNull();
+		assertThat(rootAction.getInputBuffer()).isNull();
+	}
+}
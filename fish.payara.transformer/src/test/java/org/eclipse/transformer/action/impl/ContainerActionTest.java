@@ -0,0 +1,132 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Calendar;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.transformer.util.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Archives are read as streams, as zip files, or, for raw copies, using their
+ * central directory. Each is transformed sequentially and in parallel. Every
+ * combination writes the same entries. Raw copies keep the times of the input
+ * entries.
+ */
+public class ContainerActionTest {
+
+	private static final Logger	LOGGER			= Logger.getLogger(ContainerActionTest.class.getName());
+
+	private static final int[]	PARALLELISMS	= {
+		1, 4
+	};
+
+	private static long getTime() {
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(2021, Calendar.MARCH, 14, 15, 9, 26);
+		return calendar.getTimeInMillis();
+	}
+
+	private static byte[] createJar(long time) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+			for (int entryNo = 0; entryNo < 10; entryNo++) {
+				String name = ((entryNo % 2) == 0) ? ("entry" + entryNo + ".txt") : ("entry" + entryNo + ".bin");
+				ZipEntry entry = new ZipEntry(name);
+				entry.setTime(time);
+				zipOutputStream.putNextEntry(entry);
+				zipOutputStream.write(("javax.servlet." + entryNo).getBytes(UTF_8));
+				zipOutputStream.closeEntry();
+			}
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static JarActionImpl createJarAction(TransformScheduler scheduler, boolean rawCopy) {
+		CompositeActionImpl rootAction = TestFixtures.createRootAction(LOGGER, "jakarta.servlet");
+		JarActionImpl jarAction = rootAction.addUsing(JarActionImpl::new);
+		TextActionImpl textAction = rootAction.addUsing(TextActionImpl::new);
+		jarAction.addAction(textAction);
+		jarAction.setScheduler(scheduler);
+		jarAction.setRawCopy(rawCopy);
+		return jarAction;
+	}
+
+	private static void verify(byte[] outputJar, long time, boolean keepsTimes, String description)
+		throws Exception {
+		try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputJar))) {
+			int entryNo = 0;
+			ZipEntry entry;
+			while ((entry = zipInputStream.getNextEntry()) != null) {
+				ByteArrayOutputStream entryStream = new ByteArrayOutputStream();
+				FileUtils.transfer(zipInputStream, entryStream);
+				String text = new String(entryStream.toByteArray(), UTF_8);
+
+				String prefix = (entry.getName()
+					.endsWith(".txt") ? "jakarta.servlet." : "javax.servlet.");
+				assertThat(text).as("%s [ %s ]", description, entry.getName())
+					.isEqualTo(prefix + entryNo);
+				if (keepsTimes) {
+					assertThat(entry.getTime()).as("%s [ %s ]", description, entry.getName())
+						.isEqualTo(time);
+				}
+				entryNo++;
+			}
+			assertThat(entryNo).as(description)
+				.isEqualTo(10);
+		}
+	}
+
+	@Test
+	public void raw_copies_keep_entry_times(@TempDir File tempDir) throws Exception {
+		long time = getTime();
+		byte[] inputJar = createJar(time);
+		File inputFile = new File(tempDir, "test.jar");
+		Files.write(inputFile.toPath(), inputJar);
+
+		for (int parallelism : PARALLELISMS) {
+			TransformScheduler scheduler = (parallelism > 1) ? new TransformScheduler(parallelism) : null;
+			try {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				createJarAction(scheduler, false).apply("test.jar", new ByteArrayInputStream(inputJar),
+					inputJar.length, outputStream);
+				verify(outputStream.toByteArray(), time, false, "stream " + parallelism);
+
+				for (boolean rawCopy : new boolean[] {
+					false, true
+				}) {
+					File outputFile = new File(tempDir, "output-" + parallelism + "-" + rawCopy + ".jar");
+					createJarAction(scheduler, rawCopy).apply("test.jar", inputFile, outputFile);
+					verify(Files.readAllBytes(outputFile.toPath()), time, rawCopy,
+						"file " + parallelism + (rawCopy ? " raw" : ""));
+				}
+			} finally {
+				if (scheduler != null) {
+					scheduler.shutdown();
+				}
+			}
+		}
+	}
+}
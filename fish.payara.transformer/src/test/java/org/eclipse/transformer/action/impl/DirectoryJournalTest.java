@@ -0,0 +1,258 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.eclipse.transformer.TransformException;
+import org.eclipse.transformer.action.ContainerChanges;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Incremental transforms of directories. Each test transforms a directory,
+ * changes the directory, and transforms the directory again, using rules with
+ * the same fingerprint but with a different replacement, which shows which
+ * outputs were kept and which were written again. Each test is run
+ * sequentially and in parallel.
+ */
+public class DirectoryJournalTest {
+
+	private static final Logger	LOGGER			= Logger.getLogger(DirectoryJournalTest.class.getName());
+
+	private static final int[]	PARALLELISMS	= {
+		1, 4
+	};
+
+	private static DirectoryActionImpl createDirectoryAction(String replacement, String fingerprint,
+		int parallelism) {
+		CompositeActionImpl rootAction = TestFixtures.createRootAction(LOGGER, replacement);
+
+		DirectoryActionImpl directoryAction = rootAction.addUsing(DirectoryActionImpl::new);
+		TextActionImpl textAction = rootAction.addUsing(TextActionImpl::new);
+		directoryAction.addAction(textAction);
+		directoryAction.setParallelism(parallelism);
+		directoryAction.setJournalFingerprint(fingerprint);
+		return directoryAction;
+	}
+
+	private static void write(File file, String text) throws IOException {
+		Files.createDirectories(file.getParentFile()
+			.toPath());
+		Files.write(file.toPath(), text.getBytes(UTF_8));
+	}
+
+	private static String read(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), UTF_8);
+	}
+
+	/**
+	 * Create and transform a directory of three text files.
+	 *
+	 * @return The input directory. The output directory is the sibling
+	 *         "output" directory.
+	 */
+	private static File transformInitial(File tempDir, int parallelism) throws Exception {
+		File inputDir = new File(tempDir, "app");
+		write(new File(inputDir, "a.txt"), "javax.servlet.A");
+		write(new File(inputDir, "b.txt"), "javax.servlet.B");
+		write(new File(inputDir, "sub/c.txt"), "javax.servlet.C");
+
+		File outputDir = getOutputDir(inputDir);
+		transform("jakarta.servlet", "rules", parallelism, inputDir);
+
+		assertThat(read(new File(outputDir, "a.txt"))).isEqualTo("jakarta.servlet.A");
+		assertThat(read(new File(outputDir, "b.txt"))).isEqualTo("jakarta.servlet.B");
+		assertThat(read(new File(outputDir, "sub/c.txt"))).isEqualTo("jakarta.servlet.C");
+		assertThat(DirectoryJournal.getJournalFile(outputDir)).isFile();
+		return inputDir;
+	}
+
+	private static File getOutputDir(File inputDir) {
+		return new File(inputDir.getParentFile(), "output");
+	}
+
+	private static ContainerChanges transform(String replacement, String fingerprint, int parallelism,
+		File inputDir) throws TransformException {
+		DirectoryActionImpl directoryAction = createDirectoryAction(replacement, fingerprint, parallelism);
+		directoryAction.apply("app", inputDir, getOutputDir(inputDir));
+		return directoryAction.getLastActiveChanges();
+	}
+
+	@Test
+	public void modified_inputs_are_transformed(@TempDir File tempDir) throws Exception {
+		for (int parallelism : PARALLELISMS) {
+			File inputDir = transformInitial(new File(tempDir, "run" + parallelism), parallelism);
+			File outputDir = getOutputDir(inputDir);
+
+			write(new File(inputDir, "a.txt"), "javax.servlet.AA");
+			ContainerChanges changes = transform("other.servlet", "rules", parallelism, inputDir);
+
+			assertThat(read(new File(outputDir, "a.txt"))).isEqualTo("other.servlet.AA");
+			assertThat(read(new File(outputDir, "b.txt"))).isEqualTo("jakarta.servlet.B");
+			assertThat(read(new File(outputDir, "sub/c.txt"))).isEqualTo("jakarta.servlet.C");
+
+			// Kept outputs are counted as they were recorded.
+			assertThat(changes.getAllSelected()).isEqualTo(3);
+			assertThat(changes.getAllChanged()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	public void touched_inputs_are_not_transformed(@TempDir File tempDir) throws Exception {
+		for (int parallelism : PARALLELISMS) {
+			File inputDir = transformInitial(new File(tempDir, "run" + parallelism), parallelism);
+			File outputDir = getOutputDir(inputDir);
+
+			// A different time but the same content.
+			File touchedFile = new File(inputDir, "b.txt");
+			assertThat(touchedFile.setLastModified(touchedFile.lastModified() - 10_000L)).isTrue();
+			transform("other.servlet", "rules", parallelism, inputDir);
+
+			assertThat(read(new File(outputDir, "b.txt"))).isEqualTo("jakarta.servlet.B");
+		}
+	}
+
+	@Test
+	public void removed_inputs_remove_outputs(@TempDir File tempDir) throws Exception {
+		for (int parallelism : PARALLELISMS) {
+			File inputDir = transformInitial(new File(tempDir, "run" + parallelism), parallelism);
+			File outputDir = getOutputDir(inputDir);
+
+			Files.delete(new File(inputDir, "sub/c.txt").toPath());
+			ContainerChanges changes = transform("other.servlet", "rules", parallelism, inputDir);
+
+			assertThat(new File(outputDir, "sub/c.txt")).doesNotExist();
+			assertThat(new File(outputDir, "sub")).doesNotExist();
+			assertThat(read(new File(outputDir, "a.txt"))).isEqualTo("jakarta.servlet.A");
+			assertThat(changes.getAllSelected()).isEqualTo(2);
+		}
+	}
+
+	@Test
+	public void added_inputs_are_transformed(@TempDir File tempDir) throws Exception {
+		for (int parallelism : PARALLELISMS) {
+			File inputDir = transformInitial(new File(tempDir, "run" + parallelism), parallelism);
+			File outputDir = getOutputDir(inputDir);
+
+			write(new File(inputDir, "sub/d.txt"), "javax.servlet.D");
+			ContainerChanges changes = transform("other.servlet", "rules", parallelism, inputDir);
+
+			assertThat(read(new File(outputDir, "sub/d.txt"))).isEqualTo("other.servlet.D");
+			assertThat(read(new File(outputDir, "sub/c.txt"))).isEqualTo("jakarta.servlet.C");
+			assertThat(changes.getAllSelected()).isEqualTo(4);
+		}
+	}
+
+	@Test
+	public void tampered_outputs_are_transformed(@TempDir File tempDir) throws Exception {
+		for (int parallelism : PARALLELISMS) {
+			File inputDir = transformInitial(new File(tempDir, "run" + parallelism), parallelism);
+			File outputDir = getOutputDir(inputDir);
+
+			write(new File(outputDir, "b.txt"), "modified");
+			transform("other.servlet", "rules", parallelism, inputDir);
+
+			assertThat(read(new File(outputDir, "b.txt"))).isEqualTo("other.servlet.B");
+			assertThat(read(new File(outputDir, "a.txt"))).isEqualTo("jakarta.servlet.A");
+		}
+	}
+
+	@Test
+	public void changed_rules_transform_every_input(@TempDir File tempDir) throws Exception {
+		for (int parallelism : PARALLELISMS) {
+			File inputDir = transformInitial(new File(tempDir, "run" + parallelism), parallelism);
+			File outputDir = getOutputDir(inputDir);
+
+			transform("other.servlet", "changed", parallelism, inputDir);
+
+			assertThat(read(new File(outputDir, "a.txt"))).isEqualTo("other.servlet.A");
+			assertThat(read(new File(outputDir, "b.txt"))).isEqualTo("other.servlet.B");
+			assertThat(read(new File(outputDir, "sub/c.txt"))).isEqualTo("other.servlet.C");
+		}
+	}
+
+	/**
+	 * Create a directory action which fails part way through writing the
+	 * output of a file. The partial output has the length and the time of the
+	 * previous output, which makes it look as if it was written by the
+	 * previous transform.
+	 */
+	private static DirectoryActionImpl createFailingAction(String replacement, String fingerprint,
+		int parallelism, String failName, Set<String> transformed) {
+		CompositeActionImpl rootAction = TestFixtures.createRootAction(LOGGER, replacement);
+
+		DirectoryActionImpl directoryAction = rootAction.addUsing(DirectoryActionImpl::new);
+		TextActionImpl textAction = rootAction.addUsing(
+			(logger, isTerse, isVerbose, buffer, selectionRule, signatureRule) -> new TextActionImpl(logger, isTerse,
+				isVerbose, buffer, selectionRule, signatureRule) {
+				@Override
+				public void apply(String inputName, File inputFile, File outputFile) throws TransformException {
+					if (!inputFile.getName()
+						.equals(failName)) {
+						super.apply(inputName, inputFile, outputFile);
+						transformed.add(inputFile.getName());
+						return;
+					}
+					try {
+						long length = outputFile.length();
+						long modified = outputFile.lastModified();
+						DirectoryJournalTest.write(outputFile, String.format("%-" + length + "s", "partial"));
+						assertThat(outputFile.setLastModified(modified)).isTrue();
+					} catch (IOException e) {
+						throw new TransformException("Failed to write [ " + inputName + " ]", e);
+					}
+					throw new TransformException("Failed to transform [ " + inputName + " ]");
+				}
+			});
+		directoryAction.addAction(textAction);
+		directoryAction.setParallelism(parallelism);
+		directoryAction.setJournalFingerprint(fingerprint);
+		return directoryAction;
+	}
+
+	@Test
+	public void failed_transforms_journal_transformed_inputs(@TempDir File tempDir) throws Exception {
+		for (int parallelism : PARALLELISMS) {
+			File inputDir = transformInitial(new File(tempDir, "run" + parallelism), parallelism);
+			File outputDir = getOutputDir(inputDir);
+
+			// Changed rules transform every file, and the transform fails on
+			// one of the files.
+			Set<String> transformed = ConcurrentHashMap.newKeySet();
+			DirectoryActionImpl failingAction = createFailingAction("other.servlet", "changed", parallelism, "b.txt",
+				transformed);
+			assertThatExceptionOfType(TransformException.class)
+				.isThrownBy(() -> failingAction.apply("app", inputDir, outputDir));
+			assertThat(DirectoryJournal.getJournalFile(outputDir)).isFile();
+
+			// The next transform transforms the failed file and the files
+			// which were not transformed before the failure.
+			transform("third.servlet", "changed", parallelism, inputDir);
+
+			assertThat(read(new File(outputDir, "b.txt"))).isEqualTo("third.servlet.B");
+			assertThat(read(new File(outputDir, "a.txt")))
+				.isEqualTo((transformed.contains("a.txt") ? "other.servlet." : "third.servlet.") + "A");
+			assertThat(read(new File(outputDir, "sub/c.txt")))
+				.isEqualTo((transformed.contains("c.txt") ? "other.servlet." : "third.servlet.") + "C");
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class FileNameMatcherTest {
+
+	private static TextSubstitutions substitutions(String key) {
+		return new TextSubstitutions(Collections.singletonMap(key, key));
+	}
+
+	@Test
+	public void file_name_rules() {
+		TextSubstitutions tld = substitutions("tld");
+		TextSubstitutions tag = substitutions("tag");
+		TextSubstitutions taglib = substitutions("taglib");
+		TextSubstitutions jobs = substitutions("jobs");
+		TextSubstitutions web = substitutions("web");
+
+		Map<String, TextSubstitutions> specific = new HashMap<>();
+		specific.put("web.xml", web);
+
+		Map<String, TextSubstitutions> wildcard = new LinkedHashMap<>();
+		wildcard.put("*.tld", tld);
+		wildcard.put("*.tag", tag);
+		wildcard.put("*.taglib.xml", taglib);
+		wildcard.put("*/batch-jobs/*.xml", jobs);
+
+		FileNameMatcher matcher = new FileNameMatcher(specific, wildcard);
+
+		for (int pass = 0; pass < 2; pass++) {
+			// The second pass uses remembered results.
+			assertThat(matcher.match("WEB-INF/web.xml")).isSameAs(web);
+			assertThat(matcher.match("web.xml")).isSameAs(web);
+			assertThat(matcher.match("META-INF/c.tld")).isSameAs(tld);
+			assertThat(matcher.match("WEB-INF/tags/my.tag")).isSameAs(tag);
+			assertThat(matcher.match("META-INF/my.taglib.xml")).isSameAs(taglib);
+			assertThat(matcher.match("META-INF/batch-jobs/job.xml")).isSameAs(jobs);
+
+			assertThat(matcher.match("org/example/Main.class")).isNull();
+			assertThat(matcher.match("META-INF/other.xml")).isNull();
+			assertThat(matcher.match("tld")).isNull();
+		}
+
+		// As a regular expression, the '.' of a wildcard file name matches
+		// any character.
+		assertThat(matcher.match("a_tld")).isSameAs(tld);
+		// The full name is matched when the simple name does not match.
+		assertThat(matcher.match("x/tag")).isSameAs(tag);
+	}
+
+	@Test
+	public void least_recently_used_names_are_forgotten() {
+		TextSubstitutions tld = substitutions("tld");
+		FileNameMatcher matcher = new FileNameMatcher(Collections.emptyMap(),
+			Collections.singletonMap("*.tld", tld), 4);
+
+		assertThat(matcher.match("META-INF/first.tld")).isSameAs(tld);
+		for (int nameNo = 0; nameNo < 10; nameNo++) {
+			assertThat(matcher.match("META-INF/c" + nameNo + ".tld")).isSameAs(tld);
+			assertThat(matcher.match("META-INF/c" + nameNo + ".xml")).isNull();
+			// Keep the first name in use.
+			assertThat(matcher.match("first.tld")).isSameAs(tld);
+			assertThat(matcher.getRememberedCount()).isLessThanOrEqualTo(4);
+		}
+		assertThat(matcher.getRememberedCount()).isEqualTo(4);
+
+		// Forgotten names are matched again.
+		assertThat(matcher.match("META-INF/c0.tld")).isSameAs(tld);
+		assertThat(matcher.match("META-INF/c0.xml")).isNull();
+		assertThat(matcher.getRememberedCount()).isEqualTo(4);
+	}
+
+	@Test
+	public void no_wildcards() {
+		FileNameMatcher matcher = new FileNameMatcher(Collections.emptyMap(), Collections.emptyMap());
+		assertThat(matcher.match("META-INF/c.tld")).isNull();
+	}
+}
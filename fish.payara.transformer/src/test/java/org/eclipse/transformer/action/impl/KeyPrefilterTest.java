@@ -0,0 +1,97 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class KeyPrefilterTest {
+
+	private static List<byte[]> encode(String... keys) {
+		List<byte[]> keyBytes = new ArrayList<>();
+		for (String key : keys) {
+			keyBytes.add(key.getBytes(UTF_8));
+		}
+		return keyBytes;
+	}
+
+	private static boolean mayMatch(KeyPrefilter prefilter, String text) {
+		byte[] bytes = text.getBytes(UTF_8);
+		return prefilter.mayMatch(bytes, 0, bytes.length);
+	}
+
+	@Test
+	public void keys_are_reduced_to_leading_tokens() {
+		KeyPrefilter prefilter = new KeyPrefilter(
+			encode("javax.servlet", "javax.el", "javax.annotation", "com.sun", "org.glassfish", "org.apache", "sun"));
+
+		List<String> sequences = new ArrayList<>();
+		for (byte[] sequence : prefilter.getSequences()) {
+			sequences.add(new String(sequence, UTF_8));
+		}
+		assertThat(sequences).containsExactlyInAnyOrder("javax.", "org.glassfish", "org.apache", "sun");
+
+		assertThat(mayMatch(prefilter, "import javax.inject.Inject;")).isTrue();
+		assertThat(mayMatch(prefilter, "<org.apache>")).isTrue();
+		assertThat(mayMatch(prefilter, "com.sun")).isTrue();
+		assertThat(mayMatch(prefilter, "import jakarta.inject.Inject; org.other")).isFalse();
+		assertThat(mayMatch(prefilter, "")).isFalse();
+
+		assertThat(mayMatch(new KeyPrefilter(Collections.emptyList()), "javax")).isFalse();
+		assertThat(mayMatch(new KeyPrefilter(encode("javax", "")), "text")).isTrue();
+	}
+
+	@Test
+	public void no_key_is_missed() {
+		Random random = new Random(17);
+		String alphabet = "abjvx.";
+
+		for (int trialNo = 0; trialNo < 2000; trialNo++) {
+			List<String> keys = new ArrayList<>();
+			int numKeys = 1 + random.nextInt(4);
+			for (int keyNo = 0; keyNo < numKeys; keyNo++) {
+				keys.add(randomText(random, alphabet, 1 + random.nextInt(7)));
+			}
+			KeyPrefilter prefilter = new KeyPrefilter(encode(keys.toArray(new String[0])));
+
+			String text = randomText(random, alphabet, random.nextInt(40));
+			byte[] bytes = text.getBytes(UTF_8);
+			int start = random.nextInt(bytes.length + 1);
+			int end = start + random.nextInt(bytes.length - start + 1);
+			String range = text.substring(start, end);
+
+			boolean contains = false;
+			for (String key : keys) {
+				contains |= range.contains(key);
+			}
+			if (contains) {
+				assertThat(prefilter.mayMatch(bytes, start, end)).as("keys %s text [ %s ]", keys, range)
+					.isTrue();
+			}
+		}
+	}
+
+	private static String randomText(Random random, String alphabet, int length) {
+		StringBuilder text = new StringBuilder(length);
+		for (int charNo = 0; charNo < length; charNo++) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,94 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+public class LargeEntryTest {
+
+	private static final String	INPUT_TEXT		= "import javax.servlet.A;\r\nplain line\rimport javax.servlet.B;\n\nend";
+	private static final String	OUTPUT_TEXT		= "import jakarta.servlet.A;\r\nplain line\rimport jakarta.servlet.B;\n\nend";
+
+	private static final long	SMALL_THRESHOLD	= 16L;
+
+	private static final Logger	LOGGER			= Logger.getLogger(LargeEntryTest.class.getName());
+
+	@Test
+	public void large_text_is_streamed() throws Exception {
+		TextActionImpl textAction = TestFixtures.createRootAction(LOGGER, "jakarta.servlet")
+			.addUsing(TextActionImpl::new);
+		textAction.setLargeEntryThreshold(SMALL_THRESHOLD);
+
+		byte[] inputBytes = INPUT_TEXT.getBytes(UTF_8);
+		assertThat(textAction.isLargeEntry(inputBytes.length)).isTrue();
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		textAction.apply("a.txt", TestFixtures.trickle(inputBytes, 7), inputBytes.length, outputStream);
+		assertThat(new String(outputStream.toByteArray(), UTF_8)).isEqualTo(OUTPUT_TEXT);
+		assertThat(textAction.getLastActiveChanges()
+			.hasNonResourceNameChanges()).isTrue();
+
+		textAction.setLargeEntryThreshold(0L);
+		assertThat(textAction.isLargeEntry(inputBytes.length)).isFalse();
+		assertThat(textAction.getLargeEntryProbe()).isEqualTo(-1);
+	}
+
+	@Test
+	public void large_archive_entries() throws Exception {
+		byte[] largeBytes = INPUT_TEXT.getBytes(UTF_8);
+		byte[] otherBytes = new byte[100];
+		for (int byteNo = 0; byteNo < otherBytes.length; byteNo++) {
+			otherBytes[byteNo] = (byte) byteNo;
+		}
+
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		entries.put("small.txt", "javax.servlet".getBytes(UTF_8));
+		entries.put("large.txt", largeBytes);
+		entries.put("other.bin", otherBytes);
+		byte[] inputJar = TestFixtures.createJar(entries);
+
+		for (int parallelism : new int[] {
+			1, 4
+		}) {
+			CompositeActionImpl rootAction = TestFixtures.createRootAction(LOGGER, "jakarta.servlet");
+			JarActionImpl jarAction = rootAction.addUsing(JarActionImpl::new);
+			TextActionImpl textAction = rootAction.addUsing(TextActionImpl::new);
+			NullActionImpl nullAction = rootAction.addUsing(NullActionImpl::new);
+			jarAction.addAction(textAction);
+			jarAction.addAction(nullAction);
+
+			for (ActionImpl action : rootAction.getActions()) {
+				action.setLargeEntryThreshold(SMALL_THRESHOLD);
+			}
+			jarAction.setParallelism(parallelism);
+
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			jarAction.apply("test.jar", new ByteArrayInputStream(inputJar), inputJar.length, outputStream);
+
+			Map<String, byte[]> outputEntries = TestFixtures.readJar(outputStream.toByteArray());
+			assertThat(outputEntries.keySet()).as("parallelism %s", parallelism)
+				.containsExactly("small.txt", "large.txt", "other.bin");
+			assertThat(new String(outputEntries.get("small.txt"), UTF_8)).isEqualTo("jakarta.servlet");
+			assertThat(new String(outputEntries.get("large.txt"), UTF_8)).isEqualTo(OUTPUT_TEXT);
+			assertThat(outputEntries.get("other.bin")).isEqualTo(otherBytes);
+		}
+	}
+}
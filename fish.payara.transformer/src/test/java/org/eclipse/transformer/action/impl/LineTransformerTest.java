@@ -0,0 +1,82 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LineTransformerTest {
+
+	private static ByteKeyMatcher keyMatcher(String... keys) {
+		List<byte[]> keyBytes = new ArrayList<>();
+		for (String key : keys) {
+			keyBytes.add(key.getBytes(UTF_8));
+		}
+		return new ByteKeyMatcher(keyBytes);
+	}
+
+	@Test
+	public void line_endings_are_kept() {
+		List<String> transformed = new ArrayList<>();
+		int[] skipped = new int[1];
+
+		LineTransformer transformer = new LineTransformer(keyMatcher("javax"), new LineTransformer.LineTransform() {
+			@Override
+			public String transform(String line) {
+				transformed.add(line);
+				String updated = line.replace("javax", "jakarta");
+				return (updated.equals(line) ? null : updated);
+			}
+
+			@Override
+			public void skip() {
+				skipped[0]++;
+			}
+		});
+
+		String input = "import javax.a;\r\nété\rimport javax.b;\n\nimport other;\r\nend javax";
+		byte[] inputBytes = input.getBytes(UTF_8);
+		byte[] outputBytes = transformer.transform(inputBytes, inputBytes.length);
+
+		assertThat(new String(outputBytes, UTF_8))
+			.isEqualTo("import jakarta.a;\r\nété\rimport jakarta.b;\n\nimport other;\r\nend jakarta");
+		assertThat(transformed).containsExactly("import javax.a;", "import javax.b;", "end javax");
+		assertThat(skipped[0]).isEqualTo(3);
+	}
+
+	@Test
+	public void unchanged_text() {
+		LineTransformer transformer = new LineTransformer(keyMatcher("javax"), line -> null);
+
+		// Malformed UTF-8 in a line which has no key is not decoded.
+		byte[] inputBytes = {
+			'a', (byte) 0xC3, '\n', 'j', 'a', 'v', 'a', 'x', '\r'
+		};
+		assertThat(transformer.transform(inputBytes, inputBytes.length)).isNull();
+		assertThat(transformer.transform(new byte[0], 0)).isNull();
+
+		LineTransformer allLines = new LineTransformer(null, line -> (line.isEmpty() ? "-" : null));
+		byte[] blankBytes = "x\n\r\n".getBytes(UTF_8);
+		assertThat(new String(allLines.transform(blankBytes, blankBytes.length), UTF_8)).isEqualTo("x\n-\r\n");
+
+		byte[] trailingBytes = Arrays.copyOf("a\nb".getBytes(UTF_8), 10);
+		LineTransformer noKeys = new LineTransformer(new ByteKeyMatcher(Collections.emptyList()), line -> "X");
+		assertThat(noKeys.transform(trailingBytes, 3)).isNull();
+	}
+}
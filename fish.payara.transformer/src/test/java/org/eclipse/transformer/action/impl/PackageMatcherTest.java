@@ -0,0 +1,101 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class PackageMatcherTest {
+
+	private static PackageMatcher matcher(String... renames) {
+		Map<String, String> packageRenames = new LinkedHashMap<>();
+		for (int renameNo = 0; renameNo < renames.length; renameNo += 2) {
+			packageRenames.put(renames[renameNo], renames[renameNo + 1]);
+		}
+		return new PackageMatcher(packageRenames);
+	}
+
+	@Test
+	public void package_boundaries() {
+		PackageMatcher matcher = matcher("javax.servlet", "jakarta.servlet", "javax.servlet.http",
+			"jakarta.servlet.http");
+
+		assertThat(matcher.replace("javax.servlet.Servlet")).isEqualTo("jakarta.servlet.Servlet");
+		assertThat(matcher.replace("import javax.servlet.http.HttpServlet;"))
+			.isEqualTo("import jakarta.servlet.http.HttpServlet;");
+		assertThat(matcher.replace("javax.servlet,javax.servlet.http,javax.servlet.jsp"))
+			.isEqualTo("jakarta.servlet,jakarta.servlet.http,javax.servlet.jsp");
+
+		assertThat(matcher.replace("xjavax.servlet.Servlet")).isNull();
+		assertThat(matcher.replace("a.javax.servlet.Servlet")).isNull();
+		assertThat(matcher.replace("javax.servletx")).isNull();
+		assertThat(matcher.replace("javax.servlet.jsp.JspPage")).isNull();
+		assertThat(matcher.replace("")).isNull();
+	}
+
+	@Test
+	public void wildcard_keys() {
+		PackageMatcher matcher = matcher("javax.servlet.*", "jakarta.servlet");
+
+		// The length of a wildcard key includes its suffix, which is used
+		// for the boundary check and is replaced with the key.
+		assertThat(matcher.replace("javax.servlet.*")).isEqualTo("jakarta.servlet");
+		assertThat(matcher.replace("javax.servlet.* javax.servlet;;")).isEqualTo("jakarta.servlet jakarta.servlet");
+		assertThat(matcher.replace("javax.servlet.jsp.JspPage")).isNull();
+		assertThat(matcher.replace("javax.servlet")).isNull();
+
+		// A key, less its suffix, at the end of the text is not a match.
+		assertThat(matcher.replace("import javax.servlet")).isNull();
+		assertThat(matcher.replace("javax.servlet.* javax.servlet")).isEqualTo("jakarta.servlet javax.servlet");
+		assertThat(matcher.replace("javax.servlet.")).isNull();
+	}
+
+	@Test
+	public void overlapping_keys() {
+		// Keys are searched for in turn, in rule order.
+		PackageMatcher matcher = matcher("a.b", "x.y", "a.b.c", "p.q");
+		assertThat(matcher.replace("a.b.c.Type a.b.Type")).isEqualTo("p.q.Type x.y.Type");
+
+		// A replacement is matched by later keys, but not by earlier keys.
+		matcher = matcher("a.b", "c.d", "c.d", "e.f");
+		assertThat(matcher.replace("a.b.Type c.d.Type")).isEqualTo("e.f.Type e.f.Type");
+		matcher = matcher("c.d", "e.f", "a.b", "c.d");
+		assertThat(matcher.replace("a.b.Type c.d.Type")).isEqualTo("c.d.Type e.f.Type");
+
+		assertThat(matcher().replace("a.b.Type")).isNull();
+
+		// A replacement may create an occurrence of a later key which spans
+		// the replacement.
+		matcher = matcher("a.b", ".d", "/.d", "x");
+		assertThat(matcher.replace(" /a.b.Type")).isEqualTo(" x.Type");
+		assertThat(matcher.replace(" /a.b.Type /a.b.Type")).isEqualTo(" x.Type x.Type");
+	}
+
+	@Test
+	public void tail_updates() {
+		PackageMatcher matcher = matcher("javax.servlet", "jakarta.servlet", "javax.el", "jakarta.el");
+
+		String text = "javax.servlet;version=\"[2.6,3)\",javax.el;version=\"[2.2,3)\"";
+		String updated = matcher.replace(text, (value, tail) -> {
+			if (value.equals("jakarta.servlet")) {
+				return tail.replace("[2.6,3)", "[5.0,6)");
+			} else {
+				return tail;
+			}
+		});
+		assertThat(updated).isEqualTo("jakarta.servlet;version=\"[5.0,6)\",jakarta.el;version=\"[2.2,3)\"");
+	}
+}
@@ -0,0 +1,68 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class PackageTrieTest {
+
+	private static Map<String, String> renames() {
+		Map<String, String> renames = new HashMap<>();
+		renames.put("javax.servlet", "jakarta.servlet");
+		renames.put("javax.servlet.http", "jakarta.servlet.http");
+		renames.put("javax.el.*", "jakarta.el");
+		renames.put("javax.el.impl", "org.glassfish.el");
+		return renames;
+	}
+
+	@Test
+	public void package_names() {
+		PackageTrie trie = new PackageTrie(renames(), '.');
+
+		assertThat(trie.replacePackage("javax.servlet")).isEqualTo("jakarta.servlet");
+		assertThat(trie.replacePackage("javax.servlet.http")).isEqualTo("jakarta.servlet.http");
+		assertThat(trie.replacePackage("javax.servlet.jsp")).isNull();
+		assertThat(trie.replacePackage("javax.serv")).isNull();
+		assertThat(trie.replacePackage("javax.servlets")).isNull();
+		assertThat(trie.replacePackage("")).isNull();
+
+		assertThat(trie.replacePackage("javax.el")).isEqualTo("jakarta.el");
+		assertThat(trie.replacePackage("javax.el.stream")).isEqualTo("jakarta.el.stream");
+		assertThat(trie.replacePackage("javax.el.impl")).isEqualTo("org.glassfish.el");
+		assertThat(trie.replacePackage("javax.el.impl.util")).isEqualTo("jakarta.el.impl.util");
+		assertThat(trie.replacePackage("javax.elx")).isNull();
+
+		assertThat(trie.replacePackage("Ljavax.servlet.", 1, 14)).isEqualTo("jakarta.servlet");
+	}
+
+	@Test
+	public void type_names() {
+		PackageTrie trie = new PackageTrie(renames(), '/');
+
+		assertThat(trie.replaceType("javax/servlet/Servlet")).isEqualTo("jakarta/servlet/Servlet");
+		assertThat(trie.replaceType("javax/servlet/http/HttpServlet"))
+			.isEqualTo("jakarta/servlet/http/HttpServlet");
+		assertThat(trie.replaceType("javax/servlet/jsp/JspPage")).isNull();
+		assertThat(trie.replaceType("javax/servlet")).isNull();
+		assertThat(trie.replaceType("Servlet")).isNull();
+
+		assertThat(trie.replaceType("javax/el/ELContext")).isEqualTo("jakarta/el/ELContext");
+		assertThat(trie.replaceType("javax/el/stream/Stream")).isEqualTo("jakarta/el/stream/Stream");
+		assertThat(trie.replaceType("javax/el/impl/Impl")).isEqualTo("org/glassfish/el/Impl");
+		assertThat(trie.replaceType("javax/el/impl/util/Util")).isEqualTo("jakarta/el/impl/util/Util");
+	}
+}
@@ -0,0 +1,146 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+public class SelectionMatcherTest {
+
+	@Test
+	public void selection_kinds() {
+		SelectionMatcher matcher = new SelectionMatcher(Arrays.asList("META-INF/MANIFEST.MF"),
+			Arrays.asList(".jar", "-sources.jar"), Arrays.asList("com/ibm/", "org/"),
+			Arrays.asList("/internal/", "abcab"));
+
+		assertThat(matcher.matchExact("META-INF/MANIFEST.MF")).isTrue();
+		assertThat(matcher.matchExact("META-INF/MANIFEST")).isFalse();
+
+		assertThat(matcher.matchSuffix("lib/x.jar")).isEqualTo(".jar");
+		assertThat(matcher.matchSuffix("lib/x-sources.jar")).isNotNull();
+		assertThat(matcher.matchSuffix("lib/x.jar.bak")).isNull();
+		assertThat(matcher.matchSuffix("")).isNull();
+
+		assertThat(matcher.matchPrefix("com/ibm/ws/X.class")).isEqualTo("com/ibm/");
+		assertThat(matcher.matchPrefix("org/X.class")).isEqualTo("org/");
+		assertThat(matcher.matchPrefix("com/ib")).isNull();
+
+		assertThat(matcher.matchMiddle("com/example/internal/X.class")).isEqualTo("/internal/");
+		assertThat(matcher.matchMiddle("xxabcabyy")).isEqualTo("abcab");
+		assertThat(matcher.matchMiddle("abcaabcab")).isEqualTo("abcab");
+		assertThat(matcher.matchMiddle("abcaabca")).isNull();
+
+		SelectionMatcher emptyMiddle = new SelectionMatcher(Collections.emptySet(), Collections.emptySet(),
+			Collections.emptySet(), Arrays.asList(""));
+		assertThat(emptyMiddle.matchMiddle("anything")).isEqualTo("");
+	}
+
+	@Test
+	public void selection_rules_match_simple_matching() {
+		Random random = new Random(1234);
+		String alphabet = "ab/.";
+
+		for (int round = 0; round < 50; round++) {
+			Set<String> includes = new HashSet<>();
+			Set<String> excludes = new HashSet<>();
+			for (int selectionNo = 0; selectionNo < 6; selectionNo++) {
+				includes.add(randomSelection(random, alphabet));
+				excludes.add(randomSelection(random, alphabet));
+			}
+
+			SelectionRuleImpl rule = new SelectionRuleImpl(Logger.getLogger(getClass().getName()), includes,
+				excludes);
+
+			for (int nameNo = 0; nameNo < 200; nameNo++) {
+				String name = randomText(random, alphabet, 8);
+				assertThat(rule.select(name)).as("includes %s excludes %s name [ %s ]", includes, excludes, name)
+					.isEqualTo(matches(includes, name, true) && !matches(excludes, name, false));
+			}
+		}
+	}
+
+	private static String randomSelection(Random random, String alphabet) {
+		// Selections of a single character select everything.
+		String text = randomText(random, alphabet, 4);
+		while (text.length() < 2) {
+			text = randomText(random, alphabet, 4);
+		}
+		switch (random.nextInt(4)) {
+			case 0 :
+				return text;
+			case 1 :
+				return "*" + text;
+			case 2 :
+				return text + "*";
+			default :
+				return "*" + text + "*";
+		}
+	}
+
+	private static String randomText(Random random, String alphabet, int maxLength) {
+		int length = random.nextInt(maxLength + 1);
+		StringBuilder text = new StringBuilder();
+		for (int charNo = 0; charNo < length; charNo++) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+
+	/** Simple matching of selections, as used before selections were compiled. */
+	private static boolean matches(Set<String> selections, String name, boolean emptyValue) {
+		List<String> useSelections = new ArrayList<>();
+		for (String selection : selections) {
+			selection = selection.trim();
+			if (selection.equals("*")) {
+				return emptyValue;
+			}
+			useSelections.add(selection);
+		}
+		if (useSelections.isEmpty()) {
+			return emptyValue;
+		}
+		for (String selection : useSelections) {
+			int length = selection.length();
+			if (length == 0) {
+				continue;
+			}
+			boolean head = selection.charAt(0) == '*';
+			boolean tail = selection.charAt(length - 1) == '*';
+			if (head && tail) {
+				if (name.contains(selection.substring(1, length - 1))) {
+					return true;
+				}
+			} else if (head) {
+				if (name.endsWith(selection.substring(1))) {
+					return true;
+				}
+			} else if (tail) {
+				if (name.startsWith(selection.substring(0, length - 1))) {
+					return true;
+				}
+			} else if (name.equals(selection)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,121 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.eclipse.transformer.action.SignatureRule;
+import org.junit.jupiter.api.Test;
+
+import aQute.bnd.signatures.ClassSignature;
+import aQute.bnd.signatures.FieldSignature;
+import aQute.bnd.signatures.JavaTypeSignature;
+import aQute.bnd.signatures.MethodSignature;
+
+public class SignatureSyntaxTest {
+
+	@Test
+	public void valid_syntax() {
+		for (String text : new String[] {
+			"I", "[I", "[[Ljava/lang/String;", "TT;", "Ljava/util/Map$Entry;", "Ljava/util/List<*>;",
+			"Ljava/util/Map<TK;+Ljava/lang/Number;>;", "Lfoo/Outer<TT;>.Inner<-TT;>;"
+		}) {
+			assertThat(SignatureSyntax.isJavaTypeSignature(text)).as("java type [ %s ]", text)
+				.isTrue();
+			JavaTypeSignature.of(text);
+		}
+
+		for (String text : new String[] {
+			"()V", "(IJ[Ljava/lang/String;)Ljava/lang/Object;", "<T:Ljava/lang/Object;>(TT;)TT;",
+			"<E:Ljava/lang/Exception;>()V^TE;^Ljava/io/IOException;",
+			"<T::Ljava/lang/Comparable<TT;>;>(Ljava/util/List<TT;>;)V"
+		}) {
+			assertThat(SignatureSyntax.isMethodSignature(text)).as("method signature [ %s ]", text)
+				.isTrue();
+			MethodSignature.of(text);
+		}
+
+		for (String text : new String[] {
+			"Ljava/lang/Object;", "Ljava/lang/Object;Ljava/io/Serializable;",
+			"<K:Ljava/lang/Object;V:Ljava/lang/Object;>Ljava/util/AbstractMap<TK;TV;>;Ljava/util/Map<TK;TV;>;"
+		}) {
+			assertThat(SignatureSyntax.isClassSignature(text)).as("class signature [ %s ]", text)
+				.isTrue();
+			ClassSignature.of(text);
+		}
+
+		assertThat(SignatureSyntax.isFieldSignature("Ljava/lang/String;")).isTrue();
+		FieldSignature.of("Ljava/lang/String;");
+	}
+
+	@Test
+	public void invalid_syntax() {
+		for (String text : new String[] {
+			"", "V", "[", "[V", "Lx", "L", "La/b<>;", "Ljava/lang/String;xyz", "TT"
+		}) {
+			assertThat(SignatureSyntax.isJavaTypeSignature(text)).as("java type [ %s ]", text)
+				.isFalse();
+		}
+
+		for (String text : new String[] {
+			"", "(", "()", "()Vx", "(La)V", "(hello) world", "(I", "<T>()V", "()V^"
+		}) {
+			assertThat(SignatureSyntax.isMethodSignature(text)).as("method signature [ %s ]", text)
+				.isFalse();
+		}
+
+		for (String text : new String[] {
+			"", "<init>", "<clinit>", "<T:Ljava/lang/Object;>", "La;x"
+		}) {
+			assertThat(SignatureSyntax.isClassSignature(text)).as("class signature [ %s ]", text)
+				.isFalse();
+		}
+
+		assertThat(SignatureSyntax.isFieldSignature("I")).as("base type field signature")
+			.isFalse();
+	}
+
+	@Test
+	public void constants_which_are_not_descriptors() {
+		Logger logger = Logger.getLogger(getClass().getName());
+		Map<String, String> renames = new HashMap<>();
+		renames.put("javax.servlet", "jakarta.servlet");
+		SignatureRuleImpl signatureRule = new SignatureRuleImpl(logger, renames, null, null, null, null,
+			Collections.emptyMap());
+
+		// Text which has the form of a descriptor, but which is not a
+		// descriptor, is transformed as ordinary text.
+
+		assertThat(signatureRule.transformConstantAsDescriptor("(see javax.servlet)",
+			SignatureRule.ALLOW_SIMPLE_SUBSTITUTION)).isEqualTo("(see jakarta.servlet)");
+		assertThat(signatureRule.transformConstantAsDescriptor("(see javax.servlet)",
+			SignatureRule.NO_SIMPLE_SUBSTITUTION)).isNull();
+		assertThat(signatureRule.transformConstantAsDescriptor("[INFO] javax.servlet;",
+			SignatureRule.ALLOW_SIMPLE_SUBSTITUTION)).isEqualTo("[INFO] jakarta.servlet;");
+		assertThat(signatureRule.transformConstantAsBinaryType("[INFO] javax/servlet;",
+			SignatureRule.ALLOW_SIMPLE_SUBSTITUTION)).isEqualTo("[INFO] jakarta/servlet;");
+		assertThat(signatureRule.transformConstantAsDescriptor("", SignatureRule.ALLOW_SIMPLE_SUBSTITUTION))
+			.isNull();
+
+		assertThat(signatureRule.transformConstantAsDescriptor("(Ljavax/servlet/Servlet;)V",
+			SignatureRule.ALLOW_SIMPLE_SUBSTITUTION)).isEqualTo("(Ljakarta/servlet/Servlet;)V");
+		assertThat(signatureRule.transformConstantAsDescriptor("javax.servlet.Servlet",
+			SignatureRule.ALLOW_SIMPLE_SUBSTITUTION)).isEqualTo("jakarta.servlet.Servlet");
+		assertThat(signatureRule.transformConstantAsBinaryType("[Ljavax/servlet/Servlet;",
+			SignatureRule.ALLOW_SIMPLE_SUBSTITUTION)).isEqualTo("[Ljakarta/servlet/Servlet;");
+	}
+}
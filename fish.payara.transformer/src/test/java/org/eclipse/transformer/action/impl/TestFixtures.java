@@ -0,0 +1,114 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.transformer.util.FileUtils;
+
+/**
+ * Fixtures which are shared by the action and utility tests.
+ */
+public final class TestFixtures {
+
+	private TestFixtures() {
+		// Static helpers only.
+	}
+
+	/**
+	 * Create a root action which has no selection rules, and which has one
+	 * text update: "javax.servlet" is replaced in "*.txt" resources.
+	 *
+	 * @param logger The logger of the actions.
+	 * @param replacement The replacement of "javax.servlet".
+	 * @return The root action. Add child actions using
+	 *         {@link CompositeActionImpl#addUsing}.
+	 */
+	public static CompositeActionImpl createRootAction(Logger logger, String replacement) {
+		Map<String, String> textUpdates = new HashMap<>();
+		textUpdates.put("javax.servlet", replacement);
+		Map<String, Map<String, String>> masterTextUpdates = new HashMap<>();
+		masterTextUpdates.put("*.txt", textUpdates);
+
+		return new CompositeActionImpl(logger, false, false, new InputBufferImpl(),
+			new SelectionRuleImpl(logger, Collections.emptySet(), Collections.emptySet()),
+			new SignatureRuleImpl(logger, null, null, null, masterTextUpdates, null, Collections.emptyMap()));
+	}
+
+	/**
+	 * A stream which answers at most a few bytes on each read.
+	 *
+	 * @param bytes The bytes answered by the stream.
+	 * @param maxRead The most bytes answered by one read.
+	 * @return The stream.
+	 */
+	public static InputStream trickle(byte[] bytes, int maxRead) {
+		return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				return super.read(b, off, Math.min(len, maxRead));
+			}
+		};
+	}
+
+	/**
+	 * Create a jar of entries. The entries are deflated, and are read from a
+	 * stream with an unknown length.
+	 *
+	 * @param entries The names and contents of the entries, in order.
+	 * @return The bytes of the jar.
+	 * @throws IOException Thrown if the jar could not be written.
+	 */
+	public static byte[] createJar(Map<String, byte[]> entries) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+			for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+				zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+				zipOutputStream.write(entry.getValue());
+				zipOutputStream.closeEntry();
+			}
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Read the entries of a jar.
+	 *
+	 * @param jarBytes The bytes of the jar.
+	 * @return The names and contents of the entries, in order.
+	 * @throws IOException Thrown if the jar could not be read.
+	 */
+	public static Map<String, byte[]> readJar(byte[] jarBytes) throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(jarBytes))) {
+			ZipEntry entry;
+			while ((entry = zipInputStream.getNextEntry()) != null) {
+				ByteArrayOutputStream entryStream = new ByteArrayOutputStream();
+				FileUtils.transfer(zipInputStream, entryStream);
+				entries.put(entry.getName(), entryStream.toByteArray());
+			}
+		}
+		return entries;
+	}
+}
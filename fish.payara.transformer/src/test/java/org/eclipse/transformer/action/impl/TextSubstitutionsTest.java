@@ -0,0 +1,52 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.jupiter.api.Test;
+
+public class TextSubstitutionsTest {
+
+	@Test
+	public void literal_and_pattern_keys() {
+		Map<String, String> substitutions = new LinkedHashMap<>();
+		substitutions.put("http://java.sun.com/jsp/jstl/core", "jakarta.tags.core");
+		substitutions.put("javax\\.servlet\\.jsp\\.jstl\\.[a-z]+", "jakarta.servlet.jsp.jstl.tag");
+		substitutions.put("javax", "jakarta");
+		TextSubstitutions prepared = new TextSubstitutions(substitutions);
+
+		assertThat(prepared.getSubstitutions()).isEqualTo(substitutions);
+
+		assertThat(prepared.apply("<%@ taglib uri=\"http://java.sun.com/jsp/jstl/core\" %>"))
+			.isEqualTo("<%@ taglib uri=\"jakarta.tags.core\" %>");
+		assertThat(prepared.apply("javax.servlet.jsp.jstl.fmt, javax.el"))
+			.isEqualTo("jakarta.servlet.jsp.jstl.tag, jakarta.el");
+		assertThat(prepared.apply("javaxjavax")).isEqualTo("jakartajakarta");
+		assertThat(prepared.apply("jakarta.el")).isNull();
+		assertThat(prepared.apply("")).isNull();
+	}
+
+	@Test
+	public void invalid_pattern_keys() {
+		Map<String, String> substitutions = new LinkedHashMap<>();
+		substitutions.put("javax[", "jakarta");
+		TextSubstitutions prepared = new TextSubstitutions(substitutions);
+
+		assertThatThrownBy(() -> prepared.apply("javax")).isInstanceOf(PatternSyntaxException.class);
+	}
+}
@@ -0,0 +1,252 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.transformer.util.ByteData;
+import org.eclipse.transformer.util.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TransformCacheTest {
+
+	private static final Logger LOGGER = Logger.getLogger(TransformCacheTest.class.getName());
+
+	private static String transform(TextActionImpl textAction, String inputName, String text) {
+		ByteData outputData = textAction.apply(new ByteData(inputName, text.getBytes(UTF_8), 0, text.length()));
+		return new String(outputData.data, outputData.offset, outputData.length, UTF_8);
+	}
+
+	private static ChangesImpl changes(String outputName, int replacements) {
+		ChangesImpl changes = new ChangesImpl();
+		changes.setOutputResourceName(outputName);
+		changes.addReplacements(replacements);
+		return changes;
+	}
+
+	@Test
+	public void results_are_reused(@TempDir File cacheDir) throws Exception {
+		TransformCache cache = new TransformCache(LOGGER, cacheDir, TransformCache.DEFAULT_MAX_SIZE, "rules");
+
+		TextActionImpl textAction = TestFixtures.createRootAction(LOGGER, "jakarta.servlet")
+			.addUsing(TextActionImpl::new);
+		textAction.setTransformCache(cache);
+		assertThat(transform(textAction, "a.txt", "javax.servlet.A")).isEqualTo("jakarta.servlet.A");
+		assertThat(transform(textAction, "b.txt", "other")).isEqualTo("other");
+
+		// An action with different rules, but which has the same fingerprint,
+		// answers the cached results.
+		TextActionImpl otherAction = TestFixtures.createRootAction(LOGGER, "other.servlet")
+			.addUsing(TextActionImpl::new);
+		otherAction.setTransformCache(cache);
+		assertThat(transform(otherAction, "a.txt", "javax.servlet.A")).isEqualTo("jakarta.servlet.A");
+		assertThat(otherAction.getLastActiveChanges()
+			.hasNonResourceNameChanges()).isTrue();
+		assertThat(transform(otherAction, "b.txt", "other")).isEqualTo("other");
+		assertThat(otherAction.getLastActiveChanges()
+			.hasChanges()).isFalse();
+
+		// A different input name is a different key.
+		assertThat(transform(otherAction, "c.txt", "javax.servlet.A")).isEqualTo("other.servlet.A");
+
+		// A different fingerprint is a different key.
+		TransformCache otherCache = new TransformCache(LOGGER, cacheDir, TransformCache.DEFAULT_MAX_SIZE, "other");
+		otherAction.setTransformCache(otherCache);
+		assertThat(transform(otherAction, "a.txt", "javax.servlet.A")).isEqualTo("other.servlet.A");
+	}
+
+	private static byte[] createJar(byte[] nestedJar) throws IOException {
+		ByteArrayOutputStream jarStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(jarStream)) {
+			zipOutputStream.putNextEntry(new ZipEntry("a.txt"));
+			zipOutputStream.write("javax.servlet.A".getBytes(UTF_8));
+			zipOutputStream.closeEntry();
+			zipOutputStream.putNextEntry(new ZipEntry("b.txt"));
+			zipOutputStream.write("other".getBytes(UTF_8));
+			zipOutputStream.closeEntry();
+			zipOutputStream.putNextEntry(new ZipEntry("c.bin"));
+			zipOutputStream.write("javax.servlet.C".getBytes(UTF_8));
+			zipOutputStream.closeEntry();
+			if (nestedJar != null) {
+				zipOutputStream.putNextEntry(new ZipEntry("lib/nested.jar"));
+				zipOutputStream.write(nestedJar);
+				zipOutputStream.closeEntry();
+			}
+		}
+		return jarStream.toByteArray();
+	}
+
+	private static JarActionImpl createJarAction(String replacement, TransformCache cache, long largeEntryThreshold) {
+		CompositeActionImpl rootAction = TestFixtures.createRootAction(LOGGER, replacement);
+		JarActionImpl jarAction = rootAction.addUsing(JarActionImpl::new);
+		TextActionImpl textAction = rootAction.addUsing(TextActionImpl::new);
+		jarAction.addAction(textAction);
+		jarAction.addAction(jarAction);
+		for (ActionImpl action : rootAction.getActions()) {
+			action.setTransformCache(cache);
+			action.setLargeEntryThreshold(largeEntryThreshold);
+		}
+		return jarAction;
+	}
+
+	private static String getText(byte[] outputJar, String entryName) throws IOException {
+		try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(outputJar))) {
+			ZipEntry entry;
+			while ((entry = zipInputStream.getNextEntry()) != null) {
+				if (entry.getName()
+					.equals(entryName)) {
+					ByteArrayOutputStream entryStream = new ByteArrayOutputStream();
+					FileUtils.transfer(zipInputStream, entryStream);
+					return new String(entryStream.toByteArray(), UTF_8);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static String summarize(ContainerChangesImpl changes) {
+		ByteArrayOutputStream summary = new ByteArrayOutputStream();
+		PrintStream printStream = new PrintStream(summary);
+		changes.displayVerbose(printStream, "lib/a.jar", "lib/a.jar");
+		changes.displayTerse(printStream, "lib/a.jar", "lib/a.jar");
+		printStream.flush();
+		return new String(summary.toByteArray());
+	}
+
+	@Test
+	public void archives_are_reused(@TempDir File tempDir) throws Exception {
+		byte[] inputJar = createJar(createJar(null));
+		File inputFile = new File(tempDir, "a.jar");
+		Files.write(inputFile.toPath(), inputJar);
+
+		// Small archives are read into memory. Large archives are staged.
+		long[] largeEntryThresholds = {
+			ActionImpl.DEFAULT_LARGE_ENTRY_THRESHOLD, 10L
+		};
+		for (long largeEntryThreshold : largeEntryThresholds) {
+			File cacheDir = new File(tempDir, "cache" + largeEntryThreshold);
+			TransformCache cache = new TransformCache(LOGGER, cacheDir, TransformCache.DEFAULT_MAX_SIZE, "rules");
+			String description = "threshold " + largeEntryThreshold;
+
+			JarActionImpl jarAction = createJarAction("jakarta.servlet", cache, largeEntryThreshold);
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			jarAction.apply("lib/a.jar", new ByteArrayInputStream(inputJar), inputJar.length, outputStream);
+			ContainerChangesImpl changes = jarAction.getLastActiveChanges();
+
+			assertThat(getText(outputStream.toByteArray(), "a.txt")).as(description)
+				.isEqualTo("jakarta.servlet.A");
+			assertThat(changes.getAllResources()).as(description)
+				.isEqualTo(4);
+			assertThat(changes.getAllChanged()).as(description)
+				.isEqualTo(2);
+			assertThat(changes.getNestedChanges()
+				.getAllChanged()).as(description)
+					.isEqualTo(1);
+			String summary = summarize(changes);
+
+			// Later runs answer the cached archive, with the same changes, when
+			// the archive is streamed and when the archive is a file.
+
+			JarActionImpl cachedAction = createJarAction("other.servlet", cache, largeEntryThreshold);
+			ByteArrayOutputStream cachedStream = new ByteArrayOutputStream();
+			cachedAction.apply("lib/a.jar", new ByteArrayInputStream(inputJar), inputJar.length, cachedStream);
+			assertThat(cachedStream.toByteArray()).as(description)
+				.isEqualTo(outputStream.toByteArray());
+			assertThat(summarize(cachedAction.getLastActiveChanges())).as(description)
+				.isEqualTo(summary);
+
+			JarActionImpl fileAction = createJarAction("other.servlet", cache, largeEntryThreshold);
+			File outputFile = new File(tempDir, "output" + largeEntryThreshold + ".jar");
+			fileAction.apply("lib/a.jar", inputFile, outputFile);
+			assertThat(Files.readAllBytes(outputFile.toPath())).as(description)
+				.isEqualTo(outputStream.toByteArray());
+			assertThat(summarize(fileAction.getLastActiveChanges())).as(description)
+				.isEqualTo(summary);
+
+			// Staged inputs and pending results are not left behind.
+			assertThat(new File(cacheDir, "tmp").list()).as(description)
+				.isEmpty();
+		}
+	}
+
+	@Test
+	public void least_recently_used_results_are_evicted(@TempDir File cacheDir) throws Exception {
+		TransformCache cache = new TransformCache(LOGGER, cacheDir, 10_000L, "rules");
+
+		byte[] bytes = new byte[2_500];
+		String[] keys = new String[5];
+		for (int keyNo = 0; keyNo < keys.length; keyNo++) {
+			keys[keyNo] = cache.getKey("action", "resource" + keyNo, bytes, 0, bytes.length);
+		}
+
+		long time = System.currentTimeMillis() - 3_600_000L;
+		for (int keyNo = 0; keyNo < 3; keyNo++) {
+			String resourceName = "resource" + keyNo;
+			cache.write(keys[keyNo], changes(resourceName, 1), new ByteData(resourceName, bytes, 0, bytes.length));
+			setLastModified(cacheDir, keys[keyNo], time + keyNo * 1000L);
+		}
+
+		// Using the oldest result makes it the most recently used.
+		assertThat(cache.read(keys[0]).data).isEqualTo(bytes);
+
+		cache.write(keys[3], changes("resource3", 1), new ByteData("resource3", bytes, 0, bytes.length));
+
+		assertThat(cache.read(keys[0])).isNotNull();
+		assertThat(cache.read(keys[1])).isNull();
+		assertThat(cache.read(keys[2])).isNotNull();
+		assertThat(cache.read(keys[3])).isNotNull();
+
+		// A result with no data records that the output is the input.
+		cache.write(keys[4], changes("resource4", 0), null);
+		TransformCache.Entry entry = cache.read(keys[4]);
+		assertThat(entry.hasData()).isFalse();
+		assertThat(entry.outputName).isEqualTo("resource4");
+		ChangesImpl restoredChanges = new ChangesImpl();
+		entry.restoreCounts(restoredChanges);
+		assertThat(restoredChanges.hasNonResourceNameChanges()).isFalse();
+	}
+
+	@Test
+	public void invalid_results_are_discarded(@TempDir File cacheDir) throws Exception {
+		TransformCache cache = new TransformCache(LOGGER, cacheDir, TransformCache.DEFAULT_MAX_SIZE, "rules");
+
+		byte[] bytes = "data".getBytes(UTF_8);
+		String key = cache.getKey("action", "resource", bytes, 0, bytes.length);
+		cache.write(key, changes("resource", 0), new ByteData("resource", bytes, 0, bytes.length));
+
+		File resultFile = new File(new File(cacheDir, key.substring(0, 2)), key);
+		byte[] resultBytes = Files.readAllBytes(resultFile.toPath());
+		resultBytes[resultBytes.length - 1] ^= 0xFF;
+		Files.write(resultFile.toPath(), resultBytes);
+
+		assertThat(cache.read(key)).isNull();
+		assertThat(resultFile).doesNotExist();
+	}
+
+	private static void setLastModified(File cacheDir, String key, long time) throws IOException {
+		File resultFile = new File(new File(cacheDir, key.substring(0, 2)), key);
+		assertThat(resultFile.setLastModified(time)).isTrue();
+	}
+}
@@ -0,0 +1,208 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.action.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.eclipse.transformer.TransformException;
+import org.eclipse.transformer.util.ByteData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Transforms of nested archives which share one scheduler. The byte bound of
+ * the scheduler is smaller than the nested archives, which forces entries to
+ * wait for room.
+ */
+public class TransformSchedulerTest {
+
+	private static final Logger	LOGGER			= Logger.getLogger(TransformSchedulerTest.class.getName());
+
+	private static final int	PARALLELISM		= 3;
+	private static final int	MAX_PENDING		= 256;
+
+	private static final int	NESTED_JARS		= 6;
+	private static final int	TEXT_ENTRIES	= 20;
+
+	private static final byte[]	DATA			= "javax.servlet.data".getBytes(UTF_8);
+
+	/** A text action which records the threads which apply it. */
+	public static class ThreadTextActionImpl extends TextActionImpl {
+		final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+		public ThreadTextActionImpl(Logger logger, boolean isTerse, boolean isVerbose, InputBufferImpl buffer,
+			SelectionRuleImpl selectionRule, SignatureRuleImpl signatureRule) {
+			super(logger, isTerse, isVerbose, buffer, selectionRule, signatureRule);
+		}
+
+		@Override
+		public ByteData apply(String inputName, byte[] inputBytes, int inputLength) throws TransformException {
+			threadNames.add(Thread.currentThread()
+				.getName());
+			return super.apply(inputName, inputBytes, inputLength);
+		}
+	}
+
+	private static Map<String, byte[]> createTextEntries(String prefix) {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		for (int entryNo = 0; entryNo < TEXT_ENTRIES; entryNo++) {
+			entries.put(prefix + entryNo + ".txt", ("javax.servlet." + entryNo).getBytes(UTF_8));
+		}
+		return entries;
+	}
+
+	private static byte[] createWar() throws Exception {
+		Map<String, byte[]> entries = createTextEntries("WEB-INF/");
+		for (int jarNo = 0; jarNo < NESTED_JARS; jarNo++) {
+			entries.put("WEB-INF/lib/lib" + jarNo + ".jar", TestFixtures.createJar(createTextEntries("lib/")));
+		}
+		// Not accepted by any action.
+		entries.put("WEB-INF/data.bin", DATA);
+		return TestFixtures.createJar(entries);
+	}
+
+	private static void verifyWar(byte[] outputWar) throws Exception {
+		Map<String, byte[]> outputEntries = TestFixtures.readJar(outputWar);
+		assertThat(outputEntries).hasSize(TEXT_ENTRIES + NESTED_JARS + 1);
+		assertThat(outputEntries.get("WEB-INF/data.bin")).isEqualTo(DATA);
+		verifyText(outputEntries, "WEB-INF/");
+		for (int jarNo = 0; jarNo < NESTED_JARS; jarNo++) {
+			verifyText(TestFixtures.readJar(outputEntries.get("WEB-INF/lib/lib" + jarNo + ".jar")), "lib/");
+		}
+	}
+
+	private static void verifyText(Map<String, byte[]> outputEntries, String prefix) {
+		for (int entryNo = 0; entryNo < TEXT_ENTRIES; entryNo++) {
+			assertThat(new String(outputEntries.get(prefix + entryNo + ".txt"), UTF_8))
+				.isEqualTo("jakarta.servlet." + entryNo);
+		}
+	}
+
+	private static WarActionImpl createWarAction(ThreadTextActionImpl[] textAction,
+		TransformScheduler scheduler) {
+		CompositeActionImpl rootAction = TestFixtures.createRootAction(LOGGER, "jakarta.servlet");
+		WarActionImpl warAction = rootAction.addUsing(WarActionImpl::new);
+		JarActionImpl jarAction = rootAction.addUsing(JarActionImpl::new);
+		textAction[0] = rootAction.addUsing(ThreadTextActionImpl::new);
+		warAction.addAction(jarAction);
+		warAction.addAction(textAction[0]);
+		jarAction.addAction(textAction[0]);
+
+		warAction.setScheduler(scheduler);
+		jarAction.setScheduler(scheduler);
+		return warAction;
+	}
+
+	private static void verifyThreads(ThreadTextActionImpl textAction) {
+		// Every entry, including the entries of the nested archives, is
+		// transformed by a worker of the one scheduler.
+		assertThat(textAction.threadNames).isNotEmpty()
+			.hasSizeLessThanOrEqualTo(PARALLELISM)
+			.allMatch(name -> name.startsWith("transformer-worker-"));
+		String threadName = textAction.threadNames.iterator()
+			.next();
+		String schedulerPrefix = threadName.substring(0, threadName.lastIndexOf('-') + 1);
+		assertThat(textAction.threadNames).allMatch(name -> name.startsWith(schedulerPrefix));
+	}
+
+	@Test
+	public void streamed_archives_share_the_workers() throws Exception {
+		byte[] inputWar = createWar();
+
+		TransformScheduler scheduler = new TransformScheduler(PARALLELISM, MAX_PENDING);
+		try {
+			ThreadTextActionImpl[] textAction = new ThreadTextActionImpl[1];
+			WarActionImpl warAction = createWarAction(textAction, scheduler);
+
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			warAction.apply("test.war", new ByteArrayInputStream(inputWar), inputWar.length, outputStream);
+
+			verifyWar(outputStream.toByteArray());
+			verifyThreads(textAction[0]);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void archive_files_share_the_workers(@TempDir File tempDir) throws Exception {
+		File inputFile = new File(tempDir, "test.war");
+		Files.write(inputFile.toPath(), createWar());
+		File outputFile = new File(tempDir, "output.war");
+
+		TransformScheduler scheduler = new TransformScheduler(PARALLELISM, MAX_PENDING);
+		try {
+			ThreadTextActionImpl[] textAction = new ThreadTextActionImpl[1];
+			WarActionImpl warAction = createWarAction(textAction, scheduler);
+
+			warAction.apply("test.war", inputFile, outputFile);
+
+			verifyWar(Files.readAllBytes(outputFile.toPath()));
+			verifyThreads(textAction[0]);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void sequential_archives_use_the_caller() throws Exception {
+		byte[] inputWar = createWar();
+
+		ThreadTextActionImpl[] textAction = new ThreadTextActionImpl[1];
+		WarActionImpl warAction = createWarAction(textAction, null);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		warAction.apply("test.war", new ByteArrayInputStream(inputWar), inputWar.length, outputStream);
+
+		verifyWar(outputStream.toByteArray());
+		assertThat(textAction[0].threadNames).containsExactly(Thread.currentThread()
+			.getName());
+	}
+
+	@Test
+	public void nested_archives_are_written_in_order(@TempDir File tempDir) throws Exception {
+		byte[] inputWar = createWar();
+		File inputFile = new File(tempDir, "test.war");
+		Files.write(inputFile.toPath(), inputWar);
+		File outputFile = new File(tempDir, "output.war");
+
+		TransformScheduler scheduler = new TransformScheduler(PARALLELISM, MAX_PENDING);
+		try {
+			// Nested archives are transformed by the writer, directly from
+			// the input to the output.
+
+			ThreadTextActionImpl[] textAction = new ThreadTextActionImpl[1];
+			WarActionImpl warAction = createWarAction(textAction, scheduler);
+			warAction.setConcurrentNestedArchives(false);
+
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			warAction.apply("test.war", new ByteArrayInputStream(inputWar), inputWar.length, outputStream);
+			verifyWar(outputStream.toByteArray());
+
+			warAction.apply("test.war", inputFile, outputFile);
+			verifyWar(Files.readAllBytes(outputFile.toPath()));
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.transformer.action.impl.TestFixtures.trickle;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class FileUtilsTest {
+
+	@Test
+	public void read_unknown_length() throws IOException {
+		byte[] bytes = new byte[5 * FileUtils.BUFFER_ADJUSTMENT + 17];
+		new Random(19).nextBytes(bytes);
+
+		ByteData data = FileUtils.read("unknown", trickle(bytes, 1000), null, -1);
+		assertThat(data.offset).isZero();
+		assertThat(data.length).isEqualTo(bytes.length);
+		assertThat(Arrays.copyOfRange(data.data, 0, data.length)).isEqualTo(bytes);
+
+		// Doubling from the initial buffer: 64K, 128K, 256K, 512K.
+		assertThat(data.data.length).isEqualTo(8 * FileUtils.BUFFER_ADJUSTMENT);
+
+		byte[] small = new byte[16];
+		ByteData smallData = FileUtils.read("small", trickle(bytes, 1000), small, -1);
+		assertThat(Arrays.copyOfRange(smallData.data, 0, smallData.length)).isEqualTo(bytes);
+
+		ByteData emptyData = FileUtils.read("empty", trickle(new byte[0], 1000), null, -1);
+		assertThat(emptyData.length).isZero();
+	}
+
+	@Test
+	public void read_known_length() throws IOException {
+		byte[] bytes = new byte[3000];
+		new Random(23).nextBytes(bytes);
+
+		byte[] buffer = new byte[4096];
+		ByteData data = FileUtils.read("known", trickle(bytes, 1000), buffer, bytes.length);
+		assertThat(data.data).isSameAs(buffer);
+		assertThat(Arrays.copyOfRange(data.data, 0, data.length)).isEqualTo(bytes);
+	}
+}
@@ -0,0 +1,302 @@
+/********************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: (EPL-2.0 OR Apache-2.0)
+ ********************************************************************************/
+
+package org.eclipse.transformer.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ZipArchiveTest {
+
+	private static final long	TIME	= newTime(2021, 3, 14, 15, 9, 26);
+
+	private static long newTime(int year, int month, int day, int hour, int minute, int second) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(year, month - 1, day, hour, minute, second);
+		return calendar.getTimeInMillis();
+	}
+
+	private static ZipEntry newEntry(String name, int method, byte[] bytes) {
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(method);
+		entry.setTime(TIME);
+		if (method == ZipEntry.STORED) {
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			entry.setCrc(crc.getValue());
+			entry.setSize(bytes.length);
+			entry.setCompressedSize(bytes.length);
+		}
+		return entry;
+	}
+
+	private static File write(File file, ByteArrayOutputStream outputStream) throws IOException {
+		Files.write(file.toPath(), outputStream.toByteArray());
+		return file;
+	}
+
+	/** Write entries which are stored, and which are deflated. */
+	private static File createArchive(File file, Map<String, byte[]> entries) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+			int entryNo = 0;
+			for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+				int method = (((entryNo++ % 2) == 0) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+				zipOutputStream.putNextEntry(newEntry(entry.getKey(), method, entry.getValue()));
+				zipOutputStream.write(entry.getValue());
+				zipOutputStream.closeEntry();
+			}
+		}
+		return write(file, outputStream);
+	}
+
+	private static Map<String, byte[]> createEntries() {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		for (int entryNo = 0; entryNo < 6; entryNo++) {
+			StringBuilder text = new StringBuilder();
+			for (int lineNo = 0; lineNo < 100 * entryNo; lineNo++) {
+				text.append("import javax.servlet.Servlet")
+					.append(lineNo)
+					.append(";\n");
+			}
+			entries.put("entry" + entryNo + ".txt", text.toString()
+				.getBytes(UTF_8));
+		}
+		return entries;
+	}
+
+	private static byte[] read(ZipArchive archive, ZipArchive.Entry entry) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (InputStream inputStream = archive.getInputStream(entry)) {
+			FileUtils.transfer(inputStream, outputStream);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static Map<String, ZipEntry> readStream(byte[] archiveBytes, Map<String, byte[]> contents)
+		throws IOException {
+		Map<String, ZipEntry> entries = new LinkedHashMap<>();
+		try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archiveBytes))) {
+			ZipEntry entry;
+			while ((entry = zipInputStream.getNextEntry()) != null) {
+				ByteArrayOutputStream entryStream = new ByteArrayOutputStream();
+				FileUtils.transfer(zipInputStream, entryStream);
+				entries.put(entry.getName(), entry);
+				contents.put(entry.getName(), entryStream.toByteArray());
+			}
+		}
+		return entries;
+	}
+
+	private static int indexOf(byte[] bytes, byte[] target) {
+		for (int pos = 0; pos <= bytes.length - target.length; pos++) {
+			int matchNo = 0;
+			while ((matchNo < target.length) && (bytes[pos + matchNo] == target[matchNo])) {
+				matchNo++;
+			}
+			if (matchNo == target.length) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	@Test
+	public void stored_and_deflated_entries(@TempDir File tempDir) throws IOException {
+		Map<String, byte[]> entries = createEntries();
+		File archiveFile = createArchive(new File(tempDir, "test.zip"), entries);
+
+		try (ZipArchive archive = ZipArchive.open(archiveFile)) {
+			assertThat(archive.getEntries()).extracting(ZipArchive.Entry::getName)
+				.containsExactlyElementsOf(entries.keySet());
+
+			int entryNo = 0;
+			for (ZipArchive.Entry entry : archive.getEntries()) {
+				int method = (((entryNo++ % 2) == 0) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+				assertThat(entry.getMethod()).as(entry.getName())
+					.isEqualTo(method);
+				assertThat(entry.getSize()).isEqualTo(entries.get(entry.getName()).length);
+				assertThat(entry.getTime()).isEqualTo(TIME);
+				assertThat(read(archive, entry)).isEqualTo(entries.get(entry.getName()));
+			}
+		}
+	}
+
+	@Test
+	public void data_descriptors_are_copied(@TempDir File tempDir) throws IOException {
+		Map<String, byte[]> entries = createEntries();
+		File archiveFile = createArchive(new File(tempDir, "test.zip"), entries);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ZipArchive archive = ZipArchive.open(archiveFile)) {
+			// Deflated entries are written by ZipOutputStream with a data
+			// descriptor, which is dropped by a raw copy.
+			assertThat(archive.getEntries()
+				.get(1).flags & ZipArchive.FLAG_DESCRIPTOR).isNotZero();
+
+			ZipArchiveWriter zipWriter = new ZipArchiveWriter(outputStream);
+			for (ZipArchive.Entry entry : archive.getEntries()) {
+				zipWriter.copyEntry(archive, entry);
+			}
+			zipWriter.finish();
+		}
+
+		Map<String, byte[]> contents = new LinkedHashMap<>();
+		Map<String, ZipEntry> outputEntries = readStream(outputStream.toByteArray(), contents);
+		assertThat(outputEntries.keySet()).containsExactlyElementsOf(entries.keySet());
+		for (String name : entries.keySet()) {
+			assertThat(contents.get(name)).as(name)
+				.isEqualTo(entries.get(name));
+			assertThat(outputEntries.get(name)
+				.getTime()).isEqualTo(TIME);
+		}
+
+		File copiedFile = write(new File(tempDir, "copied.zip"), outputStream);
+		try (ZipArchive copied = ZipArchive.open(copiedFile)) {
+			for (ZipArchive.Entry entry : copied.getEntries()) {
+				assertThat(entry.flags & ZipArchive.FLAG_DESCRIPTOR).isZero();
+				assertThat(read(copied, entry)).isEqualTo(entries.get(entry.getName()));
+			}
+		}
+	}
+
+	@Test
+	public void entry_times_are_kept(@TempDir File tempDir) throws IOException {
+		Map<String, byte[]> entries = createEntries();
+		File archiveFile = createArchive(new File(tempDir, "test.zip"), entries);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ZipArchive archive = ZipArchive.open(archiveFile)) {
+			ZipArchiveWriter zipWriter = new ZipArchiveWriter(outputStream);
+			for (ZipArchive.Entry entry : archive.getEntries()) {
+				zipWriter.transferEntry(archive, entry);
+			}
+			zipWriter.putNextEntry("new.txt", TIME);
+			zipWriter.write("new".getBytes(UTF_8));
+			zipWriter.finish();
+		}
+
+		Map<String, byte[]> contents = new LinkedHashMap<>();
+		Map<String, ZipEntry> outputEntries = readStream(outputStream.toByteArray(), contents);
+		assertThat(outputEntries).hasSize(entries.size() + 1);
+		for (ZipEntry entry : outputEntries.values()) {
+			assertThat(entry.getTime()).as(entry.getName())
+				.isEqualTo(TIME);
+		}
+	}
+
+	@Test
+	public void names_are_decoded_per_the_language_flag(@TempDir File tempDir) throws IOException {
+		byte[] bytes = "data".getBytes(UTF_8);
+
+		// "café" is 'c' 'a' 'f' 0x82 in code page 437. The language
+		// encoding flag is not set.
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, ZipArchive.CP437)) {
+			zipOutputStream.putNextEntry(newEntry("café.txt", ZipEntry.DEFLATED, bytes));
+			zipOutputStream.write(bytes);
+			zipOutputStream.closeEntry();
+		}
+		File cp437File = write(new File(tempDir, "cp437.zip"), outputStream);
+
+		// The language encoding flag is set for names which are not ASCII.
+		outputStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, UTF_8)) {
+			zipOutputStream.putNextEntry(newEntry("naïve.txt", ZipEntry.DEFLATED, bytes));
+			zipOutputStream.write(bytes);
+			zipOutputStream.closeEntry();
+		}
+		File utf8File = write(new File(tempDir, "utf8.zip"), outputStream);
+
+		try (ZipArchive archive = ZipArchive.open(cp437File)) {
+			ZipArchive.Entry entry = archive.getEntries()
+				.get(0);
+			assertThat(entry.flags & ZipArchive.FLAG_UTF8).isZero();
+			assertThat(entry.nameBytes).containsExactly('c', 'a', 'f', 0x82, '.', 't', 'x', 't');
+			if (ZipArchive.CP437.name()
+				.equals("IBM437")) {
+				assertThat(entry.getName()).isEqualTo("café.txt");
+			}
+		}
+
+		try (ZipArchive archive = ZipArchive.open(utf8File)) {
+			ZipArchive.Entry entry = archive.getEntries()
+				.get(0);
+			assertThat(entry.flags & ZipArchive.FLAG_UTF8).isNotZero();
+			assertThat(entry.getName()).isEqualTo("naïve.txt");
+		}
+	}
+
+	@Test
+	public void corrupt_data_is_rejected(@TempDir File tempDir) throws IOException {
+		byte[] bytes = "import javax.servlet.Servlet;".getBytes(UTF_8);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+			zipOutputStream.putNextEntry(newEntry("stored.txt", ZipEntry.STORED, bytes));
+			zipOutputStream.write(bytes);
+			zipOutputStream.closeEntry();
+		}
+		byte[] archiveBytes = outputStream.toByteArray();
+
+		// Change the stored data, but not the recorded CRC.
+		int dataPos = indexOf(archiveBytes, bytes);
+		assertThat(dataPos).isNotNegative();
+		archiveBytes[dataPos + 7] = 'J';
+		File archiveFile = new File(tempDir, "corrupt.zip");
+		Files.write(archiveFile.toPath(), archiveBytes);
+
+		try (ZipArchive archive = ZipArchive.open(archiveFile)) {
+			ZipArchive.Entry entry = archive.getEntries()
+				.get(0);
+			assertThatExceptionOfType(ZipException.class).isThrownBy(() -> read(archive, entry))
+				.withMessageContaining("CRC");
+		}
+	}
+
+	@Test
+	public void encrypted_entries_are_rejected(@TempDir File tempDir) throws IOException {
+		Map<String, byte[]> entries = createEntries();
+		byte[] archiveBytes = Files.readAllBytes(createArchive(new File(tempDir, "test.zip"), entries).toPath());
+
+		// Set the encryption flag of the first central directory entry.
+		int centralPos = indexOf(archiveBytes, new byte[] {
+			'P', 'K', 1, 2
+		});
+		assertThat(centralPos).isNotNegative();
+		archiveBytes[centralPos + 8] |= ZipArchive.FLAG_ENCRYPTED;
+		File archiveFile = new File(tempDir, "encrypted.zip");
+		Files.write(archiveFile.toPath(), archiveBytes);
+
+		assertThatExceptionOfType(ZipException.class).isThrownBy(() -> ZipArchive.open(archiveFile))
+			.withMessageContaining("Encrypted");
+	}
+}